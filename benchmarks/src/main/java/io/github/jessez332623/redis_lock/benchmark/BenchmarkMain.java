@@ -0,0 +1,30 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>基准测试入口，接受和 JMH 命令行完全相同的参数。</p>
+ *
+ * <p>
+ *     所有基准测试都同时使用 Throughput 和 SampleTime 两种模式
+ *     （后者给出 p50 / p99 / p999 延迟），这里再默认挂上 GC 分析器，
+ *     结果中的 gc.alloc.rate.norm 即每次操作分配的字节数。
+ * </p>
+ */
+public final class BenchmarkMain
+{
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception
+    {
+        new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireMode;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>分布式锁 withLock() 的基准测试，比较三种获取模式。</p>
+ *
+ * <ul>
+ *     <li>uncontended：每个线程使用自己的锁名，只有一次获取和一次释放</li>
+ *     <li>contended：所有线程争抢同一个锁</li>
+ *     <li>
+ *         crossKey：4 个线程争抢一个热点锁的同时，1 个线程反复获取另一个没人竞争的锁，
+ *         观察热点锁的等待方式对无关键延迟的影响（SERVER_SPIN 模式下等待在 Redis 中自旋，
+ *         会拖慢整个实例）；每轮迭代结束时打印 Redis 服务端在这一轮消耗的 CPU 时间
+ *     </li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DistributedLockBenchmark
+{
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(2L);
+    private static final Duration LOCK_TIMEOUT    = Duration.ofSeconds(5L);
+
+    private static final AtomicInteger LOCK_NAMES = new AtomicInteger();
+
+    @Param({"SERVER_SPIN", "PUB_SUB", "BACKOFF"})
+    public AcquireMode acquireMode;
+
+    private RedisFixture fixture;
+
+    private RedisDistributedLock lock;
+
+    private double cpuAtIterationStart;
+
+    /** 每个线程独占的锁名。*/
+    @State(Scope.Thread)
+    public static class ThreadLockName
+    {
+        final String lockName = "uncontended-" + LOCK_NAMES.incrementAndGet();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture = RedisFixture.start();
+        this.lock    = this.fixture.distributedLock(this.acquireMode, ExecutionMode.BOUNDED_ELASTIC);
+    }
+
+    @Setup(Level.Iteration)
+    public void markCpu() {
+        this.cpuAtIterationStart = this.fixture.serverCpuSeconds();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportCpu()
+    {
+        final double used = this.fixture.serverCpuSeconds() - this.cpuAtIterationStart;
+
+        if (!Double.isNaN(used)) {
+            System.out.printf("%n[redis] used_cpu (sys + user) in this iteration: %.3f s%n", used);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    private String
+    withLock(String lockName)
+    {
+        return
+        this.lock.withLock(lockName, ACQUIRE_TIMEOUT, LOCK_TIMEOUT, Mono::just)
+                 .onErrorResume((exception) -> Mono.just("timeout"))
+                 .block();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String
+    uncontended(ThreadLockName name) {
+        return this.withLock(name.lockName);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String
+    contended() {
+        return this.withLock("contended");
+    }
+
+    @Benchmark
+    @Group("crossKey")
+    @GroupThreads(4)
+    public String
+    hotKeyContender() {
+        return this.withLock("hot");
+    }
+
+    @Benchmark
+    @Group("crossKey")
+    @GroupThreads(1)
+    public String
+    coldKeyBystander(ThreadLockName name) {
+        return this.withLock(name.lockName);
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireMode;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 比较四种执行模式下无竞争 withLock() 的吞吐量和延迟，
+ * 差异即每次 Redis 操作前切换线程的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ExecutionModeBenchmark
+{
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(2L);
+    private static final Duration LOCK_TIMEOUT    = Duration.ofSeconds(5L);
+
+    private static final AtomicInteger LOCK_NAMES = new AtomicInteger();
+
+    @Param({"EVENT_LOOP", "PARALLEL", "VIRTUAL_THREADS", "BOUNDED_ELASTIC"})
+    public ExecutionMode executionMode;
+
+    private RedisFixture fixture;
+
+    private RedisDistributedLock lock;
+
+    /** 每个线程独占的锁名。*/
+    @State(Scope.Thread)
+    public static class ThreadLockName
+    {
+        final String lockName = "execution-mode-" + LOCK_NAMES.incrementAndGet();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture = RedisFixture.start();
+        this.lock    = this.fixture.distributedLock(AcquireMode.BACKOFF, this.executionMode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String
+    uncontendedWithLock(ThreadLockName name)
+    {
+        return
+        this.lock.withLock(name.lockName, ACQUIRE_TIMEOUT, LOCK_TIMEOUT, Mono::just)
+                 .block();
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.FAIR_SEMAPHORE;
+
+/**
+ * <p>公平信号量获取脚本新旧两种算法的基准测试。</p>
+ *
+ * <p>
+ *     ZINTERSTORE 是早先每次获取都对两个有序集合求交集的实现（见 legacy-lua 目录），
+ *     EXPIRED_ONLY 是现在只删除超时成员的实现。
+ *     初始化时先用被测脚本让 holders 个持有者占住许可（有效期足够长，测试期间不会过期），
+ *     之后每次操作直接执行一次获取脚本和一次释放脚本，不经过信号量实现，
+ *     观察单次获取的脚本开销随当前持有者数量的变化。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class FairSemaphoreAlgorithmBenchmark
+{
+    public enum Algorithm { ZINTERSTORE, EXPIRED_ONLY }
+
+    private static final long HOLDER_TIMEOUT_MILLIS = Duration.ofMinutes(30L).toMillis();
+    private static final long PERMIT_TIMEOUT_MILLIS = Duration.ofSeconds(5L).toMillis();
+
+    /** 保证测试线程总能拿到许可的空闲许可数（不少于线程数）。*/
+    private static final long FREE_PERMITS = 16L;
+
+    @Param({"ZINTERSTORE", "EXPIRED_ONLY"})
+    public Algorithm algorithm;
+
+    @Param({"10", "1000", "10000"})
+    public int holders;
+
+    private RedisFixture fixture;
+
+    private ReactiveRedisTemplate<String, LuaOperatorResult> template;
+
+    private DefaultRedisScript<List<Object>> acquireScript;
+    private DefaultRedisScript<List<Object>> releaseScript;
+
+    private List<String> keys;
+
+    private long limit;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture  = RedisFixture.start();
+        this.template = this.fixture.scriptTemplate();
+        this.limit    = this.holders + FREE_PERMITS;
+
+        this.acquireScript
+            = switch (this.algorithm)
+            {
+                case ZINTERSTORE -> legacyAcquireScript();
+
+                case EXPIRED_ONLY ->
+                    this.fixture.scriptReader()
+                        .load(FAIR_SEMAPHORE, "acquireFairSemaphore.lua");
+            };
+
+        this.releaseScript
+            = this.fixture.scriptReader()
+                  .load(FAIR_SEMAPHORE, "releaseFairSemaphore.lua");
+
+        final String semaphoreKey = this.fixture.key(this.algorithm.name());
+
+        this.keys = List.of(
+            semaphoreKey + ":{pool}",
+            semaphoreKey + ":{pool}:owner",
+            semaphoreKey + ":{pool}:counter"
+        );
+
+        final long held
+            = Flux.range(0, this.holders)
+                  .concatMap((index) ->
+                      this.acquire("holder-" + index, HOLDER_TIMEOUT_MILLIS))
+                  .filter((result) -> result.getStatus() == LuaOperatorResult.SUCCESS)
+                  .count()
+                  .block();
+
+        if (held != this.holders) {
+            throw new IllegalStateException("Only " + held + " of " + this.holders + " holders acquired!");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    private static DefaultRedisScript<List<Object>>
+    legacyAcquireScript()
+    {
+        final DefaultRedisScript<List<Object>> script = new DefaultRedisScript<>();
+
+        script.setScriptSource(
+            new ResourceScriptSource(
+                new ClassPathResource("legacy-lua/acquireFairSemaphoreZInterStore.lua")));
+
+        @SuppressWarnings("unchecked")
+        final Class<List<Object>> resultType = (Class<List<Object>>) (Class<?>) List.class;
+
+        script.setResultType(resultType);
+
+        return script;
+    }
+
+    private Flux<LuaOperatorResult>
+    acquire(String identifier, long timeoutMillis)
+    {
+        return
+        this.template
+            .execute(this.acquireScript, this.keys, this.limit, timeoutMillis, identifier)
+            .map(LuaOperatorResult::decode);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public LuaOperatorResult
+    acquireAndRelease()
+    {
+        final String identifier = "bench-" + this.sequence.incrementAndGet();
+
+        return
+        this.acquire(identifier, PERMIT_TIMEOUT_MILLIS)
+            .concatWith(
+                this.template
+                    .execute(this.releaseScript, this.keys.subList(0, 2), identifier)
+                    .map(LuaOperatorResult::decode))
+            .blockLast();
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.fair_semaphore.RedisFairSemaphore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>公平信号量 withFairSemaphore() 的基准测试。</p>
+ *
+ * <p>
+ *     初始化时先让 holders 个持有者占住许可（有效期足够长，测试期间不会过期），
+ *     之后每次操作在 limit = holders + freePermits 的信号量上获取、释放一个许可，
+ *     观察单次获取的开销随当前持有者数量的变化。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class FairSemaphoreBenchmark
+{
+    private static final Duration HOLDER_TIMEOUT = Duration.ofMinutes(30L);
+    private static final Duration PERMIT_TIMEOUT = Duration.ofSeconds(5L);
+
+    @Param({"10", "1000", "10000"})
+    public int holders;
+
+    /** 不少于线程数，保证测试线程总能拿到许可。*/
+    @Param({"4", "64"})
+    public int freePermits;
+
+    private RedisFixture fixture;
+
+    private RedisFairSemaphore semaphore;
+
+    private long limit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture   = RedisFixture.start();
+        this.semaphore = this.fixture.fairSemaphore(ExecutionMode.EVENT_LOOP);
+        this.limit     = this.holders + this.freePermits;
+
+        final long held
+            = Flux.range(0, this.holders)
+                  .flatMap((index) ->
+                      this.semaphore.tryAcquire("pool", this.limit, HOLDER_TIMEOUT), 64)
+                  .filter((permit) -> permit.isPresent())
+                  .count()
+                  .block();
+
+        if (held != this.holders) {
+            throw new IllegalStateException("Only " + held + " of " + this.holders + " holders acquired!");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String
+    withFairSemaphore()
+    {
+        return
+        this.semaphore
+            .withFairSemaphore("pool", this.limit, PERMIT_TIMEOUT, Mono::just)
+            .block();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** 默认唯一标识符生成器和 UUID.randomUUID() 的对比（多线程同时生成）。*/
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class IdentifierGeneratorBenchmark
+{
+    private final IdentifierGenerator generator = new DefaultIdentifierGenerator("bench");
+
+    @Benchmark
+    public String
+    defaultGenerator() {
+        return this.generator.nextIdentifier();
+    }
+
+    @Benchmark
+    public String
+    randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+}
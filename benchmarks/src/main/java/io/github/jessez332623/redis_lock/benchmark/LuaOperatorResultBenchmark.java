@@ -0,0 +1,56 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** 解析脚本返回值的开销（客户端已经把 RESP 数组解析成 List，这里只测量之后的部分）。*/
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LuaOperatorResultBenchmark
+{
+    private final List<Object> success      = List.of(0L);
+    private final List<Object> lockOccupied = List.of(1L, 29_873L);
+    private final List<Object> lostIndices  = List.of(0L, 2L, 5L, 7L);
+
+    @Benchmark
+    public LuaOperatorResult
+    decodeSuccess() {
+        return LuaOperatorResult.decode(this.success);
+    }
+
+    @Benchmark
+    public long
+    decodeLockOccupied() {
+        return LuaOperatorResult.decode(this.lockOccupied).getValueOrDefault(0, -1L);
+    }
+
+    @Benchmark
+    public long
+    decodeLostIndices()
+    {
+        final LuaOperatorResult result = LuaOperatorResult.decode(this.lostIndices);
+
+        long sum = 0L;
+
+        for (int index = 0; index < result.getValueCount(); ++index) {
+            sum += result.getValue(index);
+        }
+
+        return sum;
+    }
+}
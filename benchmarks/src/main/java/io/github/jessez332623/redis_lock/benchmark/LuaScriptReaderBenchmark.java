@@ -0,0 +1,50 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.DISTRIBUTE_LOCK;
+
+/** 脚本缓存命中时 {@link LuaScriptReader} 的开销（read() 额外包装了一层 Mono）。*/
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LuaScriptReaderBenchmark
+{
+    private LuaScriptReader scriptReader;
+
+    @Setup
+    public void setUp()
+    {
+        this.scriptReader = new LuaScriptReader();
+        this.scriptReader.load(DISTRIBUTE_LOCK, "acquireLock.lua");
+    }
+
+    @Benchmark
+    public DefaultRedisScript<List<Object>>
+    load() {
+        return this.scriptReader.load(DISTRIBUTE_LOCK, "acquireLock.lua");
+    }
+
+    @Benchmark
+    public DefaultRedisScript<List<Object>>
+    read() {
+        return this.scriptReader.read(DISTRIBUTE_LOCK, "acquireLock.lua").block();
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>仲裁锁 withLock() 的基准测试，比较不同的节点数。</p>
+ *
+ * <p>
+ *     获取和释放都并行地发往所有节点，延迟应当接近第 N / 2 + 1 快的节点的往返时间，
+ *     而不是随节点数线性增长；nodes = 1 时和单节点的分布式锁做的事情相同，可以作为基线。
+ *     使用 <code>-Dredis.quorum.urls</code> 指定的节点时，nodes 参数应当和 URL 的数量一致。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class QuorumLockBenchmark
+{
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(2L);
+    private static final Duration LOCK_TIMEOUT    = Duration.ofSeconds(5L);
+
+    private static final AtomicInteger LOCK_NAMES = new AtomicInteger();
+
+    @Param({"1", "3", "5"})
+    public int nodes;
+
+    private List<RedisFixture> fixtures;
+
+    private RedisDistributedLock lock;
+
+    /** 每个线程独占的锁名。*/
+    @State(Scope.Thread)
+    public static class ThreadLockName
+    {
+        final String lockName = "uncontended-" + LOCK_NAMES.incrementAndGet();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixtures = RedisFixture.startQuorum(this.nodes);
+        this.lock     = RedisFixture.quorumLock(this.fixtures, ExecutionMode.EVENT_LOOP);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        for (RedisFixture fixture : this.fixtures) {
+            fixture.close();
+        }
+    }
+
+    private String
+    withLock(String lockName)
+    {
+        return
+        this.lock.withLock(lockName, ACQUIRE_TIMEOUT, LOCK_TIMEOUT, Mono::just)
+                 .onErrorResume((exception) -> Mono.just("timeout"))
+                 .block();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String
+    uncontended(ThreadLockName name) {
+        return this.withLock(name.lockName);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String
+    contended() {
+        return this.withLock("contended");
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.rate_limiter.RateLimit;
+import io.github.jessez332623.redis_lock.rate_limiter.RateLimitAlgorithm;
+import io.github.jessez332623.redis_lock.rate_limiter.RateLimitDecision;
+import io.github.jessez332623.redis_lock.rate_limiter.RedisRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>分布式限流器 tryAcquire() 的基准测试。</p>
+ *
+ * <p>
+ *     所有线程对同一个限流键获取配额，limit 足够大时几乎总是获取成功，
+ *     较小时大部分调用被拒绝（被拒绝的调用同样只执行一次脚本）；
+ *     permits 大于 1 时观察批量获取相对于单个获取的额外开销，
+ *     滑动窗口日志的有序集合随窗口内的获取次数增长，GCRA 始终只有一个字符串键。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RateLimiterBenchmark
+{
+    private static final Duration PERIOD = Duration.ofSeconds(1L);
+
+    @Param({"GCRA", "SLIDING_WINDOW_LOG"})
+    public RateLimitAlgorithm algorithm;
+
+    /** 每秒的配额数量。*/
+    @Param({"1000", "1000000"})
+    public long limit;
+
+    /** 每次获取的配额数量。*/
+    @Param({"1", "10"})
+    public long permits;
+
+    private RedisFixture fixture;
+
+    private RedisRateLimiter rateLimiter;
+
+    private RateLimit rateLimit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture     = RedisFixture.start();
+        this.rateLimiter = this.fixture.rateLimiter(ExecutionMode.EVENT_LOOP);
+        this.rateLimit
+            = switch (this.algorithm)
+            {
+                case GCRA -> RateLimit.gcra(this.limit, PERIOD);
+
+                case SLIDING_WINDOW_LOG -> RateLimit.slidingWindow(this.limit, PERIOD);
+            };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimitDecision
+    tryAcquire()
+    {
+        return
+        this.rateLimiter
+            .tryAcquire("api", this.rateLimit, this.permits)
+            .block();
+    }
+}
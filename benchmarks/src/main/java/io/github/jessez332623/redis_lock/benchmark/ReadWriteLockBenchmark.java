@@ -0,0 +1,96 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireMode;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisReadWriteLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>读写锁的读者扩展性基准测试。</p>
+ *
+ * <p>
+ *     每次操作同时发起 readers 个持有锁 1 毫秒的读者，等它们全部完成，
+ *     得分是 "批次 / 毫秒"，乘以 readers 即读者吞吐量。
+ *     exclusiveLock 用普通分布式锁做同样的事情作为对照，读者之间只能串行。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ReadWriteLockBenchmark
+{
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(10L);
+    private static final Duration LOCK_TIMEOUT    = Duration.ofSeconds(5L);
+    private static final Duration HOLD_TIME       = Duration.ofMillis(1L);
+
+    @Param({"1", "4", "16", "64"})
+    public int readers;
+
+    private RedisFixture fixture;
+
+    private RedisReadWriteLock readWriteLock;
+
+    private RedisDistributedLock exclusiveLock;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture       = RedisFixture.start();
+        this.readWriteLock = this.fixture.readWriteLock(ExecutionMode.EVENT_LOOP);
+        this.exclusiveLock = this.fixture.distributedLock(AcquireMode.BACKOFF, ExecutionMode.EVENT_LOOP);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    @Benchmark
+    public Object
+    readLock()
+    {
+        return
+        Flux.range(0, this.readers)
+            .flatMap((index) ->
+                this.readWriteLock.withReadLock(
+                    "config", ACQUIRE_TIMEOUT, LOCK_TIMEOUT,
+                    (identifier) -> Mono.delay(HOLD_TIME)),
+                this.readers)
+            .blockLast();
+    }
+
+    @Benchmark
+    public Object
+    exclusiveLock()
+    {
+        return
+        Flux.range(0, this.readers)
+            .flatMap((index) ->
+                this.exclusiveLock.withLock(
+                    "config", ACQUIRE_TIMEOUT, LOCK_TIMEOUT,
+                    (identifier) -> Mono.delay(HOLD_TIME)),
+                this.readers)
+            .blockLast();
+    }
+}
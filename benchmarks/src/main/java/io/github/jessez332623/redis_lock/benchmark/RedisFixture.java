@@ -0,0 +1,339 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.autoconfigure.RedisLockAutoConfiguration;
+import io.github.jessez332623.redis_lock.autoconfigure.RedisLockProperties;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireMode;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisReadWriteLock;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DefaultRedisDistributedLockImpl;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DefaultRedisQuorumLockImpl;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DefaultRedisReadWriteLockImpl;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DistributedLockOptions;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy.BackoffPolicy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.PubSubAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.ServerSpinAcquireStrategy;
+import io.github.jessez332623.redis_lock.fair_semaphore.RedisFairSemaphore;
+import io.github.jessez332623.redis_lock.fair_semaphore.impl.DefaultRedisFairSemaphoreImpl;
+import io.github.jessez332623.redis_lock.fair_semaphore.impl.FairSemaphoreOptions;
+import io.github.jessez332623.redis_lock.rate_limiter.RedisRateLimiter;
+import io.github.jessez332623.redis_lock.rate_limiter.impl.DefaultRedisRateLimiterImpl;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
+import io.lettuce.core.RedisURI;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * <p>基准测试共用的 Redis 环境。</p>
+ *
+ * <p>
+ *     通过 <code>-Dredis.url</code> 指定 Redis 服务（默认为 redis://localhost:6379），
+ *     设置为 <code>embedded</code> 时在进程内启动 jedis-mock 作为替身。
+ *     替身是单线程的 Java 实现，只适合比较同一次运行中不同参数的相对差异，
+ *     绝对数值请以真实的 redis-server 为准。
+ * </p>
+ *
+ * <p>
+ *     仲裁锁需要多个独立的 Redis，通过 <code>-Dredis.quorum.urls</code> 指定（逗号分隔），
+ *     没有指定时启动相应数量的进程内替身。
+ * </p>
+ *
+ * <p>
+ *     每个 Fixture 使用独立的键前缀，不会清空 Redis 中已有的数据。
+ * </p>
+ */
+final class RedisFixture implements AutoCloseable
+{
+    static final Duration OPERATION_TIMEOUT = Duration.ofSeconds(5L);
+
+    private static final BackoffPolicy
+    BENCHMARK_BACKOFF
+        = new BackoffPolicy(Duration.ofMillis(1L), 2.0, Duration.ofMillis(50L));
+
+    private final RedisServer embeddedServer;
+
+    private final LettuceConnectionFactory connectionFactory;
+
+    private final ReactiveRedisTemplate<String, LuaOperatorResult> scriptTemplate;
+
+    private final LuaScriptReader scriptReader = new LuaScriptReader();
+
+    private final RedisLockAutoConfiguration configuration = new RedisLockAutoConfiguration();
+
+    /** 本 Fixture 创建的所有资源，关闭时逆序释放。*/
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    /** 本 Fixture 所有键的前缀。*/
+    private final String keyPrefix = "bench-" + Long.toString(System.nanoTime(), 36);
+
+    private RedisFixture(RedisServer embeddedServer, RedisURI redisUri)
+    {
+        this.embeddedServer = embeddedServer;
+
+        final RedisStandaloneConfiguration standalone
+            = new RedisStandaloneConfiguration(redisUri.getHost(), redisUri.getPort());
+
+        if (Objects.nonNull(redisUri.getPassword())) {
+            standalone.setPassword(redisUri.getPassword());
+        }
+
+        this.connectionFactory = new LettuceConnectionFactory(standalone);
+        this.connectionFactory.afterPropertiesSet();
+        this.connectionFactory.start();
+
+        this.scriptTemplate
+            = this.configuration.redisLockScriptTemplate(this.connectionFactory);
+    }
+
+    /** 按照 -Dredis.url 连接 Redis（或者启动进程内替身）。*/
+    static RedisFixture
+    start() throws Exception {
+        return start(System.getProperty("redis.url", "redis://localhost:6379"));
+    }
+
+    /** 按照指定的 URL 连接 Redis（或者启动进程内替身）。*/
+    static RedisFixture
+    start(String redisUrl) throws Exception
+    {
+        if ("embedded".equalsIgnoreCase(redisUrl))
+        {
+            final RedisServer server = RedisServer.newRedisServer(0).start();
+
+            return new
+            RedisFixture(server, RedisURI.create(server.getHost(), server.getBindPort()));
+        }
+
+        return new
+        RedisFixture(null, RedisURI.create(redisUrl));
+    }
+
+    /**
+     * 按照 -Dredis.quorum.urls 连接多个独立的 Redis，
+     * 没有指定时启动 nodes 个进程内替身。
+     */
+    static List<RedisFixture>
+    startQuorum(int nodes) throws Exception
+    {
+        final String quorumUrls = System.getProperty("redis.quorum.urls");
+
+        final List<String> redisUrls
+            = (Objects.isNull(quorumUrls))
+                ? Collections.nCopies(nodes, "embedded")
+                : List.of(quorumUrls.split(","));
+
+        final List<RedisFixture> fixtures = new ArrayList<>();
+
+        for (String redisUrl : redisUrls) {
+            fixtures.add(start(redisUrl.trim()));
+        }
+
+        return fixtures;
+    }
+
+    /** 在多个 Fixture 的 Redis 上创建仲裁锁（键前缀使用第一个 Fixture 的）。*/
+    static RedisDistributedLock
+    quorumLock(List<RedisFixture> fixtures, ExecutionMode executionMode)
+    {
+        final RedisFixture first = fixtures.getFirst();
+
+        return new
+        DefaultRedisQuorumLockImpl(
+            first.key("lock"),
+            first.scriptReader,
+            fixtures.stream()
+                .map(RedisFixture::scriptTemplate)
+                .toList(),
+            first.scheduler(executionMode),
+            OPERATION_TIMEOUT,
+            first.acquireStrategy(AcquireMode.BACKOFF),
+            new DefaultIdentifierGenerator("bench"),
+            LockMetricsRecorder.NOOP,
+            DefaultRedisQuorumLockImpl.DEFAULT_CLOCK_DRIFT_FACTOR
+        );
+    }
+
+    String key(String name) {
+        return this.keyPrefix + ":" + name;
+    }
+
+    /** 直接执行脚本用的模板（和各个实现共用同一个）。*/
+    ReactiveRedisTemplate<String, LuaOperatorResult>
+    scriptTemplate() {
+        return this.scriptTemplate;
+    }
+
+    LuaScriptReader
+    scriptReader() {
+        return this.scriptReader;
+    }
+
+    /** 按照执行模式创建调度器（和自动装配使用同一个方法）。*/
+    Scheduler
+    scheduler(ExecutionMode executionMode)
+    {
+        final RedisLockProperties properties = new RedisLockProperties();
+        properties.getSchedulers().setExecutionMode(executionMode);
+
+        final Scheduler scheduler
+            = this.configuration.distributedLockScheduler(properties);
+
+        this.resources.add(scheduler::dispose);
+
+        return scheduler;
+    }
+
+    /** 按照获取模式创建获取策略。*/
+    AcquireStrategy
+    acquireStrategy(AcquireMode acquireMode)
+    {
+        return
+        switch (acquireMode)
+        {
+            case SERVER_SPIN -> new ServerSpinAcquireStrategy();
+
+            case PUB_SUB ->
+            {
+                final ReactiveRedisMessageListenerContainer container
+                    = new ReactiveRedisMessageListenerContainer(this.connectionFactory);
+
+                this.resources.add(container::destroy);
+
+                yield new PubSubAcquireStrategy(container);
+            }
+
+            case BACKOFF -> new BackoffAcquireStrategy(BENCHMARK_BACKOFF, Map.of());
+        };
+    }
+
+    RedisDistributedLock
+    distributedLock(AcquireMode acquireMode, ExecutionMode executionMode) {
+        return this.distributedLock(acquireMode, executionMode, null);
+    }
+
+    /** releaseBatch 为 null 时每次释放单独执行脚本。*/
+    RedisDistributedLock
+    distributedLock(
+        AcquireMode acquireMode, ExecutionMode executionMode,
+        ReleaseBatcher.Policy releaseBatch)
+    {
+        return new
+        DefaultRedisDistributedLockImpl(
+            this.key("lock"),
+            this.scriptReader,
+            this.scriptTemplate,
+            this.scheduler(executionMode),
+            OPERATION_TIMEOUT,
+            DistributedLockOptions.builder()
+                .acquireStrategy(this.acquireStrategy(acquireMode))
+                .identifierGenerator(new DefaultIdentifierGenerator("bench"))
+                .releaseBatch(releaseBatch)
+                .build()
+        );
+    }
+
+    RedisReadWriteLock
+    readWriteLock(ExecutionMode executionMode)
+    {
+        return new
+        DefaultRedisReadWriteLockImpl(
+            this.key("lock"),
+            this.scriptReader,
+            this.scriptTemplate,
+            this.scheduler(executionMode),
+            OPERATION_TIMEOUT,
+            this.acquireStrategy(AcquireMode.BACKOFF),
+            null,
+            new DefaultIdentifierGenerator("bench")
+        );
+    }
+
+    RedisFairSemaphore
+    fairSemaphore(ExecutionMode executionMode)
+    {
+        return new
+        DefaultRedisFairSemaphoreImpl(
+            this.key("semaphore"),
+            this.scriptReader,
+            this.scriptTemplate,
+            this.scheduler(executionMode),
+            OPERATION_TIMEOUT,
+            FairSemaphoreOptions.builder()
+                .identifierGenerator(new DefaultIdentifierGenerator("bench"))
+                .build()
+        );
+    }
+
+    RedisRateLimiter
+    rateLimiter(ExecutionMode executionMode)
+    {
+        return new
+        DefaultRedisRateLimiterImpl(
+            this.key("rate-limit"),
+            this.scriptReader,
+            this.scriptTemplate,
+            this.scheduler(executionMode),
+            OPERATION_TIMEOUT,
+            new DefaultIdentifierGenerator("bench"),
+            LockMetricsRecorder.NOOP
+        );
+    }
+
+    /**
+     * 读取 Redis 服务端累计消耗的 CPU 时间（INFO cpu 中 used_cpu_sys + used_cpu_user，单位秒），
+     * 服务端不支持时返回 NaN。
+     */
+    double
+    serverCpuSeconds()
+    {
+        try (RedisConnection connection = this.connectionFactory.getConnection())
+        {
+            final Properties info = connection.serverCommands().info("cpu");
+
+            if (Objects.isNull(info)
+                || !info.containsKey("used_cpu_sys")
+                || !info.containsKey("used_cpu_user")) {
+                return Double.NaN;
+            }
+
+            return
+            Double.parseDouble(info.getProperty("used_cpu_sys")) +
+            Double.parseDouble(info.getProperty("used_cpu_user"));
+        }
+        catch (Exception exception) {
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        for (int index = this.resources.size() - 1; index >= 0; --index) {
+            this.resources.get(index).close();
+        }
+
+        this.connectionFactory.destroy();
+
+        if (Objects.nonNull(this.embeddedServer)) {
+            this.embeddedServer.stop();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.jessez332623.redis_lock.benchmark;
+
+import io.github.jessez332623.redis_lock.autoconfigure.ExecutionMode;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireMode;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>释放操作微批处理的基准测试，比较每次释放单独执行脚本和合并执行。</p>
+ *
+ * <p>
+ *     每个线程使用自己的锁名，所以两组的获取脚本完全相同，差别只在释放上：
+ *     lowLoad 只有 1 个线程，释放操作总是立即发出，两组的延迟应当相同；
+ *     highLoad 有 32 个线程，同时执行的释放脚本达到 maxInFlight 后释放操作开始合并，
+ *     Redis 收到的脚本调用次数减少，吞吐量应当更高。
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ReleaseBatchBenchmark
+{
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(2L);
+    private static final Duration LOCK_TIMEOUT    = Duration.ofSeconds(5L);
+
+    private static final AtomicInteger LOCK_NAMES = new AtomicInteger();
+
+    @Param({"false", "true"})
+    public boolean batched;
+
+    private RedisFixture fixture;
+
+    private RedisDistributedLock lock;
+
+    /** 每个线程独占的锁名。*/
+    @State(Scope.Thread)
+    public static class ThreadLockName
+    {
+        final String lockName = "release-" + LOCK_NAMES.incrementAndGet();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        this.fixture = RedisFixture.start();
+        this.lock
+            = this.fixture.distributedLock(
+                AcquireMode.BACKOFF, ExecutionMode.EVENT_LOOP,
+                (this.batched) ? new ReleaseBatcher.Policy(64, 4) : null
+            );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.fixture.close();
+    }
+
+    private String
+    withLock(String lockName)
+    {
+        return
+        this.lock.withLock(lockName, ACQUIRE_TIMEOUT, LOCK_TIMEOUT, Mono::just)
+                 .onErrorResume((exception) -> Mono.just("timeout"))
+                 .block();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String
+    lowLoad(ThreadLockName name) {
+        return this.withLock(name.lockName);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String
+    highLoad(ThreadLockName name) {
+        return this.withLock(name.lockName);
+    }
+}
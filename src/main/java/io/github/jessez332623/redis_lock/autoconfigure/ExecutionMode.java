@@ -0,0 +1,30 @@
+package io.github.jessez332623.redis_lock.autoconfigure;
+
+/**
+ * <p>Redis Lock 执行模式枚举，决定每次 Redis 操作订阅在哪个调度器上。</p>
+ *
+ * <p>
+ *     Redis 客户端本身就是非阻塞的，无论订阅在哪里，脚本的执行结果都是在客户端的 I/O 线程上发布的，
+ *     因此切换线程只影响发起请求的那一小段代码，换来的是每次操作一次上下文切换。
+ * </p>
+ */
+public enum ExecutionMode
+{
+    /**
+     * 不切换线程，直接在调用者的线程（通常就是 Netty 事件循环）上发起请求，开销最小。
+     * 注意此时 withLock() 等方法中的业务逻辑同样运行在 I/O 线程上，不能执行阻塞操作。
+     */
+    EVENT_LOOP,
+
+    /** 切换到 Reactor 共享的 parallel 调度器（线程数等于 CPU 核数）。*/
+    PARALLEL,
+
+    /** 每个操作切换到一个新的虚拟线程上（需要 JDK 21）。*/
+    VIRTUAL_THREADS,
+
+    /**
+     * 切换到本依赖专用的 boundedElastic 调度器，
+     * 线程数和任务队列容量由 schedulers 下的其他属性决定（兼容旧版本的行为）。
+     */
+    BOUNDED_ELASTIC
+}
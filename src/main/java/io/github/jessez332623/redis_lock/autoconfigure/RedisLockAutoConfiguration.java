@@ -1,14 +1,40 @@
 package io.github.jessez332623.redis_lock.autoconfigure;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.jessez332623.redis_lock.circuit_breaker.RedisCircuitBreaker;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
 import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisReadWriteLock;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisReentrantLock;
 import io.github.jessez332623.redis_lock.distributed_lock.impl.DefaultRedisDistributedLockImpl;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DefaultRedisReadWriteLockImpl;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DefaultRedisReentrantLockImpl;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.DistributedLockOptions;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy.BackoffPolicy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.PubSubAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.ServerSpinAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLeaseWatchdog;
 import io.github.jessez332623.redis_lock.fair_semaphore.RedisFairSemaphore;
 import io.github.jessez332623.redis_lock.fair_semaphore.impl.DefaultRedisFairSemaphoreImpl;
+import io.github.jessez332623.redis_lock.fair_semaphore.impl.FairSemaphoreOptions;
+import io.github.jessez332623.redis_lock.fair_semaphore.refresher.SemaphoreRefresher;
+import io.github.jessez332623.redis_lock.rate_limiter.RedisRateLimiter;
+import io.github.jessez332623.redis_lock.rate_limiter.impl.DefaultRedisRateLimiterImpl;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.impl.HotKeyTracker;
+import io.github.jessez332623.redis_lock.statistics.impl.MicrometerLockMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
 import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
 import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import io.github.jessez332623.redis_lock.utils.RedisLockScriptTemplates;
+import io.github.jessez332623.redis_lock.utils.RedisKeySlots;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -17,15 +43,17 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
-import org.springframework.data.redis.serializer.RedisSerializer;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
 /** Redis-Lock Spring 自动配置类。*/
 @Slf4j
 @Configuration
@@ -49,7 +77,7 @@ public class RedisLockAutoConfiguration
         return new LuaScriptReader();
     }
 
-    /** Redis Lock 专用的线程调度器 Bean。*/
+    /** Redis Lock 专用的线程调度器 Bean，按照配置的执行模式创建。*/
     @Bean(name = "distributedLockScheduler")
     public Scheduler
     distributedLockScheduler(RedisLockProperties properties)
@@ -58,13 +86,32 @@ public class RedisLockAutoConfiguration
             schedulersProperties = properties.getSchedulers();
 
         return
-        Schedulers.newBoundedElastic(
-            schedulersProperties.getMaxThreads(),
-            schedulersProperties.getTaskQueueCapacity(),
-            schedulersProperties.getThreadName(),
-            schedulersProperties.getTtlSeconds(),
-            schedulersProperties.isDaemon()
-        );
+        switch (schedulersProperties.getExecutionMode())
+        {
+            // immediate() 上的 subscribeOn() 直接在当前线程执行，没有线程切换
+            case EVENT_LOOP -> Schedulers.immediate();
+
+            // 共享的调度器，对它调用 dispose() 是无效的，不会影响其他使用者
+            case PARALLEL -> Schedulers.parallel();
+
+            case VIRTUAL_THREADS ->
+                Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual()
+                              .name(schedulersProperties.getThreadName() + "-", 0L)
+                              .factory()),
+                    schedulersProperties.getThreadName()
+                );
+
+            case BOUNDED_ELASTIC ->
+                Schedulers.newBoundedElastic(
+                    schedulersProperties.getMaxThreads(),
+                    schedulersProperties.getTaskQueueCapacity(),
+                    schedulersProperties.getThreadName(),
+                    schedulersProperties.getTtlSeconds(),
+                    schedulersProperties.isDaemon()
+                );
+        };
     }
 
     /**
@@ -82,26 +129,8 @@ public class RedisLockAutoConfiguration
     {
         try
         {
-            RedisSerializer<String> keySerializer = new StringRedisSerializer();
-
-            Jackson2JsonRedisSerializer<LuaOperatorResult> valueSerializer
-                = new Jackson2JsonRedisSerializer<>(
-                new ObjectMapper()
-                    .findAndRegisterModules()
-                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
-                LuaOperatorResult.class
-            );
-
-            RedisSerializationContext<String, LuaOperatorResult> context
-                = RedisSerializationContext.<String, LuaOperatorResult>
-                    newSerializationContext(keySerializer)
-                .value(valueSerializer)
-                .hashKey(keySerializer)
-                .hashValue(valueSerializer)
-                .build();
-
-            return new
-            ReactiveRedisTemplate<>(factory, context);
+            return
+            RedisLockScriptTemplates.create(factory);
         }
         catch (Exception exception)
         {
@@ -115,6 +144,279 @@ public class RedisLockAutoConfiguration
         }
     }
 
+    /**
+     * 应用启动时（所有单例创建完毕，各实现类已经在构造时解析好自己要用的脚本之后），
+     * 对所有脚本执行 SCRIPT LOAD，消除首次调用的冷启动开销。
+     * 预加载失败（比如启动时 Redis 暂时不可用）不影响正确性，
+     * 脚本会在第一次 EVALSHA 回复 NOSCRIPT 时自动重新加载。
+     */
+    @Bean
+    public SmartInitializingSingleton
+    redisLockScriptPreloader(
+        RedisLockProperties properties,
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate
+    )
+    {
+        return () -> {
+            try
+            {
+                final Long preloaded
+                    = luaScriptReader.preload(redisLockScriptTemplate)
+                                     .block(properties.getOperationTimeout());
+
+                log.info("Preloaded {} Redis-Lock lua script(s).", preloaded);
+            }
+            catch (Exception exception)
+            {
+                log.warn(
+                    "Preload Redis-Lock lua scripts failed, they will be loaded on first use. Caused by: {}",
+                    exception.getMessage()
+                );
+            }
+        };
+    }
+
+    /**
+     * Redis-Lock 依赖专用的消息监听容器，用于订阅锁的释放频道。
+     * 懒加载，只有在分布式锁使用 PUB_SUB 获取模式时才会创建（并占用一个订阅连接）。
+     */
+    @Lazy
+    @Bean
+    @ConditionalOnBean(ReactiveRedisConnectionFactory.class)
+    @ConditionalOnMissingBean(name = "redisLockMessageListenerContainer")
+    public ReactiveRedisMessageListenerContainer
+    redisLockMessageListenerContainer(ReactiveRedisConnectionFactory factory) {
+        return new ReactiveRedisMessageListenerContainer(factory);
+    }
+
+    /**
+     * Redis 分布式锁获取策略的自动装配方法，按照配置的获取模式创建，
+     * 使用者也可以注册自己的 {@link AcquireStrategy} Bean 来替换它。
+     */
+    @Bean
+    @ConditionalOnMissingBean(AcquireStrategy.class)
+    public AcquireStrategy
+    redisLockAcquireStrategy(
+        RedisLockProperties properties,
+        @Qualifier("redisLockMessageListenerContainer")
+        ObjectProvider<ReactiveRedisMessageListenerContainer> listenerContainer
+    )
+    {
+        final RedisLockProperties.DistributedLockProperties
+            lockProperties = properties.getDistributedLock();
+
+        return
+        switch (lockProperties.getAcquireMode())
+        {
+            case SERVER_SPIN -> new ServerSpinAcquireStrategy();
+
+            case PUB_SUB ->
+                new PubSubAcquireStrategy(listenerContainer.getObject());
+
+            case BACKOFF -> toBackoffAcquireStrategy(lockProperties);
+        };
+    }
+
+    private static BackoffAcquireStrategy
+    toBackoffAcquireStrategy(
+        RedisLockProperties.DistributedLockProperties lockProperties)
+    {
+        final Map<String, BackoffPolicy> lockPolicies
+            = lockProperties.getLockBackoff()
+                .entrySet().stream()
+                .collect(Collectors.toMap(
+                    Map.Entry::getKey,
+                    (entry) -> toBackoffPolicy(entry.getValue())
+                ));
+
+        return new
+        BackoffAcquireStrategy(
+            toBackoffPolicy(lockProperties.getBackoff()), lockPolicies
+        );
+    }
+
+    private static BackoffPolicy
+    toBackoffPolicy(RedisLockProperties.BackoffProperties backoff)
+    {
+        return new
+        BackoffPolicy(
+            backoff.getInitialDelay(),
+            backoff.getMultiplier(),
+            backoff.getMaxDelay()
+        );
+    }
+
+    /** 释放操作微批处理的参数，没有启用时返回 null（每次释放单独执行脚本）。*/
+    private static ReleaseBatcher.Policy
+    toReleaseBatchPolicy(RedisLockProperties.ReleaseBatchProperties releaseBatch)
+    {
+        return
+        (releaseBatch.isEnabled())
+            ? new ReleaseBatcher.Policy(releaseBatch.getMaxBatchSize(), releaseBatch.getMaxInFlight())
+            : null;
+    }
+
+    /**
+     * 锁、信号量唯一标识符生成器的自动装配方法，
+     * 使用者也可以注册自己的 {@link IdentifierGenerator} Bean 来替换它。
+     */
+    @Bean
+    @ConditionalOnMissingBean(IdentifierGenerator.class)
+    public IdentifierGenerator
+    redisLockIdentifierGenerator(RedisLockProperties properties) {
+        return new DefaultIdentifierGenerator(properties.getNodeName());
+    }
+
+    /**
+     * 热点锁名跟踪器的自动装配方法（需要显式启用），
+     * 它和耗时指标记录器一样是一个 {@link LockMetricsRecorder}，会和其他记录器组合在一起使用。
+     */
+    @Bean
+    @ConditionalOnMissingBean(HotKeyTracker.class)
+    @ConditionalOnProperty(
+        prefix      = "app.redis-lock.hot-keys",
+        name        = "enabled",
+        havingValue = "true"
+    )
+    public HotKeyTracker
+    redisLockHotKeyTracker(RedisLockProperties properties)
+    {
+        final RedisLockProperties.HotKeysProperties
+            hotKeys = properties.getHotKeys();
+
+        return new
+        HotKeyTracker(
+            hotKeys.getCapacity(),
+            hotKeys.getSketchWidth(),
+            hotKeys.getSketchDepth(),
+            hotKeys.getSlowAcquireThreshold()
+        );
+    }
+
+    /** 把容器中所有的 {@link LockMetricsRecorder} 组合成一个交给锁、信号量实现。*/
+    private static LockMetricsRecorder
+    toLockMetricsRecorder(ObjectProvider<LockMetricsRecorder> metrics) {
+        return LockMetricsRecorder.composite(metrics.orderedStream().toList());
+    }
+
+    /**
+     * 热点锁名 Actuator 端点的自动配置，只有类路径上存在 Actuator 且启用了热点锁名跟踪时才会加载。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @ConditionalOnProperty(
+        prefix      = "app.redis-lock.hot-keys",
+        name        = "enabled",
+        havingValue = "true"
+    )
+    public static class RedisLockHotKeysEndpointConfiguration
+    {
+        @Bean
+        @ConditionalOnMissingBean(RedisLockHotKeysEndpoint.class)
+        public RedisLockHotKeysEndpoint
+        redisLockHotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+            return new RedisLockHotKeysEndpoint(hotKeyTracker);
+        }
+    }
+
+    /**
+     * 耗时指标的自动配置，只有类路径上存在 Micrometer 时才会加载
+     * （放在内部类中，避免没有 Micrometer 时解析本配置类的方法签名失败）。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    public static class RedisLockMetricsConfiguration
+    {
+        /**
+         * 基于 Micrometer 的耗时指标记录器，容器中没有（唯一的）MeterRegistry 时不记录。
+         * 使用者注册的其他 {@link LockMetricsRecorder} Bean 会和它组合在一起使用，
+         * 要替换它请注册自己的 {@link MicrometerLockMetricsRecorder} Bean 或关闭 app.redis-lock.metrics.enabled。
+         */
+        @Bean
+        @ConditionalOnMissingBean(MicrometerLockMetricsRecorder.class)
+        @ConditionalOnProperty(
+            prefix         = "app.redis-lock.metrics",
+            name           = "enabled",
+            havingValue    = "true",
+            matchIfMissing = true
+        )
+        public LockMetricsRecorder
+        redisLockMetricsRecorder(
+            RedisLockProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry
+        )
+        {
+            final MeterRegistry registry = meterRegistry.getIfUnique();
+
+            if (registry == null) {
+                return LockMetricsRecorder.NOOP;
+            }
+
+            return new
+            MicrometerLockMetricsRecorder(
+                registry,
+                properties.getMetrics().getMaxNameTags(),
+                properties.getMetrics().isPercentileHistogram()
+            );
+        }
+    }
+
+    /** Redis 分布式锁看门狗的自动装配方法（需要显式启用）。*/
+    @Bean
+    @ConditionalOnMissingBean(LockLeaseWatchdog.class)
+    @ConditionalOnProperty(
+        prefix      = "app.redis-lock.distributed-lock.watchdog",
+        name        = "enabled",
+        havingValue = "true"
+    )
+    public LockLeaseWatchdog
+    redisLockLeaseWatchdog(
+        RedisLockProperties properties,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
+        LuaScriptReader luaScriptReader,
+        @Qualifier("distributedLockScheduler") Scheduler scheduler
+    )
+    {
+        return new
+        LockLeaseWatchdog(
+            luaScriptReader,
+            redisLockScriptTemplate,
+            scheduler,
+            properties.getOperationTimeout(),
+            properties.getDistributedLock().getWatchdog().getRenewInterval(),
+            RedisKeySlots.isClusterAware(redisLockScriptTemplate.getConnectionFactory())
+        );
+    }
+
+    /**
+     * 分布式锁、公平信号量共用的 Redis 熔断器的自动装配方法（默认启用），
+     * 使用者也可以注册自己的 {@link RedisCircuitBreaker} Bean 来替换它。
+     */
+    @Bean
+    @ConditionalOnMissingBean(RedisCircuitBreaker.class)
+    public RedisCircuitBreaker
+    redisLockCircuitBreaker(RedisLockProperties properties)
+    {
+        final RedisLockProperties.CircuitBreakerProperties
+            circuitBreaker = properties.getCircuitBreaker();
+
+        if (!circuitBreaker.isEnabled()) {
+            return RedisCircuitBreaker.DISABLED;
+        }
+
+        return new
+        RedisCircuitBreaker(
+            circuitBreaker.getFailureRateThreshold(),
+            circuitBreaker.getMinimumCalls(),
+            circuitBreaker.getWindowSize(),
+            circuitBreaker.getOpenDuration(),
+            circuitBreaker.getHalfOpenProbes(),
+            circuitBreaker.getDegradedMode(),
+            circuitBreaker.getLockDegradedModes()
+        );
+    }
+
     /** Redis 分布式锁的自动装配方法。*/
     @Bean
     @ConditionalOnMissingBean(RedisDistributedLock.class)
@@ -123,20 +425,136 @@ public class RedisLockAutoConfiguration
         RedisLockProperties properties,
         ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
         LuaScriptReader luaScriptReader,
-        @Qualifier("distributedLockScheduler") Scheduler scheduler
+        @Qualifier("distributedLockScheduler") Scheduler scheduler,
+        AcquireStrategy acquireStrategy,
+        ObjectProvider<LockLeaseWatchdog> watchdog,
+        IdentifierGenerator identifierGenerator,
+        ObjectProvider<LockMetricsRecorder> metrics,
+        RedisCircuitBreaker circuitBreaker
     )
     {
+        final RedisLockProperties.LocalQueueProperties
+            localQueue = properties.getDistributedLock().getLocalQueue();
+
         return new
         DefaultRedisDistributedLockImpl(
             properties.getDistributedLock().getKeyPrefix(),
             luaScriptReader,
             redisLockScriptTemplate,
             scheduler,
-            properties.getOperationTimeout()
+            properties.getOperationTimeout(),
+            DistributedLockOptions.builder()
+                .acquireStrategy(acquireStrategy)
+                .multiLockStrategy(
+                    (acquireStrategy instanceof ServerSpinAcquireStrategy)
+                        ? toBackoffAcquireStrategy(properties.getDistributedLock())
+                        : acquireStrategy)
+                .watchdog(watchdog.getIfAvailable())
+                .localLocks(
+                    (localQueue.isEnabled())
+                        ? new LocalLockCoordinator(localQueue.getMaxHandovers())
+                        : null)
+                .identifierGenerator(identifierGenerator)
+                .metrics(toLockMetricsRecorder(metrics))
+                .circuitBreaker(circuitBreaker)
+                .releaseBatch(toReleaseBatchPolicy(properties.getDistributedLock().getReleaseBatch()))
+                .build()
+        );
+    }
+
+    /**
+     * Redis 可重入锁的自动装配方法，
+     * 可重入锁没有在服务端循环等待的脚本，所以在 SERVER_SPIN 获取模式下改用 BACKOFF 策略。
+     */
+    @Bean
+    @ConditionalOnMissingBean(RedisReentrantLock.class)
+    public RedisReentrantLock
+    redisReentrantLock(
+        RedisLockProperties properties,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
+        LuaScriptReader luaScriptReader,
+        @Qualifier("distributedLockScheduler") Scheduler scheduler,
+        AcquireStrategy acquireStrategy,
+        ObjectProvider<LockLeaseWatchdog> watchdog,
+        IdentifierGenerator identifierGenerator,
+        ObjectProvider<LockMetricsRecorder> metrics
+    )
+    {
+        return new
+        DefaultRedisReentrantLockImpl(
+            properties.getDistributedLock().getKeyPrefix(),
+            luaScriptReader,
+            redisLockScriptTemplate,
+            scheduler,
+            properties.getOperationTimeout(),
+            (acquireStrategy instanceof ServerSpinAcquireStrategy)
+                ? toBackoffAcquireStrategy(properties.getDistributedLock())
+                : acquireStrategy,
+            watchdog.getIfAvailable(),
+            identifierGenerator,
+            toLockMetricsRecorder(metrics)
         );
     }
 
-    /** Redis 分布式公平信号量自动装配方法。*/
+    /**
+     * Redis 分布式读写锁的自动装配方法，
+     * 读写锁同样没有在服务端循环等待的脚本，所以在 SERVER_SPIN 获取模式下改用 BACKOFF 策略。
+     */
+    @Bean
+    @ConditionalOnMissingBean(RedisReadWriteLock.class)
+    public RedisReadWriteLock
+    redisReadWriteLock(
+        RedisLockProperties properties,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
+        LuaScriptReader luaScriptReader,
+        @Qualifier("distributedLockScheduler") Scheduler scheduler,
+        AcquireStrategy acquireStrategy,
+        ObjectProvider<LockLeaseWatchdog> watchdog,
+        IdentifierGenerator identifierGenerator,
+        ObjectProvider<LockMetricsRecorder> metrics
+    )
+    {
+        return new
+        DefaultRedisReadWriteLockImpl(
+            properties.getDistributedLock().getKeyPrefix(),
+            luaScriptReader,
+            redisLockScriptTemplate,
+            scheduler,
+            properties.getOperationTimeout(),
+            (acquireStrategy instanceof ServerSpinAcquireStrategy)
+                ? toBackoffAcquireStrategy(properties.getDistributedLock())
+                : acquireStrategy,
+            watchdog.getIfAvailable(),
+            identifierGenerator,
+            toLockMetricsRecorder(metrics)
+        );
+    }
+
+    /** Redis 公平信号量刷新器的自动装配方法。*/
+    @Bean
+    @ConditionalOnMissingBean(SemaphoreRefresher.class)
+    public SemaphoreRefresher
+    redisLockSemaphoreRefresher(
+        RedisLockProperties properties,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
+        LuaScriptReader luaScriptReader,
+        @Qualifier("distributedLockScheduler") Scheduler scheduler
+    )
+    {
+        return new
+        SemaphoreRefresher(
+            luaScriptReader,
+            redisLockScriptTemplate,
+            scheduler,
+            properties.getOperationTimeout(),
+            properties.getFairSemaphore().getRefreshInterval()
+        );
+    }
+
+    /**
+     * Redis 分布式公平信号量自动装配方法，
+     * 消息监听容器只在第一次排队等待信号量时才会创建（并占用一个订阅连接）。
+     */
     @Bean
     @ConditionalOnMissingBean(RedisFairSemaphore.class)
     public RedisFairSemaphore
@@ -144,7 +562,13 @@ public class RedisLockAutoConfiguration
         RedisLockProperties properties,
         ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
         LuaScriptReader luaScriptReader,
-        @Qualifier("distributedLockScheduler") Scheduler scheduler
+        @Qualifier("distributedLockScheduler") Scheduler scheduler,
+        IdentifierGenerator identifierGenerator,
+        ObjectProvider<LockMetricsRecorder> metrics,
+        @Qualifier("redisLockMessageListenerContainer")
+        ObjectProvider<ReactiveRedisMessageListenerContainer> listenerContainer,
+        SemaphoreRefresher semaphoreRefresher,
+        RedisCircuitBreaker circuitBreaker
     )
     {
         return new
@@ -153,7 +577,40 @@ public class RedisLockAutoConfiguration
             luaScriptReader,
             redisLockScriptTemplate,
             scheduler,
-            properties.getOperationTimeout()
+            properties.getOperationTimeout(),
+            FairSemaphoreOptions.builder()
+                .identifierGenerator(identifierGenerator)
+                .metrics(toLockMetricsRecorder(metrics))
+                .listenerContainer(listenerContainer::getIfAvailable)
+                .refresher(semaphoreRefresher)
+                .circuitBreaker(circuitBreaker)
+                .releaseBatch(toReleaseBatchPolicy(properties.getFairSemaphore().getReleaseBatch()))
+                .build()
+        );
+    }
+
+    /** Redis 分布式限流器的自动装配方法。*/
+    @Bean
+    @ConditionalOnMissingBean(RedisRateLimiter.class)
+    public RedisRateLimiter
+    redisRateLimiter(
+        RedisLockProperties properties,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisLockScriptTemplate,
+        LuaScriptReader luaScriptReader,
+        @Qualifier("distributedLockScheduler") Scheduler scheduler,
+        IdentifierGenerator identifierGenerator,
+        ObjectProvider<LockMetricsRecorder> metrics
+    )
+    {
+        return new
+        DefaultRedisRateLimiterImpl(
+            properties.getRateLimiter().getKeyPrefix(),
+            luaScriptReader,
+            redisLockScriptTemplate,
+            scheduler,
+            properties.getOperationTimeout(),
+            identifierGenerator,
+            toLockMetricsRecorder(metrics)
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package io.github.jessez332623.redis_lock.autoconfigure;
+
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.impl.HotKeyTracker;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 暴露竞争最激烈的锁名的 Actuator 端点（/actuator/redislockhotkeys），
+ * 和其他 Actuator 端点一样，需要使用者通过 management.endpoints.web.exposure.include 暴露出来。
+ */
+@Endpoint(id = "redislockhotkeys")
+public class RedisLockHotKeysEndpoint
+{
+    private final HotKeyTracker hotKeyTracker;
+
+    public RedisLockHotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    /** 获取竞争最激烈的锁名（按竞争次数降序）。*/
+    @ReadOperation
+    public List<HotKey>
+    hotKeys() {
+        return this.hotKeyTracker.getHotKeys();
+    }
+
+    /** 清空热点锁名统计。*/
+    @DeleteOperation
+    public void
+    reset() {
+        this.hotKeyTracker.reset();
+    }
+}
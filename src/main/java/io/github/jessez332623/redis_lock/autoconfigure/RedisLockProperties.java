@@ -1,10 +1,14 @@
 package io.github.jessez332623.redis_lock.autoconfigure;
 
+import io.github.jessez332623.redis_lock.circuit_breaker.DegradedMode;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireMode;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /** Spring 依赖自动配置属性类。*/
 @Data
@@ -17,6 +21,12 @@ public class RedisLockProperties
     /** Redis 操作的统一超时时间（默认为 5 秒）。*/
     private Duration operationTimeout = Duration.ofSeconds(5L);
 
+    /**
+     * 唯一标识符中的节点名（默认为主机名，在 K8s 中即 Pod 名），
+     * 用于排查问题时分辨锁、信号量被哪个实例持有。
+     */
+    private String nodeName;
+
     /** 项目 I/O 密集型操作通用调度器相关属性配置。*/
     private ProjectSchedulersProperties schedulers
         = new ProjectSchedulersProperties();
@@ -29,12 +39,113 @@ public class RedisLockProperties
     private FairSemaphoreProperties fairSemaphore
         = new FairSemaphoreProperties();
 
+    /** Redis 分布式限流器相关属性配置 */
+    private RateLimiterProperties rateLimiter
+        = new RateLimiterProperties();
+
+    /** 耗时指标相关属性配置（需要 Micrometer）*/
+    private MetricsProperties metrics = new MetricsProperties();
+
+    /** 热点锁名跟踪相关属性配置 */
+    private HotKeysProperties hotKeys = new HotKeysProperties();
+
+    /** 分布式锁、公平信号量共用的 Redis 熔断器相关属性配置 */
+    private CircuitBreakerProperties circuitBreaker
+        = new CircuitBreakerProperties();
+
     @Data
     @NoArgsConstructor
     public static class DistributedLockProperties
     {
         /** 分布式锁键的键前缀（用户自定义，默认为 lock）。*/
         private String keyPrefix = "lock";
+
+        /** 分布式锁的获取模式（默认为 SERVER_SPIN，和旧版本的行为保持一致）。*/
+        private AcquireMode acquireMode = AcquireMode.SERVER_SPIN;
+
+        /** BACKOFF 获取模式下默认的退避参数（SERVER_SPIN 获取模式下多锁的获取也使用它）。*/
+        private BackoffProperties backoff = new BackoffProperties();
+
+        /**
+         * BACKOFF 获取模式下按锁名单独配置的退避参数（锁名 -> 退避参数），
+         * 锁名中含有 : 等特殊字符时，在 YAML 中需要写成 "[inventory:42]" 的形式。
+         */
+        private Map<String, BackoffProperties> lockBackoff = new HashMap<>();
+
+        /** 分布式锁看门狗相关属性配置。*/
+        private WatchdogProperties watchdog = new WatchdogProperties();
+
+        /** 两级锁（JVM 本地排队）相关属性配置。*/
+        private LocalQueueProperties localQueue = new LocalQueueProperties();
+
+        /** 释放操作微批处理相关属性配置。*/
+        private ReleaseBatchProperties releaseBatch = new ReleaseBatchProperties();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ReleaseBatchProperties
+    {
+        /**
+         * 是否启用释放操作的微批处理？（默认不启用）
+         * 启用后同时执行的释放脚本达到 maxInFlight 个时，之后的释放操作排队，
+         * 在任何一个脚本完成时按哈希槽分组合并成一次多键脚本调用，
+         * 低负载时释放操作仍然立即发出，不会多等。
+         */
+        private boolean enabled = false;
+
+        /** 一次批量脚本最多携带的释放操作数量（默认 64 个）。*/
+        private int maxBatchSize = 64;
+
+        /** 同时执行的释放脚本数量（默认 4 个），达到后新的释放操作开始排队合并。*/
+        private int maxInFlight = 4;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class LocalQueueProperties
+    {
+        /**
+         * 是否启用两级锁？（默认不启用）
+         * 启用后同一个 JVM 内对同一个锁名的调用者先在本地排队，只有队首去 Redis 中竞争，
+         * 完成后 Redis 锁直接移交给下一个本地等待者。
+         */
+        private boolean enabled = false;
+
+        /**
+         * 同一个 Redis 锁在本 JVM 内连续移交的最大次数（默认 16 次），
+         * 超过后必须在 Redis 中释放，让其他 Pod 也有机会获得锁。
+         */
+        private int maxHandovers = 16;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class WatchdogProperties
+    {
+        /**
+         * 是否启用看门狗？（默认不启用）
+         * 启用后本 JVM 持有的所有锁都会被定期续期直到释放，
+         * withLock() 的 lockTimeout 参数变为每次续期后锁的有效期（至少为续期周期的 2 倍）。
+         */
+        private boolean enabled = false;
+
+        /** 续期周期（默认 1 秒），所有的锁共享这一个周期。*/
+        private Duration renewInterval = Duration.ofSeconds(1L);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class BackoffProperties
+    {
+        /** 首次重试前的基准等待时间（默认 10 毫秒）。*/
+        private Duration initialDelay = Duration.ofMillis(10L);
+
+        /** 每次重试后基准等待时间的增长倍数（默认 2 倍）。*/
+        private double multiplier = 2.0;
+
+        /** 单次等待时间的上限（默认 1 秒）。*/
+        private Duration maxDelay = Duration.ofSeconds(1L);
     }
 
     @Data
@@ -43,12 +154,105 @@ public class RedisLockProperties
     {
         /** 公平信号量键的键前缀（用户自定义，默认为 semaphore）。*/
         private String keyPrefix = "semaphore";
+
+        /**
+         * 信号量的刷新周期（默认 1 秒），所有在 withFairSemaphore() 作用域内的信号量共享这一个周期，
+         * 每个周期对同一个信号量只执行一次批量刷新脚本，
+         * 有效期短于三个刷新周期的信号量存在时，周期自动缩短为其中最短有效期的三分之一。
+         */
+        private Duration refreshInterval = Duration.ofSeconds(1L);
+
+        /** 释放操作微批处理相关属性配置。*/
+        private ReleaseBatchProperties releaseBatch = new ReleaseBatchProperties();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class RateLimiterProperties
+    {
+        /** 限流键的键前缀（用户自定义，默认为 rate-limit）。*/
+        private String keyPrefix = "rate-limit";
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class CircuitBreakerProperties
+    {
+        /** 是否启用熔断？（默认启用）*/
+        private boolean enabled = true;
+
+        /** 超时和连接失败在一个窗口中所占的比例达到多少时熔断（默认为 0.5）。*/
+        private double failureRateThreshold = 0.5;
+
+        /** 一个窗口内至少有多少次脚本调用才计算失败率（默认为 20 次）。*/
+        private int minimumCalls = 20;
+
+        /** 一个统计窗口的脚本调用次数（默认为 100 次）。*/
+        private int windowSize = 100;
+
+        /** 熔断多久之后进入半开状态、放行探测调用（默认为 5 秒）。*/
+        private Duration openDuration = Duration.ofSeconds(5L);
+
+        /** 半开状态下放行的探测调用数量，全部成功时恢复（默认为 3 个）。*/
+        private int halfOpenProbes = 3;
+
+        /** 熔断时锁、信号量作用域的默认降级方式（默认直接失败）。*/
+        private DegradedMode degradedMode = DegradedMode.FAIL;
+
+        /**
+         * 按锁名（信号量名、多锁的哈希标签）单独配置的降级方式，
+         * 比如 lock-degraded-modes.rebuild-cache=RUN_WITHOUT_LOCK。
+         */
+        private Map<String, DegradedMode> lockDegradedModes = new HashMap<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class MetricsProperties
+    {
+        /**
+         * 是否记录耗时指标？（默认启用）
+         * 只有类路径上存在 Micrometer 且容器中有 MeterRegistry 时才会真正记录。
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每种锁、信号量类型最多为多少个锁名单独建立指标（默认 100 个），
+         * 超出的锁名统一记为 _other，防止带有业务 ID 的锁名让指标数量无限增长。
+         */
+        private int maxNameTags = 100;
+
+        /** 是否发布百分位直方图（默认发布，用于在监控系统中计算 P99 等分位数）。*/
+        private boolean percentileHistogram = true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class HotKeysProperties
+    {
+        /** 是否跟踪竞争最激烈的锁名？（默认不跟踪）*/
+        private boolean enabled = false;
+
+        /** 保留多少个竞争最激烈的锁名（默认 16 个）。*/
+        private int capacity = 16;
+
+        /** Count-Min Sketch 每行的计数器数量（默认 2048，会向上取整到 2 的幂）。*/
+        private int sketchWidth = 2048;
+
+        /** Count-Min Sketch 的行数（默认 4 行，最多 8 行）。*/
+        private int sketchDepth = 4;
+
+        /** 获取等待时间超过多久算作一次竞争（默认 10 毫秒，超时和重试总是算作竞争）。*/
+        private Duration slowAcquireThreshold = Duration.ofMillis(10L);
     }
 
     @Data
     @NoArgsConstructor
     public static class ProjectSchedulersProperties
     {
+        /** 执行模式（默认为 BOUNDED_ELASTIC，和旧版本的行为保持一致）。*/
+        private ExecutionMode executionMode = ExecutionMode.BOUNDED_ELASTIC;
+
         /** 最大线程数（默认 100 线程）*/
         private int maxThreads = 100;
 
@@ -0,0 +1,14 @@
+package io.github.jessez332623.redis_lock.circuit_breaker;
+
+/** 熔断器状态。*/
+public enum CircuitState
+{
+    /** 正常状态，所有的脚本调用都会发往 Redis，并统计超时和连接失败的比例。*/
+    CLOSED,
+
+    /** 熔断状态，所有的脚本调用都立即失败，不再等待 Redis 超时。*/
+    OPEN,
+
+    /** 熔断一段时间之后，放行少量的探测调用，全部成功时恢复正常，任何一个失败时重新熔断。*/
+    HALF_OPEN
+}
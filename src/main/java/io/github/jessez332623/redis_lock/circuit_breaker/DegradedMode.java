@@ -0,0 +1,14 @@
+package io.github.jessez332623.redis_lock.circuit_breaker;
+
+/** Redis 不可用（熔断器打开）时，锁、信号量作用域的降级方式。*/
+public enum DegradedMode
+{
+    /** 直接以 {@link io.github.jessez332623.redis_lock.circuit_breaker.exception.RedisCircuitOpen} 失败（默认）。*/
+    FAIL,
+
+    /**
+     * 不加锁直接执行业务逻辑，适合锁只是用来减少重复工作、
+     * 偶尔并发执行也不会出错的场景（比如缓存重建）。
+     */
+    RUN_WITHOUT_LOCK
+}
@@ -0,0 +1,355 @@
+package io.github.jessez332623.redis_lock.circuit_breaker;
+
+import io.github.jessez332623.redis_lock.circuit_breaker.exception.RedisCircuitOpen;
+import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * <p>锁、信号量脚本调用共用的 Redis 熔断器。</p>
+ *
+ * <p>
+ *     Redis 故障时，每次脚本调用都要等满 operationTimeout 才失败，
+ *     等待中的调用会在调度器的任务队列里越积越多，直到被拒绝。
+ *     熔断器统计脚本调用的结果，超时和连接失败（由 {@link RedisLockErrorHandle#isRedisUnavailable(Throwable)} 判断）
+ *     在最近的调用中所占的比例达到阈值时打开，之后的调用立即以 {@link RedisCircuitOpen} 失败；
+ *     打开 openDuration 之后进入半开状态，放行 halfOpenProbes 个探测调用，
+ *     全部成功时关闭，任何一个失败时重新打开。
+ * </p>
+ *
+ * <p>
+ *     失败率按照 windowSize 次调用一个窗口统计，窗口内的调用数不少于 minimumCalls 时才会打开；
+ *     脚本返回的业务状态（锁被占用、信号量不存在等）说明 Redis 有回复，不算作失败。
+ *     熔断器打开时锁、信号量作用域的降级方式按锁名配置，见 {@link DegradedMode}。
+ * </p>
+ */
+@Slf4j
+public final class RedisCircuitBreaker
+{
+    /** 不熔断的实现，所有的调用都原样执行。*/
+    public static final RedisCircuitBreaker DISABLED = new RedisCircuitBreaker();
+
+    /** 是否启用熔断。*/
+    private final boolean enabled;
+
+    /** 打开熔断器的失败率阈值（0 ~ 1）。*/
+    private final double failureRateThreshold;
+
+    /** 一个窗口内至少有多少次调用才计算失败率。*/
+    private final int minimumCalls;
+
+    /** 一个统计窗口的调用次数。*/
+    private final int windowSize;
+
+    /** 打开之后多久进入半开状态。*/
+    private final Duration openDuration;
+
+    /** 半开状态下放行的探测调用数量。*/
+    private final int halfOpenProbes;
+
+    /** 没有单独配置的锁名使用的降级方式。*/
+    private final DegradedMode defaultDegradedMode;
+
+    /** 按锁名（信号量名）配置的降级方式。*/
+    private final Map<String, DegradedMode> degradedModes;
+
+    /** 当前所处的阶段（每次状态切换都换成新的实例，旧阶段中发出的调用的结果不再统计）。*/
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.closed());
+
+    /** 熔断器的一个阶段。*/
+    private static final class Phase
+    {
+        private final CircuitState state;
+
+        /** 进入打开状态的时间（System.nanoTime()）。*/
+        private final long openedAt;
+
+        /** 本阶段统计的调用次数和失败次数（半开状态下为探测成功的次数）。*/
+        private final AtomicInteger calls    = new AtomicInteger(0);
+        private final AtomicInteger failures = new AtomicInteger(0);
+
+        /** 半开状态下已经放行的探测调用数量。*/
+        private final AtomicInteger probes = new AtomicInteger(0);
+
+        private Phase(CircuitState state, long openedAt)
+        {
+            this.state    = state;
+            this.openedAt = openedAt;
+        }
+
+        static @NotNull Phase closed() {
+            return new Phase(CircuitState.CLOSED, 0L);
+        }
+
+        static @NotNull Phase open() {
+            return new Phase(CircuitState.OPEN, System.nanoTime());
+        }
+
+        static @NotNull Phase halfOpen() {
+            return new Phase(CircuitState.HALF_OPEN, 0L);
+        }
+    }
+
+    private RedisCircuitBreaker()
+    {
+        this.enabled              = false;
+        this.failureRateThreshold = 1.0;
+        this.minimumCalls         = 1;
+        this.windowSize           = 1;
+        this.openDuration         = Duration.ZERO;
+        this.halfOpenProbes       = 1;
+        this.defaultDegradedMode  = DegradedMode.FAIL;
+        this.degradedModes        = Map.of();
+    }
+
+    /** 公共有参构造函数，熔断器打开时所有的锁名都直接失败。*/
+    public RedisCircuitBreaker(
+        double failureRateThreshold, int minimumCalls, int windowSize,
+        Duration openDuration, int halfOpenProbes)
+    {
+        this(
+            failureRateThreshold, minimumCalls, windowSize,
+            openDuration, halfOpenProbes, DegradedMode.FAIL, Map.of()
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public RedisCircuitBreaker(
+        double failureRateThreshold, int minimumCalls, int windowSize,
+        Duration openDuration, int halfOpenProbes,
+        DegradedMode defaultDegradedMode, Map<String, DegradedMode> degradedModes)
+    {
+        if (failureRateThreshold <= 0.0 || failureRateThreshold > 1.0)
+        {
+            throw new
+            IllegalArgumentException(
+                format("Failure rate threshold must in (0, 1]! (failureRateThreshold = %s)", failureRateThreshold)
+            );
+        }
+
+        if (minimumCalls <= 0 || windowSize < minimumCalls)
+        {
+            throw new
+            IllegalArgumentException(
+                format(
+                    "Window size must not less than minimum calls, and both must be positive! " +
+                    "(minimumCalls = %d, windowSize = %d)", minimumCalls, windowSize
+                )
+            );
+        }
+
+        if (openDuration.isNegative() || openDuration.isZero() || halfOpenProbes <= 0)
+        {
+            throw new
+            IllegalArgumentException(
+                format(
+                    "Open duration and half open probes must be positive! " +
+                    "(openDuration = %s, halfOpenProbes = %d)", openDuration, halfOpenProbes
+                )
+            );
+        }
+
+        this.enabled              = true;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls         = minimumCalls;
+        this.windowSize           = windowSize;
+        this.openDuration         = openDuration;
+        this.halfOpenProbes       = halfOpenProbes;
+        this.defaultDegradedMode  = defaultDegradedMode;
+        this.degradedModes        = Map.copyOf(degradedModes);
+    }
+
+    /** 当前的熔断器状态（打开时间已经超过 openDuration 的，在下一次调用时才会进入半开状态）。*/
+    public CircuitState getState() {
+        return this.phase.get().state;
+    }
+
+    /** 获取锁名（信号量名）对应的降级方式。*/
+    public DegradedMode
+    getDegradedMode(String name) {
+        return this.degradedModes.getOrDefault(name, this.defaultDegradedMode);
+    }
+
+    /**
+     * 尝试放行一次调用。
+     *
+     * @return 放行时返回这次调用所属的阶段，不放行时返回 null
+     */
+    private Phase tryPermit()
+    {
+        while (true)
+        {
+            final Phase current = this.phase.get();
+
+            switch (current.state)
+            {
+                case CLOSED -> { return current; }
+
+                case OPEN ->
+                {
+                    if (System.nanoTime() - current.openedAt < this.openDuration.toNanos()) {
+                        return null;
+                    }
+
+                    // 多个调用同时到达时只有一个能切换成功，其他的重新读取阶段
+                    if (this.phase.compareAndSet(current, Phase.halfOpen())) {
+                        log.info("Redis circuit breaker half open, probing with {} call(s).", this.halfOpenProbes);
+                    }
+                }
+
+                case HALF_OPEN ->
+                {
+                    if (current.probes.incrementAndGet() <= this.halfOpenProbes) {
+                        return current;
+                    }
+
+                    current.probes.decrementAndGet();
+
+                    return null;
+                }
+            }
+        }
+    }
+
+    /** 打开熔断器（只有当前阶段仍然是 from 时才会切换）。*/
+    private void trip(Phase from, String reason)
+    {
+        if (this.phase.compareAndSet(from, Phase.open()))
+        {
+            log.warn(
+                "Redis circuit breaker opened, calls fail fast for {}! ({})",
+                this.openDuration, reason
+            );
+        }
+    }
+
+    /** 统计一次调用的结果。*/
+    private void onResult(Phase from, boolean failed)
+    {
+        if (this.phase.get() != from) {
+            return;
+        }
+
+        switch (from.state)
+        {
+            case CLOSED ->
+            {
+                final int failures
+                    = (failed) ? from.failures.incrementAndGet() : from.failures.get();
+
+                final int calls = from.calls.incrementAndGet();
+
+                if (calls >= this.minimumCalls && failures >= calls * this.failureRateThreshold)
+                {
+                    this.trip(
+                        from, format("%d of the last %d call(s) timed out or lost connection", failures, calls));
+                }
+                else if (calls >= this.windowSize) {
+                    this.phase.compareAndSet(from, Phase.closed());
+                }
+            }
+
+            case HALF_OPEN ->
+            {
+                if (failed) {
+                    this.trip(from, "probe call failed");
+                }
+                else if (from.calls.incrementAndGet() >= this.halfOpenProbes
+                         && this.phase.compareAndSet(from, Phase.closed())) {
+                    log.info("Redis circuit breaker closed, Redis recovered.");
+                }
+            }
+
+            case OPEN -> {}
+        }
+    }
+
+    /**
+     * 在熔断器的保护下执行一次脚本调用：
+     * 熔断器打开时立即以 {@link RedisCircuitOpen} 失败，反之执行调用并统计结果。
+     *
+     * @param <T> 调用发布的数据类型
+     *
+     * @param call 脚本调用
+     *
+     * @return 受保护的调用
+     */
+    public <T> Mono<T>
+    protect(Mono<T> call)
+    {
+        if (!this.enabled) {
+            return call;
+        }
+
+        return
+        Mono.defer(() -> {
+            final Phase permitted = this.tryPermit();
+
+            if (Objects.isNull(permitted))
+            {
+                return
+                Mono.error(
+                    new RedisCircuitOpen(
+                        "Redis circuit breaker is open, call rejected without waiting!"
+                    )
+                );
+            }
+
+            return
+            call.doOnSuccess((ignore) -> this.onResult(permitted, false))
+                .doOnError((exception) ->
+                    this.onResult(permitted, RedisLockErrorHandle.isRedisUnavailable(exception)))
+                .doOnCancel(() -> {
+                    // 被取消的探测调用没有结果，把名额还回去，避免半开状态永远等不到足够的结果
+                    if (permitted.state == CircuitState.HALF_OPEN) {
+                        permitted.probes.decrementAndGet();
+                    }
+                });
+        });
+    }
+
+    /**
+     * 按照锁名配置的降级方式处理熔断：{@link DegradedMode#FAIL} 时原样失败，
+     * {@link DegradedMode#RUN_WITHOUT_LOCK} 时不加锁执行业务逻辑。
+     * 只有还没有进入作用域（entered 为 false）时才会降级，已经开始执行的业务逻辑不会再执行一次。
+     *
+     * @param <T> 业务逻辑返回的类型
+     *
+     * @param name     锁名（信号量名）
+     * @param entered  是否已经获取到锁、进入了作用域
+     * @param guarded  加锁执行业务逻辑的流
+     * @param degraded 不加锁执行业务逻辑的流
+     *
+     * @return 发布业务逻辑执行结果数据的 Mono
+     */
+    public <T> Mono<T>
+    withDegradation(
+        String name, AtomicBoolean entered,
+        Mono<T> guarded, Supplier<Mono<T>> degraded)
+    {
+        if (!this.enabled || this.getDegradedMode(name) == DegradedMode.FAIL) {
+            return guarded;
+        }
+
+        return
+        guarded.onErrorResume(
+            (exception) -> exception instanceof RedisCircuitOpen && !entered.get(),
+            (exception) -> {
+                log.warn("Redis unavailable, run action of {} without lock!", name);
+
+                return degraded.get();
+            }
+        );
+    }
+}
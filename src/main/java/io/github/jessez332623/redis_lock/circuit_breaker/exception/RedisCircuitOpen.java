@@ -0,0 +1,9 @@
+package io.github.jessez332623.redis_lock.circuit_breaker.exception;
+
+/** Redis 熔断器打开（Redis 超时或者连接失败的比例过高）时，脚本调用立即以本异常失败。*/
+public class RedisCircuitOpen extends RuntimeException
+{
+    public RedisCircuitOpen(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.jessez332623.redis_lock.distributed_lock;
+
+/** 分布式锁获取模式枚举。*/
+public enum AcquireMode
+{
+    /**
+     * 在 Redis 服务端的 Lua 脚本中循环尝试获取锁，直到 acquireTimeout 耗尽（兼容旧版本的行为）。
+     * 由于 Redis 是单线程的，一个竞争激烈的长时间获取操作会阻塞整个实例。
+     */
+    SERVER_SPIN,
+
+    /**
+     * 脚本只尝试获取一次锁，失败后客户端订阅该锁的释放频道，
+     * 直到锁被释放或者锁的 TTL 过期时才重新尝试，不会长时间占用 Redis。
+     */
+    PUB_SUB,
+
+    /**
+     * 脚本只尝试一次，失败后由客户端使用 Reactor 定时器按指数退避（带完全抖动和上限）重试，
+     * 等待中的操作只占用定时器，不占用线程，也不占用 Redis 的 CPU。
+     */
+    BACKOFF
+}
@@ -0,0 +1,74 @@
+package io.github.jessez332623.redis_lock.distributed_lock;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * <p>分布式锁获取策略接口。</p>
+ *
+ * <p>
+ *     策略只负责决定 “什么时候尝试、尝试多少次、尝试之间等待多久”，
+ *     单次尝试本身（执行哪个脚本、锁的唯一标识符等）由 {@link LockAttempt} 提供。
+ *     使用者可以注册自己的 {@link AcquireStrategy} Bean 来替换自动装配的默认策略。
+ * </p>
+ */
+@FunctionalInterface
+public interface AcquireStrategy
+{
+    /**
+     * 在 request 给定的期限内尝试获取锁。
+     *
+     * @param request 本次获取锁操作的参数
+     * @param attempt 获取锁的单次尝试
+     *
+     * @return 发布是否在期限内获取到锁的 {@link Mono}
+     */
+    Mono<Boolean>
+    acquire(AcquireRequest request, LockAttempt attempt);
+
+    /**
+     * 本次获取锁操作的参数。
+     *
+     * @param lockName       锁名
+     * @param lockKey        分布式锁键
+     * @param releaseChannel 锁的释放频道（锁被释放时 releaseLock.lua 会向这个频道发布消息）
+     * @param acquireTimeout 获取锁的时间期限
+     * @param lockTimeout    锁本身的有效期
+     */
+    record AcquireRequest(
+        String   lockName,
+        String   lockKey,
+        String   releaseChannel,
+        Duration acquireTimeout,
+        Duration lockTimeout
+    ) {}
+
+    /** 获取锁的单次尝试。*/
+    @FunctionalInterface
+    interface LockAttempt
+    {
+        /**
+         * 执行一次获取锁的脚本。
+         *
+         * @param serverWait 允许脚本在 Redis 服务端循环等待的时间，
+         *                   为 {@link Duration#ZERO} 时脚本只尝试一次
+         *
+         * @return 发布单次尝试结果的 {@link Mono}
+         */
+        Mono<LockAttemptResult>
+        tryAcquire(Duration serverWait);
+    }
+
+    /**
+     * 单次尝试的结果。
+     *
+     * @param acquired 是否获取到了锁
+     * @param ttl      获取失败时，锁剩余的有效期（毫秒级，未知时为 -1）
+     */
+    record LockAttemptResult(boolean acquired, long ttl)
+    {
+        public static final
+        LockAttemptResult ACQUIRED = new LockAttemptResult(true, -1L);
+    }
+}
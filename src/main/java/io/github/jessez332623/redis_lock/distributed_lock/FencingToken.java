@@ -0,0 +1,9 @@
+package io.github.jessez332623.redis_lock.distributed_lock;
+
+/**
+ * 获取锁时发放的栅栏令牌。
+ *
+ * @param identifier 锁的唯一标识符
+ * @param token      栅栏令牌（同一个锁名下单调递增，后获取锁的持有者令牌一定更大）
+ */
+public record FencingToken(String identifier, long token) {}
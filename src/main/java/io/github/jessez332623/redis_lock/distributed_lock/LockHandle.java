@@ -0,0 +1,46 @@
+package io.github.jessez332623.redis_lock.distributed_lock;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * <p>由 {@link RedisDistributedLock#tryLock(String, Duration)} 获取的锁句柄。</p>
+ *
+ * <p>
+ *     和 withLock() 不同，锁的生命周期不受单个 {@link Mono} 作用域的限制，
+ *     可以跨越多个 Flux 管道，由使用者负责续期和释放（不释放的话锁在租约到期后过期）。
+ * </p>
+ */
+public interface LockHandle
+{
+    /** 获取锁名。*/
+    String getLockName();
+
+    /** 获取锁的唯一标识符。*/
+    String getIdentifier();
+
+    /** 获取获取锁时指定的租约时长。*/
+    Duration getLeaseTime();
+
+    /**
+     * 为锁续期，续期后锁的有效期为 leaseTime。
+     *
+     * @param leaseTime 续期后锁的有效期
+     *
+     * @return 发布锁是否仍然属于自己（续期是否成功）的 {@link Mono}，锁已释放时发布 false
+     */
+    Mono<Boolean> extend(Duration leaseTime);
+
+    /** 按照获取锁时指定的租约时长为锁续期。*/
+    default Mono<Boolean> extend() {
+        return this.extend(this.getLeaseTime());
+    }
+
+    /**
+     * 释放锁，多次调用时只有第一次会真正执行释放操作。
+     *
+     * @return 不发布任何数据的 {@link Mono}，表示操作整体是否完成
+     */
+    Mono<Void> release();
+}
@@ -5,6 +5,8 @@ import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.function.Function;
 
 /** Redis 分布式锁接口类。*/
@@ -30,4 +32,99 @@ public interface RedisDistributedLock extends StatisticalInstrument
         Duration acquireTimeout, Duration lockTimeout,
         Function<String, Mono<T>> action
     );
-}
\ No newline at end of file
+
+    /**
+     * 和 {@link #withLock(String, Duration, Duration, Function)} 相同，
+     * 但是每次成功获取锁时，还会在同一次脚本调用中发放一个单调递增的栅栏令牌（fencing token）。
+     *
+     * <p>
+     *     下游存储只需要拒绝令牌小于已见过的最大令牌的写入，
+     *     就能挡住租约在业务执行期间过期的旧持有者，不需要每次写入前再读一遍做防御性检查。
+     * </p>
+     *
+     * <p>
+     *     注意：每个使用过栅栏令牌的锁名都会在 Redis 中留下一个永不过期的计数器键
+     *     （过期的话令牌会回退），锁名是动态生成的场景需要留意键的数量。
+     * </p>
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限（毫秒级）
+     * @param lockTimeout    锁本身的持有时间期限（毫秒级）
+     * @param action         业务逻辑（参数为锁的唯一标识符和栅栏令牌）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withFencedLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<FencingToken, Mono<T>> action
+    );
+
+    /**
+     * 一次性获取多个锁（全部获取或者全部不获取）后执行业务逻辑，
+     * 所有的锁共用同一个唯一标识符，使用者不需要嵌套调用 withLock()，也不会因为加锁顺序不同而死锁。
+     *
+     * <p>
+     *     锁名会去重并排序，位于同一个哈希槽的锁在一次 Lua 脚本调用中获取；
+     *     Redis 集群中，不同哈希槽的锁按哈希槽升序逐组获取，
+     *     所有调用者的获取顺序都是一致的。
+     * </p>
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockNames      锁名集合（不能为空）
+     * @param acquireTimeout 获取全部锁的时间期限（毫秒级）
+     * @param lockTimeout    锁本身的持有时间期限（毫秒级）
+     * @param action         业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withLocks(
+        Collection<String> lockNames,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action
+    );
+
+    /**
+     * 和 {@link #withLocks(Collection, Duration, Duration, Function)} 相同，
+     * 但是所有的锁键共用同一个哈希标签 hashTag（锁键形如 prefix:{hashTag}:lockName），
+     * 在 Redis 集群中也一定位于同一个哈希槽，总是在一次 Lua 脚本调用中获取。
+     *
+     * <p>
+     *     注意：带哈希标签的锁和同名不带哈希标签的锁是两个不同的锁，
+     *     需要互斥的调用者必须使用相同的哈希标签。
+     * </p>
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param hashTag        共享的哈希标签（为 null 时等价于不带哈希标签的重载）
+     * @param lockNames      锁名集合（不能为空）
+     * @param acquireTimeout 获取全部锁的时间期限（毫秒级）
+     * @param lockTimeout    锁本身的持有时间期限（毫秒级）
+     * @param action         业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withLocks(
+        String hashTag, Collection<String> lockNames,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action
+    );
+
+    /**
+     * 非阻塞地尝试获取锁（只有一次 Redis 往返，不会等待），
+     * 适合 "锁空闲就做，否则跳过" 的任务。
+     *
+     * @param lockName  锁名
+     * @param leaseTime 锁的租约时长（毫秒级）
+     *
+     * @return 发布锁句柄的 {@link Mono}，锁已被别人持有时发布 {@link Optional#empty()}
+     */
+    Mono<Optional<LockHandle>>
+    tryLock(String lockName, Duration leaseTime);
+}
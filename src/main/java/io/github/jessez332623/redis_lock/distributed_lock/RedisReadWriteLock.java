@@ -0,0 +1,63 @@
+package io.github.jessez332623.redis_lock.distributed_lock;
+
+import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * <p>Redis 分布式读写锁接口类。</p>
+ *
+ * <p>
+ *     同一个锁名下，读锁可以被任意多个读者同时持有，写锁则和所有读者、其他写者互斥。
+ *     写者优先：只要有写者在等待，新的读者就不能进入，读多写少时写者也不会饿死。
+ * </p>
+ *
+ * <p>注意：读锁不能升级为写锁，在读锁作用域内获取同名写锁只会等到超时。</p>
+ */
+public interface RedisReadWriteLock extends StatisticalInstrument
+{
+    /**
+     * 兼容响应式流的 Redis 读锁操作，
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成读锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限（毫秒级）
+     * @param lockTimeout    锁本身的持有时间期限（毫秒级）
+     * @param action         业务逻辑（参数为读者的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withReadLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action
+    );
+
+    /**
+     * 兼容响应式流的 Redis 写锁操作，
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成写锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限（毫秒级）
+     * @param lockTimeout    锁本身的持有时间期限（毫秒级）
+     * @param action         业务逻辑（参数为写者的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withWriteLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action
+    );
+}
@@ -0,0 +1,46 @@
+package io.github.jessez332623.redis_lock.distributed_lock;
+
+import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * <p>Redis 可重入分布式锁接口类。</p>
+ *
+ * <p>
+ *     锁的持有者身份保存在 Reactor 的 {@link reactor.util.context.Context} 中（而不是 ThreadLocal），
+ *     在同一条响应式流中嵌套调用 {@link #withLock} 获取同一个锁时，
+ *     只需要一次 HINCRBY 增加持有次数，不会在 Redis 中等待，也不会死锁。
+ *     同一条流中并行的分支（比如 Mono.zip() 的各个参数）之间仍然互斥：
+ *     没有持有这个锁时各自首次获取，已经持有这个锁时各自重入，但是重入在本地排队，一次只放行一个分支。
+ * </p>
+ */
+public interface RedisReentrantLock extends StatisticalInstrument
+{
+    /** 持有者唯一标识符在 Reactor Context 中的键。*/
+    String OWNER_CONTEXT_KEY = "redis-lock.reentrant-lock.owner";
+
+    /**
+     * 兼容响应式流的 Redis 可重入锁操作，
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限（毫秒级，重入时只在同一个作用域中并行的分支之间排队）
+     * @param lockTimeout    锁本身的持有时间期限（毫秒级）
+     * @param action         业务逻辑（参数为持有者的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action
+    );
+}
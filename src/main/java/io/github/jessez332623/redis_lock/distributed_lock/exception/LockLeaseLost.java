@@ -0,0 +1,12 @@
+package io.github.jessez332623.redis_lock.distributed_lock.exception;
+
+/** 看门狗续期时发现锁已经过期或者被别人持有（即锁在业务执行期间丢失），抛本异常。*/
+public class LockLeaseLost extends RuntimeException
+{
+    public LockLeaseLost(String message) {
+        super(message);
+    }
+    public LockLeaseLost(String message, Throwable throwable) {
+        super(message, throwable);
+    }
+}
@@ -1,27 +1,61 @@
 package io.github.jessez332623.redis_lock.distributed_lock.impl;
 
+import io.github.jessez332623.redis_lock.circuit_breaker.RedisCircuitBreaker;
 import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.AcquireRequest;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.LockAttemptResult;
+import io.github.jessez332623.redis_lock.distributed_lock.FencingToken;
+import io.github.jessez332623.redis_lock.distributed_lock.LockHandle;
 import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
 import io.github.jessez332623.redis_lock.distributed_lock.exception.AcquireLockTimeout;
+import io.github.jessez332623.redis_lock.distributed_lock.exception.LockLeaseLost;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.Handover;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.LocalLockQueue;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy.BackoffPolicy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.ServerSpinAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLease;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLeaseWatchdog;
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
 import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
 import io.github.jessez332623.redis_lock.statistics.impl.DistributedLockFaultStatistical;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
 import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
 import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
+import io.github.jessez332623.redis_lock.utils.RedisKeySlots;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.reactivestreams.Publisher;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OCCUPIED;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.GET_LOCK_TIMEOUT;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.CONCURRENT_RELEASE;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_NOT_EXIST;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OWNED_BY_OTHERS;
 import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.DISTRIBUTE_LOCK;
 import static java.lang.String.format;
 
@@ -35,29 +69,72 @@ import static java.lang.String.format;
  * </strong>
  */
 @Slf4j
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class DefaultRedisDistributedLockImpl implements RedisDistributedLock
 {
-    /** 分布式锁键的键前缀（用户自定义）。*/
-    private String LOCK_KEY_PREFIX;
+    /** 没有设置多锁获取策略、并且获取策略为 SERVER_SPIN 时，多锁获取改用的退避参数。*/
+    private static final BackoffPolicy
+    MULTI_LOCK_BACKOFF
+        = new BackoffPolicy(Duration.ofMillis(10L), 2.0, Duration.ofSeconds(1L));
 
-    /** Lua 脚本读取器。*/
-    private LuaScriptReader luaScriptReader;
+    /** 分布式锁键的键前缀（用户自定义）。*/
+    private final String LOCK_KEY_PREFIX;
 
     /** 执行 Lua 脚本专用 Redis 模板。*/
-    private
+    private final
     ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
 
     /** Redis Lock 专用的线程调度器。*/
-    private Scheduler scheduler;
+    private final Scheduler scheduler;
 
     /** Redis 操作的统一超时时间（默认为 5 秒）。*/
-    private Duration operatorTimeout;
+    private final Duration operatorTimeout;
+
+    /** 分布式锁获取策略。*/
+    private final AcquireStrategy acquireStrategy;
+
+    /** 分布式锁看门狗（为 null 时不启用看门狗，锁在 lockTimeout 后过期）。*/
+    private final LockLeaseWatchdog watchdog;
+
+    /** 本类用到的 Lua 脚本（构造时解析一次，之后每次操作都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> acquireLockScript;
+    private final DefaultRedisScript<List<Object>> acquireLockTimeoutScript;
+    private final DefaultRedisScript<List<Object>> extendLockScript;
+    private final DefaultRedisScript<List<Object>> releaseLockScript;
+    private final DefaultRedisScript<List<Object>> acquireLocksScript;
+    private final DefaultRedisScript<List<Object>> releaseLocksScript;
+    private final DefaultRedisScript<List<Object>> releaseLockBatchScript;
+
+    /** 两级锁的 JVM 本地一级（为 null 时不启用，每个调用者都直接去 Redis 中竞争）。*/
+    private final LocalLockCoordinator localLocks;
+
+    /**
+     * 多锁获取使用的获取策略（见 {@link DistributedLockOptions#getMultiLockStrategy()}），
+     * 多锁没有在服务端循环等待的脚本，所以 {@link ServerSpinAcquireStrategy} 在这里换成默认参数的 {@link BackoffAcquireStrategy}。
+     */
+    private final AcquireStrategy multiLockStrategy;
+
+    /** 是否为 Redis 集群模式（决定多锁获取时是否需要按哈希槽分组）。*/
+    private final boolean clusterMode;
+
+    /** 锁唯一标识符生成器。*/
+    private final IdentifierGenerator identifierGenerator;
+
+    /** 耗时指标记录器。*/
+    private final LockMetricsRecorder metrics;
+
+    /** 包在每次脚本调用外面的 Redis 熔断器。*/
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /** 把多个调用者的释放操作合并成一次脚本调用的批处理器（为 null 时每次释放单独执行脚本）。*/
+    private final ReleaseBatcher<LockRelease> releaseBatcher;
+
+    /** 一个等待批量执行的释放操作。*/
+    private record LockRelease(String lockKeyName, String identifier) {}
 
     private final DistributedLockFaultStatistical
     faultStatistical = new DistributedLockFaultStatistical();
 
-    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    /** 公共有参构造函数，所有可选组件都使用默认值（见 {@link DistributedLockOptions}）。*/
     public DefaultRedisDistributedLockImpl(
         String lockKey,
         LuaScriptReader luaScriptReader,
@@ -65,12 +142,74 @@ public final class DefaultRedisDistributedLockImpl implements RedisDistributedLo
         Scheduler scheduler,
         Duration operatorTimeout
     )
+    {
+        this(
+            lockKey, luaScriptReader, scriptRedisTemplate,
+            scheduler, operatorTimeout, DistributedLockOptions.builder().build()
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public DefaultRedisDistributedLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operatorTimeout,
+        @NotNull DistributedLockOptions options
+    )
     {
         this.LOCK_KEY_PREFIX     = lockKey;
-        this.luaScriptReader     = luaScriptReader;
         this.scriptRedisTemplate = scriptRedisTemplate;
         this.scheduler           = scheduler;
         this.operatorTimeout     = operatorTimeout;
+        this.acquireStrategy     = options.getAcquireStrategy();
+        this.watchdog            = options.getWatchdog();
+        this.localLocks          = options.getLocalLocks();
+        this.identifierGenerator = options.getIdentifierGenerator();
+        this.metrics             = options.getMetrics();
+        this.circuitBreaker      = options.getCircuitBreaker();
+
+        this.acquireLockScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "acquireLock.lua");
+        this.acquireLockTimeoutScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "acquireLockTimeout.lua");
+        this.extendLockScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "extendLock.lua");
+        this.releaseLockScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "releaseLock.lua");
+        this.acquireLocksScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "acquireLocks.lua");
+        this.releaseLocksScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "releaseLocks.lua");
+        this.releaseLockBatchScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "releaseLockBatch.lua");
+
+        final AcquireStrategy multiLockStrategy
+            = (Objects.isNull(options.getMultiLockStrategy()))
+                ? this.acquireStrategy
+                : options.getMultiLockStrategy();
+
+        this.multiLockStrategy
+            = (multiLockStrategy instanceof ServerSpinAcquireStrategy)
+                ? new BackoffAcquireStrategy(MULTI_LOCK_BACKOFF, Map.of())
+                : multiLockStrategy;
+
+        this.clusterMode
+            = RedisKeySlots.isClusterAware(scriptRedisTemplate.getConnectionFactory());
+
+        this.releaseBatcher
+            = (Objects.isNull(options.getReleaseBatch()))
+                ? null
+                : new ReleaseBatcher<>(
+                    options.getReleaseBatch(), LockRelease::lockKeyName,
+                    (releases) ->
+                        this.executeScript(
+                            this.releaseLockBatchScript,
+                            releases.stream().map(LockRelease::lockKeyName).toList(),
+                            releases.stream().map(LockRelease::identifier).toArray()),
+                    this.clusterMode
+                );
     }
 
     /** 组合 Redis 锁键，LOCK_KEY 键前缀用户可以自定义。*/
@@ -80,59 +219,276 @@ public final class DefaultRedisDistributedLockImpl implements RedisDistributedLo
         return LOCK_KEY_PREFIX + ":" + "{" + keyName + "}";
     }
 
+    /** 组合多锁中的锁键，hashTag 为 null 时和 {@link #getRedisLockKey(String)} 相同。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getRedisLockKey(String hashTag, String keyName)
+    {
+        return
+        (Objects.isNull(hashTag))
+            ? getRedisLockKey(keyName)
+            : LOCK_KEY_PREFIX + ":" + "{" + hashTag + "}:" + keyName;
+    }
+
+    /** 组合锁的栅栏令牌计数器键（和锁键位于同一个哈希槽）。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getFencingTokenKey(String keyName) {
+        return getRedisLockKey(keyName) + ":" + "fencing";
+    }
+
+    /** 组合锁的释放频道名，锁被释放时 releaseLock.lua 会向这个频道发布消息。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getRedisLockChannel(String keyName) {
+        return getRedisLockKey(keyName) + ":" + "release";
+    }
+
     /**
-     * 尝试获取一个锁。
+     * 执行一个分布式锁脚本（顺便记录脚本往返耗时），
+     * 熔断器打开时在切换到调度器之前就立即失败，不会在任务队列中排队。
+     */
+    private @NotNull Mono<LuaOperatorResult>
+    executeScript(
+        DefaultRedisScript<List<Object>> script, List<String> keys, Object... args)
+    {
+        return
+        this.scriptRedisTemplate
+            .execute(script, keys, args)
+            .timeout(this.operatorTimeout)
+            .next()
+            .map(LuaOperatorResult::decode)
+            .as((execution) -> this.metrics.timeScript(script, execution))
+            .subscribeOn(this.scheduler)
+            .transform(this.circuitBreaker::protect);
+    }
+
+    /** 构造获取锁超时异常（顺便完成统计）。*/
+    private <T> @NotNull Mono<T>
+    acquireLockTimeoutError(String lockName, long acquireTimeout)
+    {
+        this.faultStatistical.increaseLockTimeout();
+
+        return
+        Mono.error(
+            new AcquireLockTimeout(
+                format(
+                    "Acquire lock: %s timeout! (acquireTimeout = %d millis)",
+                    lockName, acquireTimeout
+                )
+            )
+        );
+    }
+
+    /**
+     * 尝试获取一个锁，何时尝试、尝试几次由 {@link AcquireStrategy} 决定。
      *
      * @param lockName          锁名
      * @param acquireTimeout    获取锁的时间期限（毫秒级）
      * @param lockTimeout       锁本身的有效期（毫秒级）
      *
-     * @return 返回一个 Mono，成功获取锁时发布锁的唯一标识符（UUID）
+     * @return 返回一个 Mono，成功获取锁时发布锁的唯一标识符（由 IdentifierGenerator 生成）
      */
     private @NotNull Mono<String>
     acquireLockTimeout(
         String lockName, long acquireTimeout, long lockTimeout)
     {
         final String lockKeyName = getRedisLockKey(lockName);
-        final String identifier  = UUID.randomUUID().toString();
+        final String identifier  = this.identifierGenerator.nextIdentifier();
+
+        final AcquireRequest request
+            = new AcquireRequest(
+                lockName, lockKeyName, getRedisLockChannel(lockName),
+                Duration.ofMillis(acquireTimeout), Duration.ofMillis(lockTimeout)
+            );
+
+        final AtomicInteger attempts = new AtomicInteger(0);
+
+        return
+        this.acquireStrategy
+            .acquire(
+                request,
+                (serverWait) -> {
+                    attempts.incrementAndGet();
+                    return
+                    this.tryAcquireLock(lockKeyName, identifier, serverWait, lockTimeout);
+                })
+            .flatMap((acquired) ->
+                (acquired)
+                    ? Mono.just(identifier)
+                    : this.acquireLockTimeoutError(lockName, acquireTimeout))
+            .doFinally((signal) ->
+                this.metrics.recordAcquireAttempts(LockType.DISTRIBUTED_LOCK, lockName, attempts.get()))
+            .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+    }
+
+    /**
+     * 执行获取锁的脚本，serverWait 为零时只尝试一次（acquireLock.lua），
+     * 反之在 Redis 服务端循环尝试直到 serverWait 耗尽（acquireLockTimeout.lua）。
+     *
+     * @param lockKeyNames 分布式锁键（以及可选的栅栏令牌计数器键）
+     * @param identifier   锁的唯一标识符
+     * @param serverWait   允许脚本在 Redis 服务端循环等待的时间
+     * @param lockTimeout  锁本身的有效期（毫秒级）
+     *
+     * @return 发布脚本执行结果的 Mono
+     */
+    private @NotNull Mono<LuaOperatorResult>
+    executeAcquireScript(
+        List<String> lockKeyNames, String identifier,
+        @NotNull Duration serverWait, long lockTimeout)
+    {
+        final boolean singleShot = serverWait.isZero();
+
+        return
+        (singleShot)
+            ? this.executeScript(
+                  this.acquireLockScript, lockKeyNames, identifier, lockTimeout)
+            : this.executeScript(
+                  this.acquireLockTimeoutScript, lockKeyNames,
+                  identifier, serverWait.toMillis(), lockTimeout);
+    }
+
+    /**
+     * 获取锁的单次尝试。
+     *
+     * @param lockKeyName 分布式锁键
+     * @param identifier  锁的唯一标识符
+     * @param serverWait  允许脚本在 Redis 服务端循环等待的时间
+     * @param lockTimeout 锁本身的有效期（毫秒级）
+     *
+     * @return 发布单次尝试结果的 Mono
+     */
+    private @NotNull Mono<LockAttemptResult>
+    tryAcquireLock(
+        String lockKeyName, String identifier,
+        @NotNull Duration serverWait, long lockTimeout)
+    {
+        return
+        this.executeAcquireScript(List.of(lockKeyName), identifier, serverWait, lockTimeout)
+            .flatMap(this::toAttemptResult);
+    }
 
+    /**
+     * 尝试获取一个锁并领取栅栏令牌，何时尝试、尝试几次由 {@link AcquireStrategy} 决定。
+     * 令牌和锁在同一次脚本调用中发放，不需要额外的 Redis 往返。
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的时间期限（毫秒级）
+     * @param lockTimeout    锁本身的有效期（毫秒级）
+     *
+     * @return 返回一个 Mono，成功获取锁时发布锁的唯一标识符和栅栏令牌
+     */
+    private @NotNull Mono<FencingToken>
+    acquireFencedLock(
+        String lockName, long acquireTimeout, long lockTimeout)
+    {
         return
-        this.luaScriptReader
-            .read(DISTRIBUTE_LOCK, "acquireLockTimeout.lua")
-            .flatMap((script) ->
-                this.scriptRedisTemplate
-                    .execute(
-                        script,
-                        List.of(lockKeyName),
-                        identifier, acquireTimeout, lockTimeout)
-                    .timeout(this.operatorTimeout)
-                    .next()
-                    .subscribeOn(this.scheduler)
-                    .flatMap((result) ->
-                        switch (result.getResult())
-                        {
-                            case "GET_LOCK_TIMEOUT" -> {
-                                faultStatistical.increaseLockTimeout();
-                                yield Mono.error(
-                                    new AcquireLockTimeout(
-                                        format(
-                                            "Acquire lock: %s timeout! (acquireTimeout = %d seconds)",
-                                            lockName, acquireTimeout
-                                        )
-                                    )
-                                );
-                            }
-
-                            case "SUCCESS" -> Mono.just(identifier);
-
-                            case null, default ->
-                                Mono.error(
-                                    new IllegalStateException(
-                                        "Unexpected value: " + result.getResult()
-                                    )
-                                );
-                        }
+        Mono.defer(() -> {
+            final List<String> lockKeyNames
+                = List.of(getRedisLockKey(lockName), getFencingTokenKey(lockName));
+
+            final String        identifier = this.identifierGenerator.nextIdentifier();
+            final AtomicLong    token      = new AtomicLong(-1L);
+            final AtomicInteger attempts   = new AtomicInteger(0);
+
+            final AcquireRequest request
+                = new AcquireRequest(
+                    lockName, lockKeyNames.getFirst(), getRedisLockChannel(lockName),
+                    Duration.ofMillis(acquireTimeout), Duration.ofMillis(lockTimeout)
+                );
+
+            return
+            this.acquireStrategy
+                .acquire(
+                    request,
+                    (serverWait) -> {
+                        attempts.incrementAndGet();
+                        return
+                        this.executeAcquireScript(lockKeyNames, identifier, serverWait, lockTimeout)
+                            .doOnNext((result) -> {
+                                if (result.getValueCount() > 0) {
+                                    token.set(result.getValue(0));
+                                }
+                            })
+                            .flatMap(this::toAttemptResult);
+                    })
+                .flatMap((acquired) ->
+                    (acquired)
+                        ? Mono.just(new FencingToken(identifier, token.get()))
+                        : this.acquireLockTimeoutError(lockName, acquireTimeout))
+                .doFinally((signal) ->
+                    this.metrics.recordAcquireAttempts(LockType.DISTRIBUTED_LOCK, lockName, attempts.get()))
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+        });
+    }
+
+    /** 将获取锁脚本的执行结果映射成 {@link LockAttemptResult}。*/
+    private @NotNull Mono<LockAttemptResult>
+    toAttemptResult(@NotNull LuaOperatorResult result)
+    {
+        return
+        switch (result.getStatus())
+        {
+            case SUCCESS -> Mono.just(LockAttemptResult.ACQUIRED);
+
+            case LOCK_OCCUPIED ->
+                Mono.just(
+                    new LockAttemptResult(
+                        false,
+                        result.getValueOrDefault(0, -1L)
                     )
+                );
+
+            case GET_LOCK_TIMEOUT ->
+                Mono.just(new LockAttemptResult(false, -1L));
+
+            default ->
+                Mono.error(
+                    new IllegalStateException(
+                        "Unexpected value: " + result
+                    )
+                );
+        };
+    }
+
+    /**
+     * 为自己持有的锁续期。
+     *
+     * @param lockName    锁名
+     * @param identifier  锁的唯一标识符
+     * @param lockTimeout 续期后锁的有效期（毫秒级）
+     *
+     * @return 发布锁是否仍然属于自己（续期是否成功）的 Mono
+     */
+    private @NotNull Mono<Boolean>
+    extendLock(String lockName, String identifier, long lockTimeout)
+    {
+        final String lockKeyName = getRedisLockKey(lockName);
+
+        return
+        this.executeScript(this.extendLockScript, List.of(lockKeyName), identifier, lockTimeout)
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case SUCCESS -> Mono.just(true);
+
+                    case LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS -> {
+                        log.warn(
+                            "Lock (identifier = {}) lost before extend: {}",
+                            identifier, result.getStatusName()
+                        );
+
+                        yield Mono.just(false);
+                    }
+
+                    default ->
+                        Mono.error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
             ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
     }
 
@@ -146,60 +502,229 @@ public final class DefaultRedisDistributedLockImpl implements RedisDistributedLo
     {
         final String lockKeyName = getRedisLockKey(lockName);
 
+        // 启用了批处理器时和其他调用者的释放操作合并执行，拿回来的状态码和单独执行时相同
+        final Mono<LuaOperatorResult> release
+            = (Objects.isNull(this.releaseBatcher))
+                ? this.executeScript(this.releaseLockScript, List.of(lockKeyName), identifier)
+                : this.releaseBatcher.submit(new LockRelease(lockKeyName, identifier));
+
         return
-        this.luaScriptReader
-            .read(DISTRIBUTE_LOCK, "releaseLock.lua")
-            .flatMap((script) ->
-                this.scriptRedisTemplate
-                    .execute(script, List.of(lockKeyName), identifier)
-                    .timeout(this.operatorTimeout)
-                    .next()
-                    .subscribeOn(this.scheduler)
-                    .flatMap((result) ->
-                        switch (result.getResult())
-                        {
-                            case "LOCK_NOT_EXIST" -> {
-                                log.warn("Lock (identifier = {}) not exist!", identifier);
-
-                                this.faultStatistical.increaseLockNotExist();
-                                yield Mono.empty();
-                            }
-
-                            case "CONCURRENT_RELEASE" -> {
-                                log.warn("Concurrent delete happened!");
-                                this.faultStatistical.increaseConcurrentRelease();
-                                yield Mono.empty();
-                            }
-
-                            case "LOCK_OWNED_BY_OTHERS" -> {
-                                log.warn("Try to release others lock!");
-                                this.faultStatistical.increaseReleaseOthers();
-                                yield Mono.empty();
-                            }
-
-                            case "SUCCESS" -> Mono.empty();
-
-                            case null, default ->
-                                Mono.error(
-                                    new IllegalStateException(
-                                        "Unexpected value: " + result.getResult()
-                                    )
-                                );
-                        }
-                    )
+        release
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case LOCK_NOT_EXIST -> {
+                        log.warn("Lock (identifier = {}) not exist!", identifier);
+
+                        this.faultStatistical.increaseLockNotExist();
+                        yield Mono.empty();
+                    }
+
+                    case CONCURRENT_RELEASE -> {
+                        log.warn("Concurrent delete happened!");
+                        this.faultStatistical.increaseConcurrentRelease();
+                        yield Mono.empty();
+                    }
+
+                    case LOCK_OWNED_BY_OTHERS -> {
+                        log.warn("Try to release others lock!");
+                        this.faultStatistical.increaseReleaseOthers();
+                        yield Mono.empty();
+                    }
+
+                    case SUCCESS -> Mono.empty();
+
+                    default ->
+                        Mono.error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
             ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
     }
 
+    /**
+     * 两级锁中的本地持有者。
+     *
+     * @param queue      所在的本地队列
+     * @param identifier 持有的 Redis 锁唯一标识符
+     * @param handovers  这个 Redis 锁已经在本 JVM 内连续移交的次数
+     */
+    private record LocalHolder(
+        LocalLockQueue queue, String identifier, int handovers) {}
+
+    /**
+     * 两级锁的获取：先在本地队列中排队成为本地持有者，
+     * 再使用上一个本地持有者移交的 Redis 锁（续期成功的话），或者自己去 Redis 中竞争。
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的时间期限（本地排队和 Redis 竞争共用，毫秒级）
+     * @param lockTimeout    锁本身的有效期（毫秒级）
+     *
+     * @return 发布本地持有者的 Mono
+     */
+    private @NotNull Mono<LocalHolder>
+    acquireLockLocally(String lockName, long acquireTimeout, long lockTimeout)
+    {
+        return
+        Mono.defer(() -> {
+            final long acquireEnd
+                = System.nanoTime() + Duration.ofMillis(acquireTimeout).toNanos();
+
+            return
+            this.localLocks
+                .enter(
+                    lockName, Duration.ofMillis(acquireTimeout),
+                    (queue, handover) ->
+                        this.abandonHandover(lockName, queue, handover))
+                .switchIfEmpty(
+                    Mono.defer(() -> this.acquireLockTimeoutError(lockName, acquireTimeout)))
+                .flatMap((entry) -> {
+                    final Handover handover = entry.handover();
+
+                    // 本地排队已经耗掉了一部分期限，剩余期限为 0 时也会在 Redis 中尝试一次
+                    final Mono<LocalHolder> acquireInRedis
+                        = Mono.defer(() ->
+                            this.acquireLockTimeout(
+                                lockName,
+                                Math.max(
+                                    0L,
+                                    Duration.ofNanos(acquireEnd - System.nanoTime()).toMillis()),
+                                lockTimeout
+                            ).map((identifier) -> new LocalHolder(entry.queue(), identifier, 0))
+                        );
+
+                    // 接手移交来的 Redis 锁之前，先确认它仍然属于我们并按自己的 lockTimeout 续期
+                    final Mono<LocalHolder> acquire
+                        = (Objects.isNull(handover.identifier()))
+                            ? acquireInRedis
+                            : this.extendLock(lockName, handover.identifier(), lockTimeout)
+                                  .flatMap((extended) ->
+                                      (extended)
+                                          ? Mono.just(
+                                              new LocalHolder(
+                                                  entry.queue(),
+                                                  handover.identifier(),
+                                                  handover.handovers()))
+                                          : acquireInRedis
+                                  );
+
+                    // 成为本地持有者后获取失败（或者被取消），必须让出本地队列，
+                    // 否则后面的等待者永远等不到令牌
+                    return
+                    acquire
+                        .onErrorResume((exception) -> {
+                            this.localLocks.leave(lockName, entry.queue(), Handover.NONE);
+                            return Mono.error(exception);
+                        })
+                        .doOnCancel(() ->
+                            this.localLocks.leave(lockName, entry.queue(), Handover.NONE));
+                });
+        });
+    }
+
+    /**
+     * 两级锁的释放：本地还有等待者、且移交次数没有超过上限时，直接把 Redis 锁移交给下一个等待者，
+     * 反之在 Redis 中释放锁，再让下一个等待者自己去 Redis 中竞争。
+     */
+    private @NotNull Mono<Void>
+    releaseLockLocally(String lockName, @NotNull LocalHolder holder)
+    {
+        final Handover next
+            = new Handover(holder.identifier(), holder.handovers() + 1);
+
+        if (this.localLocks.canHandOver(next))
+        {
+            return
+            Mono.defer(() ->
+                (this.localLocks.leave(lockName, holder.queue(), next))
+                    ? Mono.empty()
+                    : this.releaseLock(lockName, holder.identifier())
+            );
+        }
+
+        return
+        this.releaseLock(lockName, holder.identifier())
+            .then(Mono.fromRunnable(() ->
+                this.localLocks.leave(lockName, holder.queue(), Handover.NONE)));
+    }
+
+    /** 等待者的订阅已经取消，但令牌已经移交给它时，把令牌继续传下去（或者释放 Redis 锁）。*/
+    private void
+    abandonHandover(
+        String lockName, LocalLockQueue queue, @NotNull Handover handover)
+    {
+        if (Objects.isNull(handover.identifier()))
+        {
+            this.localLocks.leave(lockName, queue, Handover.NONE);
+            return;
+        }
+
+        this.releaseLockLocally(
+            lockName,
+            new LocalHolder(queue, handover.identifier(), handover.handovers())
+        ).subscribe();
+    }
+
+    /**
+     * 在看门狗的续期下执行业务逻辑，锁在业务执行期间丢失时，业务逻辑会被取消并发布 {@link LockLeaseLost}。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName    锁名
+     * @param identifier  锁的唯一标识符
+     * @param lockTimeout 每次续期后锁的有效期
+     * @param action      业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    private <T> @NotNull Mono<T>
+    withLease(
+        String lockName, String identifier, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        Mono.defer(() -> {
+            final LockLease lease
+                = this.watchdog.register(getRedisLockKey(lockName), identifier, lockTimeout);
+
+            // 注意要在终止信号向下游传播（进而触发释放锁）之前停止续期
+            return
+            Mono.firstWithSignal(action.apply(identifier), lease.<T>lost())
+                .doOnError(LockLeaseLost.class, (exception) -> {
+                    log.warn("{}", exception.getMessage());
+                    this.faultStatistical.increaseLeaseLost();
+                    this.metrics.recordLeaseLost(LockType.DISTRIBUTED_LOCK, lockName);
+                })
+                .doOnTerminate(lease::cancel)
+                .doOnCancel(lease::cancel);
+        });
+    }
+
+    /** 在锁作用域内执行业务逻辑（启用看门狗时在看门狗的续期下执行）。*/
+    private <T> Mono<T>
+    runAction(
+        String lockName, String identifier, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        (Objects.isNull(this.watchdog))
+            ? action.apply(identifier)
+            : this.withLease(lockName, identifier, lockTimeout, action);
+    }
+
     /**
      * 兼容响应式流的 Redis 分布式锁操作，
      * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
      * 在业务逻辑（action）范围前后，自动完成信号量的获取与释放操作。
+     * Redis 不可用（熔断器打开）时，按照锁名配置的降级方式直接失败或者不加锁执行业务逻辑。
      *
      * @param <T> 在锁作用域中业务逻辑返回的类型
      *
      * @param lockName       锁名
      * @param acquireTimeout 获取锁的实现期限
-     * @param lockTimeout    锁本身的持有时间期限
+     * @param lockTimeout    锁本身的持有时间期限（启用看门狗时为每次续期后的有效期）
      * @param action         业务逻辑
      *
      * @return 发布业务逻辑执行结果数据的 {@link Mono}
@@ -215,21 +740,471 @@ public final class DefaultRedisDistributedLockImpl implements RedisDistributedLo
          * 注意外部再用 defer() 包一层，
          * 确保每次调用都创建新的响应式流。
          */
+        if (Objects.nonNull(this.localLocks))
+        {
+            return
+            Mono.defer(() -> {
+                final AtomicBoolean acquired = new AtomicBoolean(false);
+
+                return
+                this.circuitBreaker.withDegradation(
+                    lockName, acquired,
+                    Mono.usingWhen(
+                        this.metrics.timeAcquire(
+                            LockType.DISTRIBUTED_LOCK, lockName,
+                            this.acquireLockLocally(
+                                lockName,
+                                acquireTimeout.toMillis(),
+                                lockTimeout.toMillis()
+                            )
+                        ).doOnNext((holder) -> acquired.set(true)),
+                        (holder) ->
+                            this.metrics.timeHold(
+                                LockType.DISTRIBUTED_LOCK, lockName,
+                                this.runAction(lockName, holder.identifier(), lockTimeout, action)),
+                        (holder) ->
+                            this.metrics.timeRelease(
+                                LockType.DISTRIBUTED_LOCK, lockName,
+                                this.releaseLockLocally(lockName, holder))
+                    ),
+                    () -> action.apply(this.identifierGenerator.nextIdentifier())
+                );
+            });
+        }
+
+        return
+        Mono.defer(() -> {
+            final AtomicBoolean acquired = new AtomicBoolean(false);
+
+            return
+            this.circuitBreaker.withDegradation(
+                lockName, acquired,
+                Mono.usingWhen(
+                    this.metrics.timeAcquire(
+                        LockType.DISTRIBUTED_LOCK, lockName,
+                        this.acquireLockTimeout(
+                            lockName,
+                            acquireTimeout.toMillis(),
+                            lockTimeout.toMillis()
+                        )
+                    ).doOnNext((acquiredId) -> acquired.set(true)),
+                    (acquiredId) ->
+                        this.metrics.timeHold(
+                            LockType.DISTRIBUTED_LOCK, lockName,
+                            this.runAction(lockName, acquiredId, lockTimeout, action)),
+                    (acquiredId) ->
+                        this.metrics.timeRelease(
+                            LockType.DISTRIBUTED_LOCK, lockName,
+                            this.releaseLock(lockName, acquiredId))
+                ),
+                () -> action.apply(this.identifierGenerator.nextIdentifier())
+            );
+        });
+    }
+
+    /**
+     * 一次性获取同一个哈希槽内的多个锁，何时尝试、尝试几次由 {@link AcquireStrategy} 决定。
+     *
+     * @param lockName     这一组中第一个锁的锁名（用于查找按锁名配置的获取参数）
+     * @param lockKeyNames 同一个哈希槽内的锁键（已排序）
+     * @param identifier   所有锁共用的唯一标识符
+     * @param deadline     获取全部锁的截止时间（System.nanoTime()）
+     * @param lockTimeout  锁本身的有效期（毫秒级）
+     *
+     * @return 发布是否成功获取这一组锁的 Mono
+     */
+    private @NotNull Mono<Boolean>
+    acquireLockGroup(
+        String lockName, @NotNull List<String> lockKeyNames, String identifier,
+        long deadline, long lockTimeout)
+    {
+        return
+        Mono.defer(() -> {
+            final long remaining = deadline - System.nanoTime();
+
+            if (remaining <= 0L) {
+                return Mono.just(false);
+            }
+
+            // 等待时只订阅第一个锁的释放频道，其他锁的释放由 ttl 兜底
+            final String firstKeyName = lockKeyNames.getFirst();
+
+            final AcquireRequest request
+                = new AcquireRequest(
+                    lockName, firstKeyName, firstKeyName + ":" + "release",
+                    Duration.ofNanos(remaining), Duration.ofMillis(lockTimeout)
+                );
+
+            return
+            this.multiLockStrategy
+                .acquire(
+                    request,
+                    (serverWait) ->
+                        this.executeScript(
+                                this.acquireLocksScript, lockKeyNames, identifier, lockTimeout)
+                            .flatMap(this::toAttemptResult));
+        });
+    }
+
+    /**
+     * 释放同一个哈希槽内的多个锁。
+     *
+     * @return 不发布任何数据的 Mono，表示操作整体是否完成
+     */
+    private @NotNull Mono<Void>
+    releaseLockGroup(@NotNull List<String> lockKeyNames, String identifier)
+    {
+        return
+        this.executeScript(this.releaseLocksScript, lockKeyNames, identifier)
+            .flatMap((result) -> {
+                if (result.getStatus() != SUCCESS)
+                {
+                    return
+                    Mono.<Void>error(
+                        new IllegalStateException(
+                            "Unexpected value: " + result
+                        )
+                    );
+                }
+
+                // 附加值依次是释放失败的锁在 KEYS 中的下标（从 1 开始）和失败的状态码，
+                // 和单个锁的释放一样分别统计
+                for (int i = 0; i + 1 < result.getValueCount(); i += 2)
+                {
+                    final String lockKeyName
+                        = lockKeyNames.get((int) result.getValue(i) - 1);
+
+                    if (result.getValue(i + 1) == LOCK_OWNED_BY_OTHERS)
+                    {
+                        log.warn("Try to release others lock {}!", lockKeyName);
+                        this.faultStatistical.increaseReleaseOthers();
+                    }
+                    else
+                    {
+                        log.warn("Lock {} (identifier = {}) not exist!", lockKeyName, identifier);
+                        this.faultStatistical.increaseLockNotExist();
+                    }
+                }
+
+                return Mono.<Void>empty();
+            }).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
+    }
+
+    /** 释放已经获取的所有锁组（逐组释放，某一组出错不影响其他组）。*/
+    private @NotNull Mono<Void>
+    releaseLockGroups(@NotNull List<List<String>> lockGroups, String identifier)
+    {
+        return
+        Flux.fromIterable(lockGroups)
+            .concatMap((group) ->
+                this.releaseLockGroup(group, identifier)
+                    .onErrorResume((exception) -> Mono.empty()))
+            .then();
+    }
+
+    /**
+     * 获取多锁失败后释放所有的锁组，没有获取到的锁释放失败是预期之内的，
+     * 所以不像 {@link #releaseLockGroups(List, String)} 那样记录和统计释放失败的锁。
+     */
+    private @NotNull Mono<Void>
+    abandonLockGroups(@NotNull List<List<String>> lockGroups, String identifier)
+    {
+        return
+        Flux.fromIterable(lockGroups)
+            .concatMap((group) ->
+                this.executeScript(this.releaseLocksScript, group, identifier)
+                    .onErrorResume((exception) -> Mono.empty()))
+            .then();
+    }
+
+    /** 获取多锁后持有的锁组。*/
+    private record MultiLockHolder(
+        String identifier, List<List<String>> lockGroups) {}
+
+    /**
+     * 一次性获取多个锁，同一个哈希槽内的锁在一次脚本调用中获取，
+     * 不同哈希槽的锁按哈希槽升序逐组获取，任何一组失败都会释放所有的组。
+     */
+    private @NotNull Mono<MultiLockHolder>
+    acquireLocks(
+        String hashTag, @NotNull Collection<String> lockNames,
+        Duration acquireTimeout, long lockTimeout)
+    {
+        if (lockNames.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Lock names must not be empty!"));
+        }
+
+        return
+        Mono.defer(() -> {
+            // 去重并排序，保证所有调用者的获取顺序一致
+            final Map<String, String> keyToName = new LinkedHashMap<>();
+
+            for (String lockName : new TreeSet<>(lockNames)) {
+                keyToName.put(getRedisLockKey(hashTag, lockName), lockName);
+            }
+
+            final List<String> lockKeyNames = List.copyOf(keyToName.keySet());
+
+            final List<List<String>> lockGroups
+                = RedisKeySlots.groupBySlot(lockKeyNames, Function.identity(), this.clusterMode);
+
+            final String identifier = this.identifierGenerator.nextIdentifier();
+            final long   deadline   = System.nanoTime() + acquireTimeout.toNanos();
+
+            // 失败时释放所有的组而不只是已经确认获取的组：出错或者超时的那一组的脚本可能已经在 Redis 中执行成功，
+            // releaseLocks.lua 只释放仍然是自己的锁，所以释放没有获取到的组也是安全的
+            return
+            Flux.fromIterable(lockGroups)
+                .concatMap((group) ->
+                    this.acquireLockGroup(
+                        keyToName.get(group.getFirst()), group,
+                        identifier, deadline, lockTimeout))
+                .all((acquired) -> acquired)
+                .flatMap((allAcquired) ->
+                    (allAcquired)
+                        ? Mono.just(new MultiLockHolder(identifier, lockGroups))
+                        : this.abandonLockGroups(lockGroups, identifier)
+                              .then(this.<MultiLockHolder>acquireLockTimeoutError(
+                                  String.join(", ", lockKeyNames), acquireTimeout.toMillis())))
+                .onErrorResume((exception) ->
+                    (exception instanceof AcquireLockTimeout)
+                        ? Mono.error(exception)
+                        : this.abandonLockGroups(lockGroups, identifier)
+                              .then(RedisLockErrorHandle.redisLockGenericErrorHandle(exception)));
+        });
+    }
+
+    /** 在多锁作用域内执行业务逻辑（启用看门狗时，所有的锁都在看门狗的续期下，任何一个丢失都会取消业务逻辑）。*/
+    private <T> @NotNull Mono<T>
+    runActionWithLocks(
+        String metricName, @NotNull MultiLockHolder holder, Duration lockTimeout,
+        @NotNull Function<String, Mono<T>> action)
+    {
+        if (Objects.isNull(this.watchdog)) {
+            return action.apply(holder.identifier());
+        }
+
+        return
+        Mono.defer(() -> {
+            final List<LockLease> leases
+                = holder.lockGroups().stream()
+                    .flatMap(List::stream)
+                    .map((lockKeyName) ->
+                        this.watchdog.register(lockKeyName, holder.identifier(), lockTimeout))
+                    .toList();
+
+            final Mono<T> anyLost
+                = Mono.firstWithSignal(
+                    leases.stream().map(LockLease::<T>lost).toList());
+
+            return
+            Mono.firstWithSignal(action.apply(holder.identifier()), anyLost)
+                .doOnError(LockLeaseLost.class, (exception) -> {
+                    log.warn("{}", exception.getMessage());
+                    this.faultStatistical.increaseLeaseLost();
+                    this.metrics.recordLeaseLost(LockType.DISTRIBUTED_LOCK, metricName);
+                })
+                .doFinally((signal) -> leases.forEach(LockLease::cancel));
+        });
+    }
+
+    /**
+     * 兼容响应式流的、带栅栏令牌的 Redis 分布式锁操作。
+     * 需要单调递增的令牌，所以直接在 Redis 中竞争，不经过两级锁的 JVM 本地一级；
+     * 没有 Redis 就拿不到令牌，所以熔断时总是直接失败，不会降级。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限
+     * @param lockTimeout    锁本身的持有时间期限（启用看门狗时为每次续期后的有效期）
+     * @param action         业务逻辑（参数为锁的唯一标识符和栅栏令牌）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withFencedLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<FencingToken, Mono<T>> action)
+    {
         return
         Mono.defer(() ->
             Mono.usingWhen(
-                this.acquireLockTimeout(
-                    lockName,
-                    acquireTimeout.toMillis(),
-                    lockTimeout.toMillis()
+                this.metrics.timeAcquire(
+                    LockType.DISTRIBUTED_LOCK, lockName,
+                    this.acquireFencedLock(
+                        lockName,
+                        acquireTimeout.toMillis(),
+                        lockTimeout.toMillis()
+                    )
                 ),
-                action,
-                (acquiredId) ->
-                    this.releaseLock(lockName, acquiredId)
+                (fencingToken) ->
+                    this.metrics.timeHold(
+                        LockType.DISTRIBUTED_LOCK, lockName,
+                        this.runAction(
+                            lockName, fencingToken.identifier(), lockTimeout,
+                            (identifier) -> action.apply(fencingToken))),
+                (fencingToken) ->
+                    this.metrics.timeRelease(
+                        LockType.DISTRIBUTED_LOCK, lockName,
+                        this.releaseLock(lockName, fencingToken.identifier()))
             )
         );
     }
 
+    @Override
+    public <T> Mono<T>
+    withLocks(
+        Collection<String> lockNames,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        this.withLocks(null, lockNames, acquireTimeout, lockTimeout, action);
+    }
+
+    /**
+     * 一次性获取多个锁（全部获取或者全部不获取）后执行业务逻辑。
+     * 多锁直接在 Redis 中竞争，不经过两级锁的 JVM 本地一级。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param hashTag        共享的哈希标签（可以为 null）
+     * @param lockNames      锁名集合（不能为空）
+     * @param acquireTimeout 获取全部锁的时间期限
+     * @param lockTimeout    锁本身的持有时间期限（启用看门狗时为每次续期后的有效期）
+     * @param action         业务逻辑（参数为所有锁共用的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withLocks(
+        String hashTag, Collection<String> lockNames,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        Mono.defer(() -> {
+            // 多锁以哈希标签（没有时为排序后的锁名）作为指标中的锁名
+            final String metricName
+                = (Objects.nonNull(hashTag))
+                    ? hashTag
+                    : String.join(",", new TreeSet<>(lockNames));
+
+            final AtomicBoolean acquired = new AtomicBoolean(false);
+
+            // 熔断时的降级方式同样按这个锁名配置
+            return
+            this.circuitBreaker.withDegradation(
+                metricName, acquired,
+                Mono.usingWhen(
+                    this.metrics.timeAcquire(
+                        LockType.DISTRIBUTED_LOCK, metricName,
+                        this.acquireLocks(hashTag, lockNames, acquireTimeout, lockTimeout.toMillis())
+                    ).doOnNext((holder) -> acquired.set(true)),
+                    (holder) ->
+                        this.metrics.timeHold(
+                            LockType.DISTRIBUTED_LOCK, metricName,
+                            this.runActionWithLocks(metricName, holder, lockTimeout, action)),
+                    (holder) ->
+                        this.metrics.timeRelease(
+                            LockType.DISTRIBUTED_LOCK, metricName,
+                            this.releaseLockGroups(holder.lockGroups(), holder.identifier()))
+                ),
+                () -> action.apply(this.identifierGenerator.nextIdentifier())
+            );
+        });
+    }
+
+    /** {@link LockHandle} 的默认实现，续期和释放都委托给外部的锁实现。*/
+    private final class DefaultLockHandle implements LockHandle
+    {
+        private final String   lockName;
+        private final String   identifier;
+        private final Duration leaseTime;
+
+        /** 锁是否已经释放（保证只释放一次）。*/
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private DefaultLockHandle(String lockName, String identifier, Duration leaseTime)
+        {
+            this.lockName   = lockName;
+            this.identifier = identifier;
+            this.leaseTime  = leaseTime;
+        }
+
+        @Override
+        public String getLockName() {
+            return this.lockName;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return this.identifier;
+        }
+
+        @Override
+        public Duration getLeaseTime() {
+            return this.leaseTime;
+        }
+
+        @Override
+        public Mono<Boolean>
+        extend(@NotNull Duration leaseTime)
+        {
+            return
+            Mono.defer(() ->
+                (this.released.get())
+                    ? Mono.just(false)
+                    : extendLock(this.lockName, this.identifier, leaseTime.toMillis())
+            );
+        }
+
+        @Override
+        public Mono<Void> release()
+        {
+            return
+            Mono.defer(() ->
+                (this.released.compareAndSet(false, true))
+                    ? releaseLock(this.lockName, this.identifier)
+                    : Mono.empty()
+            );
+        }
+    }
+
+    /**
+     * 非阻塞地尝试获取锁，只执行一次 acquireLock.lua，不经过 {@link AcquireStrategy} 的等待。
+     * 锁已被别人持有不算作故障，不计入统计。
+     *
+     * @param lockName  锁名
+     * @param leaseTime 锁的租约时长
+     *
+     * @return 发布锁句柄的 {@link Mono}，锁已被别人持有时发布 {@link Optional#empty()}
+     */
+    @Override
+    public Mono<Optional<LockHandle>>
+    tryLock(String lockName, Duration leaseTime)
+    {
+        return
+        Mono.defer(() -> {
+            final String identifier = this.identifierGenerator.nextIdentifier();
+
+            return
+            this.tryAcquireLock(
+                    getRedisLockKey(lockName), identifier,
+                    Duration.ZERO, leaseTime.toMillis())
+                .map((attempt) ->
+                    (attempt.acquired())
+                        ? Optional.<LockHandle>of(
+                            new DefaultLockHandle(lockName, identifier, leaseTime))
+                        : Optional.<LockHandle>empty())
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+        });
+    }
+
     /** 获取统计结果字符串。*/
     @Override
     public String getStatisticResultString() {
@@ -242,6 +1217,17 @@ public final class DefaultRedisDistributedLockImpl implements RedisDistributedLo
         return this.faultStatistical.getStatisticResultInstance();
     }
 
+    /** 获取本实现中竞争最激烈的锁名（按竞争次数降序）。*/
+    @Override
+    public List<HotKey> getHotKeys()
+    {
+        return
+        this.metrics.getHotKeys()
+            .stream()
+            .filter((hotKey) -> hotKey.type() == LockType.DISTRIBUTED_LOCK)
+            .toList();
+    }
+
     /** 清理统计结果（选择性实现）*/
     @Override
     public void cleanStatisticResult() {
@@ -0,0 +1,830 @@
+package io.github.jessez332623.redis_lock.distributed_lock.impl;
+
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.AcquireRequest;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.LockAttemptResult;
+import io.github.jessez332623.redis_lock.distributed_lock.FencingToken;
+import io.github.jessez332623.redis_lock.distributed_lock.LockHandle;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisDistributedLock;
+import io.github.jessez332623.redis_lock.distributed_lock.exception.AcquireLockTimeout;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.BackoffAcquireStrategy.BackoffPolicy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.ServerSpinAcquireStrategy;
+import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
+import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
+import io.github.jessez332623.redis_lock.statistics.impl.DistributedLockFaultStatistical;
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import io.github.jessez332623.redis_lock.utils.RedisLockScriptTemplates;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.CONCURRENT_RELEASE;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OCCUPIED;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.DISTRIBUTE_LOCK;
+import static java.lang.String.format;
+
+/**
+ * <p>基于多个独立 Redis 节点的仲裁（Redlock 式）分布式锁实现。</p>
+ *
+ * <p>
+ *     {@link DefaultRedisDistributedLockImpl} 只连接一个 Redis，主节点故障转移时
+ *     还没有复制到从节点的锁会丢失，同一个锁可能被两个持有者同时持有。
+ *     本实现连接 N 个互相独立的 Redis 主节点（不是同一个集群或者主从中的节点），
+ *     每次尝试都并行地向所有节点发送同一个获取脚本，
+ *     只要在扣除时钟漂移之后的有效期内有多数（N / 2 + 1）个节点获取成功，就视为获取到了锁，
+ *     因此一次尝试的耗时约等于第 N / 2 + 1 快的那个节点的回复时间，而不是所有节点的耗时之和；
+ *     释放同样并行地发往所有节点。获取失败时会立即并行释放所有节点，
+ *     并且在释放之前等待所有节点的回复，避免迟到的获取在释放之后才留下锁。
+ * </p>
+ *
+ * <p>
+ *     脚本和单节点实现完全相同，不需要额外的脚本；
+ *     不同节点的栅栏令牌计数器互相独立，无法给出全局单调递增的令牌，
+ *     所以本实现不支持 {@link #withFencedLock(String, Duration, Duration, Function)}。
+ *     节点数建议为 3 或 5 个奇数，锁在 lockTimeout 后过期（本实现不使用看门狗），
+ *     业务逻辑执行时间超过有效期时会在释放时记录一次租约丢失。
+ * </p>
+ */
+@Slf4j
+public final class DefaultRedisQuorumLockImpl implements RedisDistributedLock
+{
+    /** 默认的时钟漂移系数（有效期的 1%），再加上 {@link #CLOCK_DRIFT_MIN_MILLIS}。*/
+    public static final double DEFAULT_CLOCK_DRIFT_FACTOR = 0.01;
+
+    /** 时钟漂移的固定部分（毫秒级），补偿 Redis 过期时间的精度。*/
+    private static final long CLOCK_DRIFT_MIN_MILLIS = 2L;
+
+    /** 获取策略为 SERVER_SPIN 时改用的退避参数（仲裁锁没有在服务端循环等待的脚本）。*/
+    private static final BackoffPolicy
+    QUORUM_BACKOFF
+        = new BackoffPolicy(Duration.ofMillis(10L), 2.0, Duration.ofSeconds(1L));
+
+    /** 分布式锁键的键前缀（用户自定义）。*/
+    private final String LOCK_KEY_PREFIX;
+
+    /** 每个 Redis 节点执行 Lua 脚本专用的模板。*/
+    private final
+    List<ReactiveRedisTemplate<String, LuaOperatorResult>> nodeTemplates;
+
+    /** 获取成功所需的节点数（N / 2 + 1）。*/
+    private final int quorum;
+
+    /** Redis Lock 专用的线程调度器。*/
+    private final Scheduler scheduler;
+
+    /** Redis 操作的统一超时时间（获取时还不会超过锁的有效期）。*/
+    private final Duration operatorTimeout;
+
+    /** 分布式锁获取策略（每次尝试都是一轮完整的仲裁）。*/
+    private final AcquireStrategy acquireStrategy;
+
+    /** 时钟漂移系数。*/
+    private final double clockDriftFactor;
+
+    /** 锁唯一标识符生成器。*/
+    private final IdentifierGenerator identifierGenerator;
+
+    /** 耗时指标记录器。*/
+    private final LockMetricsRecorder metrics;
+
+    /** 本类用到的 Lua 脚本（和单节点实现共用）。*/
+    private final DefaultRedisScript<List<Object>> acquireLockScript;
+    private final DefaultRedisScript<List<Object>> extendLockScript;
+    private final DefaultRedisScript<List<Object>> releaseLockScript;
+    private final DefaultRedisScript<List<Object>> acquireLocksScript;
+    private final DefaultRedisScript<List<Object>> releaseLocksScript;
+
+    private final DistributedLockFaultStatistical
+    faultStatistical = new DistributedLockFaultStatistical();
+
+    /**
+     * 公共有参构造函数，为每个连接工厂创建脚本模板，
+     * 使用 {@link BackoffAcquireStrategy} 获取策略和默认的时钟漂移系数，不记录耗时指标。
+     */
+    public DefaultRedisQuorumLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        @NotNull List<? extends ReactiveRedisConnectionFactory> connectionFactories,
+        Scheduler scheduler,
+        Duration operatorTimeout
+    )
+    {
+        this(
+            lockKey, luaScriptReader,
+            connectionFactories.stream()
+                .map(RedisLockScriptTemplates::create)
+                .toList(),
+            scheduler, operatorTimeout,
+            new BackoffAcquireStrategy(QUORUM_BACKOFF, Map.of()),
+            new DefaultIdentifierGenerator(), LockMetricsRecorder.NOOP,
+            DEFAULT_CLOCK_DRIFT_FACTOR
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public DefaultRedisQuorumLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        @NotNull List<ReactiveRedisTemplate<String, LuaOperatorResult>> nodeTemplates,
+        Scheduler scheduler,
+        Duration operatorTimeout,
+        AcquireStrategy acquireStrategy,
+        IdentifierGenerator identifierGenerator,
+        LockMetricsRecorder metrics,
+        double clockDriftFactor
+    )
+    {
+        if (nodeTemplates.isEmpty()) {
+            throw new IllegalArgumentException("Quorum lock needs at least one redis node!");
+        }
+
+        if (clockDriftFactor < 0.0 || clockDriftFactor >= 1.0)
+        {
+            throw new
+            IllegalArgumentException(
+                format("Clock drift factor must between 0 and 1! (clockDriftFactor = %s)", clockDriftFactor)
+            );
+        }
+
+        this.LOCK_KEY_PREFIX     = lockKey;
+        this.nodeTemplates       = List.copyOf(nodeTemplates);
+        this.quorum              = nodeTemplates.size() / 2 + 1;
+        this.scheduler           = scheduler;
+        this.operatorTimeout     = operatorTimeout;
+        this.identifierGenerator = identifierGenerator;
+        this.metrics             = metrics;
+        this.clockDriftFactor    = clockDriftFactor;
+
+        this.acquireStrategy
+            = (acquireStrategy instanceof ServerSpinAcquireStrategy)
+                ? new BackoffAcquireStrategy(QUORUM_BACKOFF, Map.of())
+                : acquireStrategy;
+
+        this.acquireLockScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "acquireLock.lua");
+        this.extendLockScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "extendLock.lua");
+        this.releaseLockScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "releaseLock.lua");
+        this.acquireLocksScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "acquireLocks.lua");
+        this.releaseLocksScript
+            = luaScriptReader.load(DISTRIBUTE_LOCK, "releaseLocks.lua");
+    }
+
+    /** 获取成功所需的节点数。*/
+    public int getQuorum() {
+        return this.quorum;
+    }
+
+    /** 组合 Redis 锁键（和单节点实现保持一致）。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getRedisLockKey(String keyName) {
+        return LOCK_KEY_PREFIX + ":" + "{" + keyName + "}";
+    }
+
+    /** 组合多锁中的锁键，hashTag 为 null 时和 {@link #getRedisLockKey(String)} 相同。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getRedisLockKey(String hashTag, String keyName)
+    {
+        return
+        (Objects.isNull(hashTag))
+            ? getRedisLockKey(keyName)
+            : LOCK_KEY_PREFIX + ":" + "{" + hashTag + "}:" + keyName;
+    }
+
+    /** 组合锁的释放频道名（PUB_SUB 获取策略只会收到它所连接的那个节点上的释放消息）。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getRedisLockChannel(String keyName) {
+        return getRedisLockKey(keyName) + ":" + "release";
+    }
+
+    /** 扣除时钟漂移和获取耗时之后，锁剩余的有效期（毫秒级）。*/
+    private long
+    validityMillis(long lockTimeout, long startNanos)
+    {
+        final long elapsed
+            = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+
+        final long drift
+            = (long) (lockTimeout * this.clockDriftFactor) + CLOCK_DRIFT_MIN_MILLIS;
+
+        return lockTimeout - elapsed - drift;
+    }
+
+    /**
+     * 一个节点的脚本执行结果。
+     *
+     * @param node   节点下标
+     * @param result 脚本执行结果（节点出错或者超时时为 null）
+     */
+    private record NodeReply(int node, LuaOperatorResult result)
+    {
+        boolean isStatus(int status) {
+            return Objects.nonNull(this.result) && this.result.getStatus() == status;
+        }
+    }
+
+    /**
+     * 并行地在所有节点上执行同一个脚本，按回复的先后顺序发布每个节点的结果，
+     * 单个节点出错或者超时不会中断其他节点（发布 result 为 null 的回复）。
+     */
+    private @NotNull Flux<NodeReply>
+    executeOnAll(
+        DefaultRedisScript<List<Object>> script, Duration timeout,
+        List<String> keys, Object... args)
+    {
+        return
+        Flux.range(0, this.nodeTemplates.size())
+            .flatMap((node) ->
+                this.nodeTemplates.get(node)
+                    .execute(script, keys, args)
+                    .timeout(timeout)
+                    .next()
+                    .map(LuaOperatorResult::decode)
+                    .as((execution) -> this.metrics.timeScript(script, execution))
+                    .subscribeOn(this.scheduler)
+                    .map((result) -> new NodeReply(node, result))
+                    .onErrorResume((exception) -> {
+                        log.warn(
+                            "Redis node {} failed to execute {}! Caused by: {}",
+                            node, script.getSha1(), exception.getMessage()
+                        );
+
+                        return Mono.just(new NodeReply(node, null));
+                    }),
+                this.nodeTemplates.size()
+            );
+    }
+
+    /**
+     * 一轮仲裁的结果。
+     *
+     * @param acquired       是否获取到了锁
+     * @param validUntilNanos 获取成功时，锁有效期的截止时间（System.nanoTime()）
+     * @param ttl            获取失败时，被占用的节点上锁剩余的最短有效期（毫秒级，未知时为 -1）
+     */
+    private record QuorumAttempt(boolean acquired, long validUntilNanos, long ttl) {}
+
+    /**
+     * 在所有节点上进行一轮仲裁：并行执行获取脚本，多数节点获取成功即可返回，
+     * 扣除时钟漂移后有效期仍为正才算获取成功，反之等所有节点回复（或者超时）之后并行释放所有节点。
+     *
+     * @param acquireScript 获取脚本（acquireLock.lua 或 acquireLocks.lua）
+     * @param releaseScript 对应的释放脚本
+     * @param lockKeyNames  分布式锁键
+     * @param identifier    锁的唯一标识符
+     * @param lockTimeout   锁本身的有效期（毫秒级）
+     *
+     * @return 发布这一轮仲裁结果的 Mono
+     */
+    private @NotNull Mono<QuorumAttempt>
+    tryAcquireQuorum(
+        DefaultRedisScript<List<Object>> acquireScript,
+        DefaultRedisScript<List<Object>> releaseScript,
+        List<String> lockKeyNames, String identifier, long lockTimeout)
+    {
+        return
+        Mono.defer(() -> {
+            final long          start    = System.nanoTime();
+            final AtomicInteger acquired = new AtomicInteger(0);
+            final AtomicLong    minTtl   = new AtomicLong(-1L);
+
+            // 单个节点的回复超过锁的有效期就没有意义了
+            final Duration nodeTimeout
+                = (this.operatorTimeout.toMillis() > lockTimeout)
+                    ? Duration.ofMillis(lockTimeout)
+                    : this.operatorTimeout;
+
+            // cache() 让各节点的获取脚本只执行一次，并且不会因为下游提前结束而被取消
+            final Flux<NodeReply> replies
+                = this.executeOnAll(acquireScript, nodeTimeout, lockKeyNames, identifier, lockTimeout)
+                .doOnNext((reply) -> {
+                    if (reply.isStatus(SUCCESS)) {
+                        acquired.incrementAndGet();
+                    }
+                    else if (reply.isStatus(LOCK_OCCUPIED))
+                    {
+                        final long ttl = reply.result().getValueOrDefault(0, -1L);
+
+                        if (ttl > 0L) {
+                            minTtl.accumulateAndGet(
+                                ttl, (current, next) -> (current < 0L) ? next : Math.min(current, next));
+                        }
+                    }
+                })
+                .cache();
+
+            // 多数节点获取成功时立即结束这一轮，不再等待较慢的节点（它们的获取会在释放时一起清理）；
+            // 获取失败时则要等所有节点回复之后再释放，避免迟到的获取在释放之后才留下锁
+            return
+            replies
+                .takeUntil((reply) -> acquired.get() >= this.quorum)
+                .then(Mono.defer(() -> {
+                    final long validity = this.validityMillis(lockTimeout, start);
+
+                    if (acquired.get() >= this.quorum && validity > 0L)
+                    {
+                        return
+                        Mono.just(
+                            new QuorumAttempt(
+                                true, System.nanoTime() + Duration.ofMillis(validity).toNanos(), -1L)
+                        );
+                    }
+
+                    return
+                    replies
+                        .then(this.releaseOnAll(releaseScript, lockKeyNames, identifier))
+                        .thenReturn(new QuorumAttempt(false, 0L, minTtl.get()));
+                }));
+        });
+    }
+
+    /**
+     * 并行地在所有节点上执行释放脚本。
+     *
+     * @return 发布释放成功的节点数的 Mono
+     */
+    private @NotNull Mono<Long>
+    releaseOnAll(
+        DefaultRedisScript<List<Object>> releaseScript,
+        List<String> lockKeyNames, String identifier)
+    {
+        return
+        this.executeOnAll(releaseScript, this.operatorTimeout, lockKeyNames, identifier)
+            .filter((reply) ->
+                // releaseLocks.lua 成功时附加值是释放失败的锁的下标和状态码，没有附加值才算全部释放
+                (reply.isStatus(SUCCESS) && reply.result().getValueCount() == 0) ||
+                reply.isStatus(CONCURRENT_RELEASE))
+            .count();
+    }
+
+    /** 构造获取锁超时异常（顺便完成统计）。*/
+    private <T> @NotNull Mono<T>
+    acquireLockTimeoutError(String lockName, long acquireTimeout)
+    {
+        this.faultStatistical.increaseLockTimeout();
+
+        return
+        Mono.error(
+            new AcquireLockTimeout(
+                format(
+                    "Acquire quorum lock: %s timeout! (acquireTimeout = %d millis, quorum = %d of %d)",
+                    lockName, acquireTimeout, this.quorum, this.nodeTemplates.size()
+                )
+            )
+        );
+    }
+
+    /**
+     * 仲裁锁的持有者。
+     *
+     * @param lockKeyNames    持有的分布式锁键
+     * @param identifier      锁的唯一标识符
+     * @param validUntilNanos 锁有效期的截止时间（System.nanoTime()）
+     */
+    private record QuorumHolder(
+        List<String> lockKeyNames, String identifier, long validUntilNanos) {}
+
+    /**
+     * 获取一个锁（或者一组锁），何时进行下一轮仲裁由 {@link AcquireStrategy} 决定。
+     *
+     * @param metricName     指标和异常信息中的锁名
+     * @param lockKeyNames   分布式锁键
+     * @param acquireTimeout 获取锁的时间期限（毫秒级）
+     * @param lockTimeout    锁本身的有效期（毫秒级）
+     *
+     * @return 发布仲裁锁持有者的 Mono
+     */
+    private @NotNull Mono<QuorumHolder>
+    acquireQuorumLock(
+        String metricName, @NotNull List<String> lockKeyNames,
+        long acquireTimeout, long lockTimeout)
+    {
+        final boolean multiLock = lockKeyNames.size() > 1;
+
+        return
+        Mono.defer(() -> {
+            final String identifier = this.identifierGenerator.nextIdentifier();
+
+            final AtomicReference<QuorumHolder> holder   = new AtomicReference<>();
+            final AtomicInteger                 attempts = new AtomicInteger(0);
+
+            final AcquireRequest request
+                = new AcquireRequest(
+                    metricName, lockKeyNames.getFirst(),
+                    lockKeyNames.getFirst() + ":" + "release",
+                    Duration.ofMillis(acquireTimeout), Duration.ofMillis(lockTimeout)
+                );
+
+            return
+            this.acquireStrategy
+                .acquire(
+                    request,
+                    (serverWait) -> {
+                        attempts.incrementAndGet();
+
+                        return
+                        this.tryAcquireQuorum(
+                                (multiLock) ? this.acquireLocksScript : this.acquireLockScript,
+                                (multiLock) ? this.releaseLocksScript : this.releaseLockScript,
+                                lockKeyNames, identifier, lockTimeout)
+                            .map((attempt) -> {
+                                if (attempt.acquired())
+                                {
+                                    holder.set(
+                                        new QuorumHolder(
+                                            lockKeyNames, identifier, attempt.validUntilNanos()));
+
+                                    return LockAttemptResult.ACQUIRED;
+                                }
+
+                                return new LockAttemptResult(false, attempt.ttl());
+                            });
+                    })
+                .flatMap((acquired) ->
+                    (acquired)
+                        ? Mono.just(holder.get())
+                        : this.acquireLockTimeoutError(metricName, acquireTimeout))
+                .doFinally((signal) ->
+                    this.metrics.recordAcquireAttempts(LockType.DISTRIBUTED_LOCK, metricName, attempts.get()))
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+        });
+    }
+
+    /**
+     * 释放仲裁锁：并行地发往所有节点，
+     * 业务逻辑执行时间超过了锁的有效期、或者释放成功的节点不足多数时记录下来（锁可能已经被别人持有过）。
+     *
+     * @return 不发布任何数据的 Mono，表示操作整体是否完成
+     */
+    private @NotNull Mono<Void>
+    releaseQuorumLock(String metricName, @NotNull QuorumHolder holder)
+    {
+        final boolean multiLock = holder.lockKeyNames().size() > 1;
+
+        return
+        Mono.defer(() -> {
+            if (System.nanoTime() > holder.validUntilNanos())
+            {
+                log.warn(
+                    "Quorum lock: {} (identifier = {}) expired before the action finished!",
+                    metricName, holder.identifier()
+                );
+
+                this.faultStatistical.increaseLeaseLost();
+                this.metrics.recordLeaseLost(LockType.DISTRIBUTED_LOCK, metricName);
+            }
+
+            return
+            this.releaseOnAll(
+                    (multiLock) ? this.releaseLocksScript : this.releaseLockScript,
+                    holder.lockKeyNames(), holder.identifier())
+                .doOnNext((released) -> {
+                    if (released < this.quorum)
+                    {
+                        log.warn(
+                            "Quorum lock: {} (identifier = {}) only released on {} of {} node(s)!",
+                            metricName, holder.identifier(), released, this.nodeTemplates.size()
+                        );
+
+                        this.faultStatistical.increaseLockNotExist();
+                    }
+                })
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle)
+                .then();
+        });
+    }
+
+    /**
+     * 在所有节点上为自己持有的锁续期，多数节点续期成功、且扣除时钟漂移后有效期仍为正才算成功。
+     *
+     * @return 发布续期后锁有效期截止时间的 Mono，续期失败时发布 {@link Optional#empty()}
+     */
+    private @NotNull Mono<Optional<Long>>
+    extendQuorumLock(String lockName, String identifier, long lockTimeout)
+    {
+        return
+        Mono.defer(() -> {
+            final long start = System.nanoTime();
+
+            return
+            this.executeOnAll(
+                    this.extendLockScript, this.operatorTimeout,
+                    List.of(getRedisLockKey(lockName)), identifier, lockTimeout)
+                .filter((reply) -> reply.isStatus(SUCCESS))
+                .count()
+                .map((extended) -> {
+                    final long validity = this.validityMillis(lockTimeout, start);
+
+                    if (extended >= this.quorum && validity > 0L) {
+                        return Optional.of(System.nanoTime() + Duration.ofMillis(validity).toNanos());
+                    }
+
+                    log.warn(
+                        "Quorum lock: {} (identifier = {}) lost before extend! ({} of {} node(s) extended)",
+                        lockName, identifier, extended, this.nodeTemplates.size()
+                    );
+
+                    return Optional.<Long>empty();
+                })
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+        });
+    }
+
+    /**
+     * 兼容响应式流的仲裁锁操作，在业务逻辑（action）范围前后自动完成锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限
+     * @param lockTimeout    锁本身的持有时间期限
+     * @param action         业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        Mono.defer(() ->
+            Mono.usingWhen(
+                this.metrics.timeAcquire(
+                    LockType.DISTRIBUTED_LOCK, lockName,
+                    this.acquireQuorumLock(
+                        lockName, List.of(getRedisLockKey(lockName)),
+                        acquireTimeout.toMillis(), lockTimeout.toMillis())),
+                (holder) ->
+                    this.metrics.timeHold(
+                        LockType.DISTRIBUTED_LOCK, lockName,
+                        action.apply(holder.identifier())),
+                (holder) ->
+                    this.metrics.timeRelease(
+                        LockType.DISTRIBUTED_LOCK, lockName,
+                        this.releaseQuorumLock(lockName, holder))
+            )
+        );
+    }
+
+    /**
+     * 仲裁锁不支持栅栏令牌：每个节点的令牌计数器互相独立，
+     * 多数节点发放的令牌无法保证在所有持有者之间单调递增。
+     *
+     * @return 发布 {@link UnsupportedOperationException} 的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withFencedLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<FencingToken, Mono<T>> action)
+    {
+        return
+        Mono.error(
+            new UnsupportedOperationException(
+                "Quorum lock does not support fencing tokens, " +
+                "counters on independent redis nodes are not monotonic as a whole!"
+            )
+        );
+    }
+
+    @Override
+    public <T> Mono<T>
+    withLocks(
+        Collection<String> lockNames,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        this.withLocks(null, lockNames, acquireTimeout, lockTimeout, action);
+    }
+
+    /**
+     * 一次性获取多个锁（全部获取或者全部不获取）后执行业务逻辑。
+     * 每个节点都是独立的单机 Redis，所有的锁在每个节点上都只需要一次 acquireLocks.lua，
+     * 多数节点获取到全部的锁才算获取成功。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param hashTag        共享的哈希标签（可以为 null）
+     * @param lockNames      锁名集合（不能为空）
+     * @param acquireTimeout 获取全部锁的时间期限
+     * @param lockTimeout    锁本身的持有时间期限
+     * @param action         业务逻辑（参数为所有锁共用的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withLocks(
+        String hashTag, Collection<String> lockNames,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        if (lockNames.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Lock names must not be empty!"));
+        }
+
+        return
+        Mono.defer(() -> {
+            // 去重并排序，保证所有调用者的获取顺序一致
+            final List<String> lockKeyNames
+                = new TreeSet<>(lockNames).stream()
+                    .map((lockName) -> getRedisLockKey(hashTag, lockName))
+                    .toList();
+
+            // 多锁以哈希标签（没有时为排序后的锁名）作为指标中的锁名
+            final String metricName
+                = (Objects.nonNull(hashTag))
+                    ? hashTag
+                    : String.join(",", new TreeSet<>(lockNames));
+
+            return
+            Mono.usingWhen(
+                this.metrics.timeAcquire(
+                    LockType.DISTRIBUTED_LOCK, metricName,
+                    this.acquireQuorumLock(
+                        metricName, lockKeyNames,
+                        acquireTimeout.toMillis(), lockTimeout.toMillis())),
+                (holder) ->
+                    this.metrics.timeHold(
+                        LockType.DISTRIBUTED_LOCK, metricName,
+                        action.apply(holder.identifier())),
+                (holder) ->
+                    this.metrics.timeRelease(
+                        LockType.DISTRIBUTED_LOCK, metricName,
+                        this.releaseQuorumLock(metricName, holder))
+            );
+        });
+    }
+
+    /** 仲裁锁的 {@link LockHandle} 实现，续期和释放同样需要多数节点的确认。*/
+    private final class QuorumLockHandle implements LockHandle
+    {
+        private final String   lockName;
+        private final String   identifier;
+        private final Duration leaseTime;
+
+        /** 当前有效期的截止时间（System.nanoTime()，每次续期成功后更新）。*/
+        private volatile long validUntilNanos;
+
+        /** 锁是否已经释放（保证只释放一次）。*/
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private QuorumLockHandle(
+            String lockName, String identifier, Duration leaseTime, long validUntilNanos)
+        {
+            this.lockName        = lockName;
+            this.identifier      = identifier;
+            this.leaseTime       = leaseTime;
+            this.validUntilNanos = validUntilNanos;
+        }
+
+        @Override
+        public String getLockName() {
+            return this.lockName;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return this.identifier;
+        }
+
+        @Override
+        public Duration getLeaseTime() {
+            return this.leaseTime;
+        }
+
+        @Override
+        public Mono<Boolean>
+        extend(@NotNull Duration leaseTime)
+        {
+            return
+            Mono.defer(() ->
+                (this.released.get())
+                    ? Mono.just(false)
+                    : extendQuorumLock(this.lockName, this.identifier, leaseTime.toMillis())
+                          .map((validUntil) -> {
+                              validUntil.ifPresent((nanos) -> this.validUntilNanos = nanos);
+                              return validUntil.isPresent();
+                          })
+            );
+        }
+
+        @Override
+        public Mono<Void> release()
+        {
+            return
+            Mono.defer(() ->
+                (this.released.compareAndSet(false, true))
+                    ? releaseQuorumLock(
+                          this.lockName,
+                          new QuorumHolder(
+                              List.of(getRedisLockKey(this.lockName)),
+                              this.identifier, this.validUntilNanos))
+                    : Mono.empty()
+            );
+        }
+    }
+
+    /**
+     * 非阻塞地进行一轮仲裁（不经过 {@link AcquireStrategy} 的等待）。
+     * 锁已被别人持有不算作故障，不计入统计。
+     *
+     * @param lockName  锁名
+     * @param leaseTime 锁的租约时长
+     *
+     * @return 发布锁句柄的 {@link Mono}，没有获取到多数节点时发布 {@link Optional#empty()}
+     */
+    @Override
+    public Mono<Optional<LockHandle>>
+    tryLock(String lockName, Duration leaseTime)
+    {
+        return
+        Mono.defer(() -> {
+            final String identifier = this.identifierGenerator.nextIdentifier();
+
+            return
+            this.tryAcquireQuorum(
+                    this.acquireLockScript, this.releaseLockScript,
+                    List.of(getRedisLockKey(lockName)), identifier, leaseTime.toMillis())
+                .map((attempt) ->
+                    (attempt.acquired())
+                        ? Optional.<LockHandle>of(
+                            new QuorumLockHandle(
+                                lockName, identifier, leaseTime, attempt.validUntilNanos()))
+                        : Optional.<LockHandle>empty())
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+        });
+    }
+
+    /** 获取统计结果字符串。*/
+    @Override
+    public String getStatisticResultString() {
+        return this.faultStatistical.getStatisticResultString();
+    }
+
+    /** 获取统计结果实例。*/
+    @Override
+    public StatisticalInstrument getStatisticResultInstance() {
+        return this.faultStatistical.getStatisticResultInstance();
+    }
+
+    /** 获取本实现中竞争最激烈的锁名（按竞争次数降序）。*/
+    @Override
+    public List<HotKey> getHotKeys()
+    {
+        return
+        this.metrics.getHotKeys()
+            .stream()
+            .filter((hotKey) -> hotKey.type() == LockType.DISTRIBUTED_LOCK)
+            .toList();
+    }
+
+    /** 清理统计结果（选择性实现）*/
+    @Override
+    public void cleanStatisticResult() {
+        this.faultStatistical.cleanStatisticResult();
+    }
+
+    /** 输出统计结果（默认由 printf 输出）*/
+    @Override
+    public void displayStatisticResult() {
+        this.faultStatistical.displayStatisticResult();
+    }
+}
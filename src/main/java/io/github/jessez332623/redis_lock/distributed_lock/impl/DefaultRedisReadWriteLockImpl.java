@@ -0,0 +1,555 @@
+package io.github.jessez332623.redis_lock.distributed_lock.impl;
+
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.AcquireRequest;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.LockAttemptResult;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisReadWriteLock;
+import io.github.jessez332623.redis_lock.distributed_lock.exception.AcquireLockTimeout;
+import io.github.jessez332623.redis_lock.distributed_lock.exception.LockLeaseLost;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLease;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLeaseWatchdog;
+import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
+import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
+import io.github.jessez332623.redis_lock.statistics.impl.DistributedLockFaultStatistical;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OCCUPIED;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_NOT_EXIST;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OWNED_BY_OTHERS;
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.READ_WRITE_LOCK;
+import static java.lang.String.format;
+
+/**
+ * <p>Redis 分布式读写锁默认实现类。</p>
+ *
+ * <p>同一个锁名下的键都带有相同的哈希标签，在集群模式下也落在同一个槽：</p>
+ * <ul>
+ *     <li>写者键：字符串，值为写者唯一标识符</li>
+ *     <li>读者键：有序集合，成员为读者唯一标识符，分数为读者租约的到期时间戳</li>
+ *     <li>写者意向键：有序集合，成员为等待中的写者，分数为意向的到期时间戳</li>
+ * </ul>
+ *
+ * <p>
+ *     读者各自的租约记录在分数上，崩溃的读者过期后会被写者清理掉，不会永久挡住写者；
+ *     写者的等待意向同样会过期，放弃等待的写者也不会永久挡住读者。
+ * </p>
+ */
+@Slf4j
+public final class DefaultRedisReadWriteLockImpl implements RedisReadWriteLock
+{
+    /** 分布式锁键的键前缀（用户自定义，和普通分布式锁共用）。*/
+    private final String LOCK_KEY_PREFIX;
+
+    /** 本类用到的 Lua 脚本（构造时解析一次，之后每次操作都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> acquireReadScript;
+    private final DefaultRedisScript<List<Object>> acquireWriteScript;
+    private final DefaultRedisScript<List<Object>> cancelWriteIntentScript;
+    private final DefaultRedisScript<List<Object>> releaseReadScript;
+    private final DefaultRedisScript<List<Object>> releaseWriteScript;
+
+    /** 执行 Lua 脚本专用 Redis 模板。*/
+    private final
+    ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
+
+    /** Redis Lock 专用的线程调度器。*/
+    private final Scheduler scheduler;
+
+    /** Redis 操作的统一超时时间（默认为 5 秒）。*/
+    private final Duration operatorTimeout;
+
+    /** 读锁、写锁共用的获取策略（必须是只在客户端等待的策略）。*/
+    private final AcquireStrategy acquireStrategy;
+
+    /** 分布式锁看门狗（为 null 时不启用看门狗，锁在 lockTimeout 后过期）。*/
+    private final LockLeaseWatchdog watchdog;
+
+    /** 锁唯一标识符生成器。*/
+    private final IdentifierGenerator identifierGenerator;
+
+    /** 耗时指标记录器。*/
+    private final LockMetricsRecorder metrics;
+
+    private final DistributedLockFaultStatistical
+    faultStatistical = new DistributedLockFaultStatistical();
+
+    /** 公共有参构造函数，不记录耗时指标。*/
+    public DefaultRedisReadWriteLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operatorTimeout,
+        AcquireStrategy acquireStrategy,
+        LockLeaseWatchdog watchdog,
+        IdentifierGenerator identifierGenerator
+    )
+    {
+        this(
+            lockKey, luaScriptReader, scriptRedisTemplate, scheduler,
+            operatorTimeout, acquireStrategy, watchdog, identifierGenerator,
+            LockMetricsRecorder.NOOP
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public DefaultRedisReadWriteLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operatorTimeout,
+        AcquireStrategy acquireStrategy,
+        LockLeaseWatchdog watchdog,
+        IdentifierGenerator identifierGenerator,
+        LockMetricsRecorder metrics
+    )
+    {
+        this.LOCK_KEY_PREFIX     = lockKey;
+        this.scriptRedisTemplate = scriptRedisTemplate;
+        this.scheduler           = scheduler;
+        this.operatorTimeout     = operatorTimeout;
+        this.acquireStrategy     = acquireStrategy;
+        this.watchdog            = watchdog;
+        this.identifierGenerator = identifierGenerator;
+        this.metrics             = metrics;
+
+        this.acquireReadScript       = luaScriptReader.load(READ_WRITE_LOCK, "acquireReadLock.lua");
+        this.acquireWriteScript      = luaScriptReader.load(READ_WRITE_LOCK, "acquireWriteLock.lua");
+        this.cancelWriteIntentScript = luaScriptReader.load(READ_WRITE_LOCK, "cancelWriteIntent.lua");
+        this.releaseReadScript       = luaScriptReader.load(READ_WRITE_LOCK, "releaseReadLock.lua");
+        this.releaseWriteScript      = luaScriptReader.load(READ_WRITE_LOCK, "releaseWriteLock.lua");
+    }
+
+    /** 组合写者键（同时也是读写锁其他键的前缀）。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getWriterKey(String keyName) {
+        return LOCK_KEY_PREFIX + ":" + "{" + keyName + "}:" + "rw";
+    }
+
+    /** 组合读者键。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getReadersKey(String keyName) {
+        return getWriterKey(keyName) + ":" + "readers";
+    }
+
+    /** 组合写者意向键。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getIntentsKey(String keyName) {
+        return getWriterKey(keyName) + ":" + "intents";
+    }
+
+    /** 组合读写锁的释放频道名，和 release*Lock.lua 的命名规则一致。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getReleaseChannel(String keyName) {
+        return getWriterKey(keyName) + ":" + "release";
+    }
+
+    /** 执行一个读写锁脚本（顺便记录脚本往返耗时）。*/
+    private @NotNull Mono<LuaOperatorResult>
+    executeScript(DefaultRedisScript<List<Object>> script, List<String> keys, Object... args)
+    {
+        return
+        this.scriptRedisTemplate
+            .execute(script, keys, args)
+            .timeout(this.operatorTimeout)
+            .next()
+            .map(LuaOperatorResult::decode)
+            .as((execution) -> this.metrics.timeScript(script, execution))
+            .subscribeOn(this.scheduler);
+    }
+
+    /** 读锁、写锁在指标中的类型。*/
+    @Contract(pure = true)
+    private static LockType
+    metricType(boolean write) {
+        return (write) ? LockType.WRITE_LOCK : LockType.READ_LOCK;
+    }
+
+    /**
+     * 尝试获取一次读锁或写锁（写锁获取失败时会登记等待意向）。
+     *
+     * @param intentTtl 写者等待意向的有效期（毫秒级），应当是剩余的等待时间，
+     *                  写者放弃之后意向最多再阻止读者这么久
+     */
+    private @NotNull Mono<LuaOperatorResult>
+    tryAcquireLock(
+        String lockName, String identifier, boolean write,
+        long intentTtl, @NotNull Duration lockTimeout)
+    {
+        final List<String> keys
+            = List.of(
+                getReadersKey(lockName),
+                getWriterKey(lockName),
+                getIntentsKey(lockName)
+            );
+
+        return
+        (write)
+            ? this.executeScript(
+                this.acquireWriteScript, keys,
+                identifier, lockTimeout.toMillis(), intentTtl)
+            : this.executeScript(
+                this.acquireReadScript, keys,
+                identifier, lockTimeout.toMillis());
+    }
+
+    /** 撤销写者的等待意向，让读者可以继续进入。*/
+    private @NotNull Mono<Void>
+    cancelWriteIntent(String lockName, String identifier)
+    {
+        return
+        this.executeScript(
+                this.cancelWriteIntentScript,
+                List.of(getIntentsKey(lockName)), identifier)
+            .then();
+    }
+
+    /**
+     * 获取读锁或写锁，何时尝试、尝试几次由 {@link AcquireStrategy} 决定。
+     * 写者每次登记的等待意向只在剩余的等待时间内有效，
+     * 超时、出错或者被取消而放弃等待时都会撤销自己的等待意向，让读者可以继续进入。
+     *
+     * @return 不发布任何数据的 Mono，表示是否成功获取
+     */
+    private @NotNull Mono<Void>
+    acquireLock(
+        String lockName, String identifier, boolean write,
+        Duration acquireTimeout, Duration lockTimeout)
+    {
+        final AcquireRequest request
+            = new AcquireRequest(
+                lockName, getWriterKey(lockName), getReleaseChannel(lockName),
+                acquireTimeout, lockTimeout
+            );
+
+        return
+        Mono.defer(() -> {
+            final long acquireEnd = System.nanoTime() + acquireTimeout.toNanos();
+
+            final AtomicInteger attempts = new AtomicInteger(0);
+
+            // 获取成功或者已经撤销过意向（超时）之后，不需要再撤销
+            final AtomicBoolean settled = new AtomicBoolean(false);
+
+            return
+            this.acquireStrategy
+                .acquire(
+                    request,
+                    (serverWait) -> {
+                        attempts.incrementAndGet();
+
+                        // 意向至少保留 1 毫秒，PEXPIRE 不接受 0
+                        final long intentTtl
+                            = Math.max(
+                                1L,
+                                Duration.ofNanos(acquireEnd - System.nanoTime()).toMillis());
+
+                        return
+                        this.tryAcquireLock(
+                                lockName, identifier, write, intentTtl, lockTimeout)
+                            .flatMap(this::toAttemptResult);
+                    })
+                .flatMap((acquired) -> {
+                    settled.set(true);
+
+                    if (acquired) {
+                        return Mono.<Void>empty();
+                    }
+
+                    this.faultStatistical.increaseLockTimeout();
+
+                    final Mono<Void> cancelIntent
+                        = (write)
+                            ? this.cancelWriteIntent(lockName, identifier)
+                            : Mono.empty();
+
+                    return
+                    cancelIntent.then(
+                        Mono.<Void>error(
+                            new AcquireLockTimeout(
+                                format(
+                                    "Acquire %s lock: %s timeout! (acquireTimeout = %d millis)",
+                                    (write) ? "write" : "read",
+                                    lockName, acquireTimeout.toMillis()
+                                )
+                            )
+                        )
+                    );
+                })
+                .doOnError((exception) -> {
+                    if (write && !settled.getAndSet(true)) {
+                        this.withdrawIntent(lockName, identifier);
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (write && !settled.getAndSet(true)) {
+                        this.withdrawIntent(lockName, identifier);
+                    }
+                })
+                .doFinally((signal) ->
+                    this.metrics.recordAcquireAttempts(metricType(write), lockName, attempts.get()));
+        }).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+    }
+
+    /** 写者出错或者被取消而放弃等待时，在后台撤销它的等待意向（失败的话意向在剩余的等待时间后自动过期）。*/
+    private void withdrawIntent(String lockName, String identifier)
+    {
+        this.cancelWriteIntent(lockName, identifier)
+            .subscribe(
+                null,
+                (exception) ->
+                    log.warn(
+                        "Cancel write intent of {} failed! Caused by: {}",
+                        lockName, exception.getMessage()));
+    }
+
+    /** 将获取锁脚本的执行结果映射成 {@link LockAttemptResult}。*/
+    private @NotNull Mono<LockAttemptResult>
+    toAttemptResult(@NotNull LuaOperatorResult result)
+    {
+        return
+        switch (result.getStatus())
+        {
+            case SUCCESS -> Mono.just(LockAttemptResult.ACQUIRED);
+
+            case LOCK_OCCUPIED ->
+                Mono.just(
+                    new LockAttemptResult(
+                        false,
+                        result.getValueOrDefault(0, -1L)
+                    )
+                );
+
+            default ->
+                Mono.error(
+                    new IllegalStateException(
+                        "Unexpected value: " + result
+                    )
+                );
+        };
+    }
+
+    /**
+     * 释放读锁或写锁。
+     *
+     * @return 不发布任何数据的 Mono，表示操作整体是否完成
+     */
+    private @NotNull Mono<Void>
+    releaseLock(String lockName, String identifier, boolean write)
+    {
+        final Mono<LuaOperatorResult> release
+            = (write)
+                ? this.executeScript(
+                    this.releaseWriteScript,
+                    List.of(getWriterKey(lockName)), identifier)
+                : this.executeScript(
+                    this.releaseReadScript,
+                    List.of(getReadersKey(lockName), getWriterKey(lockName)), identifier);
+
+        return
+        release.flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case LOCK_NOT_EXIST -> {
+                        log.warn(
+                            "{} lock (identifier = {}) not exist!",
+                            (write) ? "Write" : "Read", identifier
+                        );
+
+                        this.faultStatistical.increaseLockNotExist();
+                        yield Mono.empty();
+                    }
+
+                    case LOCK_OWNED_BY_OTHERS -> {
+                        log.warn("Try to release others write lock!");
+                        this.faultStatistical.increaseReleaseOthers();
+                        yield Mono.empty();
+                    }
+
+                    case SUCCESS -> Mono.empty();
+
+                    default ->
+                        Mono.error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
+            ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
+    }
+
+    /** 在锁作用域内执行业务逻辑（启用看门狗时，在看门狗的续期下执行）。*/
+    private <T> @NotNull Mono<T>
+    runAction(
+        String lockName, String identifier, boolean write,
+        Duration lockTimeout, @NotNull Function<String, Mono<T>> action)
+    {
+        if (Objects.isNull(this.watchdog)) {
+            return action.apply(identifier);
+        }
+
+        // 写锁续期写者键，读锁续期读者键中自己的租约
+        final String leaseKey
+            = (write) ? getWriterKey(lockName) : getReadersKey(lockName);
+
+        return
+        Mono.defer(() -> {
+            final LockLease lease
+                = this.watchdog.register(leaseKey, identifier, lockTimeout);
+
+            return
+            Mono.firstWithSignal(action.apply(identifier), lease.<T>lost())
+                .doOnError(LockLeaseLost.class, (exception) -> {
+                    log.warn("{}", exception.getMessage());
+                    this.faultStatistical.increaseLeaseLost();
+                    this.metrics.recordLeaseLost(metricType(write), lockName);
+                })
+                .doOnTerminate(lease::cancel)
+                .doOnCancel(lease::cancel);
+        });
+    }
+
+    /**
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成读锁或写锁的获取与释放操作。
+     */
+    private <T> @NotNull Mono<T>
+    withLock(
+        String lockName, boolean write,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        final LockType type = metricType(write);
+
+        return
+        Mono.usingWhen(
+            this.metrics.timeAcquire(
+                type, lockName,
+                Mono.fromSupplier(this.identifierGenerator::nextIdentifier)
+                    .flatMap((identifier) ->
+                        this.acquireLock(
+                            lockName, identifier, write, acquireTimeout, lockTimeout)
+                        .thenReturn(identifier))),
+            (identifier) ->
+                this.metrics.timeHold(
+                    type, lockName,
+                    this.runAction(lockName, identifier, write, lockTimeout, action)),
+            (identifier) ->
+                this.metrics.timeRelease(
+                    type, lockName,
+                    this.releaseLock(lockName, identifier, write))
+        );
+    }
+
+    /**
+     * 兼容响应式流的 Redis 读锁操作，
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成读锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限
+     * @param lockTimeout    锁本身的持有时间期限
+     * @param action         业务逻辑（参数为读者的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withReadLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        this.withLock(lockName, false, acquireTimeout, lockTimeout, action);
+    }
+
+    /**
+     * 兼容响应式流的 Redis 写锁操作，
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成写锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限
+     * @param lockTimeout    锁本身的持有时间期限
+     * @param action         业务逻辑（参数为写者的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withWriteLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        return
+        this.withLock(lockName, true, acquireTimeout, lockTimeout, action);
+    }
+
+    /** 获取统计结果字符串。*/
+    @Override
+    public String getStatisticResultString() {
+        return this.faultStatistical.getStatisticResultString();
+    }
+
+    /** 获取统计结果实例。*/
+    @Override
+    public StatisticalInstrument getStatisticResultInstance() {
+        return this.faultStatistical.getStatisticResultInstance();
+    }
+
+    /** 获取本实现中竞争最激烈的锁名（按竞争次数降序）。*/
+    @Override
+    public List<HotKey> getHotKeys()
+    {
+        return
+        this.metrics.getHotKeys()
+            .stream()
+            .filter((hotKey) ->
+                    hotKey.type() == LockType.READ_LOCK ||
+                    hotKey.type() == LockType.WRITE_LOCK)
+            .toList();
+    }
+
+    /** 清理统计结果（选择性实现）*/
+    @Override
+    public void cleanStatisticResult() {
+        this.faultStatistical.cleanStatisticResult();
+    }
+
+    /** 输出统计结果（默认由 printf 输出）*/
+    @Override
+    public void displayStatisticResult() {
+        this.faultStatistical.displayStatisticResult();
+    }
+}
@@ -0,0 +1,526 @@
+package io.github.jessez332623.redis_lock.distributed_lock.impl;
+
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.AcquireRequest;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy.LockAttemptResult;
+import io.github.jessez332623.redis_lock.distributed_lock.RedisReentrantLock;
+import io.github.jessez332623.redis_lock.distributed_lock.exception.AcquireLockTimeout;
+import io.github.jessez332623.redis_lock.distributed_lock.exception.LockLeaseLost;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.Handover;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.LocalLockQueue;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLease;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLeaseWatchdog;
+import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
+import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
+import io.github.jessez332623.redis_lock.statistics.impl.DistributedLockFaultStatistical;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OCCUPIED;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_NOT_EXIST;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.LOCK_OWNED_BY_OTHERS;
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.REENTRANT_LOCK;
+import static java.lang.String.format;
+
+/**
+ * <p>Redis 可重入分布式锁默认实现类。</p>
+ *
+ * <p>
+ *     锁是一个哈希（持有者唯一标识符 -> 持有次数），
+ *     和 {@link DefaultRedisDistributedLockImpl} 的锁使用不同的键，两者互不影响。
+ *     持有者身份和当前流已经持有的锁名都保存在 Reactor Context 中，
+ *     重入时直接执行 reenterLock.lua，不经过 {@link AcquireStrategy} 的等待。
+ * </p>
+ *
+ * <p>
+ *     是否重入只看 Context 中这个锁名的持有标记，而不看持有者身份：
+ *     同一条流中并行的分支（比如 Mono.zip() 的两个参数）带着同一个持有者身份，
+ *     但都没有这个锁的持有标记，所以都走首次获取，而首次获取的脚本只在锁不存在时成功，
+ *     它们之间仍然互斥。
+ * </p>
+ *
+ * <p>
+ *     持有标记是每次持有各自的 {@link Hold}，而不是一个布尔值：
+ *     已经持有锁的作用域中并行的分支都会看到同一个 {@link Hold}，
+ *     它们的重入在这个 {@link Hold} 的本地队列中排队，同一时间只有一个分支在锁内，
+ *     每次重入又给自己的作用域放一个新的 {@link Hold}，所以分支内部嵌套的重入不用等待其他分支。
+ * </p>
+ */
+@Slf4j
+public final class DefaultRedisReentrantLockImpl implements RedisReentrantLock
+{
+    /** 当前流已经持有某个锁的标记在 Reactor Context 中的键前缀。*/
+    private static final String
+    HELD_CONTEXT_KEY_PREFIX = "redis-lock.reentrant-lock.held:";
+
+    /**
+     * 当前流对某个锁的一次持有（作为持有标记放在这次持有的作用域的 Context 中），
+     * 作用域中并行的分支重入时在它的本地队列中排队，一次只放行一个。
+     */
+    private static final class Hold
+    {
+        /** 重入者的本地队列（只有一个锁名，不在 JVM 内移交 Redis 锁）。*/
+        private final LocalLockCoordinator reentries = new LocalLockCoordinator(0);
+    }
+
+    /**
+     * 获取到锁之后持有的资源。
+     *
+     * @param owner  持有者唯一标识符
+     * @param parent 重入时外层的持有（首次获取时为 null）
+     * @param queue  重入时所在的外层持有的本地队列（首次获取时为 null）
+     */
+    private record Holder(String owner, Hold parent, LocalLockQueue queue) {}
+
+    /** 分布式锁键的键前缀（用户自定义，和普通分布式锁共用）。*/
+    private final String LOCK_KEY_PREFIX;
+
+    /** 本类用到的 Lua 脚本（构造时解析一次，之后每次操作都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> acquireScript;
+    private final DefaultRedisScript<List<Object>> reenterScript;
+    private final DefaultRedisScript<List<Object>> releaseScript;
+
+    /** 执行 Lua 脚本专用 Redis 模板。*/
+    private final
+    ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
+
+    /** Redis Lock 专用的线程调度器。*/
+    private final Scheduler scheduler;
+
+    /** Redis 操作的统一超时时间（默认为 5 秒）。*/
+    private final Duration operatorTimeout;
+
+    /** 首次获取锁时使用的获取策略（必须是只在客户端等待的策略）。*/
+    private final AcquireStrategy acquireStrategy;
+
+    /** 分布式锁看门狗（为 null 时不启用看门狗，锁在 lockTimeout 后过期）。*/
+    private final LockLeaseWatchdog watchdog;
+
+    /** 锁唯一标识符生成器。*/
+    private final IdentifierGenerator identifierGenerator;
+
+    /** 耗时指标记录器。*/
+    private final LockMetricsRecorder metrics;
+
+    private final DistributedLockFaultStatistical
+    faultStatistical = new DistributedLockFaultStatistical();
+
+    /** 公共有参构造函数，不记录耗时指标。*/
+    public DefaultRedisReentrantLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operatorTimeout,
+        AcquireStrategy acquireStrategy,
+        LockLeaseWatchdog watchdog,
+        IdentifierGenerator identifierGenerator
+    )
+    {
+        this(
+            lockKey, luaScriptReader, scriptRedisTemplate, scheduler,
+            operatorTimeout, acquireStrategy, watchdog, identifierGenerator,
+            LockMetricsRecorder.NOOP
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public DefaultRedisReentrantLockImpl(
+        String lockKey,
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operatorTimeout,
+        AcquireStrategy acquireStrategy,
+        LockLeaseWatchdog watchdog,
+        IdentifierGenerator identifierGenerator,
+        LockMetricsRecorder metrics
+    )
+    {
+        this.LOCK_KEY_PREFIX     = lockKey;
+        this.scriptRedisTemplate = scriptRedisTemplate;
+        this.scheduler           = scheduler;
+        this.operatorTimeout     = operatorTimeout;
+        this.acquireStrategy     = acquireStrategy;
+        this.watchdog            = watchdog;
+        this.identifierGenerator = identifierGenerator;
+        this.metrics             = metrics;
+
+        this.acquireScript = luaScriptReader.load(REENTRANT_LOCK, "acquireReentrantLock.lua");
+        this.reenterScript = luaScriptReader.load(REENTRANT_LOCK, "reenterLock.lua");
+        this.releaseScript = luaScriptReader.load(REENTRANT_LOCK, "releaseReentrantLock.lua");
+    }
+
+    /** 组合 Redis 可重入锁键。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getReentrantLockKey(String keyName) {
+        return LOCK_KEY_PREFIX + ":" + "{" + keyName + "}:" + "reentrant";
+    }
+
+    /** 组合锁的释放频道名，和 releaseReentrantLock.lua 的命名规则一致。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getReentrantLockChannel(String keyName) {
+        return getReentrantLockKey(keyName) + ":" + "release";
+    }
+
+    /** 执行一个可重入锁脚本（顺便记录脚本往返耗时）。*/
+    private @NotNull Mono<LuaOperatorResult>
+    executeScript(DefaultRedisScript<List<Object>> script, String lockKeyName, Object... args)
+    {
+        return
+        this.scriptRedisTemplate
+            .execute(script, List.of(lockKeyName), args)
+            .timeout(this.operatorTimeout)
+            .next()
+            .map(LuaOperatorResult::decode)
+            .as((execution) -> this.metrics.timeScript(script, execution))
+            .subscribeOn(this.scheduler);
+    }
+
+    /**
+     * 首次获取锁，何时尝试、尝试几次由 {@link AcquireStrategy} 决定。
+     *
+     * @return 不发布任何数据的 Mono，表示是否成功获取
+     */
+    private @NotNull Mono<Void>
+    acquireLock(
+        String lockName, String owner,
+        Duration acquireTimeout, Duration lockTimeout)
+    {
+        final String lockKeyName = getReentrantLockKey(lockName);
+
+        final AcquireRequest request
+            = new AcquireRequest(
+                lockName, lockKeyName, getReentrantLockChannel(lockName),
+                acquireTimeout, lockTimeout
+            );
+
+        final AtomicInteger attempts = new AtomicInteger(0);
+
+        return
+        this.acquireStrategy
+            .acquire(
+                request,
+                (serverWait) -> {
+                    attempts.incrementAndGet();
+                    return
+                    this.executeScript(
+                            this.acquireScript,
+                            lockKeyName, owner, lockTimeout.toMillis())
+                        .flatMap(this::toAttemptResult);
+                })
+            .flatMap((acquired) ->
+                (acquired)
+                    ? Mono.<Void>empty()
+                    : this.<Void>acquireLockTimeoutError(lockName, acquireTimeout))
+            .doFinally((signal) ->
+                this.metrics.recordAcquireAttempts(LockType.REENTRANT_LOCK, lockName, attempts.get()))
+            .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+    }
+
+    /** 构造获取锁超时异常（顺便完成统计）。*/
+    private <T> @NotNull Mono<T>
+    acquireLockTimeoutError(String lockName, @NotNull Duration acquireTimeout)
+    {
+        this.faultStatistical.increaseLockTimeout();
+
+        return
+        Mono.error(
+            new AcquireLockTimeout(
+                format(
+                    "Acquire reentrant lock: %s timeout! (acquireTimeout = %d millis)",
+                    lockName, acquireTimeout.toMillis()
+                )
+            )
+        );
+    }
+
+    /** 将获取锁脚本的执行结果映射成 {@link LockAttemptResult}。*/
+    private @NotNull Mono<LockAttemptResult>
+    toAttemptResult(@NotNull LuaOperatorResult result)
+    {
+        return
+        switch (result.getStatus())
+        {
+            case SUCCESS -> Mono.just(LockAttemptResult.ACQUIRED);
+
+            case LOCK_OCCUPIED ->
+                Mono.just(
+                    new LockAttemptResult(
+                        false,
+                        result.getValueOrDefault(0, -1L)
+                    )
+                );
+
+            default ->
+                Mono.error(
+                    new IllegalStateException(
+                        "Unexpected value: " + result
+                    )
+                );
+        };
+    }
+
+    /**
+     * 重入当前流已经持有的锁（一次 HINCRBY）。
+     *
+     * @return 不发布任何数据的 Mono，外层的锁已经丢失时发布 {@link LockLeaseLost}
+     */
+    private @NotNull Mono<Void>
+    reenterLock(String lockName, String owner, @NotNull Duration lockTimeout)
+    {
+        return
+        this.executeScript(
+                this.reenterScript,
+                getReentrantLockKey(lockName), owner, lockTimeout.toMillis())
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case SUCCESS -> Mono.<Void>empty();
+
+                    case LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS -> {
+                        this.faultStatistical.increaseLeaseLost();
+                        this.metrics.recordLeaseLost(LockType.REENTRANT_LOCK, lockName);
+
+                        yield Mono.<Void>error(
+                            new LockLeaseLost(
+                                format(
+                                    "Try reenter lock: %s but outer lock lost: %s",
+                                    lockName, result.getStatusName()
+                                )
+                            )
+                        );
+                    }
+
+                    default ->
+                        Mono.<Void>error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
+            ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+    }
+
+    /**
+     * 在外层持有的本地队列中排到之后重入，
+     * 同一个作用域中并行的分支一次只放行一个，排队超过 acquireTimeout 时以 {@link AcquireLockTimeout} 失败。
+     *
+     * @return 发布重入后持有的资源的 Mono
+     */
+    private @NotNull Mono<Holder>
+    reenterLockExclusively(
+        String lockName, String owner, @NotNull Hold parent,
+        Duration acquireTimeout, Duration lockTimeout)
+    {
+        final LocalLockCoordinator reentries = parent.reentries;
+
+        return
+        reentries
+            .enter(
+                lockName, acquireTimeout,
+                // 排到了但是订阅已经取消，把位置让给下一个分支
+                (queue, handover) -> reentries.leave(lockName, queue, Handover.NONE))
+            .switchIfEmpty(this.acquireLockTimeoutError(lockName, acquireTimeout))
+            .flatMap((entry) -> {
+                final Runnable leave
+                    = () -> reentries.leave(lockName, entry.queue(), Handover.NONE);
+
+                return
+                this.reenterLock(lockName, owner, lockTimeout)
+                    .thenReturn(new Holder(owner, parent, entry.queue()))
+                    .doOnError((exception) -> leave.run())
+                    .doOnCancel(leave);
+            });
+    }
+
+    /**
+     * 释放一次锁（持有次数 - 1，减到 0 时删除锁）。
+     *
+     * @return 不发布任何数据的 Mono，表示操作整体是否完成
+     */
+    private @NotNull Mono<Void>
+    releaseLock(String lockName, String owner)
+    {
+        return
+        this.executeScript(
+                this.releaseScript, getReentrantLockKey(lockName), owner)
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case LOCK_NOT_EXIST -> {
+                        log.warn("Reentrant lock (owner = {}) not exist!", owner);
+
+                        this.faultStatistical.increaseLockNotExist();
+                        yield Mono.empty();
+                    }
+
+                    case LOCK_OWNED_BY_OTHERS -> {
+                        log.warn("Try to release others reentrant lock!");
+                        this.faultStatistical.increaseReleaseOthers();
+                        yield Mono.empty();
+                    }
+
+                    case SUCCESS -> Mono.empty();
+
+                    default ->
+                        Mono.error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
+            ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
+    }
+
+    /** 在锁作用域内执行业务逻辑（首次获取且启用看门狗时，在看门狗的续期下执行）。*/
+    private <T> @NotNull Mono<T>
+    runAction(
+        String lockName, String owner, boolean reentry,
+        Duration lockTimeout, @NotNull Function<String, Mono<T>> action)
+    {
+        if (reentry || Objects.isNull(this.watchdog)) {
+            return action.apply(owner);
+        }
+
+        return
+        Mono.defer(() -> {
+            final LockLease lease
+                = this.watchdog.register(getReentrantLockKey(lockName), owner, lockTimeout);
+
+            return
+            Mono.firstWithSignal(action.apply(owner), lease.<T>lost())
+                .doOnError(LockLeaseLost.class, (exception) -> {
+                    log.warn("{}", exception.getMessage());
+                    this.faultStatistical.increaseLeaseLost();
+                    this.metrics.recordLeaseLost(LockType.REENTRANT_LOCK, lockName);
+                })
+                .doOnTerminate(lease::cancel)
+                .doOnCancel(lease::cancel);
+        });
+    }
+
+    /**
+     * 兼容响应式流的 Redis 可重入锁操作，
+     * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，
+     * 在业务逻辑（action）范围前后，自动完成锁的获取与释放操作。
+     *
+     * @param <T> 在锁作用域中业务逻辑返回的类型
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 获取锁的实现期限（重入时只在同一个作用域中并行的分支之间排队）
+     * @param lockTimeout    锁本身的持有时间期限
+     * @param action         业务逻辑（参数为持有者的唯一标识符）
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    @Override
+    public <T> Mono<T>
+    withLock(
+        String lockName,
+        Duration acquireTimeout, Duration lockTimeout,
+        Function<String, Mono<T>> action)
+    {
+        final String heldContextKey = HELD_CONTEXT_KEY_PREFIX + lockName;
+
+        return
+        Mono.deferContextual((context) -> {
+            // 同一条流沿用同一个持有者身份，没有的话说明这是最外层的调用
+            final String owner
+                = context.<String>getOrEmpty(OWNER_CONTEXT_KEY)
+                         .orElseGet(this.identifierGenerator::nextIdentifier);
+
+            // 只有持有标记才说明当前流（而不是同一个持有者的另一个分支）已经持有这个锁
+            final Hold parent = context.getOrDefault(heldContextKey, null);
+
+            final boolean reentry = Objects.nonNull(parent);
+
+            final Mono<Holder> acquire
+                = (reentry)
+                    ? this.reenterLockExclusively(lockName, owner, parent, acquireTimeout, lockTimeout)
+                    : this.acquireLock(lockName, owner, acquireTimeout, lockTimeout)
+                          .thenReturn(new Holder(owner, null, null));
+
+            // 只统计最外层的获取和持有，重入只是一次 HINCRBY，算进去会拉低分布
+            final LockMetricsRecorder metrics
+                = (reentry) ? LockMetricsRecorder.NOOP : this.metrics;
+
+            return
+            Mono.usingWhen(
+                metrics.timeAcquire(LockType.REENTRANT_LOCK, lockName, acquire),
+                (holder) ->
+                    metrics.timeHold(
+                        LockType.REENTRANT_LOCK, lockName,
+                        this.runAction(lockName, holder.owner(), reentry, lockTimeout, action)
+                            .contextWrite((actionContext) ->
+                                actionContext.put(OWNER_CONTEXT_KEY, holder.owner())
+                                             .put(heldContextKey, new Hold()))),
+                (holder) ->
+                    metrics.timeRelease(
+                        LockType.REENTRANT_LOCK, lockName,
+                        this.releaseLock(lockName, holder.owner())
+                            .doFinally((signal) -> {
+                                if (Objects.nonNull(holder.queue())) {
+                                    holder.parent().reentries.leave(lockName, holder.queue(), Handover.NONE);
+                                }
+                            }))
+            );
+        });
+    }
+
+    /** 获取统计结果字符串。*/
+    @Override
+    public String getStatisticResultString() {
+        return this.faultStatistical.getStatisticResultString();
+    }
+
+    /** 获取统计结果实例。*/
+    @Override
+    public StatisticalInstrument getStatisticResultInstance() {
+        return this.faultStatistical.getStatisticResultInstance();
+    }
+
+    /** 获取本实现中竞争最激烈的锁名（按竞争次数降序）。*/
+    @Override
+    public List<HotKey> getHotKeys()
+    {
+        return
+        this.metrics.getHotKeys()
+            .stream()
+            .filter((hotKey) -> hotKey.type() == LockType.REENTRANT_LOCK)
+            .toList();
+    }
+
+    /** 清理统计结果（选择性实现）*/
+    @Override
+    public void cleanStatisticResult() {
+        this.faultStatistical.cleanStatisticResult();
+    }
+
+    /** 输出统计结果（默认由 printf 输出）*/
+    @Override
+    public void displayStatisticResult() {
+        this.faultStatistical.displayStatisticResult();
+    }
+}
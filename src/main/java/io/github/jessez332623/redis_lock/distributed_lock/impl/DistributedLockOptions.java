@@ -0,0 +1,59 @@
+package io.github.jessez332623.redis_lock.distributed_lock.impl;
+
+import io.github.jessez332623.redis_lock.circuit_breaker.RedisCircuitBreaker;
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.strategy.ServerSpinAcquireStrategy;
+import io.github.jessez332623.redis_lock.distributed_lock.watchdog.LockLeaseWatchdog;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * <p>{@link DefaultRedisDistributedLockImpl} 的可选组件，没有设置的组件使用默认值。</p>
+ *
+ * <pre>{@code
+ * DistributedLockOptions.builder()
+ *     .acquireStrategy(new BackoffAcquireStrategy(policy, Map.of()))
+ *     .watchdog(watchdog)
+ *     .metrics(metrics)
+ *     .build();
+ * }</pre>
+ */
+@Getter
+@Builder
+public final class DistributedLockOptions
+{
+    /** 分布式锁获取策略（默认为 {@link ServerSpinAcquireStrategy}）。*/
+    @Builder.Default
+    private final AcquireStrategy acquireStrategy = new ServerSpinAcquireStrategy();
+
+    /**
+     * 多锁 withLocks() 的获取策略（为 null 时和 acquireStrategy 相同），
+     * 多锁没有在服务端循环等待的脚本，{@link ServerSpinAcquireStrategy} 会换成默认参数的退避策略。
+     */
+    private final AcquireStrategy multiLockStrategy;
+
+    /** 锁租约看门狗（为 null 时不续期，锁在 lockTimeout 后过期）。*/
+    private final LockLeaseWatchdog watchdog;
+
+    /** 本地锁队列（为 null 时同一个 JVM 内的调用者也直接竞争 Redis）。*/
+    private final LocalLockCoordinator localLocks;
+
+    /** 锁唯一标识符生成器（默认为 {@link DefaultIdentifierGenerator}）。*/
+    @Builder.Default
+    private final IdentifierGenerator identifierGenerator = new DefaultIdentifierGenerator();
+
+    /** 耗时指标记录器（默认不记录）。*/
+    @Builder.Default
+    private final LockMetricsRecorder metrics = LockMetricsRecorder.NOOP;
+
+    /** 包在每次脚本调用外面的 Redis 熔断器（默认不启用）。*/
+    @Builder.Default
+    private final RedisCircuitBreaker circuitBreaker = RedisCircuitBreaker.DISABLED;
+
+    /** 释放操作的微批处理策略（为 null 时每次释放单独执行脚本）。*/
+    private final ReleaseBatcher.Policy releaseBatch;
+}
@@ -0,0 +1,274 @@
+package io.github.jessez332623.redis_lock.distributed_lock.impl;
+
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>两级锁中的 JVM 本地一级：按锁名合并同一个 JVM 内的等待者。</p>
+ *
+ * <p>
+ *     每个锁名对应一个本地队列，同一时刻只有一个本地持有者（队首）去 Redis 中竞争锁，
+ *     其余的等待者在内存中的无锁 FIFO 队列里排队，
+ *     本地持有者完成后直接把 Redis 锁移交给下一个等待者，而不是先释放再让所有人重新竞争，
+ *     这样热点锁上 Redis 的竞争次数只和 Pod 数量有关，和等待者的数量无关。
+ * </p>
+ *
+ * <p>队列在没有持有者和等待者时立即移除，内存占用只和正在使用的锁名数量有关。</p>
+ */
+public final class LocalLockCoordinator
+{
+    /** 锁名 -> 本地队列 */
+    private final
+    ConcurrentMap<String, LocalLockQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 连续在本 JVM 内移交同一个 Redis 锁的最大次数，
+     * 超过后必须在 Redis 中释放锁，让其他 Pod 也有机会获得锁。
+     */
+    private final int maxHandovers;
+
+    public LocalLockCoordinator(int maxHandovers)
+    {
+        if (maxHandovers < 0)
+        {
+            throw new
+            IllegalArgumentException("Max handovers must not be negative! (" + maxHandovers + ")");
+        }
+
+        this.maxHandovers = maxHandovers;
+    }
+
+    /**
+     * 移交给下一个本地等待者的令牌。
+     *
+     * @param identifier 仍然持有的 Redis 锁唯一标识符，为 null 时表示 Redis 锁已经释放，需要重新竞争
+     * @param handovers  这个 Redis 锁已经在本 JVM 内连续移交的次数
+     */
+    record Handover(String identifier, int handovers)
+    {
+        static final Handover NONE = new Handover(null, 0);
+    }
+
+    /**
+     * 成为本地持有者后得到的入场凭证。
+     *
+     * @param queue    所在的本地队列
+     * @param handover 上一个本地持有者移交的令牌
+     */
+    record Entry(LocalLockQueue queue, Handover handover) {}
+
+    /** 这个 Redis 锁还能不能继续在本 JVM 内移交？*/
+    boolean canHandOver(@NotNull Handover handover) {
+        return handover.handovers() < this.maxHandovers;
+    }
+
+    /** 当前本地队列的数量。*/
+    int getQueueCount() {
+        return this.queues.size();
+    }
+
+    /**
+     * 进入锁名对应的本地队列，成为本地持有者。
+     *
+     * @param lockName       锁名
+     * @param acquireTimeout 本地排队的时间期限
+     * @param abandon        排队的订阅被取消、但令牌已经移交给自己时的善后操作
+     *
+     * @return 成为本地持有者时发布 {@link Entry}，排队超时则不发布任何数据直接完成
+     */
+    @NotNull Mono<Entry>
+    enter(
+        String lockName, Duration acquireTimeout,
+        BiConsumer<LocalLockQueue, Handover> abandon)
+    {
+        return
+        Mono.defer(() -> {
+            final boolean[] isOwner = new boolean[1];
+
+            // compute() 保证进入队列和空闲队列的移除互斥，
+            // 所以不会有人进入一个已经从 queues 中移除的队列
+            final LocalLockQueue queue
+                = this.queues.compute(lockName, (name, existing) -> {
+                    final LocalLockQueue current
+                        = Objects.requireNonNullElseGet(existing, LocalLockQueue::new);
+
+                    isOwner[0] = current.join();
+
+                    return current;
+                });
+
+            if (isOwner[0]) {
+                return Mono.just(new Entry(queue, Handover.NONE));
+            }
+
+            final LocalWaiter waiter = new LocalWaiter();
+            queue.enqueue(waiter);
+
+            return
+            waiter.handover()
+                .timeout(
+                    acquireTimeout,
+                    // 超时和移交同时发生时，以成功修改等待者状态的一方为准
+                    Mono.defer(() ->
+                        (waiter.cancel()) ? Mono.empty() : waiter.handover())
+                )
+                .map((handover) -> new Entry(queue, handover))
+                .doOnCancel(() -> {
+                    if (!waiter.cancel()) {
+                        waiter.handover().subscribe((handover) -> abandon.accept(queue, handover));
+                    }
+                });
+        });
+    }
+
+    /**
+     * 本地持有者离开队列，把令牌移交给下一个仍在等待的等待者。
+     *
+     * @return 令牌是否移交成功（没有等待者时返回 false，调用者需要自己在 Redis 中释放锁）
+     */
+    boolean leave(String lockName, @NotNull LocalLockQueue queue, Handover handover)
+    {
+        if (queue.handOver(handover)) {
+            return true;
+        }
+
+        this.queues.computeIfPresent(
+            lockName,
+            (name, current) ->
+                (current == queue && current.isIdle()) ? null : current
+        );
+
+        return false;
+    }
+
+    /** 单个锁名的本地队列。*/
+    static final class LocalLockQueue
+    {
+        /** 本地持有者 + 队列中的等待者（包括已经取消、但还没被移除的）的数量。*/
+        private final AtomicInteger pending = new AtomicInteger(0);
+
+        /** 无锁 FIFO 等待队列。*/
+        private final
+        Queue<LocalWaiter> waiters = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 移交时等待者已经计数、但还没有入队，令牌暂存在这里，由入队的等待者取走并继续移交，
+         * 移交的一方（可能是 Netty 的事件循环线程）不需要等待它入队。
+         */
+        private final
+        AtomicReference<Handover> parked = new AtomicReference<>();
+
+        /** 加入队列，返回是否直接成为本地持有者。*/
+        private boolean join() {
+            return this.pending.getAndIncrement() == 0;
+        }
+
+        private void enqueue(LocalWaiter waiter)
+        {
+            this.waiters.offer(waiter);
+
+            // 入队之后检查有没有暂存的令牌：自己已经在队列中且还在等待，
+            // 所以继续移交时总能找到一个等待者，不会出现令牌无人接收的情况
+            final Handover handover = this.parked.getAndSet(null);
+
+            if (Objects.nonNull(handover)) {
+                this.passOn(handover);
+            }
+        }
+
+        private boolean isIdle() {
+            return this.pending.get() == 0;
+        }
+
+        /** 把令牌移交给队列中下一个仍在等待的等待者。*/
+        private boolean handOver(Handover handover)
+        {
+            if (this.pending.decrementAndGet() == 0) {
+                return false;
+            }
+
+            return this.passOn(handover);
+        }
+
+        /**
+         * 把令牌交给队列中（已经计数的）下一个仍在等待的等待者。
+         *
+         * @return 令牌是否已经交出或者暂存（返回 false 时说明已经没有等待者）
+         */
+        private boolean passOn(Handover handover)
+        {
+            Handover token = handover;
+
+            while (true)
+            {
+                final LocalWaiter next = this.waiters.poll();
+
+                if (Objects.isNull(next))
+                {
+                    // 等待者先计数再入队，这里可能看到空队列：把令牌暂存起来，由它入队后取走。
+                    // 暂存之后再检查一次队列，它可能在暂存之前就已经入队并检查过了，
+                    // 这时谁先把暂存的令牌取回来，就由谁继续移交
+                    this.parked.set(token);
+
+                    if (this.waiters.isEmpty()
+                        || Objects.isNull(token = this.parked.getAndSet(null))) {
+                        return true;
+                    }
+
+                    continue;
+                }
+
+                if (next.complete(token)) {
+                    return true;
+                }
+
+                // 这个等待者已经超时或者取消，它的计数由这里扣除，继续找下一个
+                if (this.pending.decrementAndGet() == 0) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /** 本地等待者。*/
+    private static final class LocalWaiter
+    {
+        private static final int WAITING   = 0;
+        private static final int HANDED    = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private final Sinks.One<Handover> sink = Sinks.one();
+
+        private @NotNull Mono<Handover> handover() {
+            return this.sink.asMono();
+        }
+
+        private boolean complete(Handover handover)
+        {
+            if (this.state.compareAndSet(WAITING, HANDED))
+            {
+                this.sink.tryEmitValue(handover);
+                return true;
+            }
+
+            return false;
+        }
+
+        private boolean cancel() {
+            return this.state.compareAndSet(WAITING, CANCELLED);
+        }
+    }
+}
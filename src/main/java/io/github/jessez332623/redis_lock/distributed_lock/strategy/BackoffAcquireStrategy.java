@@ -0,0 +1,132 @@
+package io.github.jessez332623.redis_lock.distributed_lock.strategy;
+
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+
+/**
+ * <p>
+ *     脚本只尝试一次，失败后由客户端按指数退避重试，直到 acquireTimeout 耗尽。
+ *     第 n 次重试前等待的时间在 [0, min(maxDelay, initialDelay * multiplier ^ n)] 中均匀随机（完全抖动），
+ *     避免大量等待者步调一致地冲击 Redis。
+ * </p>
+ *
+ * <p>
+ *     等待由 {@link Mono#delay(Duration)} 完成，成千上万个等待者也只占用定时器，不占用线程。
+ *     退避参数可以按锁名单独配置，没有单独配置的锁使用默认参数。
+ * </p>
+ *
+ * @see io.github.jessez332623.redis_lock.distributed_lock.AcquireMode#BACKOFF
+ */
+public final class BackoffAcquireStrategy implements AcquireStrategy
+{
+    /** 默认的退避参数。*/
+    private final BackoffPolicy defaultPolicy;
+
+    /** 按锁名单独配置的退避参数（锁名 -> 退避参数）。*/
+    private final Map<String, BackoffPolicy> lockPolicies;
+
+    public BackoffAcquireStrategy(
+        @NotNull BackoffPolicy defaultPolicy,
+        @NotNull Map<String, BackoffPolicy> lockPolicies)
+    {
+        this.defaultPolicy = defaultPolicy;
+        this.lockPolicies  = Map.copyOf(lockPolicies);
+    }
+
+    /**
+     * 退避参数。
+     *
+     * @param initialDelay 首次重试前的基准等待时间
+     * @param multiplier   每次重试后基准等待时间的增长倍数
+     * @param maxDelay     单次等待时间的上限
+     */
+    public record BackoffPolicy(
+        Duration initialDelay, double multiplier, Duration maxDelay)
+    {
+        public BackoffPolicy
+        {
+            if (initialDelay.isNegative() || initialDelay.isZero() ||
+                maxDelay.compareTo(initialDelay) < 0 || multiplier < 1.0)
+            {
+                throw new
+                IllegalArgumentException(
+                    format(
+                        "Invalid backoff policy! (initialDelay = %s, multiplier = %s, maxDelay = %s)",
+                        initialDelay, multiplier, maxDelay
+                    )
+                );
+            }
+        }
+
+        /** 计算第 retry 次重试前的等待时间（毫秒级，完全抖动）。*/
+        long nextDelayMillis(int retry)
+        {
+            final double ceiling
+                = Math.min(
+                    (double) this.maxDelay.toMillis(),
+                    this.initialDelay.toMillis() * Math.pow(this.multiplier, retry)
+                );
+
+            return
+            ThreadLocalRandom.current().nextLong((long) ceiling + 1L);
+        }
+    }
+
+    @Override
+    public @NotNull Mono<Boolean>
+    acquire(@NotNull AcquireRequest request, @NotNull LockAttempt attempt)
+    {
+        final BackoffPolicy policy
+            = this.lockPolicies.getOrDefault(request.lockName(), this.defaultPolicy);
+
+        return
+        Mono.defer(() ->
+            this.acquireUntil(
+                attempt, policy,
+                System.nanoTime() + request.acquireTimeout().toNanos(), 0
+            )
+        );
+    }
+
+    /** 尝试 - 退避循环。*/
+    private @NotNull Mono<Boolean>
+    acquireUntil(
+        LockAttempt attempt, BackoffPolicy policy, long acquireEnd, int retry)
+    {
+        return
+        attempt.tryAcquire(Duration.ZERO)
+            .flatMap((result) -> {
+                if (result.acquired()) {
+                    return Mono.just(true);
+                }
+
+                final long remaining
+                    = Duration.ofNanos(acquireEnd - System.nanoTime()).toMillis();
+
+                if (remaining <= 0L) {
+                    return Mono.just(false);
+                }
+
+                // 等待时间不超过剩余的获取期限，也没有必要超过锁剩余的 TTL
+                long delay = Math.min(policy.nextDelayMillis(retry), remaining);
+
+                if (result.ttl() > 0L) {
+                    delay = Math.min(delay, result.ttl());
+                }
+
+                return
+                Mono.delay(Duration.ofMillis(delay))
+                    .then(
+                        Mono.defer(() ->
+                            this.acquireUntil(attempt, policy, acquireEnd, retry + 1))
+                    );
+            });
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.jessez332623.redis_lock.distributed_lock.strategy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>单个等待者对某个锁释放频道的订阅。</p>
+ *
+ * <p>
+ *     订阅在创建时就已经在 Redis 上生效（见 {@link ReactiveRedisMessageListenerContainer#receiveLater}），
+ *     每收到一条释放消息，释放纪元（epoch）就自增一次。
+ *     等待者在尝试获取锁之前记下当前纪元，获取失败后只需要等待纪元发生变化，
+ *     这样即便释放消息在获取操作进行的途中到达，也不会被漏掉。
+ * </p>
+ */
+@Slf4j
+final class LockReleaseSignal
+{
+    /** 已收到的释放消息数。*/
+    private final AtomicLong epoch = new AtomicLong(0L);
+
+    /** 将释放消息转发给当前正在等待的操作。*/
+    private final
+    Sinks.Many<Long> releases = Sinks.many().multicast().directBestEffort();
+
+    /** 对释放频道的订阅，等待结束后需要取消。*/
+    private final Disposable subscription;
+
+    private
+    LockReleaseSignal(
+        @NotNull Flux<? extends ReactiveSubscription.Message<String, String>> messages)
+    {
+        this.subscription
+            = messages.subscribe(
+                (message) ->
+                    this.releases.tryEmitNext(this.epoch.incrementAndGet()),
+                (exception) ->
+                    // 订阅出错时等待者仍然会在锁的 TTL 过期后重试，所以这里只需记录
+                    log.warn("Lock release channel subscription failed!", exception)
+            );
+    }
+
+    /**
+     * 订阅指定的锁释放频道。
+     *
+     * @param listenerContainer Redis 消息监听容器
+     * @param releaseChannel    锁的释放频道名
+     *
+     * @return 在订阅生效后发布 {@link LockReleaseSignal} 的 {@link Mono}
+     */
+    static @NotNull Mono<LockReleaseSignal>
+    subscribe(
+        @NotNull ReactiveRedisMessageListenerContainer listenerContainer,
+        String releaseChannel)
+    {
+        return
+        listenerContainer
+            .receiveLater(ChannelTopic.of(releaseChannel))
+            .map(LockReleaseSignal::new);
+    }
+
+    /** 获取当前的释放纪元。*/
+    long currentEpoch() {
+        return this.epoch.get();
+    }
+
+    /**
+     * 等待直到纪元不再等于 observedEpoch（锁被释放），或者等待时间超过 maxWait（锁的 TTL 过期）。
+     *
+     * @param observedEpoch 尝试获取锁之前记下的纪元
+     * @param maxWait       最长等待时间
+     *
+     * @return 不发布任何数据的 Mono，完成时表示应该重新尝试获取锁
+     */
+    @NotNull Mono<Void>
+    awaitRelease(long observedEpoch, Duration maxWait)
+    {
+        /*
+         * Flux.merge() 会先订阅 releases 再发布那个立即值，
+         * 所以在订阅前到达的消息会体现在纪元中，订阅后到达的消息会被直接转发，不存在漏检的窗口。
+         */
+        return
+        Flux.merge(this.releases.asFlux(), Mono.just(observedEpoch))
+            .filter((ignore) -> this.epoch.get() != observedEpoch)
+            .next()
+            .timeout(maxWait, Mono.empty())
+            .then();
+    }
+
+    /** 取消对释放频道的订阅。*/
+    @NotNull Mono<Void>
+    close() {
+        return Mono.fromRunnable(this.subscription::dispose);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.jessez332623.redis_lock.distributed_lock.strategy;
+
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 先尝试获取一次锁，锁被占用时才订阅锁的释放频道，订阅后立即再尝试一次，之后获取失败时在客户端等待，
+ * 直到锁被释放（收到释放消息）或者锁的 TTL 过期，再重新尝试，直到 acquireTimeout 耗尽。
+ * 锁空闲时只需要一次脚本调用，不用为订阅和退订付出往返。
+ *
+ * @see io.github.jessez332623.redis_lock.distributed_lock.AcquireMode#PUB_SUB
+ */
+public final class PubSubAcquireStrategy implements AcquireStrategy
+{
+    /** Redis 消息监听容器。*/
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+
+    public PubSubAcquireStrategy(
+        @NotNull ReactiveRedisMessageListenerContainer listenerContainer) {
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public @NotNull Mono<Boolean>
+    acquire(@NotNull AcquireRequest request, @NotNull LockAttempt attempt)
+    {
+        return
+        Mono.defer(() -> {
+            final long acquireEnd
+                = System.nanoTime() + request.acquireTimeout().toNanos();
+
+            return
+            attempt.tryAcquire(Duration.ZERO)
+                .flatMap((result) -> {
+                    if (result.acquired()) {
+                        return Mono.just(true);
+                    }
+
+                    if (acquireEnd - System.nanoTime() <= 0L) {
+                        return Mono.just(false);
+                    }
+
+                    // 第一次尝试和订阅完成之间发生的释放收不到消息，
+                    // 所以订阅后的获取 - 等待循环先立即再尝试一次，而不是直接等待
+                    return
+                    Mono.usingWhen(
+                        LockReleaseSignal.subscribe(
+                            this.listenerContainer, request.releaseChannel()),
+                        (signal) -> this.acquireUntil(attempt, acquireEnd, signal),
+                        LockReleaseSignal::close
+                    );
+                });
+        });
+    }
+
+    /** 获取 - 等待循环。*/
+    private @NotNull Mono<Boolean>
+    acquireUntil(LockAttempt attempt, long acquireEnd, LockReleaseSignal signal)
+    {
+        return
+        Mono.defer(() -> {
+            final long observedEpoch = signal.currentEpoch();
+
+            return
+            attempt.tryAcquire(Duration.ZERO)
+                .flatMap((result) -> {
+                    if (result.acquired()) {
+                        return Mono.just(true);
+                    }
+
+                    final long remaining
+                        = Duration.ofNanos(acquireEnd - System.nanoTime()).toMillis();
+
+                    if (remaining <= 0L) {
+                        return Mono.just(false);
+                    }
+
+                    // 最多等到锁的 TTL 过期，但不超过剩余的获取期限
+                    final long maxWait
+                        = Math.min(remaining, Math.max(result.ttl(), 1L));
+
+                    return
+                    signal.awaitRelease(observedEpoch, Duration.ofMillis(maxWait))
+                          .then(this.acquireUntil(attempt, acquireEnd, signal));
+                });
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.jessez332623.redis_lock.distributed_lock.strategy;
+
+import io.github.jessez332623.redis_lock.distributed_lock.AcquireStrategy;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * 在 Redis 服务端的 Lua 脚本中循环尝试获取锁，直到 acquireTimeout 耗尽（兼容旧版本的行为）。
+ *
+ * @see io.github.jessez332623.redis_lock.distributed_lock.AcquireMode#SERVER_SPIN
+ */
+public final class ServerSpinAcquireStrategy implements AcquireStrategy
+{
+    @Override
+    public @NotNull Mono<Boolean>
+    acquire(@NotNull AcquireRequest request, @NotNull LockAttempt attempt)
+    {
+        return
+        attempt.tryAcquire(request.acquireTimeout())
+               .map(LockAttemptResult::acquired);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.jessez332623.redis_lock.distributed_lock.watchdog;
+
+import io.github.jessez332623.redis_lock.distributed_lock.exception.LockLeaseLost;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/** 注册到 {@link LockLeaseWatchdog} 中，由看门狗定期续期的一个锁租约。*/
+public final class LockLease
+{
+    /** 负责续期本租约的看门狗。*/
+    private final LockLeaseWatchdog watchdog;
+
+    /** 分布式锁键。*/
+    @Getter
+    private final String lockKey;
+
+    /** 锁的唯一标识符。*/
+    @Getter
+    private final String identifier;
+
+    /** 每次续期后锁的有效期（毫秒级）。*/
+    @Getter
+    private final long leaseTime;
+
+    /**
+     * 最近一次续期成功的时间（{@link System#nanoTime()}），
+     * 取的是发出续期脚本的时刻而不是收到结果的时刻，相当于扣掉了一次往返，
+     * 注册之前锁刚刚获取，所以初始值为注册的时刻。
+     */
+    private volatile long lastRenewedNanos = System.nanoTime();
+
+    /** 租约丢失时完成。*/
+    private final Sinks.Empty<Void> lostSignal = Sinks.empty();
+
+    LockLease(
+        LockLeaseWatchdog watchdog,
+        String lockKey, String identifier, long leaseTime)
+    {
+        this.watchdog   = watchdog;
+        this.lockKey    = lockKey;
+        this.identifier = identifier;
+        this.leaseTime  = leaseTime;
+    }
+
+    /**
+     * 获取一个在租约丢失时发布 {@link LockLeaseLost} 异常的 Mono，
+     * 租约没有丢失时它永远不会发布任何信号，
+     * 通常和业务逻辑一起交给 {@link Mono#firstWithSignal(Mono[])}。
+     */
+    public <T> @NotNull Mono<T>
+    lost()
+    {
+        return
+        this.lostSignal.asMono()
+            .then(Mono.error(() ->
+                new LockLeaseLost(
+                    format(
+                        "Lock: %s (identifier = %s) lost before the action finished!",
+                        this.lockKey, this.identifier
+                    )
+                )
+            ));
+    }
+
+    /** 看门狗在 sentNanos 时刻发出的续期成功了。*/
+    void renewed(long sentNanos)
+    {
+        if (sentNanos - this.lastRenewedNanos > 0L) {
+            this.lastRenewedNanos = sentNanos;
+        }
+    }
+
+    /** 距离最近一次续期成功是否已经超过了锁的有效期（锁在 Redis 中已经过期）。*/
+    boolean isExpired(long nowNanos) {
+        return nowNanos - this.lastRenewedNanos >= TimeUnit.MILLISECONDS.toNanos(this.leaseTime);
+    }
+
+    /** 看门狗发现锁已经丢失（只对仍在续期的租约生效）。*/
+    void markLost()
+    {
+        if (this.watchdog.unregister(this)) {
+            this.lostSignal.tryEmitEmpty();
+        }
+    }
+
+    /** 停止续期本租约（锁释放前调用）。*/
+    public void cancel() {
+        this.watchdog.unregister(this);
+    }
+}
@@ -0,0 +1,288 @@
+package io.github.jessez332623.redis_lock.distributed_lock.watchdog;
+
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import io.github.jessez332623.redis_lock.utils.RedisKeySlots;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.DISTRIBUTE_LOCK;
+import static java.lang.String.format;
+
+/**
+ * <p>分布式锁看门狗，为本 JVM 持有的所有锁续期。</p>
+ *
+ * <p>
+ *     所有租约共享同一个定时器，每个周期把当前的租约按哈希槽分组（非集群模式下只有一组），
+ *     每组只执行一次 renewLocks.lua，而不是为每个锁单独启动一个定时器、单独续期。
+ *     这样锁可以使用较短的有效期，持有者崩溃后锁能很快过期，而续期的开销不随锁的数量线性增长。
+ * </p>
+ *
+ * <p>
+ *     续期脚本执行失败（例如 Redis 暂时不可用）时无法得知锁是否还在，
+ *     所以每个租约记录最近一次续期成功的时间，超过锁的有效期仍然没有续期成功时，就当作锁已经丢失。
+ * </p>
+ */
+@Slf4j
+public final class LockLeaseWatchdog implements AutoCloseable
+{
+    /** 单次续期脚本最多携带的锁数量，避免单个脚本执行时间过长。*/
+    private static final int MAX_BATCH_SIZE = 512;
+
+    /** 锁的有效期至少是续期周期的多少倍（保证两次续期之间，以及续期脚本往返期间锁不会过期）。*/
+    private static final int MIN_LEASE_INTERVALS = 2;
+
+    /** 批量续期脚本（构造时解析一次，之后每轮续期都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> renewLocksScript;
+
+    /** 执行 Lua 脚本专用 Redis 模板。*/
+    private final
+    ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
+
+    /** Redis Lock 专用的线程调度器。*/
+    private final Scheduler scheduler;
+
+    /** Redis 操作的统一超时时间。*/
+    private final Duration operationTimeout;
+
+    /** 续期周期。*/
+    private final Duration renewInterval;
+
+    /** 是否为 Redis 集群模式（集群模式下需要按哈希槽分组续期）。*/
+    private final boolean clusterMode;
+
+    /** 当前正在续期的租约。*/
+    private final Set<LockLease> leases = ConcurrentHashMap.newKeySet();
+
+    /** 共享的续期定时器（第一个租约注册时才启动）。*/
+    private volatile Disposable ticker;
+
+    private volatile boolean closed = false;
+
+    public LockLeaseWatchdog(
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operationTimeout,
+        Duration renewInterval,
+        boolean clusterMode
+    )
+    {
+        if (renewInterval.isNegative() || renewInterval.isZero())
+        {
+            throw new
+            IllegalArgumentException(
+                format("Renew interval must be positive! (renewInterval = %s)", renewInterval)
+            );
+        }
+
+        this.renewLocksScript    = luaScriptReader.load(DISTRIBUTE_LOCK, "renewLocks.lua");
+        this.scriptRedisTemplate = scriptRedisTemplate;
+        this.scheduler           = scheduler;
+        this.operationTimeout    = operationTimeout;
+        this.renewInterval       = renewInterval;
+        this.clusterMode         = clusterMode;
+    }
+
+    /**
+     * 注册一个需要续期的锁。
+     *
+     * @param lockKey    分布式锁键
+     * @param identifier 锁的唯一标识符
+     * @param leaseTime  每次续期后锁的有效期，至少为续期周期的 2 倍
+     *
+     * @return 锁租约，锁释放前必须调用 {@link LockLease#cancel()}
+     *
+     * @throws IllegalArgumentException 有效期短于 2 倍的续期周期（锁会在两次续期之间过期，被当作丢失）
+     */
+    public @NotNull LockLease
+    register(String lockKey, String identifier, @NotNull Duration leaseTime)
+    {
+        if (leaseTime.compareTo(this.renewInterval.multipliedBy(MIN_LEASE_INTERVALS)) < 0)
+        {
+            throw new
+            IllegalArgumentException(
+                format(
+                    "Lease time must be at least %d times of renew interval! " +
+                    "(leaseTime = %s, renewInterval = %s)",
+                    MIN_LEASE_INTERVALS, leaseTime, this.renewInterval
+                )
+            );
+        }
+
+        final LockLease lease
+            = new LockLease(this, lockKey, identifier, leaseTime.toMillis());
+
+        this.leases.add(lease);
+        this.startIfNecessary();
+
+        return lease;
+    }
+
+    /** 移除一个租约，返回它是否仍在续期。*/
+    boolean unregister(LockLease lease) {
+        return this.leases.remove(lease);
+    }
+
+    /** 当前正在续期的租约数。*/
+    public int getLeaseCount() {
+        return this.leases.size();
+    }
+
+    private void startIfNecessary()
+    {
+        if (Objects.nonNull(this.ticker)) { return; }
+
+        synchronized (this)
+        {
+            if (Objects.isNull(this.ticker) && !this.closed)
+            {
+                // concatMap 保证上一轮续期完成前不会开始下一轮
+                this.ticker
+                    = Flux.interval(this.renewInterval)
+                          .onBackpressureDrop()
+                          .concatMap((tick) -> this.renewAll(), 1)
+                          .subscribe();
+            }
+        }
+    }
+
+    /** 续期当前所有的租约。*/
+    private @NotNull Mono<Void>
+    renewAll()
+    {
+        if (this.leases.isEmpty()) {
+            return Mono.empty();
+        }
+
+        // 连续几轮续期失败（或者续期脚本迟迟没有返回）的租约已经过期，不用再续期了
+        final long now = System.nanoTime();
+
+        final List<LockLease> snapshot
+            = this.leases.stream()
+                  .filter((lease) -> !markLostIfExpired(lease, now))
+                  .toList();
+
+        if (snapshot.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return
+        Flux.fromIterable(
+                RedisKeySlots.groupBySlot(
+                    snapshot, LockLease::getLockKey, this.clusterMode))
+            .concatMapIterable((group) -> partition(group, MAX_BATCH_SIZE))
+            .flatMap(this::renewBatch)
+            .then();
+    }
+
+    /** 用一次 renewLocks.lua 续期一批（同一哈希槽的）租约。*/
+    private @NotNull Mono<Void>
+    renewBatch(@NotNull List<LockLease> batch)
+    {
+        final List<String> keys = new ArrayList<>(batch.size());
+        final List<Object> args = new ArrayList<>(batch.size() * 2);
+
+        for (LockLease lease : batch)
+        {
+            keys.add(lease.getLockKey());
+            args.add(lease.getIdentifier());
+            args.add(lease.getLeaseTime());
+        }
+
+        return
+        Mono.defer(() -> {
+            final long sentNanos = System.nanoTime();
+
+            return
+            this.scriptRedisTemplate
+                .execute(this.renewLocksScript, keys, args)
+                .timeout(this.operationTimeout)
+                .next()
+                .map(LuaOperatorResult::decode)
+                .subscribeOn(this.scheduler)
+                .doOnNext((result) -> {
+                    for (LockLease lease : batch) {
+                        lease.renewed(sentNanos);
+                    }
+
+                    // 附加值是续期失败的锁在 KEYS 中的下标（从 1 开始）
+                    for (int i = 0; i < result.getValueCount(); ++i) {
+                        batch.get((int) result.getValue(i) - 1).markLost();
+                    }
+                })
+                .onErrorResume((exception) -> {
+                    // 单轮续期失败不能中断定时器，下一轮会再次尝试，
+                    // 但是已经超过有效期没有续期成功的锁肯定过期了
+                    log.warn(
+                        "Renew {} lock lease(s) failed! Caused by: {}",
+                        batch.size(), exception.getMessage()
+                    );
+
+                    final long now = System.nanoTime();
+
+                    for (LockLease lease : batch) {
+                        markLostIfExpired(lease, now);
+                    }
+
+                    return Mono.empty();
+                })
+                .then();
+        });
+    }
+
+    /** 租约已经超过有效期没有续期成功时把它标记为丢失，返回是否标记了。*/
+    private static boolean
+    markLostIfExpired(@NotNull LockLease lease, long nowNanos)
+    {
+        if (lease.isExpired(nowNanos))
+        {
+            lease.markLost();
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static <T> @NotNull List<List<T>>
+    partition(@NotNull List<T> list, int size)
+    {
+        final List<List<T>> partitions = new ArrayList<>();
+
+        for (int index = 0; index < list.size(); index += size) {
+            partitions.add(list.subList(index, Math.min(list.size(), index + size)));
+        }
+
+        return partitions;
+    }
+
+    /** 停止续期定时器（Spring 容器关闭时调用）。*/
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            this.closed = true;
+
+            if (Objects.nonNull(this.ticker)) {
+                this.ticker.dispose();
+            }
+        }
+
+        this.leases.clear();
+    }
+}
@@ -1,22 +1,36 @@
 package io.github.jessez332623.redis_lock.error_handle;
 
-import io.github.jessez332623.redis_lock.fair_semaphore.exception.SemaphoreNotFound;import io.github.jessez332623.redis_lock.utils.exception.LuaScriptOperatorFailed;
+import io.github.jessez332623.redis_lock.circuit_breaker.exception.RedisCircuitOpen;
+import io.github.jessez332623.redis_lock.fair_semaphore.exception.SemaphoreNotFound;
+import io.github.jessez332623.redis_lock.utils.exception.LuaScriptOperatorFailed;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.serializer.SerializationException;
 import reactor.core.publisher.Mono;
 
 import java.util.Objects;
+import java.util.concurrent.TimeoutException;
 
 /** 本项目所有的 Redis 操作中，通用的错误处理方法工具类。*/
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 final public class RedisLockErrorHandle
 {
+    /**
+     * Lettuce 客户端的命令超时异常类，类加载时通过反射解析一次
+     * （没有使用 Lettuce 客户端时为 null），不必在每次出错时都调用 Class.forName()。
+     */
+    private static final Class<?>
+    LETTUCE_TIMEOUT_CLASS = findLettuceTimeoutClass();
+
+    /** 判断熔断时沿着 cause 链向下检查的最大深度。*/
+    private static final int MAX_CAUSE_DEPTH = 8;
+
     /**
      * 本项目所有的 Redis 操作中，通用的错误处理方法。
      *
@@ -35,6 +49,10 @@ final public class RedisLockErrorHandle
 
         switch (exception)
         {
+            // 熔断期间每次调用都会失败，只在熔断器状态切换时记录日志
+            case RedisCircuitOpen redisCircuitOpen ->
+                log.debug("{}", redisCircuitOpen.getMessage());
+
             case LuaScriptOperatorFailed luaScriptOperatorFailed ->
                 log.error("{}", luaScriptOperatorFailed.getMessage());
 
@@ -85,24 +103,69 @@ final public class RedisLockErrorHandle
     private static boolean
     isLettuceTimeoutException(Throwable exception)
     {
-        boolean isLettuceTimeout = false;
-        try
+        if (isLettuceTimeoutClass(exception))
         {
-            Class<?> timeoutClass
-                = Class.forName("io.lettuce.core.RedisCommandTimeoutException");
+            log.warn("(Lettuce) Redis operator timeout!", exception);
+            return true;
+        }
 
-            if (timeoutClass.isInstance(exception))
-            {
-                isLettuceTimeout = true;
-                log.warn("(Lettuce) Redis operator timeout!", exception);
-                return isLettuceTimeout;
-            }
+        return false;
+    }
+
+    /** 检查异常是否为 Lettuce 的命令超时异常（不记录日志）。*/
+    private static boolean
+    isLettuceTimeoutClass(Throwable exception)
+    {
+        return
+        Objects.nonNull(LETTUCE_TIMEOUT_CLASS) &&
+        LETTUCE_TIMEOUT_CLASS.isInstance(exception);
+    }
+
+    /** 解析 Lettuce 的命令超时异常类，倘若没有使用 Lettuce 客户端则返回 null。*/
+    private static Class<?>
+    findLettuceTimeoutClass()
+    {
+        try {
+            return Class.forName("io.lettuce.core.RedisCommandTimeoutException");
         }
         catch (ClassNotFoundException classNotFound) {
-            // 倘若没有使用 Lettuce 客户端
-            return false;
+            return null;
+        }
+    }
+
+    /**
+     * 判断异常是否说明 Redis 本身不可用（命令超时或者连接失败），供熔断器统计失败率。
+     * 脚本返回的业务状态、反序列化失败等说明 Redis 有回复，不算在内；
+     * 客户端可能把底层异常包装多层，所以沿着 cause 链向下检查。
+     *
+     * @param exception 脚本调用抛出的异常
+     *
+     * @return 是否为超时或者连接失败？
+     */
+    public static boolean
+    isRedisUnavailable(Throwable exception)
+    {
+        Throwable current = exception;
+
+        for (int depth = 0; Objects.nonNull(current) && depth < MAX_CAUSE_DEPTH; ++depth)
+        {
+            if (isLettuceTimeoutClass(current)
+                || current instanceof TimeoutException
+                || current instanceof QueryTimeoutException
+                || current instanceof RedisConnectionFailureException) {
+                return true;
+            }
+
+            // 其他客户端抛出的超时异常会被 Spring 包装成 DataAccessException
+            if (current instanceof DataAccessException
+                && Objects.nonNull(current.getMessage())
+                && current.getMessage().contains("timeout")) {
+                return true;
+            }
+
+            current = current.getCause();
         }
 
-        return isLettuceTimeout;
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package io.github.jessez332623.redis_lock.fair_semaphore;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * <p>由 {@link RedisFairSemaphore#leased(String, long, Duration, long)} 创建的租用模式信号量。</p>
+ *
+ * <p>
+ *     本 JVM 一次从 Redis 信号量中租用一批信号量（一次脚本调用），
+ *     再通过内存中的无锁计数器分给本地的调用者，本地有空闲的信号量时获取和释放都不访问 Redis。
+ *     租用的数量随本地的需求自动增减：不够用时成倍地追加租用，需求下降后归还多余的部分；
+ *     同一个信号量租用的所有批次共享 {@code SemaphoreRefresher}，每个刷新周期只需要一次脚本调用。
+ *     这样 Redis 的访问量只和 Pod 的数量有关，和请求的数量无关，
+ *     适合 "全集群最多 5000 个并发调用" 这类高频、短时间的任务。
+ * </p>
+ *
+ * <p>
+ *     同一个信号量在一个 JVM 中应当只创建一个实例（多个实例会各自租用），
+ *     不再使用时调用 {@link #close()} 归还租用的全部信号量。
+ * </p>
+ */
+public interface LeasedFairSemaphore
+{
+    /** 获取信号量键名。*/
+    String getSemaphoreName();
+
+    /** 当前从 Redis 租用的信号量数量。*/
+    long getLeasedPermits();
+
+    /** 当前本地空闲（已租用但没有分出去）的信号量数量。*/
+    long getAvailablePermits();
+
+    /**
+     * 在一个本地信号量的作用域内执行业务逻辑，
+     * 本地没有空闲的信号量时先向 Redis 追加租用，追加失败（资源繁忙或者已经达到租用上限）时
+     * 以 {@link io.github.jessez332623.redis_lock.fair_semaphore.exception.AcquireSemaphoreFailed} 失败。
+     *
+     * @param <T> 在信号量作用域中业务逻辑返回的类型
+     *
+     * @param action 业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withPermit(Supplier<Mono<T>> action);
+
+    /**
+     * 停止租用，之后不能再获取本地信号量，等正在使用的本地信号量全部归还后，再归还租用的全部信号量。
+     *
+     * @return 不发布任何数据的 {@link Mono}，所有批次都归还给 Redis 之后才完成
+     */
+    Mono<Void> close();
+}
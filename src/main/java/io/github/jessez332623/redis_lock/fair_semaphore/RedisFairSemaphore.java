@@ -5,6 +5,7 @@ import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.function.Function;
 
 /** Redis 公平信号量接口。*/
@@ -19,7 +20,7 @@ public interface RedisFairSemaphore extends StatisticalInstrument
      *
      * @param semaphoreName 信号量键名
      * @param limit         最大信号量值
-     * @param timeout       信号量有效期（毫秒级别）
+     * @param timeout       信号量有效期（毫秒级别，业务执行期间会被定期刷新）
      * @param action        业务逻辑
      *
      * @return 发布业务逻辑执行结果数据的 {@link Mono}
@@ -30,4 +31,93 @@ public interface RedisFairSemaphore extends StatisticalInstrument
         long limit, Duration timeout,
         Function<String, Mono<T>> action
     );
-}
\ No newline at end of file
+
+    /**
+     * 和 {@link #withFairSemaphore(String, long, Duration, Function)} 相同，
+     * 但资源繁忙时不会立即失败，而是在 Redis 端的等待队列中按先来后到排队，
+     * 信号量被释放时直接转交给排在最前面的等待者并唤醒它（客户端不轮询），
+     * 等待超过 acquireWait 仍未获取到时才以 AcquireSemaphoreFailed 失败。
+     *
+     * @param <T> 在信号量作用域中业务逻辑返回的类型
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param timeout       信号量有效期（毫秒级别，业务执行期间会被定期刷新）
+     * @param acquireWait   资源繁忙时的最长等待时间（为 0 时不等待）
+     * @param action        业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withFairSemaphore(
+        String semaphoreName,
+        long limit, Duration timeout, Duration acquireWait,
+        Function<String, Mono<T>> action
+    );
+
+    /**
+     * 和 {@link #withFairSemaphore(String, long, Duration, Duration, Function)} 相同，
+     * 但一次获取 permits 个信号量（权重，比如批量导出算 10 个、单次查询算 1 个）。
+     * 这些信号量在一次脚本调用中原子地获取，要么全部获取，要么一个都不获取，
+     * 排队时和获取单个信号量的等待者一样按先来后到；刷新和释放也都只需要一次脚本调用。
+     *
+     * @param <T> 在信号量作用域中业务逻辑返回的类型
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（1 ~ min(limit, 1000)）
+     * @param timeout       信号量有效期（毫秒级别，业务执行期间会被定期刷新）
+     * @param acquireWait   资源繁忙时的最长等待时间（为 0 时不等待）
+     * @param action        业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withFairSemaphore(
+        String semaphoreName,
+        long limit, long permits, Duration timeout, Duration acquireWait,
+        Function<String, Mono<T>> action
+    );
+
+    /**
+     * 非阻塞地尝试获取一个信号量许可（只有一次 Redis 往返），
+     * 适合 "资源空闲就做，否则跳过" 的任务。
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param timeout       信号量有效期（毫秒级别）
+     *
+     * @return 发布信号量许可的 {@link Mono}，资源繁忙时发布 {@link Optional#empty()}
+     */
+    Mono<Optional<SemaphorePermit>>
+    tryAcquire(String semaphoreName, long limit, Duration timeout);
+
+    /**
+     * 和 {@link #tryAcquire(String, long, Duration)} 相同，但一次获取 permits 个信号量（权重），
+     * 许可的刷新和释放同样作用于全部 permits 个信号量。
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（1 ~ min(limit, 1000)）
+     * @param timeout       信号量有效期（毫秒级别）
+     *
+     * @return 发布信号量许可的 {@link Mono}，资源繁忙时发布 {@link Optional#empty()}
+     */
+    Mono<Optional<SemaphorePermit>>
+    tryAcquire(String semaphoreName, long limit, long permits, Duration timeout);
+
+    /**
+     * 创建一个租用模式的信号量（见 {@link LeasedFairSemaphore}）：
+     * 本 JVM 一次从 Redis 信号量中租用一批信号量，再在本地分给调用者，
+     * 租用的数量随本地的需求自动增减，适合高频、短时间的任务。
+     *
+     * @param semaphoreName    信号量键名
+     * @param limit            最大信号量值（全集群）
+     * @param timeout          信号量有效期（毫秒级别，租用期间会被定期刷新）
+     * @param maxLeasedPermits 本 JVM 最多租用的信号量数量
+     *
+     * @return 租用模式的信号量，不再使用时需要调用 {@link LeasedFairSemaphore#close()}
+     */
+    LeasedFairSemaphore
+    leased(String semaphoreName, long limit, Duration timeout, long maxLeasedPermits);
+}
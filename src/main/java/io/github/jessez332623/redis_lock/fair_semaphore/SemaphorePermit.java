@@ -0,0 +1,39 @@
+package io.github.jessez332623.redis_lock.fair_semaphore;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * <p>由 {@link RedisFairSemaphore#tryAcquire(String, long, long, Duration)} 获取的信号量许可。</p>
+ *
+ * <p>
+ *     许可的生命周期不受单个 {@link Mono} 作用域的限制，
+ *     由使用者负责刷新和释放（不释放的话许可在有效期过后会被其他获取者清理掉）。
+ * </p>
+ */
+public interface SemaphorePermit
+{
+    /** 获取信号量键名。*/
+    String getSemaphoreName();
+
+    /** 获取信号量唯一标识符。*/
+    String getIdentifier();
+
+    /** 获取许可包含的信号量数量（权重）。*/
+    long getPermits();
+
+    /**
+     * 刷新许可，让许可的有效期从现在重新开始计算。
+     *
+     * @return 发布许可是否仍然有效（刷新是否成功）的 {@link Mono}，许可已释放时发布 false
+     */
+    Mono<Boolean> refresh();
+
+    /**
+     * 释放许可，多次调用时只有第一次会真正执行释放操作。
+     *
+     * @return 不发布任何数据的 {@link Mono}，表示操作整体是否完成
+     */
+    Mono<Void> release();
+}
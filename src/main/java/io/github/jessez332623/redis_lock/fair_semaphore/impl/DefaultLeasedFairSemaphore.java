@@ -0,0 +1,534 @@
+package io.github.jessez332623.redis_lock.fair_semaphore.impl;
+
+import io.github.jessez332623.redis_lock.fair_semaphore.LeasedFairSemaphore;
+import io.github.jessez332623.redis_lock.fair_semaphore.RedisFairSemaphore;
+import io.github.jessez332623.redis_lock.fair_semaphore.SemaphorePermit;
+import io.github.jessez332623.redis_lock.fair_semaphore.exception.AcquireSemaphoreFailed;
+import io.github.jessez332623.redis_lock.fair_semaphore.refresher.SemaphoreLease;
+import io.github.jessez332623.redis_lock.fair_semaphore.refresher.SemaphoreRefresher;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * <p>{@link LeasedFairSemaphore} 的默认实现。</p>
+ *
+ * <p>
+ *     租用的信号量由若干批次组成，每个批次是一次
+ *     {@link RedisFairSemaphore#tryAcquire(String, long, long, Duration)} 获取的多个信号量，
+ *     追加租用就是再获取一个批次（大小为当前租用量和本地等待者数量中较大的那个，即至少成倍增长），
+ *     归还就是释放整个批次，所以不需要额外的脚本。所有批次都注册到 {@link SemaphoreRefresher}，
+ *     刷新器按信号量键分组，每个周期只用一次脚本调用刷新全部批次。
+ * </p>
+ *
+ * <p>
+ *     本地的获取和释放只是 {@link AtomicLong} 上的 CAS；
+ *     同一时间只有一个追加租用的请求发往 Redis，其他本地调用者等待它的结果。
+ *     每个收缩周期记录本地同时使用的信号量的峰值，
+ *     租用量超过峰值的 1.25 倍时，把多出来的、本地空闲的批次归还给 Redis（优先归还最新的批次）。
+ * </p>
+ *
+ * <p>
+ *     批次丢失时只扣除本地空闲的那部分信号量，仍在使用的部分记为欠还，
+ *     使用者归还时先抵消欠还的数量；关闭时先拒绝新的本地获取，
+ *     等本地使用的信号量全部归还之后才把批次归还给 Redis。
+ * </p>
+ */
+@Slf4j
+final class DefaultLeasedFairSemaphore implements LeasedFairSemaphore
+{
+    /** 收缩周期，每个周期根据上一个周期的使用峰值决定是否归还多余的批次，现在是 1 秒。*/
+    private static final Duration SHRINK_INTERVAL = Duration.ofSeconds(1L);
+
+    /** 一个租用批次。*/
+    private record Block(SemaphorePermit permit, SemaphoreLease lease, Disposable lostWatcher)
+    {
+        private long permits() {
+            return this.permit.getPermits();
+        }
+    }
+
+    private final RedisFairSemaphore semaphore;
+    private final SemaphoreRefresher refresher;
+
+    /** 信号量键名和信号量有序集合键。*/
+    private final String semaphoreName;
+    private final String semaphoreNameKey;
+
+    /** 最大信号量值、信号量有效期、本 JVM 最多租用的信号量数量。*/
+    private final long     limit;
+    private final Duration timeout;
+    private final long     maxLeasedPermits;
+
+    /** 当前租用的批次（按租用顺序）。*/
+    private final Deque<Block> blocks = new ConcurrentLinkedDeque<>();
+
+    /** 当前租用的信号量数量。*/
+    private final AtomicLong leased = new AtomicLong(0L);
+
+    /** 本地空闲的信号量数量。*/
+    private final AtomicLong available = new AtomicLong(0L);
+
+    /** 已经丢失的批次中仍在本地使用的信号量数量，归还时直接抵消，不再变为空闲。*/
+    private final AtomicLong owed = new AtomicLong(0L);
+
+    /** 本地正在使用的信号量数量，以及本收缩周期内它的峰值。*/
+    private final AtomicLong inUse     = new AtomicLong(0L);
+    private final AtomicLong peakInUse = new AtomicLong(0L);
+
+    /** 本地没有空闲的信号量、正在等待追加租用的调用者数量。*/
+    private final AtomicLong waiting = new AtomicLong(0L);
+
+    /** 正在进行的追加租用（同一时间最多一个）。*/
+    private final AtomicReference<Mono<Void>> growing = new AtomicReference<>();
+
+    /** 收缩定时器（第一次租用成功时才启动）。*/
+    private volatile Disposable shrinker;
+
+    private volatile boolean closed = false;
+
+    /** 关闭后本地使用的信号量全部归还时完成。*/
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+
+    DefaultLeasedFairSemaphore(
+        RedisFairSemaphore semaphore, SemaphoreRefresher refresher,
+        String semaphoreName, String semaphoreNameKey,
+        long limit, Duration timeout, long maxLeasedPermits)
+    {
+        this.semaphore        = semaphore;
+        this.refresher        = refresher;
+        this.semaphoreName    = semaphoreName;
+        this.semaphoreNameKey = semaphoreNameKey;
+        this.limit            = limit;
+        this.timeout          = timeout;
+        this.maxLeasedPermits = maxLeasedPermits;
+    }
+
+    @Override
+    public String getSemaphoreName() {
+        return this.semaphoreName;
+    }
+
+    @Override
+    public long getLeasedPermits() {
+        return this.leased.get();
+    }
+
+    @Override
+    public long getAvailablePermits() {
+        return Math.max(this.available.get(), 0L);
+    }
+
+    /** 尝试从本地空闲的信号量中取出一个（关闭之后总是失败）。*/
+    private boolean
+    tryTake()
+    {
+        long current;
+
+        do
+        {
+            current = this.available.get();
+
+            if (current <= 0L) {
+                return false;
+            }
+        }
+        while (!this.available.compareAndSet(current, current - 1L));
+
+        this.peakInUse.accumulateAndGet(this.inUse.incrementAndGet(), Math::max);
+
+        // 先计入使用量再检查是否关闭，close() 要么看到这次使用并等它归还，要么这里看到已经关闭
+        if (this.closed)
+        {
+            this.giveBack();
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /** 把一个本地信号量还回去，关闭后最后一个归还者通知 close() 可以归还批次了。*/
+    private void
+    giveBack()
+    {
+        this.restore(1L);
+
+        if (this.inUse.decrementAndGet() == 0L && this.closed) {
+            this.drained.tryEmitEmpty();
+        }
+    }
+
+    /** 把 count 个信号量放回本地，先抵消丢失批次欠还的数量，剩下的才变为空闲。*/
+    private void
+    restore(long count)
+    {
+        long current;
+        long paid;
+
+        do
+        {
+            current = this.owed.get();
+            paid    = Math.min(current, count);
+
+            if (paid <= 0L) { break; }
+        }
+        while (!this.owed.compareAndSet(current, current - paid));
+
+        if (count > paid) {
+            this.available.addAndGet(count - paid);
+        }
+    }
+
+    /** 从本地空闲的信号量中最多取出 count 个，返回实际取出的数量。*/
+    private long
+    takeUpTo(long count)
+    {
+        long current;
+        long taken;
+
+        do
+        {
+            current = this.available.get();
+            taken   = Math.min(current, count);
+
+            if (taken <= 0L) {
+                return 0L;
+            }
+        }
+        while (!this.available.compareAndSet(current, current - taken));
+
+        return taken;
+    }
+
+    /** 尝试从本地空闲的信号量中一次取出 count 个（归还批次时使用）。*/
+    private boolean
+    tryTakeAll(long count)
+    {
+        long current;
+
+        do
+        {
+            current = this.available.get();
+
+            if (current < count) {
+                return false;
+            }
+        }
+        while (!this.available.compareAndSet(current, current - count));
+
+        return true;
+    }
+
+    /** 获取一个本地信号量，没有空闲的信号量时先追加租用。*/
+    private @NotNull Mono<Boolean>
+    acquireLocal()
+    {
+        return
+        Mono.defer(() -> {
+            if (this.closed) {
+                return this.closedError();
+            }
+
+            if (this.tryTake()) {
+                return Mono.just(true);
+            }
+
+            this.waiting.incrementAndGet();
+
+            return
+            this.takeOrGrow()
+                .doFinally((signal) -> this.waiting.decrementAndGet());
+        });
+    }
+
+    /**
+     * 追加租用后再尝试取出一个本地信号量，
+     * 被别的调用者抢先时，只要租用量还在增长就继续追加，
+     * 租用量不再增长（资源繁忙或者已经达到租用上限）时才视为获取失败。
+     */
+    private @NotNull Mono<Boolean>
+    takeOrGrow()
+    {
+        return
+        Mono.defer(() -> {
+            final long leasedBefore = this.leased.get();
+
+            return
+            this.grow()
+                .then(Mono.defer(() -> {
+                    if (this.tryTake()) {
+                        return Mono.just(true);
+                    }
+
+                    if (this.closed) {
+                        return this.closedError();
+                    }
+
+                    if (this.leased.get() > leasedBefore) {
+                        return this.takeOrGrow();
+                    }
+
+                    return
+                    Mono.error(
+                        new AcquireSemaphoreFailed(
+                            "Acquire semaphore failed! Caused by: No leased permit available."
+                        )
+                    );
+                }));
+        });
+    }
+
+    private <T> @NotNull Mono<T>
+    closedError()
+    {
+        return
+        Mono.error(
+            new IllegalStateException(
+                "Leased semaphore " + this.semaphoreName + " is closed!"
+            )
+        );
+    }
+
+    /** 追加租用（同一时间只有一个请求发往 Redis，其他调用者共享它的结果）。*/
+    private @NotNull Mono<Void>
+    grow()
+    {
+        while (true)
+        {
+            final Mono<Void> current = this.growing.get();
+
+            if (Objects.nonNull(current)) {
+                return current;
+            }
+
+            // 必须在结果传给等待者之前清空，否则等待者再次追加时拿到的还是这个已经完成的请求
+            final Mono<Void> next
+                = this.leaseBlock()
+                      .doOnTerminate(() -> this.growing.set(null))
+                      .cache();
+
+            if (this.growing.compareAndSet(null, next)) {
+                return next;
+            }
+        }
+    }
+
+    /** 向 Redis 租用一个批次，资源繁忙时退回到只租用一个信号量。*/
+    private @NotNull Mono<Void>
+    leaseBlock()
+    {
+        return
+        Mono.defer(() -> {
+            final long room
+                = Math.min(this.maxLeasedPermits, this.limit) - this.leased.get();
+
+            if (room <= 0L) {
+                return Mono.empty();
+            }
+
+            // 批次大小为当前的租用量（成倍增长）和等待者数量中较大的那个，
+            // 至少一个，最多为单次获取的上限
+            final long size
+                = Math.min(
+                    Math.min(room, DefaultRedisFairSemaphoreImpl.MAX_PERMITS),
+                    Math.max(Math.max(this.leased.get(), this.waiting.get()), 1L));
+
+            return
+            this.semaphore
+                .tryAcquire(this.semaphoreName, this.limit, size, this.timeout)
+                .flatMap((acquired) ->
+                    (acquired.isEmpty() && size > 1L)
+                        ? this.semaphore.tryAcquire(this.semaphoreName, this.limit, 1L, this.timeout)
+                        : Mono.just(acquired))
+                .doOnNext((acquired) -> acquired.ifPresent(this::addBlock))
+                .then();
+        });
+    }
+
+    private void
+    addBlock(@NotNull SemaphorePermit permit)
+    {
+        final SemaphoreLease lease
+            = this.refresher.register(
+                this.semaphoreNameKey, permit.getIdentifier(),
+                permit.getPermits(), this.timeout);
+
+        final AtomicReference<Block> self = new AtomicReference<>();
+
+        // 刷新时发现批次已经丢失，它的信号量不能再分给本地的调用者：
+        // 空闲的部分立即扣除，正在使用的部分记为欠还，等使用者归还时抵消
+        final Disposable lostWatcher
+            = lease.lost().subscribe(
+                null,
+                (exception) -> {
+                    log.warn("{}", exception.getMessage());
+
+                    final Block block = self.get();
+
+                    if (Objects.nonNull(block) && this.blocks.remove(block))
+                    {
+                        this.leased.addAndGet(-block.permits());
+                        this.owed.addAndGet(block.permits() - this.takeUpTo(block.permits()));
+
+                        // 上面两步之间归还的信号量进了空闲，这里把它们拿出来抵消欠还
+                        this.restore(this.takeUpTo(this.owed.get()));
+                    }
+                });
+
+        final Block block = new Block(permit, lease, lostWatcher);
+
+        self.set(block);
+
+        this.blocks.addLast(block);
+        this.leased.addAndGet(permit.getPermits());
+        this.available.addAndGet(permit.getPermits());
+
+        if (this.closed) {
+            this.close().subscribe();
+        }
+
+        this.startShrinkerIfNecessary();
+    }
+
+    private void startShrinkerIfNecessary()
+    {
+        if (Objects.nonNull(this.shrinker)) { return; }
+
+        synchronized (this)
+        {
+            if (Objects.isNull(this.shrinker) && !this.closed)
+            {
+                this.shrinker
+                    = Flux.interval(SHRINK_INTERVAL)
+                          .onBackpressureDrop()
+                          .concatMap((tick) -> this.shrink(), 1)
+                          .subscribe();
+            }
+        }
+    }
+
+    /** 归还超出上个周期使用峰值 1.25 倍的、本地空闲的批次。*/
+    private @NotNull Mono<Void>
+    shrink()
+    {
+        final long peak   = this.peakInUse.getAndSet(this.inUse.get());
+        final long target = peak + peak / 4L;
+
+        final Iterator<Block> newestFirst = this.blocks.descendingIterator();
+
+        Mono<Void> releases = Mono.empty();
+
+        while (newestFirst.hasNext())
+        {
+            final Block block  = newestFirst.next();
+            final long  excess = this.leased.get() - target;
+
+            if (excess <= 0L) {
+                break;
+            }
+
+            if (block.permits() <= excess && this.tryTakeAll(block.permits()))
+            {
+                if (this.blocks.remove(block))
+                {
+                    this.leased.addAndGet(-block.permits());
+                    releases = releases.then(this.releaseBlock(block));
+                }
+                else {
+                    // 批次刚刚丢失，它的信号量已经按欠还扣除过了
+                    this.restore(block.permits());
+                }
+            }
+        }
+
+        return releases;
+    }
+
+    /** 把一个批次归还给 Redis。*/
+    private @NotNull Mono<Void>
+    releaseBlock(@NotNull Block block)
+    {
+        block.lease().cancel();
+        block.lostWatcher().dispose();
+
+        return
+        block.permit().release()
+            .onErrorResume((exception) -> {
+                // 归还失败的批次会在有效期过后被其他获取者清理掉
+                log.warn(
+                    "Release leased permits of {} failed! Caused by: {}",
+                    this.semaphoreName, exception.getMessage()
+                );
+
+                return Mono.empty();
+            });
+    }
+
+    @Override
+    public <T> Mono<T>
+    withPermit(Supplier<Mono<T>> action)
+    {
+        return
+        Mono.usingWhen(
+            this.acquireLocal(),
+            (ignored) -> action.get(),
+            (ignored) -> Mono.fromRunnable(this::giveBack)
+        );
+    }
+
+    /**
+     * 关闭租用的信号量：之后的本地获取都会失败，
+     * 等正在执行的 {@link #withPermit(Supplier)} 全部归还信号量之后，才把所有批次归还给 Redis。
+     */
+    @Override
+    public Mono<Void> close()
+    {
+        return
+        Mono.defer(() -> {
+            synchronized (this)
+            {
+                this.closed = true;
+
+                if (Objects.nonNull(this.shrinker)) {
+                    this.shrinker.dispose();
+                }
+            }
+
+            final Mono<Void> idle
+                = (this.inUse.get() == 0L)
+                    ? Mono.empty()
+                    : this.drained.asMono();
+
+            return
+            idle.then(Mono.defer(() -> {
+                Mono<Void> releases = Mono.empty();
+
+                Block block;
+
+                while (Objects.nonNull(block = this.blocks.pollFirst()))
+                {
+                    this.leased.addAndGet(-block.permits());
+                    this.takeUpTo(block.permits());
+
+                    releases = releases.then(this.releaseBlock(block));
+                }
+
+                return releases;
+            }));
+        });
+    }
+
+}
@@ -1,61 +1,123 @@
 package io.github.jessez332623.redis_lock.fair_semaphore.impl;
 
+import io.github.jessez332623.redis_lock.circuit_breaker.RedisCircuitBreaker;
 import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
 import io.github.jessez332623.redis_lock.fair_semaphore.exception.AcquireSemaphoreFailed;
 import io.github.jessez332623.redis_lock.fair_semaphore.exception.SemaphoreNotFound;
+import io.github.jessez332623.redis_lock.fair_semaphore.refresher.SemaphoreLease;
+import io.github.jessez332623.redis_lock.fair_semaphore.refresher.SemaphoreRefresher;
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
 import io.github.jessez332623.redis_lock.statistics.impl.FairSemaphoreFaultStatistical;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
 import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
 import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import io.github.jessez332623.redis_lock.utils.RedisKeySlots;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
+import io.github.jessez332623.redis_lock.fair_semaphore.LeasedFairSemaphore;
 import io.github.jessez332623.redis_lock.fair_semaphore.RedisFairSemaphore;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
+import io.github.jessez332623.redis_lock.fair_semaphore.SemaphorePermit;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.reactivestreams.Publisher;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import reactor.core.publisher.Flux;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.ACQUIRE_SEMAPHORE_FAILED;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SEMAPHORE_NOT_FOUND;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SEMAPHORE_TIMEOUT;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SEMAPHORE_QUEUED;
 import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.FAIR_SEMAPHORE;
 import static java.lang.String.format;
 
-/** Redis 公平信号量默认实现类。*/
+/**
+ * Redis 公平信号量默认实现类，
+ * 没有传入刷新器时自己创建一个，不再使用时需要调用 {@link #close()} 停止它（Spring 容器关闭时自动调用）。
+ */
 @Slf4j
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
-public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
+public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore, AutoCloseable
 {
-    /** 表示一个长时间持有信号量的时间段，现在是 10 秒。*/
+    /** 没有传入刷新器时，自己创建的刷新器的刷新周期，现在是 1 秒。*/
     private final static
-    Duration LONG_TIMEOUT = Duration.ofSeconds(10);
+    Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(1L);
+
+    /**
+     * 一次最多获取的信号量数量（每个信号量都是有序集合中的一个成员，
+     * 数量过大会让单个脚本执行时间过长），现在是 1000 个。
+     */
+    final static
+    long MAX_PERMITS = 1000L;
 
     /** 公平信号量键的键前缀（用户自定义）。*/
-    private String FAIR_SEMAPHORE_KEY_PREFIX;
+    private final String FAIR_SEMAPHORE_KEY_PREFIX;
 
-    /** Lua 脚本读取器。*/
-    private LuaScriptReader luaScriptReader;
+    /** 本类用到的 Lua 脚本（构造时解析一次，之后每次操作都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> acquireScript;
+    private final DefaultRedisScript<List<Object>> refreshScript;
+    private final DefaultRedisScript<List<Object>> releaseScript;
+    private final DefaultRedisScript<List<Object>> cancelWaitScript;
+    private final DefaultRedisScript<List<Object>> releaseBatchScript;
 
     /** 执行 Lua 脚本专用 Redis 模板。*/
-    private
+    private final
     ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
 
     /** Redis Lock 专用的线程调度器。*/
-    private Scheduler scheduler;
+    private final Scheduler scheduler;
 
     /** Redis 操作的统一超时时间（默认为 5 秒）。*/
-    private Duration operationTimeout;
+    private final Duration operationTimeout;
+
+    /** 信号量唯一标识符生成器。*/
+    private final IdentifierGenerator identifierGenerator;
+
+    /** 耗时指标记录器。*/
+    private final LockMetricsRecorder metrics;
+
+    /**
+     * 订阅信号量唤醒频道用的消息监听容器（只在第一次排队等待时获取，可能为 null），
+     * 没有容器时等待者只在最早的信号量超时后重新尝试。
+     */
+    private final Supplier<ReactiveRedisMessageListenerContainer> listenerContainer;
+
+    /** 在信号量作用域内刷新信号量的刷新器（所有持有者共享一个定时器）。*/
+    private final SemaphoreRefresher refresher;
+
+    /** 刷新器是否为本实例自己创建的（只有自己创建的刷新器才由本实例关闭）。*/
+    private final boolean ownsRefresher;
+
+    /** 包在每次脚本调用外面的 Redis 熔断器。*/
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /** 把多个调用者的释放操作合并成一次脚本调用的批处理器（为 null 时每次释放单独执行脚本）。*/
+    private final ReleaseBatcher<SemaphoreRelease> releaseBatcher;
+
+    /** 一个等待批量执行的释放操作（参数和 releaseFairSemaphore.lua 的一致）。*/
+    private record SemaphoreRelease(
+        List<String> keys, String identifier, long permits, long limit) {}
 
     private final
     FairSemaphoreFaultStatistical faultStatistical
         = new FairSemaphoreFaultStatistical();
 
-    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    /** 公共有参构造函数，所有可选组件都使用默认值（见 {@link FairSemaphoreOptions}）。*/
     public DefaultRedisFairSemaphoreImpl(
         String fairSemaphoreKeyPrefix,
         LuaScriptReader scriptReader,
@@ -63,12 +125,57 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
         Scheduler scheduler,
         Duration operationTimeout
     )
+    {
+        this(
+            fairSemaphoreKeyPrefix, scriptReader, redisScriptTemplate,
+            scheduler, operationTimeout, FairSemaphoreOptions.builder().build()
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public DefaultRedisFairSemaphoreImpl(
+        String fairSemaphoreKeyPrefix,
+        LuaScriptReader scriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisScriptTemplate,
+        Scheduler scheduler,
+        Duration operationTimeout,
+        @NotNull FairSemaphoreOptions options
+    )
     {
         this.FAIR_SEMAPHORE_KEY_PREFIX = fairSemaphoreKeyPrefix;
-        this.luaScriptReader           = scriptReader;
         this.scriptRedisTemplate       = redisScriptTemplate;
         this.scheduler                 = scheduler;
         this.operationTimeout          = operationTimeout;
+        this.identifierGenerator       = options.getIdentifierGenerator();
+        this.metrics                   = options.getMetrics();
+        this.listenerContainer         = options.getListenerContainer();
+        this.circuitBreaker            = options.getCircuitBreaker();
+
+        this.ownsRefresher = Objects.isNull(options.getRefresher());
+
+        this.refresher
+            = (this.ownsRefresher)
+                ? new SemaphoreRefresher(
+                    scriptReader, redisScriptTemplate,
+                    scheduler, operationTimeout, DEFAULT_REFRESH_INTERVAL)
+                : options.getRefresher();
+
+        this.acquireScript    = scriptReader.load(FAIR_SEMAPHORE, "acquireFairSemaphore.lua");
+        this.refreshScript    = scriptReader.load(FAIR_SEMAPHORE, "refreshFairSemaphore.lua");
+        this.releaseScript    = scriptReader.load(FAIR_SEMAPHORE, "releaseFairSemaphore.lua");
+        this.cancelWaitScript = scriptReader.load(FAIR_SEMAPHORE, "cancelFairSemaphoreWait.lua");
+
+        this.releaseBatchScript
+            = scriptReader.load(FAIR_SEMAPHORE, "releaseFairSemaphoreBatch.lua");
+
+        this.releaseBatcher
+            = (Objects.isNull(options.getReleaseBatch()))
+                ? null
+                : new ReleaseBatcher<>(
+                    options.getReleaseBatch(), (release) -> release.keys().getFirst(),
+                    this::executeReleaseBatch,
+                    RedisKeySlots.isClusterAware(redisScriptTemplate.getConnectionFactory())
+                );
     }
 
     /** 组合信号量有序集合键。*/
@@ -96,22 +203,105 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
         FAIR_SEMAPHORE_KEY_PREFIX + ":" + "{" + semaphoreName + "}:" + "counter";
     }
 
+    /** 组合信号量等待者有序集合键（按排队号排序）。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getSemaphoreWaitersKey(String semaphoreName)
+    {
+        return
+        FAIR_SEMAPHORE_KEY_PREFIX + ":" + "{" + semaphoreName + "}:" + "waiters";
+    }
+
+    /** 组合信号量等待者期限有序集合键（按等待期限排序）。*/
+    @Contract(pure = true)
+    private @NotNull String
+    getSemaphoreWaitersDeadlineKey(String semaphoreName)
+    {
+        return
+        FAIR_SEMAPHORE_KEY_PREFIX + ":" + "{" + semaphoreName + "}:" + "waiters:deadline";
+    }
+
     /**
-     * 进程尝试获取一个信号量。
-     *
-     * @param semaphoreName 信号量键名
-     * @param limit         最大信号量值
-     * @param timeout       信号量有效期（单位：秒）
+     * 组合信号量的唤醒频道名，
+     * 必须和 releaseFairSemaphore.lua 中的 wakeChannel 保持一致。
+     */
+    @Contract(pure = true)
+    private @NotNull String
+    getSemaphoreWakeChannel(String semaphoreName) {
+        return getSemaphoreNameKey(semaphoreName) + ":wake";
+    }
+
+    /**
+     * 等待者在等待队列中的成员（也是转交信号量后唤醒频道中的消息），
+     * 必须和 acquireFairSemaphore.lua 中的 waiterMember 保持一致。
+     */
+    @Contract(pure = true)
+    private static @NotNull String
+    getWaiterMember(String identifier, long permits) {
+        return (permits == 1L) ? identifier : identifier + "#" + permits;
+    }
+
+    /** 获取和释放脚本用到的全部键（信号量本身的三个键以及等待队列的两个键）。*/
+    private @NotNull List<String>
+    getSemaphoreKeys(String semaphoreName)
+    {
+        return
+        List.of(
+            getSemaphoreNameKey(semaphoreName),
+            getSemaphoreOwnerKey(semaphoreName),
+            getSemaphoreCounterKey(semaphoreName),
+            getSemaphoreWaitersKey(semaphoreName),
+            getSemaphoreWaitersDeadlineKey(semaphoreName)
+        );
+    }
+
+    /**
+     * 执行一个公平信号量脚本（顺便记录脚本往返耗时），
+     * 熔断器打开时在切换到调度器之前就立即失败，不会在任务队列中排队。
+     */
+    private @NotNull Mono<LuaOperatorResult>
+    executeScript(DefaultRedisScript<List<Object>> script, List<String> keys, Object... args)
+    {
+        return
+        this.scriptRedisTemplate
+            .execute(script, keys, args)
+            .timeout(this.operationTimeout)
+            .next()
+            .map(LuaOperatorResult::decode)
+            .as((execution) -> this.metrics.timeScript(script, execution))
+            .subscribeOn(this.scheduler)
+            .transform(this.circuitBreaker::protect);
+    }
+
+    /** 用一次 releaseFairSemaphoreBatch.lua 执行一组释放操作（依次拼接每个释放操作的键和参数）。*/
+    private @NotNull Mono<LuaOperatorResult>
+    executeReleaseBatch(@NotNull List<SemaphoreRelease> releases)
+    {
+        final List<String> keys = new ArrayList<>(releases.size() * 5);
+        final List<Object> args = new ArrayList<>(releases.size() * 3);
+
+        for (SemaphoreRelease release : releases)
+        {
+            keys.addAll(release.keys());
+            args.add(release.identifier());
+            args.add(release.permits());
+            args.add(release.limit());
+        }
+
+        return
+        this.executeScript(this.releaseBatchScript, keys, args.toArray());
+    }
+
+    /**
+     * 检查获取信号量的参数：
+     * 最大信号量值和信号量有效期必须为正，否则 Lua 脚本会执行错误；
+     * 一次获取的信号量数量必须在 1 ~ min(limit, {@link #MAX_PERMITS}) 之间。
      *
-     * @return 发布信号量唯一标识符的 Mono
+     * @return 参数不合法时发布 {@link IllegalArgumentException} 的 Mono，合法时返回 null
      */
-    private @NotNull Mono<String>
-    acquireFairSemaphore(String semaphoreName, long limit, long timeout)
+    private static <T> Mono<T>
+    checkAcquireArguments(long limit, long permits, long timeout)
     {
-        /*
-         * 必须确保最大信号量值和信号量有效期为正，
-         * 否则 Lua 脚本会执行错误。
-         */
         if (limit <= 0 || timeout <= 0)
         {
             return
@@ -125,164 +315,482 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
             );
         }
 
-        final String semaphoreNameKey
-            = getSemaphoreNameKey(semaphoreName);
+        if (permits <= 0 || permits > Math.min(limit, MAX_PERMITS))
+        {
+            return
+            Mono.error(
+                new IllegalArgumentException(
+                    format(
+                        "Permits must between 1 and %d! (permits = %d)",
+                        Math.min(limit, MAX_PERMITS), permits
+                    )
+                )
+            );
+        }
+
+        return null;
+    }
 
-        final String semaphoreOwnerKey
-            = getSemaphoreOwnerKey(semaphoreName);
+    /**
+     * 进程尝试一次获取 permits 个信号量（只执行一次 acquireFairSemaphore.lua，要么全部获取，要么一个都不获取）。
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（权重）
+     * @param timeout       信号量有效期（毫秒级）
+     *
+     * @return 发布信号量唯一标识符的 Mono，资源繁忙时发布 {@link Optional#empty()}
+     */
+    private @NotNull Mono<Optional<String>>
+    tryAcquireFairSemaphore(String semaphoreName, long limit, long permits, long timeout)
+    {
+        final Mono<Optional<String>> illegalArguments
+            = checkAcquireArguments(limit, permits, timeout);
 
-        final String semaphoreCounterKey
-            = getSemaphoreCounterKey(semaphoreName);
+        if (Objects.nonNull(illegalArguments)) {
+            return illegalArguments;
+        }
 
         final String identifier
-            = UUID.randomUUID().toString();
+            = this.identifierGenerator.nextIdentifier();
 
+        // 传入等待队列的键，保证不会越过正在排队的等待者（acquireWait 为 0，不排队）
         return
-        this.luaScriptReader
-            .read(FAIR_SEMAPHORE, "acquireFairSemaphore.lua")
-            .flatMap((script) ->
-                this.scriptRedisTemplate
-                    .execute(
-                        script,
-                        List.of(semaphoreNameKey, semaphoreOwnerKey, semaphoreCounterKey),
-                        limit, timeout, identifier)
-                    .timeout(this.operationTimeout)
-                    .next()
-                    .subscribeOn(this.scheduler)
-                    .flatMap((result) ->
-                        switch (result.getResult())
-                        {
-                            case "ACQUIRE_SEMAPHORE_FAILED" -> {
-                                this.faultStatistical.increaseAcquireFailed();
-
-                                yield Mono.error(
-                                    new AcquireSemaphoreFailed(
-                                        "Acquire semaphore failed! Caused by: The resource is busy."
-                                    )
-                                );
-                            }
-
-                            case "SUCCESS" ->
-                                Mono.just(identifier);
-
-                            case null, default ->
-                                Mono.error(
-                                    new IllegalStateException(
-                                        "Unexpected value: " + result.getResult()
-                                    )
-                                );
-                        }
-                    )
+        this.executeScript(
+                this.acquireScript,
+                this.getSemaphoreKeys(semaphoreName),
+                limit, timeout, identifier, 0L, permits)
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case ACQUIRE_SEMAPHORE_FAILED ->
+                        Mono.just(Optional.<String>empty());
+
+                    case SUCCESS ->
+                        Mono.just(Optional.of(identifier));
+
+                    default ->
+                        Mono.<Optional<String>>error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
             ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
     }
 
     /**
-     * 进程为了长期持有信号量，需要定期的对信号量进行刷新。
+     * 进程尝试一次获取 permits 个信号量，资源繁忙时视为获取失败。
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（权重）
+     * @param timeout       信号量有效期（毫秒级）
+     *
+     * @return 发布信号量唯一标识符的 Mono
+     */
+    private @NotNull Mono<String>
+    acquireFairSemaphore(String semaphoreName, long limit, long permits, long timeout)
+    {
+        return
+        this.tryAcquireFairSemaphore(semaphoreName, limit, permits, timeout)
+            .flatMap((acquired) -> {
+                if (acquired.isPresent()) {
+                    return Mono.just(acquired.get());
+                }
+
+                this.faultStatistical.increaseAcquireFailed();
+
+                return
+                Mono.<String>error(
+                    new AcquireSemaphoreFailed(
+                        "Acquire semaphore failed! Caused by: The resource is busy."
+                    )
+                ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+            });
+    }
+
+    /**
+     * 进程尝试一次获取 permits 个信号量，资源繁忙时在 Redis 的等待队列中排队，
+     * 直到释放操作把信号量转交给自己（收到唤醒消息），或者等待时间超过 acquireWait。
+     *
+     * <p>
+     *     等待期间客户端不会轮询：只有收到唤醒消息，或者到了最早的那个信号量超时的时间
+     *     （超时的信号量没有人会通知），才会再执行一次获取脚本。
+     * </p>
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（权重）
+     * @param timeout       信号量有效期（毫秒级）
+     * @param acquireWait   最长等待时间
+     *
+     * @return 发布信号量唯一标识符的 Mono
+     */
+    private @NotNull Mono<String>
+    acquireFairSemaphore(
+        String semaphoreName, long limit, long permits,
+        long timeout, @NotNull Duration acquireWait)
+    {
+        if (acquireWait.isNegative())
+        {
+            return
+            Mono.error(
+                new IllegalArgumentException(
+                    format("Acquire wait must not be negative! (acquireWait = %s)", acquireWait)
+                )
+            );
+        }
+
+        if (acquireWait.isZero()) {
+            return this.acquireFairSemaphore(semaphoreName, limit, permits, timeout);
+        }
+
+        final Mono<String> illegalArguments
+            = checkAcquireArguments(limit, permits, timeout);
+
+        if (Objects.nonNull(illegalArguments)) {
+            return illegalArguments;
+        }
+
+        return
+        Mono.defer(() -> {
+            final String identifier
+                = this.identifierGenerator.nextIdentifier();
+
+            final long acquireEnd
+                = System.nanoTime() + acquireWait.toNanos();
+
+            final QueuedWait wait = new QueuedWait();
+
+            final ReactiveRedisMessageListenerContainer container
+                = (Objects.nonNull(this.listenerContainer))
+                    ? this.listenerContainer.get()
+                    : null;
+
+            // 必须先订阅唤醒频道再排队，否则可能错过排队后立即发生的转交
+            final Mono<SemaphoreWakeSignal> wakeSignal
+                = (Objects.nonNull(container))
+                    ? SemaphoreWakeSignal.subscribe(
+                        container, getSemaphoreWakeChannel(semaphoreName),
+                        getWaiterMember(identifier, permits))
+                    : SemaphoreWakeSignal.none();
+
+            return
+            Mono.usingWhen(
+                wakeSignal,
+                (signal) ->
+                    this.acquireUntil(
+                        semaphoreName, limit, permits, timeout, identifier,
+                        acquireEnd, signal, wait),
+                SemaphoreWakeSignal::close
+            )
+            // 获取成功和被取消只有先得出结果的一方生效，取消在先时信号量由下面的取消操作释放
+            .filter((ignored) -> wait.settle())
+            .doOnError((ignored) -> wait.settle())
+            .doOnCancel(() -> {
+                if (!wait.settle()) {
+                    return;
+                }
+
+                // 等待途中被取消：先等正在执行的那次获取结束，再离开等待队列，
+                // 否则它可能在离开之后才执行，重新进入队列或者拿到没有人释放的信号量；
+                // 信号量在离开之前已经转交过来的话（还没有收到唤醒消息）直接释放
+                wait.inFlight()
+                    .then(this.cancelWait(semaphoreName, identifier, permits))
+                    .filter((granted) -> granted)
+                    .flatMap((granted) ->
+                        this.releaseFairSemaphore(semaphoreName, identifier, permits, limit))
+                    .subscribe(
+                        null,
+                        (exception) ->
+                            log.warn(
+                                "Cancel waiting for semaphore {} failed! Caused by: {}",
+                                semaphoreName, exception.getMessage()));
+            })
+            .doFinally((signal) ->
+                this.metrics.recordAcquireAttempts(
+                    LockType.FAIR_SEMAPHORE, semaphoreName, wait.getAttempts()));
+        }).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+    }
+
+    /** 排队获取 - 等待循环。*/
+    private @NotNull Mono<String>
+    acquireUntil(
+        String semaphoreName, long limit, long permits, long timeout, String identifier,
+        long acquireEnd, SemaphoreWakeSignal signal, QueuedWait wait)
+    {
+        return
+        Mono.defer(() -> {
+            final long remaining
+                = Duration.ofNanos(acquireEnd - System.nanoTime()).toMillis();
+
+            if (remaining <= 0L) {
+                return this.giveUpWaiting(semaphoreName, identifier, permits);
+            }
+
+            return
+            wait.attempt(
+                    this.executeScript(
+                        this.acquireScript,
+                        this.getSemaphoreKeys(semaphoreName),
+                        limit, timeout, identifier, remaining, permits))
+                .flatMap((result) ->
+                    switch (result.getStatus())
+                    {
+                        case SUCCESS -> Mono.just(identifier);
+
+                        // 最多等到最早的信号量超时，但不超过剩余的等待时间
+                        case SEMAPHORE_QUEUED ->
+                            signal.awaitGrant(
+                                    Duration.ofMillis(
+                                        Math.min(remaining, result.getValueOrDefault(0, remaining))))
+                                .then(Mono.defer(() ->
+                                    (signal.isGranted())
+                                        ? Mono.just(identifier)
+                                        : this.acquireUntil(
+                                            semaphoreName, limit, permits, timeout, identifier,
+                                            acquireEnd, signal, wait)));
+
+                        default ->
+                            Mono.<String>error(
+                                new IllegalStateException(
+                                    "Unexpected value: " + result
+                                )
+                            );
+                    }
+                );
+        });
+    }
+
+    /**
+     * 一次排队获取的状态：执行获取脚本的次数、正在执行的那次获取，以及是否已经得出结果。
+     */
+    private static final class QueuedWait
+    {
+        /** 执行获取脚本的次数。*/
+        private final AtomicInteger attempts = new AtomicInteger(0);
+
+        /** 获取成功、获取失败或者被取消，只有先得出结果的一方生效。*/
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+
+        /** 在最近一次获取脚本执行结束（无论成功与否）时完成的 Mono。*/
+        private volatile Mono<Void> inFlight = Mono.empty();
+
+        /**
+         * 执行一次获取脚本。脚本在这里直接订阅，等待被取消时也会执行完毕，
+         * 取消操作可以通过 {@link #inFlight()} 等到它结束之后再离开等待队列。
+         * 已经得出结果时不再执行，发布空的 Mono。
+         */
+        @NotNull Mono<LuaOperatorResult>
+        attempt(@NotNull Mono<LuaOperatorResult> script)
+        {
+            final Sinks.One<LuaOperatorResult> result = Sinks.one();
+
+            // 先登记再检查结果，和 settle() 之后才读取 inFlight 的取消操作对应：
+            // 要么这里看到已经取消而不再执行，要么取消操作等到这次获取结束
+            this.inFlight
+                = result.asMono()
+                    .then()
+                    .onErrorResume((exception) -> Mono.empty());
+
+            if (this.settled.get())
+            {
+                result.tryEmitEmpty();
+
+                return Mono.empty();
+            }
+
+            this.attempts.incrementAndGet();
+
+            script.subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+
+            return result.asMono();
+        }
+
+        /** 尝试得出结果，返回是否由本次调用得出（之前没有别的结果）。*/
+        boolean settle() {
+            return this.settled.compareAndSet(false, true);
+        }
+
+        @NotNull Mono<Void>
+        inFlight() {
+            return this.inFlight;
+        }
+
+        int getAttempts() {
+            return this.attempts.get();
+        }
+    }
+
+    /**
+     * 等待者放弃等待，离开等待队列。
+     *
+     * @return 发布信号量在放弃之前是否已经转交给了自己的 Mono
+     */
+    private @NotNull Mono<Boolean>
+    cancelWait(String semaphoreName, String identifier, long permits)
+    {
+        return
+        this.executeScript(
+                this.cancelWaitScript,
+                List.of(
+                    getSemaphoreNameKey(semaphoreName),
+                    getSemaphoreWaitersKey(semaphoreName),
+                    getSemaphoreWaitersDeadlineKey(semaphoreName)),
+                identifier, permits)
+            .map((result) -> result.getStatus() == SUCCESS);
+    }
+
+    /** 等待超时：离开等待队列，信号量在这之前已经转交给了自己的话仍然视为获取成功。*/
+    private @NotNull Mono<String>
+    giveUpWaiting(String semaphoreName, String identifier, long permits)
+    {
+        return
+        this.cancelWait(semaphoreName, identifier, permits)
+            .flatMap((granted) -> {
+                if (granted) {
+                    return Mono.just(identifier);
+                }
+
+                this.faultStatistical.increaseAcquireFailed();
+
+                return
+                Mono.<String>error(
+                    new AcquireSemaphoreFailed(
+                        "Acquire semaphore failed! Caused by: Wait for the resource timeout."
+                    )
+                );
+            });
+    }
+
+    /**
+     * 进程为了长期持有信号量，需要定期的对信号量进行刷新（一次刷新获取到的全部 permits 个信号量）。
      *
      * @param semaphoreName 信号量键名
      * @param identifier    信号量唯一标识符
+     * @param permits       获取时的信号量数量（权重）
      *
      * @return 不发布任何数据的 Mono，表示操作是否完成
      */
     private @NotNull Mono<Void>
-    refreshFairSemaphore(String semaphoreName, String identifier)
+    refreshFairSemaphore(String semaphoreName, String identifier, long permits)
     {
         final String semaphoreNameKey
             = getSemaphoreNameKey(semaphoreName);
 
         return
-        this.luaScriptReader
-            .read(FAIR_SEMAPHORE,"refreshFairSemaphore.lua")
-            .flatMap((script) ->
-                this.scriptRedisTemplate
-                    .execute(script, List.of(semaphoreNameKey), identifier)
-                    .timeout(this.operationTimeout)
-                    .next()
-                    .subscribeOn(this.scheduler)
-                    .flatMap((result) ->
-                        switch (result.getResult())
-                        {
-                            case "SEMAPHORE_NOT_FOUND" -> {
-                                this.faultStatistical.increaseNotFound();
-
-                                yield Mono.error(
-                                    new SemaphoreNotFound(
-                                        format(
-                                            "Try refresh fair semaphore %s but not exist in %s",
-                                            identifier, semaphoreNameKey
-                                        )
-                                    )
-                                );
-                            }
-
-                            case "SUCCESS" -> Mono.empty();
-
-                            case null, default ->
-                                Mono.error(
-                                    new IllegalStateException(
-                                        "Unexpected value: " + result.getResult()
-                                    )
-                                );
-                            }
-                        )
-            ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
+        this.executeScript(this.refreshScript, List.of(semaphoreNameKey), identifier, permits)
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case SEMAPHORE_NOT_FOUND -> {
+                        this.faultStatistical.increaseNotFound();
+
+                        yield Mono.error(
+                            new SemaphoreNotFound(
+                                format(
+                                    "Try refresh fair semaphore %s but not exist in %s",
+                                    identifier, semaphoreNameKey
+                                )
+                            )
+                        );
+                    }
+
+                    case SUCCESS -> Mono.empty();
+
+                    default ->
+                        Mono.error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                    }
+                )
+            .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
     }
 
     /**
-     * 进程尝试释放一个信号量。
+     * 进程尝试释放获取到的全部 permits 个信号量。
      *
      * @param semaphoreName 信号量键名
      * @param identifier    信号量唯一标识符
+     * @param permits       获取时的信号量数量（权重）
+     * @param limit         最大信号量值（用于计算可以转交给等待者的信号量数量）
      *
      * @return 不发布任何数据的 Mono，表示操作是否完成
      */
     private @NotNull Mono<Void>
-    releaseFairSemaphore(String semaphoreName, String identifier)
+    releaseFairSemaphore(String semaphoreName, String identifier, long permits, long limit)
     {
-        final String semaphoreNameKey
-            = getSemaphoreNameKey(semaphoreName);
+        final List<String> keys = this.getSemaphoreKeys(semaphoreName);
 
-        final String semaphoreOwnerKey
-            = getSemaphoreOwnerKey(semaphoreName);
+        // 传入等待队列的键，释放出来的信号量会按排队顺序直接转交给排在最前面的等待者；
+        // 启用了批处理器时和其他调用者的释放操作合并执行，拿回来的状态码和单独执行时相同
+        final Mono<LuaOperatorResult> release
+            = (Objects.isNull(this.releaseBatcher))
+                ? this.executeScript(this.releaseScript, keys, identifier, permits, limit)
+                : this.releaseBatcher.submit(
+                    new SemaphoreRelease(keys, identifier, permits, limit));
 
         return
-        this.luaScriptReader
-            .read(FAIR_SEMAPHORE, "releaseFairSemaphore.lua")
-            .flatMap((script) ->
-                this.scriptRedisTemplate
-                    .execute(
-                        script,
-                        List.of(semaphoreNameKey, semaphoreOwnerKey),
-                        identifier)
-                    .timeout(this.operationTimeout)
-                    .next()
-                    .subscribeOn(this.scheduler)
-                    .flatMap((result) ->
-                        switch (result.getResult())
-                        {
-                            case "SEMAPHORE_TIMEOUT" -> {
-                                this.faultStatistical.increaseTimeout();
-
-                                yield Mono.error(
-                                    new SemaphoreNotFound(
-                                        format("Try release Semaphore: %s but timeout.", identifier)
-                                    )
-                                );
-                            }
-
-                            case "SUCCESS" -> Mono.empty();
-
-                            case null, default ->
-                                Mono.error(
-                                    new IllegalStateException(
-                                        "Unexpected value: " + result.getResult()
-                                    )
-                                );
-                        }
-                    )
+        release
+            .flatMap((result) ->
+                switch (result.getStatus())
+                {
+                    case SEMAPHORE_TIMEOUT -> {
+                        this.faultStatistical.increaseTimeout();
+
+                        yield Mono.error(
+                            new SemaphoreNotFound(
+                                format("Try release Semaphore: %s but timeout.", identifier)
+                            )
+                        );
+                    }
+
+                    case SUCCESS -> Mono.empty();
+
+                    default ->
+                        Mono.error(
+                            new IllegalStateException(
+                                "Unexpected value: " + result
+                            )
+                        );
+                }
             ).onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle).then();
     }
 
+    /**
+     * 在信号量作用域内执行业务逻辑，执行期间由共享的 {@link SemaphoreRefresher} 定期刷新信号量，
+     * 刷新时发现信号量已经丢失（比如和 Redis 断开的时间超过了有效期）的话，以 {@link SemaphoreNotFound} 结束业务逻辑。
+     */
+    private <T> @NotNull Mono<T>
+    runAction(
+        String semaphoreName, String identifier, long permits,
+        @NotNull Duration timeout, @NotNull Function<String, Mono<T>> action)
+    {
+        return
+        Mono.defer(() -> {
+            final SemaphoreLease lease
+                = this.refresher.register(
+                    getSemaphoreNameKey(semaphoreName), identifier, permits, timeout);
+
+            final Mono<T> lost
+                = lease.<T>lost()
+                    .doOnError((exception) -> {
+                        log.warn("{}", exception.getMessage());
+                        this.faultStatistical.increaseNotFound();
+                        this.metrics.recordLeaseLost(LockType.FAIR_SEMAPHORE, semaphoreName);
+                    });
+
+            // 注意要在终止信号向下游传播（进而触发释放信号量）之前停止刷新
+            return
+            Mono.firstWithSignal(action.apply(identifier), lost)
+                .doOnTerminate(lease::cancel)
+                .doOnCancel(lease::cancel);
+        });
+    }
+
     /**
      * 兼容响应式流的 Redis 公平信号量操作，
      * 使用 {@link Mono#usingWhen(Publisher, Function, Function)} 方法，在业务逻辑（action）范围前后，
@@ -292,7 +800,7 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
      *
      * @param semaphoreName 信号量键名
      * @param limit         最大信号量值
-     * @param timeout       信号量有效期（毫秒级）
+     * @param timeout       信号量有效期（毫秒级，业务执行期间会被定期刷新）
      * @param action        业务逻辑
      *
      * @return 发布业务逻辑执行结果数据的 Mono
@@ -305,62 +813,224 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
         Function<String, Mono<T>> action
     )
     {
-        final long   milliSecondsTimeout = timeout.toMillis();
+        return
+        this.withFairSemaphore(
+            semaphoreName, limit, 1L, timeout, Duration.ZERO, action);
+    }
 
+    /**
+     * 兼容响应式流的 Redis 公平信号量操作，资源繁忙时在 Redis 的等待队列中按先来后到排队，
+     * 最多等待 acquireWait，之后和 {@link #withFairSemaphore(String, long, Duration, Function)} 一样
+     * 在业务逻辑（action）范围前后自动完成信号量的获取与释放操作。
+     *
+     * @param <T> 在信号量作用域中业务逻辑返回的类型
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param timeout       信号量有效期（毫秒级，业务执行期间会被定期刷新）
+     * @param acquireWait   资源繁忙时的最长等待时间（为 0 时不等待）
+     * @param action        业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 Mono
+     */
+    @Override
+    public <T> Mono<T>
+    withFairSemaphore(
+        String semaphoreName,
+        long limit, Duration timeout, Duration acquireWait,
+        Function<String, Mono<T>> action
+    )
+    {
+        return
+        this.withFairSemaphore(
+            semaphoreName, limit, 1L, timeout, acquireWait, action);
+    }
+
+    /**
+     * 兼容响应式流的 Redis 公平信号量操作，一次获取 permits 个信号量（权重），
+     * 获取、刷新和释放都只需要一次脚本调用，并且和获取单个信号量的调用者一样按先来后到排队。
+     * Redis 不可用（熔断器打开）时，按照信号量名配置的降级方式直接失败或者不获取信号量执行业务逻辑。
+     *
+     * @param <T> 在信号量作用域中业务逻辑返回的类型
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（1 ~ min(limit, 1000)）
+     * @param timeout       信号量有效期（毫秒级，业务执行期间会被定期刷新）
+     * @param acquireWait   资源繁忙时的最长等待时间（为 0 时不等待）
+     * @param action        业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 Mono
+     */
+    @Override
+    public <T> Mono<T>
+    withFairSemaphore(
+        String semaphoreName,
+        long limit, long permits, Duration timeout, Duration acquireWait,
+        Function<String, Mono<T>> action
+    )
+    {
+        return
+        Mono.defer(() -> {
+            final AtomicBoolean acquired = new AtomicBoolean(false);
+
+            return
+            this.circuitBreaker.withDegradation(
+                semaphoreName, acquired,
+                Mono.usingWhen(
+                    this.metrics.timeAcquire(
+                        LockType.FAIR_SEMAPHORE, semaphoreName,
+                        this.acquireFairSemaphore(
+                            semaphoreName, limit, permits, timeout.toMillis(), acquireWait)
+                    ).doOnNext((identifier) -> acquired.set(true)),
+                    (identifier) ->
+                        this.metrics.timeHold(
+                            LockType.FAIR_SEMAPHORE, semaphoreName,
+                            this.runAction(semaphoreName, identifier, permits, timeout, action)),
+                    (identifier) ->
+                        this.metrics.timeRelease(
+                            LockType.FAIR_SEMAPHORE, semaphoreName,
+                            this.releaseFairSemaphore(semaphoreName, identifier, permits, limit))
+                ),
+                () -> action.apply(this.identifierGenerator.nextIdentifier())
+            );
+        });
+    }
+
+    /** {@link SemaphorePermit} 的默认实现，刷新和释放都委托给外部的信号量实现。*/
+    private final class DefaultSemaphorePermit implements SemaphorePermit
+    {
+        private final String semaphoreName;
+        private final String identifier;
+        private final long   permits;
+
+        /** 最大信号量值（释放时用于计算可以转交给等待者的信号量数量）。*/
+        private final long limit;
+
+        /** 许可是否已经释放（保证只释放一次）。*/
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private DefaultSemaphorePermit(
+            String semaphoreName, String identifier, long permits, long limit)
+        {
+            this.semaphoreName = semaphoreName;
+            this.identifier    = identifier;
+            this.permits       = permits;
+            this.limit         = limit;
+        }
+
+        @Override
+        public String getSemaphoreName() {
+            return this.semaphoreName;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return this.identifier;
+        }
+
+        @Override
+        public long getPermits() {
+            return this.permits;
+        }
+
+        @Override
+        public Mono<Boolean> refresh()
+        {
+            return
+            Mono.defer(() ->
+                (this.released.get())
+                    ? Mono.just(false)
+                    : refreshFairSemaphore(this.semaphoreName, this.identifier, this.permits)
+                        .thenReturn(true)
+                        .onErrorResume(SemaphoreNotFound.class, (exception) -> Mono.just(false))
+            );
+        }
+
+        @Override
+        public Mono<Void> release()
+        {
+            return
+            Mono.defer(() ->
+                (this.released.compareAndSet(false, true))
+                    ? releaseFairSemaphore(
+                        this.semaphoreName, this.identifier, this.permits, this.limit)
+                    : Mono.empty()
+            );
+        }
+    }
+
+    /**
+     * 非阻塞地尝试获取一个信号量许可，只执行一次 acquireFairSemaphore.lua，
+     * 资源繁忙不算作故障，不计入统计。
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param timeout       信号量有效期（毫秒级）
+     *
+     * @return 发布信号量许可的 Mono，资源繁忙时发布 {@link Optional#empty()}
+     */
+    @Override
+    public Mono<Optional<SemaphorePermit>>
+    tryAcquire(String semaphoreName, long limit, Duration timeout) {
+        return this.tryAcquire(semaphoreName, limit, 1L, timeout);
+    }
+
+    /**
+     * 非阻塞地尝试一次获取 permits 个信号量（权重）组成的许可，只执行一次 acquireFairSemaphore.lua，
+     * 资源繁忙不算作故障，不计入统计。
+     *
+     * @param semaphoreName 信号量键名
+     * @param limit         最大信号量值
+     * @param permits       一次获取的信号量数量（1 ~ min(limit, 1000)）
+     * @param timeout       信号量有效期（毫秒级）
+     *
+     * @return 发布信号量许可的 Mono，资源繁忙时发布 {@link Optional#empty()}
+     */
+    @Override
+    public Mono<Optional<SemaphorePermit>>
+    tryAcquire(String semaphoreName, long limit, long permits, Duration timeout)
+    {
         return
         Mono.defer(() ->
-            Mono.usingWhen(
-                this.acquireFairSemaphore(semaphoreName, limit, milliSecondsTimeout),
-                (identifier) -> {
-                    Mono<T> actionMono = action.apply(identifier);
+            this.tryAcquireFairSemaphore(semaphoreName, limit, permits, timeout.toMillis())
+                .map((acquired) ->
+                    acquired.map((identifier) ->
+                        new DefaultSemaphorePermit(semaphoreName, identifier, permits, limit)))
+        );
+    }
 
-                    // 对持有信号量时间较长的进程，才提供刷新功能
-                    if (timeout.compareTo(LONG_TIMEOUT) > 0)
-                    {
-                        // 刷新间隔为超时时间的一半
-                        Duration refreshInterval
-                            = Duration.ofMillis(milliSecondsTimeout)
-                                      .dividedBy(2L);
-
-                        /*
-                         * 这里出现了几个复杂的响应式流操作，需要做出说明：
-                         *
-                         * 1. delayUntil() 延迟调用这个操作的流，直到提供给这个操作的的流
-                         *   （此处是在长时间业务执行完毕前不断刷新信号量的操作）执行完毕，
-                         *    才允许 actionMono 的完成信号向下游传播。
-                         *
-                         * 2. Flux.interval() 每间隔一段时间，递增然后发布一个 Long 值
-                         *
-                         * 3. takeUntilOther() 有条件的 take 操作，
-                         *    直到收到业务逻辑 actionMono 执行完毕的信号
-                         *    即 actionMono.ignoreElement().then(Mono.empty())，
-                         *    才停止 Flux.interval() 的发布（业务执行完毕，停止刷新信号量）。
-                         *
-                         * 4. concatMap() 将每一个 Flux.interval() 发布的值映射为
-                         *    refreshFairSemaphore() 操作，并按顺序执行。
-                         *
-                         * 5. then() 我们不关心刷新的结果，只关系刷新是否成功完成
-                         */
-                        return
-                        actionMono.delayUntil((value) ->
-                            Flux.interval(refreshInterval)
-                                .takeUntilOther(
-                                    actionMono.ignoreElement().then(Mono.empty()))
-                                .concatMap((ignore) ->
-                                     this.refreshFairSemaphore(semaphoreName, identifier)
-                                         .onErrorContinue(  // 刷新信号量操作可能出错，但不能中断整个流
-                                             SemaphoreNotFound.class,
-                                             (exception, object) -> { /* NOTHING TO DO */ }
-                                         )
-                                ).then()
-                        );
-                    }
+    /**
+     * 创建一个租用模式的信号量：本 JVM 按需从 Redis 信号量中成批租用信号量，再在本地分给调用者。
+     *
+     * @param semaphoreName    信号量键名
+     * @param limit            最大信号量值（全集群）
+     * @param timeout          信号量有效期（租用期间会被定期刷新）
+     * @param maxLeasedPermits 本 JVM 最多租用的信号量数量
+     *
+     * @return 租用模式的信号量，不再使用时需要调用 {@link LeasedFairSemaphore#close()}
+     */
+    @Override
+    public LeasedFairSemaphore
+    leased(String semaphoreName, long limit, Duration timeout, long maxLeasedPermits)
+    {
+        if (limit <= 0 || timeout.toMillis() <= 0 || maxLeasedPermits <= 0)
+        {
+            throw new
+            IllegalArgumentException(
+                format(
+                    "Limit, time out and max leased permits must be positive! " +
+                    "(limit = %d, timeout = %s, maxLeasedPermits = %d)",
+                    limit, timeout, maxLeasedPermits
+                )
+            );
+        }
 
-                    return actionMono;
-                },
-                (identifier) ->
-                    this.releaseFairSemaphore(semaphoreName, identifier)
-            )
+        return new
+        DefaultLeasedFairSemaphore(
+            this, this.refresher,
+            semaphoreName, getSemaphoreNameKey(semaphoreName),
+            limit, timeout, maxLeasedPermits
         );
     }
 
@@ -376,6 +1046,17 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
         return this.faultStatistical.getStatisticResultInstance();
     }
 
+    /** 获取本实现中竞争最激烈的锁名（按竞争次数降序）。*/
+    @Override
+    public List<HotKey> getHotKeys()
+    {
+        return
+        this.metrics.getHotKeys()
+            .stream()
+            .filter((hotKey) -> hotKey.type() == LockType.FAIR_SEMAPHORE)
+            .toList();
+    }
+
     /** 清理统计结果（选择性实现）*/
     @Override
     public void cleanStatisticResult() {
@@ -387,4 +1068,13 @@ public class DefaultRedisFairSemaphoreImpl implements RedisFairSemaphore
     public void displayStatisticResult() {
         this.faultStatistical.displayStatisticResult();
     }
-}
\ No newline at end of file
+
+    /** 停止自己创建的刷新器（传入的刷新器由它的创建者负责关闭）。*/
+    @Override
+    public void close()
+    {
+        if (this.ownsRefresher) {
+            this.refresher.close();
+        }
+    }
+}
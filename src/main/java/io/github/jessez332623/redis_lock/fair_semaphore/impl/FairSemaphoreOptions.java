@@ -0,0 +1,52 @@
+package io.github.jessez332623.redis_lock.fair_semaphore.impl;
+
+import io.github.jessez332623.redis_lock.circuit_breaker.RedisCircuitBreaker;
+import io.github.jessez332623.redis_lock.fair_semaphore.refresher.SemaphoreRefresher;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.ReleaseBatcher;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+
+import java.util.function.Supplier;
+
+/**
+ * <p>{@link DefaultRedisFairSemaphoreImpl} 的可选组件，没有设置的组件使用默认值。</p>
+ *
+ * <pre>{@code
+ * FairSemaphoreOptions.builder()
+ *     .listenerContainer(containerProvider::getIfAvailable)
+ *     .refresher(refresher)
+ *     .build();
+ * }</pre>
+ */
+@Getter
+@Builder
+public final class FairSemaphoreOptions
+{
+    /** 信号量唯一标识符生成器（默认为 {@link DefaultIdentifierGenerator}）。*/
+    @Builder.Default
+    private final IdentifierGenerator identifierGenerator = new DefaultIdentifierGenerator();
+
+    /** 耗时指标记录器（默认不记录）。*/
+    @Builder.Default
+    private final LockMetricsRecorder metrics = LockMetricsRecorder.NOOP;
+
+    /**
+     * 订阅信号量唤醒频道用的消息监听容器（为 null 或者获取到 null 时，
+     * 等待者只在最早的信号量超时后重新尝试）。
+     */
+    private final Supplier<ReactiveRedisMessageListenerContainer> listenerContainer;
+
+    /** 信号量刷新器（为 null 时自己创建一个刷新周期为 1 秒的刷新器，在信号量实现关闭时一起关闭）。*/
+    private final SemaphoreRefresher refresher;
+
+    /** 包在每次脚本调用外面的 Redis 熔断器（默认不启用）。*/
+    @Builder.Default
+    private final RedisCircuitBreaker circuitBreaker = RedisCircuitBreaker.DISABLED;
+
+    /** 释放操作的微批处理策略（为 null 时每次释放单独执行脚本）。*/
+    private final ReleaseBatcher.Policy releaseBatch;
+}
@@ -0,0 +1,112 @@
+package io.github.jessez332623.redis_lock.fair_semaphore.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * <p>单个等待者对某个信号量唤醒频道的订阅。</p>
+ *
+ * <p>
+ *     releaseFairSemaphore.lua 把释放出来的信号量转交给排在最前面的等待者后，
+ *     会向唤醒频道发布这个等待者在等待队列中的成员，这里只关心发给自己的那一条消息。
+ *     转交只会发生一次，所以收到消息后的状态是持久的，之后的等待都会立即结束。
+ * </p>
+ */
+@Slf4j
+final class SemaphoreWakeSignal
+{
+    /** 收到发给自己的唤醒消息时完成。*/
+    private final Sinks.Empty<Void> granted = Sinks.empty();
+
+    /** 是否已经收到唤醒消息。*/
+    private volatile boolean grantReceived = false;
+
+    /** 对唤醒频道的订阅，等待结束后需要取消。*/
+    private final Disposable subscription;
+
+    private SemaphoreWakeSignal()
+    {
+        this.subscription = Disposables.disposed();
+    }
+
+    private
+    SemaphoreWakeSignal(
+        @NotNull Flux<? extends ReactiveSubscription.Message<String, String>> messages,
+        String waiterMember)
+    {
+        this.subscription
+            = messages
+                .filter((message) -> waiterMember.equals(message.getMessage()))
+                .subscribe(
+                    (message) -> {
+                        this.grantReceived = true;
+                        this.granted.tryEmitEmpty();
+                    },
+                    (exception) ->
+                        // 订阅出错时等待者仍然会在最早的信号量超时后重试，所以这里只需记录
+                        log.warn("Semaphore wake channel subscription failed!", exception)
+                );
+    }
+
+    /**
+     * 订阅指定的信号量唤醒频道。
+     *
+     * @param listenerContainer Redis 消息监听容器
+     * @param wakeChannel       信号量的唤醒频道名
+     * @param waiterMember      等待者在等待队列中的成员（一次获取一个信号量时就是唯一标识符）
+     *
+     * @return 在订阅生效后发布 {@link SemaphoreWakeSignal} 的 {@link Mono}
+     */
+    static @NotNull Mono<SemaphoreWakeSignal>
+    subscribe(
+        @NotNull ReactiveRedisMessageListenerContainer listenerContainer,
+        String wakeChannel, String waiterMember)
+    {
+        return
+        listenerContainer
+            .receiveLater(ChannelTopic.of(wakeChannel))
+            .map((messages) -> new SemaphoreWakeSignal(messages, waiterMember));
+    }
+
+    /** 不订阅任何频道的信号（没有消息监听容器时使用，等待者只在最早的信号量超时后重试）。*/
+    static @NotNull Mono<SemaphoreWakeSignal>
+    none() {
+        return Mono.fromSupplier(SemaphoreWakeSignal::new);
+    }
+
+    /** 是否已经收到唤醒消息（即信号量已经转交给了自己）？*/
+    boolean isGranted() {
+        return this.grantReceived;
+    }
+
+    /**
+     * 等待直到收到唤醒消息，或者等待时间超过 maxWait。
+     *
+     * @param maxWait 最长等待时间
+     *
+     * @return 不发布任何数据的 Mono，完成时表示应该检查 {@link #isGranted()} 或重新尝试获取
+     */
+    @NotNull Mono<Void>
+    awaitGrant(Duration maxWait)
+    {
+        return
+        this.granted.asMono()
+            .timeout(maxWait, Mono.empty());
+    }
+
+    /** 取消对唤醒频道的订阅。*/
+    @NotNull Mono<Void>
+    close() {
+        return Mono.fromRunnable(this.subscription::dispose);
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.jessez332623.redis_lock.fair_semaphore.refresher;
+
+import io.github.jessez332623.redis_lock.fair_semaphore.exception.SemaphoreNotFound;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static java.lang.String.format;
+
+/** 注册到 {@link SemaphoreRefresher} 中，由刷新器定期刷新的一个信号量。*/
+public final class SemaphoreLease
+{
+    /** 负责刷新本信号量的刷新器。*/
+    private final SemaphoreRefresher refresher;
+
+    /** 信号量有序集合键。*/
+    @Getter
+    private final String semaphoreNameKey;
+
+    /** 信号量唯一标识符。*/
+    @Getter
+    private final String identifier;
+
+    /** 获取时的信号量数量（权重）。*/
+    @Getter
+    private final long permits;
+
+    /** 信号量有效期（纳秒）。*/
+    @Getter
+    private final long timeoutNanos;
+
+    /** 距离上次刷新多久之后需要再次刷新（纳秒，为信号量有效期的一半）。*/
+    private final long refreshAfterNanos;
+
+    /** 上次刷新（或者注册）的时间（{@link System#nanoTime()}）。*/
+    private volatile long lastRefreshNanos;
+
+    /** 信号量丢失时完成。*/
+    private final Sinks.Empty<Void> lostSignal = Sinks.empty();
+
+    SemaphoreLease(
+        SemaphoreRefresher refresher,
+        String semaphoreNameKey, String identifier, long permits, long timeoutNanos)
+    {
+        this.refresher         = refresher;
+        this.semaphoreNameKey  = semaphoreNameKey;
+        this.identifier        = identifier;
+        this.permits           = permits;
+        this.timeoutNanos      = timeoutNanos;
+        this.refreshAfterNanos = timeoutNanos / 2L;
+        this.lastRefreshNanos  = System.nanoTime();
+    }
+
+    /**
+     * 获取一个在信号量丢失时发布 {@link SemaphoreNotFound} 异常的 Mono，
+     * 信号量没有丢失时它永远不会发布任何信号，
+     * 通常和业务逻辑一起交给 {@link Mono#firstWithSignal(Mono[])}。
+     */
+    public <T> @NotNull Mono<T>
+    lost()
+    {
+        return
+        this.lostSignal.asMono()
+            .then(Mono.error(() ->
+                new SemaphoreNotFound(
+                    format(
+                        "Semaphore: %s (identifier = %s) lost before the action finished!",
+                        this.semaphoreNameKey, this.identifier
+                    )
+                )
+            ));
+    }
+
+    /** 在 deadlineNanos 之前是否需要刷新？*/
+    boolean isDue(long deadlineNanos) {
+        return deadlineNanos - this.lastRefreshNanos >= this.refreshAfterNanos;
+    }
+
+    /** 距离上次刷新成功是否已经超过了信号量有效期（信号量在 Redis 中已经过期）。*/
+    boolean isExpired(long nowNanos) {
+        return nowNanos - this.lastRefreshNanos >= this.timeoutNanos;
+    }
+
+    /** 刷新成功（startNanos 为发送刷新脚本的时间）。*/
+    void markRefreshed(long startNanos) {
+        this.lastRefreshNanos = startNanos;
+    }
+
+    /** 刷新器发现信号量已经丢失（只对仍在刷新的信号量生效）。*/
+    void markLost()
+    {
+        if (this.refresher.unregister(this)) {
+            this.lostSignal.tryEmitEmpty();
+        }
+    }
+
+    /** 停止刷新本信号量（信号量释放前调用）。*/
+    public void cancel() {
+        this.refresher.unregister(this);
+    }
+}
@@ -0,0 +1,338 @@
+package io.github.jessez332623.redis_lock.fair_semaphore.refresher;
+
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.FAIR_SEMAPHORE;
+
+/**
+ * <p>公平信号量刷新器，为本 JVM 在信号量作用域内持有的所有信号量刷新。</p>
+ *
+ * <p>
+ *     所有信号量共享同一个定时器，每个周期找出在下个周期到来之前就会超过有效期一半的信号量，
+ *     按信号量有序集合键分组，每组只执行一次 refreshFairSemaphores.lua（一条多成员的 ZADD XX），
+ *     而不是为每个持有者单独启动一个定时器、单独刷新。
+ *     刷新不再限于长时间持有的信号量，任意有效期的信号量都能在业务执行期间保持有效。
+ * </p>
+ *
+ * <p>
+ *     定时器的周期取刷新周期和当前最短有效期的三分之一中较小的那个（不低于 {@link #MIN_TICK_INTERVAL}），
+ *     有效期短于刷新周期的信号量也能在过期之前得到刷新，短有效期的信号量全部释放后周期恢复为刷新周期。
+ * </p>
+ *
+ * <p>
+ *     刷新脚本执行失败（例如 Redis 暂时不可用）时无法得知信号量是否还在，
+ *     超过信号量有效期仍然没有刷新成功的信号量，就当作已经丢失。
+ * </p>
+ */
+@Slf4j
+public final class SemaphoreRefresher implements AutoCloseable
+{
+    /** 单次刷新脚本最多携带的信号量数量，避免单个脚本执行时间过长。*/
+    private static final int MAX_BATCH_SIZE = 512;
+
+    /** 定时器周期的下限，避免极短的信号量有效期让定时器空转。*/
+    private static final Duration MIN_TICK_INTERVAL = Duration.ofMillis(10L);
+
+    /** 批量刷新脚本（构造时解析一次，之后每轮刷新都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> refreshSemaphoresScript;
+
+    /** 执行 Lua 脚本专用 Redis 模板。*/
+    private final
+    ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
+
+    /** Redis Lock 专用的线程调度器。*/
+    private final Scheduler scheduler;
+
+    /** Redis 操作的统一超时时间。*/
+    private final Duration operationTimeout;
+
+    /** 刷新周期。*/
+    private final Duration refreshInterval;
+
+    /** 当前正在刷新的信号量。*/
+    private final Set<SemaphoreLease> leases = ConcurrentHashMap.newKeySet();
+
+    /** 共享的刷新定时器（第一个信号量注册时才启动）。*/
+    private volatile Disposable ticker;
+
+    /** 定时器当前这一轮等待的时长（纳秒）。*/
+    private long scheduledTickNanos;
+
+    private volatile boolean closed = false;
+
+    public SemaphoreRefresher(
+        LuaScriptReader luaScriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate,
+        Scheduler scheduler,
+        Duration operationTimeout,
+        Duration refreshInterval
+    )
+    {
+        this.refreshSemaphoresScript
+            = luaScriptReader.load(FAIR_SEMAPHORE, "refreshFairSemaphores.lua");
+
+        this.scriptRedisTemplate = scriptRedisTemplate;
+        this.scheduler           = scheduler;
+        this.operationTimeout    = operationTimeout;
+        this.refreshInterval     = refreshInterval;
+    }
+
+    /**
+     * 注册一个需要刷新的信号量。
+     *
+     * @param semaphoreNameKey 信号量有序集合键
+     * @param identifier       信号量唯一标识符
+     * @param timeout          信号量有效期
+     *
+     * @return 信号量租约，信号量释放前必须调用 {@link SemaphoreLease#cancel()}
+     */
+    public @NotNull SemaphoreLease
+    register(String semaphoreNameKey, String identifier, @NotNull Duration timeout) {
+        return this.register(semaphoreNameKey, identifier, 1L, timeout);
+    }
+
+    /**
+     * 注册一个一次获取了多个信号量的持有者，刷新时一起刷新它的所有信号量。
+     *
+     * @param semaphoreNameKey 信号量有序集合键
+     * @param identifier       信号量唯一标识符
+     * @param permits          获取时的信号量数量（权重）
+     * @param timeout          信号量有效期
+     *
+     * @return 信号量租约，信号量释放前必须调用 {@link SemaphoreLease#cancel()}
+     */
+    public @NotNull SemaphoreLease
+    register(
+        String semaphoreNameKey, String identifier,
+        long permits, @NotNull Duration timeout)
+    {
+        final SemaphoreLease lease
+            = new SemaphoreLease(
+                this, semaphoreNameKey, identifier, permits, timeout.toNanos());
+
+        this.leases.add(lease);
+        this.startIfNecessary();
+        this.restartIfTooSlow(lease);
+
+        return lease;
+    }
+
+    /** 移除一个信号量，返回它是否仍在刷新。*/
+    boolean unregister(SemaphoreLease lease) {
+        return this.leases.remove(lease);
+    }
+
+    /** 当前正在刷新的信号量数。*/
+    public int getLeaseCount() {
+        return this.leases.size();
+    }
+
+    private void startIfNecessary()
+    {
+        if (Objects.nonNull(this.ticker)) { return; }
+
+        synchronized (this)
+        {
+            if (Objects.isNull(this.ticker) && !this.closed)
+            {
+                // 每一轮都按当前的信号量重新计算等待时长，上一轮刷新完成前不会开始下一轮
+                this.ticker
+                    = Mono.defer(() -> Mono.delay(Duration.ofNanos(this.scheduleNextTick())))
+                          .then(Mono.defer(this::refreshDue))
+                          .repeat()
+                          .subscribe();
+            }
+        }
+    }
+
+    /**
+     * 新注册的信号量等不到定时器这一轮结束就会过期的话，
+     * 以新的周期重新启动定时器（这一轮尚未完成的刷新随之取消，仍然到期的信号量会在下一轮刷新）。
+     */
+    private void restartIfTooSlow(@NotNull SemaphoreLease lease)
+    {
+        synchronized (this)
+        {
+            if (this.closed || Objects.isNull(this.ticker)
+                || this.tickNanosFor(lease.getTimeoutNanos()) >= this.scheduledTickNanos) {
+                return;
+            }
+
+            this.ticker.dispose();
+            this.ticker = null;
+        }
+
+        this.startIfNecessary();
+    }
+
+    /** 计算并记录定时器下一轮的等待时长。*/
+    private synchronized long scheduleNextTick()
+    {
+        this.scheduledTickNanos = this.currentTickNanos();
+
+        return this.scheduledTickNanos;
+    }
+
+    /** 按当前正在刷新的信号量计算定时器的周期（纳秒）。*/
+    private long currentTickNanos()
+    {
+        return
+        this.leases.stream()
+            .mapToLong((lease) -> this.tickNanosFor(lease.getTimeoutNanos()))
+            .min()
+            .orElse(this.refreshInterval.toNanos());
+    }
+
+    /** 有效期为 timeoutNanos 的信号量所需的定时器周期（纳秒）。*/
+    private long tickNanosFor(long timeoutNanos)
+    {
+        return
+        Math.max(
+            MIN_TICK_INTERVAL.toNanos(),
+            Math.min(this.refreshInterval.toNanos(), timeoutNanos / 3L)
+        );
+    }
+
+    /** 刷新在下个周期到来之前就需要刷新的信号量。*/
+    private @NotNull Mono<Void>
+    refreshDue()
+    {
+        if (this.leases.isEmpty()) {
+            return Mono.empty();
+        }
+
+        final long now      = System.nanoTime();
+        final long nextTick = now + this.currentTickNanos();
+
+        // 连续几轮刷新失败（或者刷新脚本迟迟没有返回）的信号量已经过期，不用再刷新了
+        final List<List<SemaphoreLease>> groups
+            = this.leases.stream()
+                .filter((lease) -> !markLostIfExpired(lease, now))
+                .filter((lease) -> lease.isDue(nextTick))
+                .collect(
+                    Collectors.groupingBy(
+                        SemaphoreLease::getSemaphoreNameKey,
+                        LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .toList();
+
+        return
+        Flux.fromIterable(groups)
+            .concatMapIterable((group) -> partition(group, MAX_BATCH_SIZE))
+            .flatMap(this::refreshBatch)
+            .then();
+    }
+
+    /** 用一次 refreshFairSemaphores.lua 刷新同一个信号量中的一批持有者。*/
+    private @NotNull Mono<Void>
+    refreshBatch(@NotNull List<SemaphoreLease> batch)
+    {
+        final List<Object> args = new ArrayList<>(batch.size() * 2);
+
+        for (SemaphoreLease lease : batch)
+        {
+            args.add(lease.getIdentifier());
+            args.add(lease.getPermits());
+        }
+
+        return
+        Mono.defer(() -> {
+            final long start = System.nanoTime();
+
+            return
+            this.scriptRedisTemplate
+                .execute(
+                    this.refreshSemaphoresScript,
+                    List.of(batch.getFirst().getSemaphoreNameKey()), args)
+                .timeout(this.operationTimeout)
+                .next()
+                .map(LuaOperatorResult::decode)
+                .doOnNext((result) -> {
+                    batch.forEach((lease) -> lease.markRefreshed(start));
+
+                    // 附加值是刷新失败的持有者在这一批中的序号（从 1 开始）
+                    for (int i = 0; i < result.getValueCount(); ++i) {
+                        batch.get((int) result.getValue(i) - 1).markLost();
+                    }
+                });
+        })
+        .subscribeOn(this.scheduler)
+        .onErrorResume((exception) -> {
+            // 单轮刷新失败不能中断定时器，这批信号量仍然到期，下一轮会再次尝试，
+            // 但是已经超过有效期没有刷新成功的信号量肯定过期了
+            log.warn(
+                "Refresh {} fair semaphore(s) in {} failed! Caused by: {}",
+                batch.size(), batch.getFirst().getSemaphoreNameKey(), exception.getMessage()
+            );
+
+            final long now = System.nanoTime();
+
+            for (SemaphoreLease lease : batch) {
+                markLostIfExpired(lease, now);
+            }
+
+            return Mono.empty();
+        })
+        .then();
+    }
+
+    /** 信号量已经超过有效期没有刷新成功时把它标记为丢失，返回是否标记了。*/
+    private static boolean
+    markLostIfExpired(@NotNull SemaphoreLease lease, long nowNanos)
+    {
+        if (lease.isExpired(nowNanos))
+        {
+            lease.markLost();
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static <T> @NotNull List<List<T>>
+    partition(@NotNull List<T> list, int size)
+    {
+        final List<List<T>> partitions = new ArrayList<>();
+
+        for (int index = 0; index < list.size(); index += size) {
+            partitions.add(list.subList(index, Math.min(list.size(), index + size)));
+        }
+
+        return partitions;
+    }
+
+    /** 停止刷新定时器（Spring 容器关闭时调用）。*/
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            this.closed = true;
+
+            if (Objects.nonNull(this.ticker)) {
+                this.ticker.dispose();
+            }
+        }
+
+        this.leases.clear();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.jessez332623.redis_lock.rate_limiter;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+import static java.lang.String.format;
+
+/**
+ * 限流规则：每 period 最多 limit 个配额。
+ *
+ * @param algorithm 限流算法
+ * @param limit     每个周期内的配额数量
+ * @param period    周期（滑动窗口日志中即窗口长度）
+ * @param burst     允许的突发量（只对 GCRA 有效，滑动窗口日志中总是等于 limit）
+ */
+public record RateLimit(
+    RateLimitAlgorithm algorithm, long limit, Duration period, long burst)
+{
+    public RateLimit
+    {
+        if (limit <= 0 || burst <= 0 ||
+            period.isNegative() || period.toNanos() / 1000L < limit)
+        {
+            throw new
+            IllegalArgumentException(
+                format(
+                    "Invalid rate limit! (limit = %d, period = %s, burst = %d), " +
+                    "limit and burst must be positive and at most one permit per microsecond.",
+                    limit, period, burst
+                )
+            );
+        }
+    }
+
+    /** GCRA 限流规则，允许的突发量等于 limit。*/
+    @Contract("_, _ -> new")
+    public static @NotNull RateLimit
+    gcra(long limit, Duration period) {
+        return new RateLimit(RateLimitAlgorithm.GCRA, limit, period, limit);
+    }
+
+    /** GCRA 限流规则，允许 burst 个配额的突发。*/
+    @Contract("_, _, _ -> new")
+    public static @NotNull RateLimit
+    gcra(long limit, Duration period, long burst) {
+        return new RateLimit(RateLimitAlgorithm.GCRA, limit, period, burst);
+    }
+
+    /** 滑动窗口日志限流规则。*/
+    @Contract("_, _ -> new")
+    public static @NotNull RateLimit
+    slidingWindow(long limit, Duration window) {
+        return new RateLimit(RateLimitAlgorithm.SLIDING_WINDOW_LOG, limit, window, limit);
+    }
+
+    /** 一次最多获取的配额数量。*/
+    public long maxPermits()
+    {
+        return
+        (this.algorithm == RateLimitAlgorithm.GCRA)
+            ? this.burst
+            : this.limit;
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.jessez332623.redis_lock.rate_limiter;
+
+/** 限流算法。*/
+public enum RateLimitAlgorithm
+{
+    /**
+     * GCRA（通用信元速率算法），每个限流键只保存一个时间戳，
+     * 配额按固定的间隔匀速恢复，允许 burst 个配额的突发。
+     */
+    GCRA,
+
+    /**
+     * 滑动窗口日志，记录窗口内的每一次获取，任意一个窗口长度的时间段内都不会超过 limit，
+     * 每个限流键占用的内存和 limit 成正比。
+     */
+    SLIDING_WINDOW_LOG
+}
@@ -0,0 +1,14 @@
+package io.github.jessez332623.redis_lock.rate_limiter;
+
+import java.time.Duration;
+
+/**
+ * 一次限流判断的结果（由限流脚本在同一次调用中返回）。
+ *
+ * @param allowed    是否获取成功
+ * @param remaining  获取之后（被拒绝时为当前）还能立即获取的配额数量
+ * @param retryAfter 被拒绝时建议的重试等待时间，获取成功时为 0
+ * @param resetAfter 配额完全恢复所需的时间
+ */
+public record RateLimitDecision(
+    boolean allowed, long remaining, Duration retryAfter, Duration resetAfter) {}
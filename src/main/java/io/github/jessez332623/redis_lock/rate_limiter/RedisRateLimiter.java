@@ -0,0 +1,55 @@
+package io.github.jessez332623.redis_lock.rate_limiter;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * <p>Redis 分布式限流器接口。</p>
+ *
+ * <p>
+ *     每次判断都只执行一次 Lua 脚本，在同一次回复中给出是否获取成功、剩余的配额和建议的重试等待时间，
+ *     和锁、信号量共用同一个脚本模板和调度器，不需要额外的连接。
+ * </p>
+ */
+public interface RedisRateLimiter
+{
+    /**
+     * 尝试获取一个配额。
+     *
+     * @param name      限流键名
+     * @param rateLimit 限流规则
+     *
+     * @return 发布限流判断结果的 {@link Mono}，被拒绝不算作错误
+     */
+    Mono<RateLimitDecision>
+    tryAcquire(String name, RateLimit rateLimit);
+
+    /**
+     * 尝试一次获取 permits 个配额（比如一个批量请求算作 N 次调用），
+     * 只执行一次脚本，要么全部获取，要么一个都不扣减。
+     *
+     * @param name      限流键名
+     * @param rateLimit 限流规则
+     * @param permits   一次获取的配额数量（1 ~ {@link RateLimit#maxPermits()}，滑动窗口日志最多 1000）
+     *
+     * @return 发布限流判断结果的 {@link Mono}，被拒绝不算作错误
+     */
+    Mono<RateLimitDecision>
+    tryAcquire(String name, RateLimit rateLimit, long permits);
+
+    /**
+     * 获取一个配额后执行业务逻辑，被拒绝时以
+     * {@link io.github.jessez332623.redis_lock.rate_limiter.exception.RateLimitExceeded} 失败（不执行业务逻辑）。
+     *
+     * @param <T> 业务逻辑返回的类型
+     *
+     * @param name      限流键名
+     * @param rateLimit 限流规则
+     * @param action    业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 {@link Mono}
+     */
+    <T> Mono<T>
+    withRateLimit(String name, RateLimit rateLimit, Supplier<Mono<T>> action);
+}
@@ -0,0 +1,18 @@
+package io.github.jessez332623.redis_lock.rate_limiter.exception;
+
+import io.github.jessez332623.redis_lock.rate_limiter.RateLimitDecision;
+import lombok.Getter;
+
+/** 超过限流速率时抛出本异常，可以从中获取建议的重试等待时间。*/
+public class RateLimitExceeded extends RuntimeException
+{
+    /** 被拒绝的那次限流判断。*/
+    @Getter
+    private final RateLimitDecision decision;
+
+    public RateLimitExceeded(String message, RateLimitDecision decision)
+    {
+        super(message);
+        this.decision = decision;
+    }
+}
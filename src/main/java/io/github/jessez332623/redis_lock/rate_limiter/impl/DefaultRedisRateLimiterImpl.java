@@ -0,0 +1,293 @@
+package io.github.jessez332623.redis_lock.rate_limiter.impl;
+
+import io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle;
+import io.github.jessez332623.redis_lock.rate_limiter.RateLimit;
+import io.github.jessez332623.redis_lock.rate_limiter.RateLimitDecision;
+import io.github.jessez332623.redis_lock.rate_limiter.RedisRateLimiter;
+import io.github.jessez332623.redis_lock.rate_limiter.exception.RateLimitExceeded;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.utils.DefaultIdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.IdentifierGenerator;
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.RATE_LIMITED;
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static io.github.jessez332623.redis_lock.utils.LuaScriptOperatorType.RATE_LIMITER;
+import static java.lang.String.format;
+
+/** Redis 分布式限流器默认实现类。*/
+@Slf4j
+public class DefaultRedisRateLimiterImpl implements RedisRateLimiter
+{
+    /**
+     * 滑动窗口日志一次最多获取的配额数量（每个配额都是有序集合中的一个成员，
+     * 数量过大会让单个脚本执行时间过长），和公平信号量保持一致，现在是 1000 个。
+     */
+    private final static
+    long MAX_LOG_PERMITS = 1000L;
+
+    /** 限流键的键前缀（用户自定义）。*/
+    private final String RATE_LIMITER_KEY_PREFIX;
+
+    /** 本类用到的 Lua 脚本（构造时解析一次，之后每次操作都直接 EVALSHA）。*/
+    private final DefaultRedisScript<List<Object>> gcraScript;
+    private final DefaultRedisScript<List<Object>> slidingWindowLogScript;
+
+    /** 执行 Lua 脚本专用 Redis 模板。*/
+    private final
+    ReactiveRedisTemplate<String, LuaOperatorResult> scriptRedisTemplate;
+
+    /** Redis Lock 专用的线程调度器。*/
+    private final Scheduler scheduler;
+
+    /** Redis 操作的统一超时时间（默认为 5 秒）。*/
+    private final Duration operationTimeout;
+
+    /** 滑动窗口日志中获取记录的唯一标识符生成器。*/
+    private final IdentifierGenerator identifierGenerator;
+
+    /** 耗时指标记录器（只记录脚本往返耗时）。*/
+    private final LockMetricsRecorder metrics;
+
+    /** 公共有参构造函数，使用 {@link DefaultIdentifierGenerator} 生成唯一标识符，不记录耗时指标。*/
+    public DefaultRedisRateLimiterImpl(
+        String rateLimiterKeyPrefix,
+        LuaScriptReader scriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisScriptTemplate,
+        Scheduler scheduler,
+        Duration operationTimeout
+    )
+    {
+        this(
+            rateLimiterKeyPrefix, scriptReader, redisScriptTemplate,
+            scheduler, operationTimeout,
+            new DefaultIdentifierGenerator(), LockMetricsRecorder.NOOP
+        );
+    }
+
+    /** 公共有参构造函数，满足 Spring 自动装配之需要。*/
+    public DefaultRedisRateLimiterImpl(
+        String rateLimiterKeyPrefix,
+        LuaScriptReader scriptReader,
+        ReactiveRedisTemplate<String, LuaOperatorResult> redisScriptTemplate,
+        Scheduler scheduler,
+        Duration operationTimeout,
+        IdentifierGenerator identifierGenerator,
+        LockMetricsRecorder metrics
+    )
+    {
+        this.RATE_LIMITER_KEY_PREFIX = rateLimiterKeyPrefix;
+        this.scriptRedisTemplate     = redisScriptTemplate;
+        this.scheduler               = scheduler;
+        this.operationTimeout        = operationTimeout;
+        this.identifierGenerator     = identifierGenerator;
+        this.metrics                 = metrics;
+
+        this.gcraScript             = scriptReader.load(RATE_LIMITER, "gcra.lua");
+        this.slidingWindowLogScript = scriptReader.load(RATE_LIMITER, "slidingWindowLog.lua");
+    }
+
+    /**
+     * 组合限流键，不同的算法使用不同的键，
+     * 同一个限流键名换用另一种算法时不会读到对方的数据。
+     */
+    @Contract(pure = true)
+    private @NotNull String
+    getRateLimitKey(String name, @NotNull RateLimit rateLimit)
+    {
+        return
+        switch (rateLimit.algorithm())
+        {
+            case GCRA ->
+                RATE_LIMITER_KEY_PREFIX + ":" + "{" + name + "}:" + "gcra";
+
+            case SLIDING_WINDOW_LOG ->
+                RATE_LIMITER_KEY_PREFIX + ":" + "{" + name + "}:" + "log";
+        };
+    }
+
+    /** 执行一个限流脚本（顺便记录脚本往返耗时）。*/
+    private @NotNull Mono<LuaOperatorResult>
+    executeScript(DefaultRedisScript<List<Object>> script, List<String> keys, Object... args)
+    {
+        return
+        this.scriptRedisTemplate
+            .execute(script, keys, args)
+            .timeout(this.operationTimeout)
+            .next()
+            .map(LuaOperatorResult::decode)
+            .as((execution) -> this.metrics.timeScript(script, execution))
+            .subscribeOn(this.scheduler);
+    }
+
+    /**
+     * 检查一次获取的配额数量：必须在 1 ~ {@link RateLimit#maxPermits()} 之间，
+     * 滑动窗口日志还不能超过 {@link #MAX_LOG_PERMITS}。
+     *
+     * @return 参数不合法时发布 {@link IllegalArgumentException} 的 Mono，合法时返回 null
+     */
+    private static <T> Mono<T>
+    checkPermits(@NotNull RateLimit rateLimit, long permits)
+    {
+        final long maxPermits
+            = switch (rateLimit.algorithm())
+            {
+                case GCRA -> rateLimit.maxPermits();
+
+                case SLIDING_WINDOW_LOG ->
+                    Math.min(rateLimit.maxPermits(), MAX_LOG_PERMITS);
+            };
+
+        if (permits <= 0 || permits > maxPermits)
+        {
+            return
+            Mono.error(
+                new IllegalArgumentException(
+                    format(
+                        "Permits must between 1 and %d! (permits = %d)",
+                        maxPermits, permits
+                    )
+                )
+            );
+        }
+
+        return null;
+    }
+
+    /** 把限流脚本的返回值解析成 {@link RateLimitDecision}。*/
+    private static @NotNull Mono<RateLimitDecision>
+    toDecision(@NotNull LuaOperatorResult result)
+    {
+        return
+        switch (result.getStatus())
+        {
+            case SUCCESS, RATE_LIMITED ->
+                Mono.just(
+                    new RateLimitDecision(
+                        result.getStatus() == SUCCESS,
+                        result.getValue(0),
+                        Duration.ofMillis(result.getValue(1)),
+                        Duration.ofMillis(result.getValue(2))
+                    )
+                );
+
+            default ->
+                Mono.error(
+                    new IllegalStateException(
+                        "Unexpected value: " + result
+                    )
+                );
+        };
+    }
+
+    /**
+     * 尝试获取一个配额。
+     *
+     * @param name      限流键名
+     * @param rateLimit 限流规则
+     *
+     * @return 发布限流判断结果的 Mono
+     */
+    @Override
+    public Mono<RateLimitDecision>
+    tryAcquire(String name, RateLimit rateLimit) {
+        return this.tryAcquire(name, rateLimit, 1L);
+    }
+
+    /**
+     * 尝试一次获取 permits 个配额，只执行一次 gcra.lua 或 slidingWindowLog.lua。
+     *
+     * @param name      限流键名
+     * @param rateLimit 限流规则
+     * @param permits   一次获取的配额数量
+     *
+     * @return 发布限流判断结果的 Mono
+     */
+    @Override
+    public Mono<RateLimitDecision>
+    tryAcquire(String name, RateLimit rateLimit, long permits)
+    {
+        return
+        Mono.defer(() -> {
+            final Mono<RateLimitDecision> illegalPermits
+                = checkPermits(rateLimit, permits);
+
+            if (illegalPermits != null) {
+                return illegalPermits;
+            }
+
+            final List<String> keys
+                = List.of(this.getRateLimitKey(name, rateLimit));
+
+            final long periodMicros
+                = rateLimit.period().toNanos() / 1000L;
+
+            final Mono<LuaOperatorResult> execution
+                = switch (rateLimit.algorithm())
+                {
+                    case GCRA ->
+                        this.executeScript(
+                            this.gcraScript, keys,
+                            periodMicros, rateLimit.limit(), rateLimit.burst(), permits);
+
+                    case SLIDING_WINDOW_LOG ->
+                        this.executeScript(
+                            this.slidingWindowLogScript, keys,
+                            periodMicros, rateLimit.limit(), permits,
+                            this.identifierGenerator.nextIdentifier());
+                };
+
+            return
+            execution
+                .flatMap(DefaultRedisRateLimiterImpl::toDecision)
+                .onErrorResume(RedisLockErrorHandle::redisLockGenericErrorHandle);
+        });
+    }
+
+    /**
+     * 获取一个配额后执行业务逻辑，被拒绝时以 {@link RateLimitExceeded} 失败。
+     *
+     * @param <T> 业务逻辑返回的类型
+     *
+     * @param name      限流键名
+     * @param rateLimit 限流规则
+     * @param action    业务逻辑
+     *
+     * @return 发布业务逻辑执行结果数据的 Mono
+     */
+    @Override
+    public <T> Mono<T>
+    withRateLimit(String name, RateLimit rateLimit, Supplier<Mono<T>> action)
+    {
+        return
+        this.tryAcquire(name, rateLimit)
+            .flatMap((decision) -> {
+                if (decision.allowed()) {
+                    return action.get();
+                }
+
+                return
+                Mono.error(
+                    new RateLimitExceeded(
+                        format(
+                            "Rate limit of %s exceeded! Retry after %d ms.",
+                            name, decision.retryAfter().toMillis()
+                        ),
+                        decision
+                    )
+                );
+            });
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.jessez332623.redis_lock.statistics;
+
+import io.github.jessez332623.redis_lock.distributed_lock.exception.AcquireLockTimeout;
+import io.github.jessez332623.redis_lock.fair_semaphore.exception.AcquireSemaphoreFailed;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/** 一次获取操作的结果（对应获取耗时指标的 outcome 标签）。*/
+public enum AcquireOutcome
+{
+    /** 成功获取。*/
+    ACQUIRED("acquired"),
+
+    /** 在 acquireTimeout 内没有获取到锁。*/
+    TIMEOUT("timeout"),
+
+    /** 信号量已满，获取被拒绝。*/
+    REJECTED("rejected"),
+
+    /** 获取过程中出错（Redis 连接失败、命令超时等）。*/
+    ERROR("error"),
+
+    /** 获取完成前，调用者取消了订阅。*/
+    CANCELLED("cancelled");
+
+    @Getter
+    final String tagValue;
+
+    AcquireOutcome(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    /** 根据获取过程中发布的异常判断获取结果。*/
+    public static @NotNull AcquireOutcome
+    of(Throwable exception)
+    {
+        return
+        switch (exception)
+        {
+            case AcquireLockTimeout ignored     -> TIMEOUT;
+            case AcquireSemaphoreFailed ignored -> REJECTED;
+            default                             -> ERROR;
+        };
+    }
+}
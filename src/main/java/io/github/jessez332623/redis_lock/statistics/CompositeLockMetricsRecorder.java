@@ -0,0 +1,85 @@
+package io.github.jessez332623.redis_lock.statistics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/** 把每个事件交给多个记录器的 {@link LockMetricsRecorder}（见 {@link LockMetricsRecorder#composite(List)}）。*/
+final class CompositeLockMetricsRecorder implements LockMetricsRecorder
+{
+    private final LockMetricsRecorder[] recorders;
+
+    CompositeLockMetricsRecorder(@NotNull List<LockMetricsRecorder> recorders) {
+        this.recorders = recorders.toArray(LockMetricsRecorder[]::new);
+    }
+
+    @Override
+    public void
+    recordAcquire(LockType type, String name, AcquireOutcome outcome, long waitNanos)
+    {
+        for (LockMetricsRecorder recorder : this.recorders) {
+            recorder.recordAcquire(type, name, outcome, waitNanos);
+        }
+    }
+
+    @Override
+    public void
+    recordAcquireAttempts(LockType type, String name, int attempts)
+    {
+        for (LockMetricsRecorder recorder : this.recorders) {
+            recorder.recordAcquireAttempts(type, name, attempts);
+        }
+    }
+
+    @Override
+    public void
+    recordHold(LockType type, String name, long holdNanos)
+    {
+        for (LockMetricsRecorder recorder : this.recorders) {
+            recorder.recordHold(type, name, holdNanos);
+        }
+    }
+
+    @Override
+    public void
+    recordRelease(LockType type, String name, boolean success, long latencyNanos)
+    {
+        for (LockMetricsRecorder recorder : this.recorders) {
+            recorder.recordRelease(type, name, success, latencyNanos);
+        }
+    }
+
+    @Override
+    public void
+    recordScript(String script, String outcome, long roundTripNanos)
+    {
+        for (LockMetricsRecorder recorder : this.recorders) {
+            recorder.recordScript(script, outcome, roundTripNanos);
+        }
+    }
+
+    @Override
+    public void
+    recordLeaseLost(LockType type, String name)
+    {
+        for (LockMetricsRecorder recorder : this.recorders) {
+            recorder.recordLeaseLost(type, name);
+        }
+    }
+
+    @Override
+    public @NotNull List<HotKey>
+    getHotKeys()
+    {
+        for (LockMetricsRecorder recorder : this.recorders)
+        {
+            final List<HotKey> hotKeys = recorder.getHotKeys();
+
+            if (!hotKeys.isEmpty()) {
+                return hotKeys;
+            }
+        }
+
+        return List.of();
+    }
+}
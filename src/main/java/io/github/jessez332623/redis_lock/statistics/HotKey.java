@@ -0,0 +1,16 @@
+package io.github.jessez332623.redis_lock.statistics;
+
+/**
+ * 竞争最激烈的锁名之一（由 {@link LockMetricsRecorder#getHotKeys()} 提供），
+ * 各项数值都是 Count-Min Sketch 的估计值，只会偏大不会偏小。
+ *
+ * @param type                锁、信号量类型
+ * @param name                锁名、信号量名
+ * @param contended           发生竞争的获取次数（超时、被拒绝、重试过或者等待时间超过阈值）
+ * @param timeouts            获取超时（GET_LOCK_TIMEOUT）或被拒绝（ACQUIRE_SEMAPHORE_FAILED）的次数
+ * @param retries             获取时向 Redis 重试的总次数（不包括每次获取的第一次尝试）
+ * @param contendedWaitMillis 发生竞争的获取累计等待的时间（毫秒）
+ */
+public record HotKey(
+    LockType type, String name,
+    long contended, long timeouts, long retries, long contendedWaitMillis) {}
@@ -0,0 +1,181 @@
+package io.github.jessez332623.redis_lock.statistics;
+
+import io.github.jessez332623.redis_lock.utils.LuaOperatorResult;
+import io.github.jessez332623.redis_lock.utils.NamedRedisScript;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 锁、信号量的耗时指标记录器。
+ *
+ * <p>
+ *     和只统计故障次数的 {@link StatisticalInstrument} 不同，
+ *     这里记录的是获取等待时间、持有时间、释放耗时和脚本往返耗时的分布，
+ *     用于在负载下确定 acquireTimeout 和 lockTimeout 该设多大。
+ *     本接口不依赖任何指标库，类路径上存在 Micrometer 且容器中有 MeterRegistry 时，
+ *     自动配置会注册基于 Micrometer 的实现，反之使用什么都不做的 {@link #NOOP}。
+ * </p>
+ *
+ * <p>
+ *     各个 time*() 方法是给锁实现用的：它们把计时逻辑包装在原来的流外面，
+ *     {@link #isEnabled()} 为 false 时直接返回原来的流，不增加任何开销。
+ * </p>
+ */
+public interface LockMetricsRecorder
+{
+    /** 什么都不记录的实现。*/
+    LockMetricsRecorder NOOP = new NoopLockMetricsRecorder();
+
+    /**
+     * 把多个记录器组合成一个，每个事件都会交给所有启用的记录器，
+     * 没有启用的记录器时返回 {@link #NOOP}，只有一个时直接返回它。
+     */
+    static @NotNull LockMetricsRecorder
+    composite(@NotNull List<LockMetricsRecorder> recorders)
+    {
+        final List<LockMetricsRecorder> enabled
+            = recorders.stream()
+                       .filter(LockMetricsRecorder::isEnabled)
+                       .toList();
+
+        return
+        switch (enabled.size())
+        {
+            case 0  -> NOOP;
+            case 1  -> enabled.getFirst();
+            default -> new CompositeLockMetricsRecorder(enabled);
+        };
+    }
+
+    /** 是否记录指标？*/
+    default boolean isEnabled() { return true; }
+
+    /**
+     * 记录一次获取操作。
+     *
+     * @param type      锁、信号量类型
+     * @param name      锁名、信号量名
+     * @param outcome   获取结果
+     * @param waitNanos 从开始获取到得出结果的耗时（纳秒）
+     */
+    void recordAcquire(LockType type, String name, AcquireOutcome outcome, long waitNanos);
+
+    /** 记录一次获取操作向 Redis 尝试的次数。*/
+    void recordAcquireAttempts(LockType type, String name, int attempts);
+
+    /** 记录一次持有时间（从获取成功到业务逻辑结束，纳秒）。*/
+    void recordHold(LockType type, String name, long holdNanos);
+
+    /** 记录一次释放操作的耗时（纳秒）。*/
+    void recordRelease(LockType type, String name, boolean success, long latencyNanos);
+
+    /**
+     * 记录一次脚本往返耗时。
+     *
+     * @param script         脚本名（见 {@link NamedRedisScript#getScriptName()}）
+     * @param outcome        脚本返回的状态码名（见 {@link LuaOperatorResult#statusName(int)}），出错时为 ERROR
+     * @param roundTripNanos 从发送脚本到解析出结果的耗时（纳秒）
+     */
+    void recordScript(String script, String outcome, long roundTripNanos);
+
+    /** 记录一次看门狗续期时发现锁已丢失。*/
+    void recordLeaseLost(LockType type, String name);
+
+    /** 获取竞争最激烈的锁名（按竞争次数降序，不跟踪热点的记录器返回空列表）。*/
+    default @NotNull List<HotKey> getHotKeys() { return List.of(); }
+
+    /** 为获取操作计时，结果由流的终止信号（见 {@link AcquireOutcome#of(Throwable)}）决定。*/
+    default <T> @NotNull Mono<T>
+    timeAcquire(LockType type, String name, @NotNull Mono<T> acquire)
+    {
+        if (!this.isEnabled()) {
+            return acquire;
+        }
+
+        return
+        Mono.defer(() -> {
+            final long start = System.nanoTime();
+
+            return
+            acquire
+                .doOnSuccess((ignored) ->
+                    this.recordAcquire(
+                        type, name, AcquireOutcome.ACQUIRED, System.nanoTime() - start))
+                .doOnError((exception) ->
+                    this.recordAcquire(
+                        type, name, AcquireOutcome.of(exception), System.nanoTime() - start))
+                .doOnCancel(() ->
+                    this.recordAcquire(
+                        type, name, AcquireOutcome.CANCELLED, System.nanoTime() - start));
+        });
+    }
+
+    /** 为锁作用域内的业务逻辑计时（即持有时间）。*/
+    default <T> @NotNull Mono<T>
+    timeHold(LockType type, String name, @NotNull Mono<T> action)
+    {
+        if (!this.isEnabled()) {
+            return action;
+        }
+
+        return
+        Mono.defer(() -> {
+            final long start = System.nanoTime();
+
+            return
+            action.doFinally((signal) ->
+                this.recordHold(type, name, System.nanoTime() - start));
+        });
+    }
+
+    /** 为释放操作计时。*/
+    default @NotNull Mono<Void>
+    timeRelease(LockType type, String name, @NotNull Mono<Void> release)
+    {
+        if (!this.isEnabled()) {
+            return release;
+        }
+
+        return
+        Mono.defer(() -> {
+            final long start = System.nanoTime();
+
+            return
+            release
+                .doOnSuccess((ignored) ->
+                    this.recordRelease(type, name, true, System.nanoTime() - start))
+                .doOnError((exception) ->
+                    this.recordRelease(type, name, false, System.nanoTime() - start));
+        });
+    }
+
+    /** 为一次脚本执行计时（不包括调度器排队的时间）。*/
+    default @NotNull Mono<LuaOperatorResult>
+    timeScript(RedisScript<?> script, @NotNull Mono<LuaOperatorResult> execution)
+    {
+        if (!this.isEnabled()) {
+            return execution;
+        }
+
+        final String scriptName
+            = (script instanceof NamedRedisScript<?> named)
+                ? named.getScriptName()
+                : "unknown";
+
+        return
+        Mono.defer(() -> {
+            final long start = System.nanoTime();
+
+            return
+            execution
+                .doOnNext((result) ->
+                    this.recordScript(
+                        scriptName, result.getStatusName(), System.nanoTime() - start))
+                .doOnError((exception) ->
+                    this.recordScript(scriptName, "ERROR", System.nanoTime() - start));
+        });
+    }
+}
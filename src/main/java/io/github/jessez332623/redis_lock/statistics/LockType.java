@@ -0,0 +1,20 @@
+package io.github.jessez332623.redis_lock.statistics;
+
+import lombok.Getter;
+
+/** 指标中的锁、信号量类型（对应指标的 type 标签）。*/
+public enum LockType
+{
+    DISTRIBUTED_LOCK("distributed_lock"),
+    REENTRANT_LOCK("reentrant_lock"),
+    READ_LOCK("read_lock"),
+    WRITE_LOCK("write_lock"),
+    FAIR_SEMAPHORE("fair_semaphore");
+
+    @Getter
+    final String tagValue;
+
+    LockType(String tagValue) {
+        this.tagValue = tagValue;
+    }
+}
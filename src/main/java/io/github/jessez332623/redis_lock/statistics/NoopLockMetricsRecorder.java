@@ -0,0 +1,28 @@
+package io.github.jessez332623.redis_lock.statistics;
+
+/** 什么都不记录的 {@link LockMetricsRecorder}（见 {@link LockMetricsRecorder#NOOP}）。*/
+final class NoopLockMetricsRecorder implements LockMetricsRecorder
+{
+    @Override
+    public boolean isEnabled() { return false; }
+
+    @Override
+    public void recordAcquire(
+        LockType type, String name, AcquireOutcome outcome, long waitNanos) {}
+
+    @Override
+    public void recordAcquireAttempts(LockType type, String name, int attempts) {}
+
+    @Override
+    public void recordHold(LockType type, String name, long holdNanos) {}
+
+    @Override
+    public void recordRelease(
+        LockType type, String name, boolean success, long latencyNanos) {}
+
+    @Override
+    public void recordScript(String script, String outcome, long roundTripNanos) {}
+
+    @Override
+    public void recordLeaseLost(LockType type, String name) {}
+}
@@ -1,5 +1,7 @@
 package io.github.jessez332623.redis_lock.statistics;
 
+import java.util.List;
+
 /** 各个分布式锁实现的故障统计器，由各个分布式锁来实现。*/
 public interface StatisticalInstrument
 {
@@ -14,6 +16,14 @@ public interface StatisticalInstrument
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * 获取本实现中竞争最激烈的锁名（按竞争次数降序），
+     * 只有启用了热点锁名跟踪（app.redis-lock.hot-keys.enabled）时才有数据，否则返回空列表。
+     */
+    default List<HotKey> getHotKeys() {
+        return List.of();
+    }
+
     /** 输出统计结果（默认由 printf 输出）*/
     default void displayStatisticResult() {
         System.out.println(this.getStatisticResultString());
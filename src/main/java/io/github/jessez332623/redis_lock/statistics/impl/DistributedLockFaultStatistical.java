@@ -3,7 +3,7 @@ package io.github.jessez332623.redis_lock.statistics.impl;
 import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /** Redis 分布式锁故障统计器。*/
 @Slf4j
@@ -11,38 +11,47 @@ public class DistributedLockFaultStatistical implements StatisticalInstrument
 {
     /** 锁超时次数。*/
     private final
-    AtomicLong lockTimeoutCount = new AtomicLong(0L);
+    LongAdder lockTimeoutCount = new LongAdder();
 
     /** 释放锁但锁不存在次数。*/
     private final
-    AtomicLong lockNotExistCount = new AtomicLong(0L);
+    LongAdder lockNotExistCount = new LongAdder();
 
     /** 同步释放锁次数（罕见）。*/
     private final
-    AtomicLong concurrentReleaseCount = new AtomicLong(0L);
+    LongAdder concurrentReleaseCount = new LongAdder();
 
     /** 尝试释放别人的锁次数。*/
     private final
-    AtomicLong releaseOthersCount = new AtomicLong(0L);
+    LongAdder releaseOthersCount = new LongAdder();
+
+    /** 看门狗续期时发现锁已丢失的次数。*/
+    private final
+    LongAdder leaseLostCount = new LongAdder();
 
     /** 锁超时次数 + 1 */
     public void increaseLockTimeout() {
-        this.lockTimeoutCount.incrementAndGet();
+        this.lockTimeoutCount.increment();
     }
 
     /** 释放锁但锁不存在次数 + 1 */
     public void increaseLockNotExist() {
-        this.lockNotExistCount.incrementAndGet();
+        this.lockNotExistCount.increment();
     }
 
     /** 同步释放锁次数 + 1 */
     public void increaseConcurrentRelease() {
-        this.concurrentReleaseCount.incrementAndGet();
+        this.concurrentReleaseCount.increment();
     }
 
     /** 尝试释放别人的锁次数 + 1 */
     public void increaseReleaseOthers() {
-        this.releaseOthersCount.incrementAndGet();
+        this.releaseOthersCount.increment();
+    }
+
+    /** 看门狗续期时发现锁已丢失的次数 + 1 */
+    public void increaseLeaseLost() {
+        this.leaseLostCount.increment();
     }
 
     /** 获取统计结果字符串。*/
@@ -52,11 +61,12 @@ public class DistributedLockFaultStatistical implements StatisticalInstrument
         return
         String.format(
             "Acquire lock timeout: %d, lock not exist: %d, " +
-            "concurrent release: %s, try release others: %d",
-            this.lockTimeoutCount.get(),
-            this.lockNotExistCount.get(),
-            this.concurrentReleaseCount.get(),
-            this.releaseOthersCount.get()
+            "concurrent release: %s, try release others: %d, lease lost: %d",
+            this.lockTimeoutCount.sum(),
+            this.lockNotExistCount.sum(),
+            this.concurrentReleaseCount.sum(),
+            this.releaseOthersCount.sum(),
+            this.leaseLostCount.sum()
         );
     }
 
@@ -71,10 +81,11 @@ public class DistributedLockFaultStatistical implements StatisticalInstrument
     @Override
     public void cleanStatisticResult()
     {
-        this.lockTimeoutCount.set(0);
-        this.lockNotExistCount.set(0);
-        this.concurrentReleaseCount.set(0);
-        this.releaseOthersCount.set(0);
+        this.lockTimeoutCount.reset();
+        this.lockNotExistCount.reset();
+        this.concurrentReleaseCount.reset();
+        this.releaseOthersCount.reset();
+        this.leaseLostCount.reset();
     }
 
     /** 输出统计结果（默认由 printf 输出）*/
@@ -3,7 +3,7 @@ package io.github.jessez332623.redis_lock.statistics.impl;
 import io.github.jessez332623.redis_lock.statistics.StatisticalInstrument;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /** Redis 公平信号量故障统计器。*/
 @Slf4j
@@ -11,29 +11,29 @@ public class FairSemaphoreFaultStatistical implements StatisticalInstrument
 {
     /** 获取信号量失败次数。*/
     private final
-    AtomicLong acquireSemaphoreFailedCount = new AtomicLong(0L);
+    LongAdder acquireSemaphoreFailedCount = new LongAdder();
 
     /** 信号量不存在次数。*/
     private final
-    AtomicLong semaphoreNotFoundCount = new AtomicLong(0L);
+    LongAdder semaphoreNotFoundCount = new LongAdder();
 
     /** 获取信号量超时次数。*/
     private final
-    AtomicLong semaphoreTimeoutCount = new AtomicLong(0L);
+    LongAdder semaphoreTimeoutCount = new LongAdder();
 
     /** 获取信号量失败次数 + 1 */
     public void increaseAcquireFailed() {
-        this.acquireSemaphoreFailedCount.incrementAndGet();
+        this.acquireSemaphoreFailedCount.increment();
     }
 
     /** 信号量不存在次数 + 1 */
     public void increaseNotFound() {
-        this.semaphoreNotFoundCount.incrementAndGet();
+        this.semaphoreNotFoundCount.increment();
     }
 
     /** 获取信号量超时次数 + 1 */
     public void increaseTimeout() {
-        this.semaphoreTimeoutCount.incrementAndGet();
+        this.semaphoreTimeoutCount.increment();
     }
 
     /** 获取统计结果字符串。*/
@@ -44,9 +44,9 @@ public class FairSemaphoreFaultStatistical implements StatisticalInstrument
         String.format(
             "Acquire semaphore failed: %d, " +
             "semaphore not found: %d, semaphore timeout: %d",
-            this.acquireSemaphoreFailedCount.get(),
-            this.semaphoreNotFoundCount.get(),
-            this.semaphoreTimeoutCount.get()
+            this.acquireSemaphoreFailedCount.sum(),
+            this.semaphoreNotFoundCount.sum(),
+            this.semaphoreTimeoutCount.sum()
         );
     }
 
@@ -61,9 +61,9 @@ public class FairSemaphoreFaultStatistical implements StatisticalInstrument
     @Override
     public void cleanStatisticResult()
     {
-        this.acquireSemaphoreFailedCount.set(0);
-        this.semaphoreNotFoundCount.set(0);
-        this.semaphoreTimeoutCount.set(0);
+        this.acquireSemaphoreFailedCount.reset();
+        this.semaphoreNotFoundCount.reset();
+        this.semaphoreTimeoutCount.reset();
     }
 
     /** 输出统计结果（默认由 printf 输出）*/
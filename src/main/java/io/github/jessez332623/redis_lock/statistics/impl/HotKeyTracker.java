@@ -0,0 +1,308 @@
+package io.github.jessez332623.redis_lock.statistics.impl;
+
+import io.github.jessez332623.redis_lock.statistics.AcquireOutcome;
+import io.github.jessez332623.redis_lock.statistics.HotKey;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 热点锁名跟踪器：在固定的内存内找出竞争最激烈的 K 个锁名。
+ *
+ * <p>
+ *     锁名可能有成千上万个，为每个锁名单独建立指标代价太大，
+ *     所以这里用 Count-Min Sketch 估计每个锁名的竞争次数、超时次数、重试次数和等待时间，
+ *     再用一张容量为 K 的候选表保存估计的竞争次数最大的锁名。
+ *     内存占用只和 sketch 的宽度、深度以及 K 有关，和锁名的数量无关。
+ * </p>
+ *
+ * <p>
+ *     记录路径是无锁的：sketch 的更新是 {@link AtomicLongArray} 上的原子加，
+ *     候选表的替换是 {@link AtomicReferenceArray} 上的 CAS，
+ *     而且只有发生竞争的获取（超时、被拒绝、重试过或者等待时间超过阈值）才会被记录，
+ *     没有竞争的获取只做几次比较就返回，启用本跟踪器不会拖慢热点锁本身。
+ * </p>
+ *
+ * <p>
+ *     本类只关心获取事件，其他事件全部忽略，通常和其他 {@link LockMetricsRecorder}
+ *     通过 {@link LockMetricsRecorder#composite(List)} 组合在一起使用。
+ * </p>
+ */
+public final class HotKeyTracker implements LockMetricsRecorder
+{
+    /** 每一行哈希使用的种子（最多支持 8 行）。*/
+    private static final long[] ROW_SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x85EBCA77C2B2AE63L, 0x27D4EB2F165667C5L
+    };
+
+    /** sketch 的深度（行数）和宽度（每行的计数器数量，2 的幂）。*/
+    private final int depth;
+    private final int widthMask;
+
+    /** 发生竞争的获取等待时间超过这个阈值才算作竞争（纳秒）。*/
+    private final long slowAcquireNanos;
+
+    /** 四个 sketch：竞争次数、超时次数、重试次数、竞争时的等待时间（纳秒）。*/
+    private final AtomicLongArray contended;
+    private final AtomicLongArray timeouts;
+    private final AtomicLongArray retries;
+    private final AtomicLongArray waitNanos;
+
+    /** 候选表（容量为 K），并发时可能出现重复的候选者，快照时去重。*/
+    private final AtomicReferenceArray<Candidate> candidates;
+
+    /**
+     * 候选表已满时，表中最小的竞争次数估计值（只是一个提示，可能略微过期），
+     * 估计值不超过它的锁名不需要扫描候选表。
+     */
+    private volatile long admissionFloor = 0L;
+
+    /** 候选者：锁名以及它在 sketch 中的哈希。*/
+    private record Candidate(LockType type, String name, long hash)
+    {
+        private boolean
+        matches(long hash, LockType type, String name)
+        {
+            return
+            this.hash == hash && this.type == type && this.name.equals(name);
+        }
+    }
+
+    /**
+     * @param capacity         候选表容量（即 K）
+     * @param sketchWidth      sketch 每行的计数器数量（会向上取整到 2 的幂）
+     * @param sketchDepth      sketch 的行数（1 ~ 8）
+     * @param slowAcquire      等待时间超过它的获取即使没有重试也算作竞争
+     */
+    public HotKeyTracker(
+        int capacity, int sketchWidth, int sketchDepth, @NotNull Duration slowAcquire)
+    {
+        if (capacity <= 0 || sketchWidth <= 0) {
+            throw new IllegalArgumentException("Capacity and sketch width must be positive!");
+        }
+
+        if (sketchDepth <= 0 || sketchDepth > ROW_SEEDS.length)
+        {
+            throw new
+            IllegalArgumentException(
+                "Sketch depth must between 1 and " + ROW_SEEDS.length + "!");
+        }
+
+        final int width = Integer.highestOneBit(Math.max(2, sketchWidth - 1)) << 1;
+
+        this.depth            = sketchDepth;
+        this.widthMask        = width - 1;
+        this.slowAcquireNanos = slowAcquire.toNanos();
+
+        this.contended  = new AtomicLongArray(sketchDepth * width);
+        this.timeouts   = new AtomicLongArray(sketchDepth * width);
+        this.retries    = new AtomicLongArray(sketchDepth * width);
+        this.waitNanos  = new AtomicLongArray(sketchDepth * width);
+        this.candidates = new AtomicReferenceArray<>(capacity);
+    }
+
+    /** 锁名在 sketch 中的哈希（类型也参与哈希，不同类型的同名锁分开统计）。*/
+    private static long
+    hashOf(@NotNull LockType type, @NotNull String name) {
+        return ((long) name.hashCode() << 32) | type.ordinal();
+    }
+
+    /** 第 row 行中哈希对应的计数器下标（每行用不同的种子做一次 SplitMix64 混合）。*/
+    private int
+    indexOf(int row, long hash)
+    {
+        long mixed = hash ^ ROW_SEEDS[row];
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        mixed ^= (mixed >>> 31);
+
+        return
+        row * (this.widthMask + 1) + (int) (mixed & this.widthMask);
+    }
+
+    private void
+    add(AtomicLongArray sketch, long hash, long delta)
+    {
+        for (int row = 0; row < this.depth; ++row) {
+            sketch.getAndAdd(this.indexOf(row, hash), delta);
+        }
+    }
+
+    /** 估计值取各行计数器的最小值。*/
+    private long
+    estimate(AtomicLongArray sketch, long hash)
+    {
+        long min = Long.MAX_VALUE;
+
+        for (int row = 0; row < this.depth; ++row) {
+            min = Math.min(min, sketch.get(this.indexOf(row, hash)));
+        }
+
+        return min;
+    }
+
+    @Override
+    public void
+    recordAcquire(
+        LockType type, String name, @NotNull AcquireOutcome outcome, long waitNanos)
+    {
+        final boolean failed
+            = outcome == AcquireOutcome.TIMEOUT || outcome == AcquireOutcome.REJECTED;
+
+        if (!failed && waitNanos < this.slowAcquireNanos) {
+            return;
+        }
+
+        final long hash = hashOf(type, name);
+
+        if (failed) {
+            this.add(this.timeouts, hash, 1L);
+        }
+
+        this.add(this.waitNanos, hash, waitNanos);
+        this.add(this.contended, hash, 1L);
+        this.offer(type, name, hash);
+    }
+
+    @Override
+    public void
+    recordAcquireAttempts(LockType type, String name, int attempts)
+    {
+        if (attempts <= 1) {
+            return;
+        }
+
+        final long hash = hashOf(type, name);
+
+        // 重试过的获取也算作一次竞争（超时的获取可能已经算过，估计值只会偏大）
+        this.add(this.retries, hash, attempts - 1);
+        this.add(this.contended, hash, 1L);
+        this.offer(type, name, hash);
+    }
+
+    /** 尝试把锁名放入候选表（已经在表中，或者估计值不够大时什么也不做）。*/
+    private void
+    offer(LockType type, String name, long hash)
+    {
+        final long estimate = this.estimate(this.contended, hash);
+
+        if (estimate <= this.admissionFloor) {
+            return;
+        }
+
+        int       victimIndex    = -1;
+        Candidate victim         = null;
+        long      victimEstimate = Long.MAX_VALUE;
+
+        for (int i = 0; i < this.candidates.length(); ++i)
+        {
+            Candidate candidate = this.candidates.get(i);
+
+            if (candidate == null)
+            {
+                if (this.candidates.compareAndSet(i, null, new Candidate(type, name, hash))) {
+                    return;
+                }
+
+                candidate = this.candidates.get(i);
+            }
+
+            if (candidate.matches(hash, type, name)) {
+                return;
+            }
+
+            final long candidateEstimate = this.estimate(this.contended, candidate.hash());
+
+            if (candidateEstimate < victimEstimate)
+            {
+                victimIndex    = i;
+                victim         = candidate;
+                victimEstimate = candidateEstimate;
+            }
+        }
+
+        this.admissionFloor = victimEstimate;
+
+        // 替换失败说明别的线程刚刚换掉了它，这次放弃即可，下次竞争时还会再尝试
+        if (estimate > victimEstimate) {
+            this.candidates.compareAndSet(victimIndex, victim, new Candidate(type, name, hash));
+        }
+    }
+
+    /** 获取候选表的快照，按竞争次数降序排列。*/
+    @Override
+    public @NotNull List<HotKey>
+    getHotKeys()
+    {
+        final Set<Candidate> seen   = new HashSet<>();
+        final List<HotKey>   result = new ArrayList<>(this.candidates.length());
+
+        for (int i = 0; i < this.candidates.length(); ++i)
+        {
+            final Candidate candidate = this.candidates.get(i);
+
+            if (Objects.isNull(candidate) || !seen.add(candidate)) {
+                continue;
+            }
+
+            final long hash = candidate.hash();
+
+            result.add(
+                new HotKey(
+                    candidate.type(), candidate.name(),
+                    this.estimate(this.contended, hash),
+                    this.estimate(this.timeouts, hash),
+                    this.estimate(this.retries, hash),
+                    TimeUnit.NANOSECONDS.toMillis(this.estimate(this.waitNanos, hash))
+                )
+            );
+        }
+
+        result.sort(Comparator.comparingLong(HotKey::contended).reversed());
+
+        return result;
+    }
+
+    /** 清空所有统计（不是原子的，清空期间的记录可能部分保留）。*/
+    public void
+    reset()
+    {
+        for (int i = 0; i < this.contended.length(); ++i)
+        {
+            this.contended.set(i, 0L);
+            this.timeouts.set(i, 0L);
+            this.retries.set(i, 0L);
+            this.waitNanos.set(i, 0L);
+        }
+
+        for (int i = 0; i < this.candidates.length(); ++i) {
+            this.candidates.set(i, null);
+        }
+
+        this.admissionFloor = 0L;
+    }
+
+    @Override
+    public void recordHold(LockType type, String name, long holdNanos) {}
+
+    @Override
+    public void recordRelease(LockType type, String name, boolean success, long latencyNanos) {}
+
+    @Override
+    public void recordScript(String script, String outcome, long roundTripNanos) {}
+
+    @Override
+    public void recordLeaseLost(LockType type, String name) {}
+}
@@ -0,0 +1,275 @@
+package io.github.jessez332623.redis_lock.statistics.impl;
+
+import io.github.jessez332623.redis_lock.statistics.AcquireOutcome;
+import io.github.jessez332623.redis_lock.statistics.LockMetricsRecorder;
+import io.github.jessez332623.redis_lock.statistics.LockType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 基于 Micrometer 的 {@link LockMetricsRecorder} 实现，注册以下指标：
+ *
+ * <ul>
+ *     <li><code>redis_lock.acquire</code>（Timer，标签 type、name、outcome）：获取等待时间</li>
+ *     <li><code>redis_lock.acquire.attempts</code>（DistributionSummary，标签 type、name）：每次获取向 Redis 尝试的次数</li>
+ *     <li><code>redis_lock.hold</code>（Timer，标签 type、name）：持有时间</li>
+ *     <li><code>redis_lock.release</code>（Timer，标签 type、name、outcome）：释放耗时</li>
+ *     <li><code>redis_lock.script</code>（Timer，标签 script、outcome）：脚本往返耗时，outcome 为脚本返回的状态码</li>
+ *     <li><code>redis_lock.lease.lost</code>（Counter，标签 type、name）：看门狗续期时发现锁已丢失的次数</li>
+ * </ul>
+ *
+ * <p>
+ *     锁名往往带有业务 ID（比如 <code>order:42</code>），直接作为标签会让指标数量无限增长，
+ *     所以每种类型最多只为 maxNameTags 个锁名单独建立指标，之后出现的锁名全部归入 {@link #OVERFLOW_NAME}。
+ *     建立好的指标会缓存下来，热路径上只有一次哈希查找，不会每次都经过 MeterRegistry 的查找和分配。
+ * </p>
+ */
+@Slf4j
+public final class MicrometerLockMetricsRecorder implements LockMetricsRecorder
+{
+    /** 超过锁名数量上限后，新锁名统一使用的标签值。*/
+    public static final String OVERFLOW_NAME = "_other";
+
+    private final MeterRegistry registry;
+
+    /** 每种类型单独建立指标的锁名数量上限。*/
+    private final int maxNameTags;
+
+    /** 是否为 Timer 和 DistributionSummary 发布百分位直方图。*/
+    private final boolean percentileHistogram;
+
+    /** 类型 -> (锁名 -> 指标) */
+    private final Map<LockType, ConcurrentMap<String, LockMeters>>
+    lockMeters = new EnumMap<>(LockType.class);
+
+    /** 脚本名 -> (状态码名 -> Timer) */
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>>
+    scriptTimers = new ConcurrentHashMap<>();
+
+    /** 是否已经输出过锁名数量超出上限的警告（只输出一次）。*/
+    private final AtomicBoolean overflowWarned = new AtomicBoolean(false);
+
+    public MicrometerLockMetricsRecorder(
+        MeterRegistry registry, int maxNameTags, boolean percentileHistogram)
+    {
+        this.registry            = registry;
+        this.maxNameTags         = maxNameTags;
+        this.percentileHistogram = percentileHistogram;
+
+        for (LockType type : LockType.values()) {
+            this.lockMeters.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /** 获取锁名对应的指标，锁名数量超出上限时返回 {@link #OVERFLOW_NAME} 对应的指标。*/
+    private @NotNull LockMeters
+    metersOf(LockType type, String name)
+    {
+        final ConcurrentMap<String, LockMeters> meters = this.lockMeters.get(type);
+        final LockMeters existing = meters.get(name);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        // 并发时可能略微超出上限，这不要紧
+        if (meters.size() >= this.maxNameTags)
+        {
+            if (this.overflowWarned.compareAndSet(false, true))
+            {
+                log.warn(
+                    "Redis-Lock metrics name tags exceed {}, new names are recorded as {}.",
+                    this.maxNameTags, OVERFLOW_NAME
+                );
+            }
+
+            return
+            meters.computeIfAbsent(OVERFLOW_NAME, (overflow) -> new LockMeters(type, overflow));
+        }
+
+        return
+        meters.computeIfAbsent(name, (tagName) -> new LockMeters(type, tagName));
+    }
+
+    private @NotNull Timer
+    timer(String meterName, String description, String... tags)
+    {
+        return
+        Timer.builder(meterName)
+             .description(description)
+             .tags(tags)
+             .publishPercentileHistogram(this.percentileHistogram)
+             .register(this.registry);
+    }
+
+    @Override
+    public void
+    recordAcquire(LockType type, String name, @NotNull AcquireOutcome outcome, long waitNanos) {
+        this.metersOf(type, name).acquire(outcome).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void
+    recordAcquireAttempts(LockType type, String name, int attempts) {
+        this.metersOf(type, name).attempts().record(attempts);
+    }
+
+    @Override
+    public void
+    recordHold(LockType type, String name, long holdNanos) {
+        this.metersOf(type, name).hold().record(holdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void
+    recordRelease(LockType type, String name, boolean success, long latencyNanos) {
+        this.metersOf(type, name).release(success).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void
+    recordScript(String script, String outcome, long roundTripNanos)
+    {
+        this.scriptTimers
+            .computeIfAbsent(script, (ignored) -> new ConcurrentHashMap<>())
+            .computeIfAbsent(outcome, (status) ->
+                this.timer(
+                    "redis_lock.script", "Redis-Lock lua script round-trip time",
+                    "script", script, "outcome", status.toLowerCase(Locale.ROOT)))
+            .record(roundTripNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void
+    recordLeaseLost(LockType type, String name) {
+        this.metersOf(type, name).leaseLost().increment();
+    }
+
+    /**
+     * 一个锁名的全部指标，各个指标在第一次用到时才注册（避免为从不出现的 outcome 建立直方图），
+     * 并发注册是无害的，MeterRegistry 对同样的名字和标签总是返回同一个指标。
+     */
+    private final class LockMeters
+    {
+        private final String type;
+        private final String name;
+
+        private final AtomicReferenceArray<Timer> acquire
+            = new AtomicReferenceArray<>(AcquireOutcome.values().length);
+
+        /** 下标 0 为成功，1 为失败。*/
+        private final AtomicReferenceArray<Timer> release
+            = new AtomicReferenceArray<>(2);
+
+        private volatile Timer               hold;
+        private volatile DistributionSummary attempts;
+        private volatile Counter             leaseLost;
+
+        private LockMeters(@NotNull LockType type, String name)
+        {
+            this.type = type.getTagValue();
+            this.name = name;
+        }
+
+        private @NotNull Timer
+        acquire(@NotNull AcquireOutcome outcome)
+        {
+            Timer timer = this.acquire.get(outcome.ordinal());
+
+            if (timer == null)
+            {
+                timer = timer(
+                    "redis_lock.acquire", "Redis-Lock acquire wait time",
+                    "type", this.type, "name", this.name, "outcome", outcome.getTagValue());
+
+                this.acquire.set(outcome.ordinal(), timer);
+            }
+
+            return timer;
+        }
+
+        private @NotNull Timer
+        release(boolean success)
+        {
+            final int index = (success) ? 0 : 1;
+            Timer timer = this.release.get(index);
+
+            if (timer == null)
+            {
+                timer = timer(
+                    "redis_lock.release", "Redis-Lock release latency",
+                    "type", this.type, "name", this.name,
+                    "outcome", (success) ? "success" : "error");
+
+                this.release.set(index, timer);
+            }
+
+            return timer;
+        }
+
+        private @NotNull Timer
+        hold()
+        {
+            Timer timer = this.hold;
+
+            if (timer == null)
+            {
+                timer = this.hold = timer(
+                    "redis_lock.hold", "Redis-Lock hold time",
+                    "type", this.type, "name", this.name);
+            }
+
+            return timer;
+        }
+
+        private @NotNull DistributionSummary
+        attempts()
+        {
+            DistributionSummary summary = this.attempts;
+
+            if (summary == null)
+            {
+                summary = this.attempts
+                    = DistributionSummary.builder("redis_lock.acquire.attempts")
+                        .description("Redis-Lock attempts per acquire")
+                        .tags("type", this.type, "name", this.name)
+                        .publishPercentileHistogram(percentileHistogram)
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue(1000.0)
+                        .register(registry);
+            }
+
+            return summary;
+        }
+
+        private @NotNull Counter
+        leaseLost()
+        {
+            Counter counter = this.leaseLost;
+
+            if (counter == null)
+            {
+                counter = this.leaseLost
+                    = Counter.builder("redis_lock.lease.lost")
+                        .description("Redis-Lock leases found lost by the watchdog")
+                        .tags("type", this.type, "name", this.name)
+                        .register(registry);
+            }
+
+            return counter;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.jessez332623.redis_lock.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>锁、信号量持有者唯一标识符的生成器。</p>
+ *
+ * <p>
+ *     每次获取锁或者信号量都会调用一次 {@link #nextIdentifier()}，
+ *     默认实现为 {@link DefaultIdentifierGenerator}，
+ *     使用者也可以注册自己的 {@link IdentifierGenerator} Bean 来替换它。
+ * </p>
+ *
+ * <p>
+ *     实现需要保证生成的标识符在所有访问同一个 Redis 服务的客户端之间全局唯一
+ *     （包括重启后的同一个 Pod），并且是线程安全、不会阻塞的。
+ * </p>
+ */
+@FunctionalInterface
+public interface IdentifierGenerator
+{
+    /** 生成下一个唯一标识符。*/
+    @NotNull String nextIdentifier();
+}
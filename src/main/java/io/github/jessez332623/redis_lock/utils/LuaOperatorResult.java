@@ -1,14 +1,215 @@
 package io.github.jessez332623.redis_lock.utils;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-/** Lua 脚本的执行结果是一个 JSON 类型，会被映射成该 POJO。*/
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class LuaOperatorResult
+import io.github.jessez332623.redis_lock.utils.exception.LuaScriptOperatorFailed;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Lua 脚本的执行结果。
+ *
+ * <p>
+ *     所有脚本统一返回 <code>{ 状态码, 附加值... }</code> 形式的 RESP 数组，元素都是整数：
+ *     第一个元素是下面定义的状态码，之后是剩余的 TTL、栅栏令牌、失败成员的下标等附加值。
+ *     {@link #decode(Object)} 直接读取客户端解析好的整数，不经过任何 JSON 编解码；
+ *     没有附加值的结果（绝大多数的成功情况）会复用预先创建好的实例。
+ * </p>
+ *
+ * <p>
+ *     注意：这里的状态码必须和 <code>lua-script</code> 目录下各个脚本开头声明的保持一致。
+ * </p>
+ */
+public final class LuaOperatorResult
 {
-    private String result;
-}
\ No newline at end of file
+    /** 操作成功。*/
+    public static final int SUCCESS                  = 0;
+
+    /** 锁被别人持有，附加值为锁剩余的有效期（毫秒级）。*/
+    public static final int LOCK_OCCUPIED            = 1;
+
+    /** 服务端自旋获取锁超时。*/
+    public static final int GET_LOCK_TIMEOUT         = 2;
+
+    /** 两个客户端并发的释放了同一个锁（无害）。*/
+    public static final int CONCURRENT_RELEASE       = 3;
+
+    /** 锁不存在（已过期）。*/
+    public static final int LOCK_NOT_EXIST           = 4;
+
+    /** 锁被别人持有。*/
+    public static final int LOCK_OWNED_BY_OTHERS     = 5;
+
+    /** 信号量已满。*/
+    public static final int ACQUIRE_SEMAPHORE_FAILED = 6;
+
+    /** 信号量不存在。*/
+    public static final int SEMAPHORE_NOT_FOUND      = 7;
+
+    /** 持有的信号量已超时。*/
+    public static final int SEMAPHORE_TIMEOUT        = 8;
+
+    /** 信号量已满，已进入等待队列，附加值为建议的最长等待时间（毫秒级）。*/
+    public static final int SEMAPHORE_QUEUED         = 9;
+
+    /**
+     * 超过限流速率，附加值依次为剩余的配额、建议的重试等待时间和配额完全恢复的时间（后两者为毫秒级），
+     * 成功时（{@link #SUCCESS}）限流脚本同样返回这三个附加值，此时重试等待时间为 0。
+     */
+    public static final int RATE_LIMITED             = 10;
+
+    /** 状态码对应的名字（下标即状态码），仅用于日志和异常信息。*/
+    private static final String[] STATUS_NAMES = {
+        "SUCCESS", "LOCK_OCCUPIED", "GET_LOCK_TIMEOUT",
+        "CONCURRENT_RELEASE", "LOCK_NOT_EXIST", "LOCK_OWNED_BY_OTHERS",
+        "ACQUIRE_SEMAPHORE_FAILED", "SEMAPHORE_NOT_FOUND", "SEMAPHORE_TIMEOUT",
+        "SEMAPHORE_QUEUED", "RATE_LIMITED"
+    };
+
+    /** 没有附加值的结果是不可变的，每个状态码只需要一个实例。*/
+    private static final LuaOperatorResult[] BARE_RESULTS
+        = new LuaOperatorResult[STATUS_NAMES.length];
+
+    static
+    {
+        for (int status = 0; status < BARE_RESULTS.length; ++status) {
+            BARE_RESULTS[status] = new LuaOperatorResult(status, List.of());
+        }
+    }
+
+    /** 状态码。*/
+    private final int status;
+
+    /** 脚本返回的原始数组（包括第一个元素的状态码）。*/
+    private final List<?> reply;
+
+    private LuaOperatorResult(int status, List<?> reply)
+    {
+        this.status = status;
+        this.reply  = reply;
+    }
+
+    /**
+     * 把脚本返回的 RESP 数组解析成 {@link LuaOperatorResult}。
+     *
+     * @param reply 脚本的执行结果（客户端解析成 {@link List}，元素为 {@link Long}）
+     *
+     * @throws LuaScriptOperatorFailed 脚本返回的不是预期的格式
+     */
+    public static @NotNull LuaOperatorResult
+    decode(Object reply)
+    {
+        if (!(reply instanceof List<?> values) || values.isEmpty()) {
+            throw new
+            LuaScriptOperatorFailed(
+                format("Unexpected lua script reply: %s", reply)
+            );
+        }
+
+        final int status = (int) toLong(values.get(0));
+
+        if (status < 0 || status >= STATUS_NAMES.length)
+        {
+            throw new
+            LuaScriptOperatorFailed(
+                format("Unknown lua script status code: %d", status)
+            );
+        }
+
+        return
+        (values.size() == 1)
+            ? BARE_RESULTS[status]
+            : new LuaOperatorResult(status, values);
+    }
+
+    /**
+     * 获取没有附加值的结果（比如批量脚本中单个调用者的状态码）。
+     *
+     * @throws LuaScriptOperatorFailed 未知的状态码
+     */
+    public static @NotNull LuaOperatorResult
+    of(int status)
+    {
+        if (status < 0 || status >= STATUS_NAMES.length)
+        {
+            throw new
+            LuaScriptOperatorFailed(
+                format("Unknown lua script status code: %d", status)
+            );
+        }
+
+        return BARE_RESULTS[status];
+    }
+
+    private static long
+    toLong(Object value)
+    {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+
+        throw new
+        LuaScriptOperatorFailed(
+            format("Unexpected lua script reply element: %s", value)
+        );
+    }
+
+    /** 获取状态码的名字，仅用于日志和异常信息。*/
+    @Contract(pure = true)
+    public static @NotNull String
+    statusName(int status)
+    {
+        return
+        (status >= 0 && status < STATUS_NAMES.length)
+            ? STATUS_NAMES[status]
+            : String.valueOf(status);
+    }
+
+    /** 获取状态码。*/
+    public int getStatus() { return this.status; }
+
+    /** 获取状态码的名字。*/
+    public @NotNull String getStatusName() { return statusName(this.status); }
+
+    /** 获取附加值的数量。*/
+    public int getValueCount() {
+        return Math.max(0, this.reply.size() - 1);
+    }
+
+    /**
+     * 获取第 index 个附加值（从 0 开始，不包括状态码）。
+     *
+     * @throws IndexOutOfBoundsException 没有这个附加值
+     */
+    public long
+    getValue(int index)
+    {
+        if (index < 0 || index >= this.getValueCount()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return
+        toLong(this.reply.get(index + 1));
+    }
+
+    /** 获取第 index 个附加值，没有则返回 defaultValue。*/
+    public long
+    getValueOrDefault(int index, long defaultValue)
+    {
+        return
+        (index >= 0 && index < this.getValueCount())
+            ? toLong(this.reply.get(index + 1))
+            : defaultValue;
+    }
+
+    @Override
+    public String toString()
+    {
+        return
+        (this.getValueCount() == 0)
+            ? this.getStatusName()
+            : this.getStatusName() + this.reply.subList(1, this.reply.size());
+    }
+}
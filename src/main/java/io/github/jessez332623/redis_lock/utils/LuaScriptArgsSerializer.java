@@ -0,0 +1,51 @@
+package io.github.jessez332623.redis_lock.utils;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 执行 Lua 脚本专用的参数序列化器。
+ *
+ * <p>
+ *     脚本的参数只有字符串（唯一标识符）和整数（各种毫秒级的时间、许可数），
+ *     这里直接把它们写成 Lua 中 <code>ARGV</code> 能直接使用的原始字节，
+ *     不再经过 JSON 编码（字符串也就不会多出一对双引号）。
+ * </p>
+ *
+ * <p>
+ *     脚本的返回值是 RESP 整数数组，由客户端直接解析成 {@link Long}，
+ *     不会经过本序列化器，见 {@link LuaOperatorResult#decode(Object)}。
+ * </p>
+ */
+public final class LuaScriptArgsSerializer implements RedisSerializer<Object>
+{
+    private static final byte[] EMPTY = new byte[0];
+
+    @Override
+    @Contract("null -> !null")
+    public byte @NotNull []
+    serialize(Object value)
+    {
+        return switch (value)
+        {
+            case null        -> EMPTY;
+            case byte[] bytes -> bytes;
+            case String str   -> str.getBytes(StandardCharsets.UTF_8);
+            case Long number  -> Long.toString(number).getBytes(StandardCharsets.US_ASCII);
+            default           -> value.toString().getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    @Override
+    public Object
+    deserialize(byte[] bytes)
+    {
+        return
+        (bytes == null)
+            ? null
+            : new String(bytes, StandardCharsets.UTF_8);
+    }
+}
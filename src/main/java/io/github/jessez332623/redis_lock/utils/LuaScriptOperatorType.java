@@ -6,7 +6,10 @@ import lombok.Getter;
 public enum LuaScriptOperatorType
 {
     DISTRIBUTE_LOCK("distributed-lock"),
-    FAIR_SEMAPHORE("fair-semaphore");
+    REENTRANT_LOCK("reentrant-lock"),
+    READ_WRITE_LOCK("read-write-lock"),
+    FAIR_SEMAPHORE("fair-semaphore"),
+    RATE_LIMITER("rate-limiter");
 
     @Getter
     final String typeName;
@@ -6,13 +6,17 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -28,16 +32,24 @@ final public class LuaScriptReader
     private static final String
     LUA_SCRIPT_CLASSPATH_PREFIX = "lua-script";
 
+    /**
+     * 所有脚本统一返回 { 状态码, 附加值... } 形式的整数数组（对应 EVAL 的 MULTI 返回类型），
+     * 客户端把它解析成元素为 {@link Long} 的 {@link List}，再由 {@link LuaOperatorResult#decode(Object)} 解析。
+     */
+    @SuppressWarnings("unchecked")
+    private static final Class<List<Object>>
+    SCRIPT_RESULT_TYPE = (Class<List<Object>>) (Class<?>) List.class;
+
     /** Lua 脚本缓存：operatorType -> (scriptName -> script) */
     private final ConcurrentMap<
         LuaScriptOperatorType,
-        ConcurrentMap<String, DefaultRedisScript<LuaOperatorResult>>>
+        ConcurrentMap<String, DefaultRedisScript<List<Object>>>>
         scriptCache = new ConcurrentHashMap<>();
 
     /** 从 classpath 中加载脚本。*/
     @Contract("_, _ -> new")
     private @NotNull
-    DefaultRedisScript<LuaOperatorResult>
+    DefaultRedisScript<List<Object>>
     loadFromClassPath(@NotNull LuaScriptOperatorType operatorType, String luaScriptName) throws IOException
     {
         // 拼接 Lua 脚本的 classpath，
@@ -64,12 +76,15 @@ final public class LuaScriptReader
                 = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
 
             return new
-            DefaultRedisScript<>(scriptContent, LuaOperatorResult.class);
+            NamedRedisScript<>(
+                operatorType.getTypeName() + "/" + luaScriptName,
+                scriptContent, SCRIPT_RESULT_TYPE
+            );
         }
     }
 
     /** 获取或者创建指定操作类型的脚本缓存。*/
-    private ConcurrentMap<String, DefaultRedisScript<LuaOperatorResult>>
+    private ConcurrentMap<String, DefaultRedisScript<List<Object>>>
     getOrCreateScriptCache(LuaScriptOperatorType scriptOperatorType)
     {
         return
@@ -80,47 +95,51 @@ final public class LuaScriptReader
     }
 
     /**
-     * 通过操作类型 + 脚本名尝试从缓存中获取指定的
-     * {@link DefaultRedisScript<LuaOperatorResult>}，没有则从 classpath 中加载然后缓存。
+     * 通过操作类型 + 脚本名从缓存中获取指定的
+     * {@link DefaultRedisScript}，没有则从 classpath 中加载然后缓存。
+     *
+     * <p>
+     *     各个实现类在构造时就调用本方法，把要用到的脚本保存在 final 字段中，
+     *     热路径上不再有任何查找和分配；这些脚本随后会由 {@link #preload(ReactiveRedisTemplate)}
+     *     在应用启动时预先加载到 Redis 中。
+     * </p>
      *
      * @param operatorType  Lua 脚本类型
      * @param luaScriptName Lua 脚本名
      *
-     * @return 由 {@link DefaultRedisScript} 包装的，
-     *         发布 Lua 脚本执行结果 {@link LuaOperatorResult} 的 {@link Mono}
+     * @return 由 {@link DefaultRedisScript} 包装的 Lua 脚本
+     *
+     * @throws LuaScriptOperatorFailed 脚本不存在或者读取失败
      */
-    private @NotNull Mono<DefaultRedisScript<LuaOperatorResult>>
-    getScriptFromCache(LuaScriptOperatorType operatorType, String luaScriptName)
+    public @NotNull DefaultRedisScript<List<Object>>
+    load(LuaScriptOperatorType operatorType, String luaScriptName)
     {
-        return
-        Mono.fromCallable(() -> {
-            ConcurrentMap<String, DefaultRedisScript<LuaOperatorResult>>
-                operatorCache = this.getOrCreateScriptCache(operatorType);
+        ConcurrentMap<String, DefaultRedisScript<List<Object>>>
+            operatorCache = this.getOrCreateScriptCache(operatorType);
 
-            // 调用 computeIfAbsent() 方法，
-            // 存在则直接返回，不存在执行 mappingFunction 缓存后再返回。
-            return
-            operatorCache.computeIfAbsent(
-                luaScriptName,
-                (scriptName) -> {
-                    try
-                    {
-                        return
-                        this.loadFromClassPath(operatorType, luaScriptName);
-                    }
-                    catch (IOException exception)
-                    {
-                        throw new
-                        LuaScriptOperatorFailed(
-                            format(
-                                "Load lua script %s failed! Caused by: %s",
-                                luaScriptName, exception.getMessage()),
-                            exception
-                        );
-                    }
+        // 调用 computeIfAbsent() 方法，
+        // 存在则直接返回，不存在执行 mappingFunction 缓存后再返回。
+        return
+        operatorCache.computeIfAbsent(
+            luaScriptName,
+            (scriptName) -> {
+                try
+                {
+                    return
+                    this.loadFromClassPath(operatorType, luaScriptName);
                 }
-            );
-        });
+                catch (IOException exception)
+                {
+                    throw new
+                    LuaScriptOperatorFailed(
+                        format(
+                            "Load lua script %s failed! Caused by: %s",
+                            luaScriptName, exception.getMessage()),
+                        exception
+                    );
+                }
+            }
+        );
     }
 
     /**
@@ -129,13 +148,52 @@ final public class LuaScriptReader
      * @param operatorType  Lua 脚本类型
      * @param luaScriptName Lua 脚本名
      *
-     * @return 由 {@link DefaultRedisScript} 包装的，
-     *         发布 Lua 脚本执行结果 {@link LuaOperatorResult} 的 {@link Mono}
+     * @return 发布由 {@link DefaultRedisScript} 包装的 Lua 脚本的 {@link Mono}，
+     *         脚本的执行结果需要由 {@link LuaOperatorResult#decode(Object)} 解析
      */
-    public @NotNull Mono<DefaultRedisScript<LuaOperatorResult>>
+    public @NotNull Mono<DefaultRedisScript<List<Object>>>
     read(LuaScriptOperatorType operatorType, String luaScriptName)
     {
         return
-        this.getScriptFromCache(operatorType, luaScriptName);
+        Mono.fromCallable(() -> this.load(operatorType, luaScriptName));
+    }
+
+    /**
+     * 对所有已经加载过的脚本执行 SCRIPT LOAD，让它们在第一次使用前就缓存在 Redis 中。
+     *
+     * <p>
+     *     脚本总是通过 EVALSHA 执行，Redis 故障转移或者执行了 SCRIPT FLUSH 后
+     *     会回复 NOSCRIPT，此时 Spring 的脚本执行器会改用 EVAL 发送脚本内容（同时重新缓存脚本），
+     *     因此这里的预加载只是消除首次调用的冷启动开销，失败了也不影响正确性。
+     * </p>
+     *
+     * @param template 执行 Lua 脚本专用 Redis 模板
+     *
+     * @return 发布成功预加载的脚本数量的 {@link Mono}
+     */
+    public @NotNull Mono<Long>
+    preload(@NotNull ReactiveRedisTemplate<String, ?> template)
+    {
+        return
+        Flux.fromIterable(this.scriptCache.values())
+            .flatMapIterable(ConcurrentMap::values)
+            .concatMap((script) ->
+                template.execute((connection) ->
+                        connection.scriptingCommands()
+                                  .scriptLoad(
+                                      ByteBuffer.wrap(
+                                          script.getScriptAsString()
+                                                .getBytes(StandardCharsets.UTF_8))))
+                    .next()
+                    .doOnNext((sha1) -> {
+                        if (!sha1.equals(script.getSha1()))
+                        {
+                            log.warn(
+                                "Preloaded script SHA1 mismatch! (local = {}, redis = {})",
+                                script.getSha1(), sha1
+                            );
+                        }
+                    }))
+            .count();
     }
-}
\ No newline at end of file
+}
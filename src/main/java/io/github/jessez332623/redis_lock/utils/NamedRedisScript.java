@@ -0,0 +1,22 @@
+package io.github.jessez332623.redis_lock.utils;
+
+import lombok.Getter;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+/**
+ * 带有脚本名的 {@link DefaultRedisScript}，由 {@link LuaScriptReader} 创建，
+ * 脚本名（比如 <code>distributed-lock/acquireLock.lua</code>）用作脚本往返耗时指标的 script 标签，
+ * 这样在热路径上不需要再查找脚本对应的名字。
+ */
+public final class NamedRedisScript<T> extends DefaultRedisScript<T>
+{
+    /** 脚本名，格式：{operator-type}/{script-name.lua} */
+    @Getter
+    private final String scriptName;
+
+    NamedRedisScript(String scriptName, String scriptText, Class<T> resultType)
+    {
+        super(scriptText, resultType);
+        this.scriptName = scriptName;
+    }
+}
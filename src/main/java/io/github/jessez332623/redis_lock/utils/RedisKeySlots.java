@@ -0,0 +1,103 @@
+package io.github.jessez332623.redis_lock.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * <p>Redis 键哈希槽相关的工具类。</p>
+ *
+ * <p>
+ *     多键 Lua 脚本在 Redis 集群中要求所有的键位于同一个哈希槽，
+ *     因此批量操作需要先按哈希槽对键分组，每一组执行一次脚本；
+ *     非集群模式下则没有这个限制，所有的键可以放在同一组。
+ * </p>
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final public class RedisKeySlots
+{
+    /** 计算键所在的哈希槽（会正确处理 {} 哈希标签）。*/
+    public static int
+    slotOf(@NotNull String key) {
+        return ClusterSlotHashUtil.calculateSlot(key);
+    }
+
+    /**
+     * 按哈希槽对 items 分组，组之间按哈希槽升序排列，组内保持 items 原有的顺序。
+     *
+     * @param <T> 元素类型
+     *
+     * @param items       要分组的元素
+     * @param keyMapper   从元素中取出 Redis 键的方法
+     * @param clusterMode 是否为集群模式（非集群模式下所有元素放在同一组）
+     *
+     * @return 分组结果
+     */
+    public static <T> @NotNull List<List<T>>
+    groupBySlot(
+        @NotNull Collection<T> items,
+        Function<T, String> keyMapper, boolean clusterMode)
+    {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        if (!clusterMode) {
+            return List.of(new ArrayList<>(items));
+        }
+
+        final Map<Integer, List<T>> groups = new TreeMap<>();
+
+        for (T item : items)
+        {
+            groups.computeIfAbsent(
+                slotOf(keyMapper.apply(item)),
+                (slot) -> new ArrayList<>()
+            ).add(item);
+        }
+
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * 和 {@link io.github.jessez332623.redis_lock.error_handle.RedisLockErrorHandle} 中的做法一样，
+     * 为了不在编译期依赖 Lettuce，这里用反射调用连接工厂的 isClusterAware() 方法，
+     * 判断用户配置的是不是 Redis 集群，没有这个方法的连接工厂一律视为非集群模式。
+     *
+     * @param factory 用户配置的响应式 Redis 连接工厂
+     *
+     * @return 是否为 Redis 集群模式？
+     */
+    public static boolean
+    isClusterAware(@NotNull ReactiveRedisConnectionFactory factory)
+    {
+        try
+        {
+            Method isClusterAware
+                = factory.getClass().getMethod("isClusterAware");
+
+            return Boolean.TRUE.equals(isClusterAware.invoke(factory));
+        }
+        catch (ReflectiveOperationException exception)
+        {
+            log.debug(
+                "Connection factory {} has no isClusterAware(), treat as non-cluster.",
+                factory.getClass().getName()
+            );
+
+            return false;
+        }
+    }
+}
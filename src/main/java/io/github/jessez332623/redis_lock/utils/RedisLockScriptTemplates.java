@@ -0,0 +1,51 @@
+package io.github.jessez332623.redis_lock.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * 创建执行 Lua 脚本专用的 Redis 模板，
+ * 自动装配的 redisLockScriptTemplate 和需要连接多个 Redis 节点的实现（比如仲裁锁）共用同一套序列化配置。
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final public class RedisLockScriptTemplates
+{
+    /**
+     * 为一个连接工厂创建执行 Lua 脚本专用的 Redis 模板。
+     *
+     * @param factory Redis 连接工厂
+     *
+     * @return 键为字符串、脚本参数直接写成原始字节、返回值由 {@link LuaOperatorResult} 解析的模板
+     */
+    @Contract("_ -> new")
+    public static @NotNull ReactiveRedisTemplate<String, LuaOperatorResult>
+    create(ReactiveRedisConnectionFactory factory)
+    {
+        RedisSerializer<String> keySerializer = new StringRedisSerializer();
+
+        // 脚本参数直接写成原始字节，返回的整数数组由 LuaOperatorResult 解析，
+        // 值类型参数保留为 LuaOperatorResult，以兼容按类型注入本模板的使用者
+        @SuppressWarnings("unchecked")
+        RedisSerializer<LuaOperatorResult> valueSerializer
+            = (RedisSerializer<LuaOperatorResult>)
+              (RedisSerializer<?>) new LuaScriptArgsSerializer();
+
+        RedisSerializationContext<String, LuaOperatorResult> context
+            = RedisSerializationContext.<String, LuaOperatorResult>
+                newSerializationContext(keySerializer)
+            .value(valueSerializer)
+            .hashKey(keySerializer)
+            .hashValue(valueSerializer)
+            .build();
+
+        return new
+        ReactiveRedisTemplate<>(factory, context);
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.jessez332623.redis_lock.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static io.github.jessez332623.redis_lock.utils.LuaOperatorResult.SUCCESS;
+import static java.lang.String.format;
+
+/**
+ * <p>释放操作的微批处理器，把同一时间段内发出的多个释放操作合并成一次多键脚本调用。</p>
+ *
+ * <p>
+ *     合并的窗口随负载自适应：正在执行的批次少于 maxInFlight 个时，释放操作立即发出，
+ *     低负载下的调用者不会多等任何时间；批次数已满时，新的释放操作在队列中等待，
+ *     任何一个批次完成时再把队列中积累的释放操作（最多 maxBatchSize 个）一次性发出，
+ *     所以窗口就是上一批的往返时间，负载越高每批合并的释放操作越多；
+ *     队列中积累满 maxBatchSize 个时不再等待，立即发出一批。
+ * </p>
+ *
+ * <p>
+ *     集群模式下每一批再按哈希槽分组，每组执行一次批量脚本，各组并行执行。
+ *     批量脚本返回 { SUCCESS, 第 1 个释放的状态码, 第 2 个释放的状态码, ... }，
+ *     每个状态码原样交还给对应的调用者，调用者的处理（包括故障统计）和单独释放时完全相同。
+ * </p>
+ *
+ * @param <E> 一个释放操作的参数
+ */
+@Slf4j
+public final class ReleaseBatcher<E>
+{
+    /**
+     * 批处理参数。
+     *
+     * @param maxBatchSize 一次批量脚本最多携带的释放操作数量
+     * @param maxInFlight  同时执行的批次数，达到后新的释放操作开始排队合并
+     */
+    public record Policy(int maxBatchSize, int maxInFlight)
+    {
+        public Policy
+        {
+            if (maxBatchSize <= 0 || maxInFlight <= 0)
+            {
+                throw new
+                IllegalArgumentException(
+                    format(
+                        "Max batch size and max in flight must be positive! " +
+                        "(maxBatchSize = %d, maxInFlight = %d)", maxBatchSize, maxInFlight
+                    )
+                );
+            }
+        }
+    }
+
+    /** 等待发出的一个释放操作。*/
+    private record Pending<E>(E entry, MonoSink<LuaOperatorResult> sink) {}
+
+    private final Policy policy;
+
+    /** 从释放操作中取出用于计算哈希槽的键。*/
+    private final Function<E, String> keyMapper;
+
+    /** 用一次批量脚本执行同一个哈希槽内的一组释放操作。*/
+    private final Function<List<E>, Mono<LuaOperatorResult>> batchExecutor;
+
+    /** 是否为 Redis 集群模式（决定每一批是否需要按哈希槽分组）。*/
+    private final boolean clusterMode;
+
+    private final Queue<Pending<E>> queue = new ConcurrentLinkedQueue<>();
+
+    /** 队列中的释放操作数量（ConcurrentLinkedQueue 的 size() 需要遍历整个队列）。*/
+    private final AtomicInteger queued = new AtomicInteger(0);
+
+    /** 正在执行的批次数。*/
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    public ReleaseBatcher(
+        Policy policy,
+        Function<E, String> keyMapper,
+        Function<List<E>, Mono<LuaOperatorResult>> batchExecutor,
+        boolean clusterMode
+    )
+    {
+        this.policy        = policy;
+        this.keyMapper     = keyMapper;
+        this.batchExecutor = batchExecutor;
+        this.clusterMode   = clusterMode;
+    }
+
+    /**
+     * 提交一个释放操作。
+     *
+     * @param entry 释放操作的参数
+     *
+     * @return 发布这个释放操作自己的脚本执行结果的 Mono
+     */
+    public @NotNull Mono<LuaOperatorResult>
+    submit(E entry)
+    {
+        return
+        Mono.create((sink) -> {
+            this.queue.offer(new Pending<>(entry, sink));
+            this.queued.incrementAndGet();
+            this.drain();
+        });
+    }
+
+    /** 按照批处理参数发出队列中的释放操作。*/
+    private void drain()
+    {
+        while (this.queued.get() > 0)
+        {
+            final int current = this.inFlight.get();
+
+            // 批次数已满且队列还没积满一批时不发出，由正在执行的批次完成时再发出
+            if (current >= this.policy.maxInFlight()
+                && this.queued.get() < this.policy.maxBatchSize()) {
+                return;
+            }
+
+            if (!this.inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            final List<Pending<E>> batch = this.poll();
+
+            if (batch.isEmpty())
+            {
+                // 队列被别的线程取空了
+                this.inFlight.decrementAndGet();
+                continue;
+            }
+
+            this.flush(batch)
+                .doFinally((signal) -> {
+                    this.inFlight.decrementAndGet();
+                    this.drain();
+                })
+                .subscribe();
+        }
+    }
+
+    /** 从队列中取出最多 maxBatchSize 个释放操作。*/
+    private @NotNull List<Pending<E>>
+    poll()
+    {
+        final List<Pending<E>> batch = new ArrayList<>();
+
+        while (batch.size() < this.policy.maxBatchSize())
+        {
+            final Pending<E> pending = this.queue.poll();
+
+            if (Objects.isNull(pending)) {
+                break;
+            }
+
+            this.queued.decrementAndGet();
+            batch.add(pending);
+        }
+
+        return batch;
+    }
+
+    /** 发出一批释放操作（集群模式下按哈希槽分组并行执行）。*/
+    private @NotNull Mono<Void>
+    flush(@NotNull List<Pending<E>> batch)
+    {
+        return
+        Flux.fromIterable(
+                RedisKeySlots.groupBySlot(
+                    batch, (pending) -> this.keyMapper.apply(pending.entry()), this.clusterMode))
+            .flatMap(this::flushGroup)
+            .then();
+    }
+
+    /** 用一次批量脚本执行同一个哈希槽内的一组释放操作，并把每个状态码交还给对应的调用者。*/
+    private @NotNull Mono<Void>
+    flushGroup(@NotNull List<Pending<E>> group)
+    {
+        // 已经交还结果的调用者数量（出错时只通知剩下的调用者，重复通知会被当作丢弃的错误记录下来）
+        final AtomicInteger delivered = new AtomicInteger(0);
+
+        return
+        Mono.defer(() ->
+                this.batchExecutor.apply(
+                    group.stream().map(Pending::entry).toList()))
+            .doOnSuccess((result) -> {
+                if (Objects.isNull(result)
+                    || result.getStatus() != SUCCESS
+                    || result.getValueCount() != group.size()) {
+                    throw new IllegalStateException("Unexpected value: " + result);
+                }
+
+                for (int index = 0; index < group.size(); ++index)
+                {
+                    final LuaOperatorResult status
+                        = LuaOperatorResult.of((int) result.getValue(index));
+
+                    delivered.incrementAndGet();
+                    group.get(index).sink().success(status);
+                }
+            })
+            .doOnError((exception) -> {
+                log.debug(
+                    "Release {} operation(s) in one batch failed! Caused by: {}",
+                    group.size(), exception.getMessage()
+                );
+
+                group.subList(delivered.get(), group.size())
+                     .forEach((pending) -> pending.sink().error(exception));
+            })
+            .onErrorResume((exception) -> Mono.empty())
+            .then();
+    }
+}
@@ -12,11 +12,6 @@ module redis_lock
     requires spring.data.redis;
     requires spring.data.commons;
 
-    // Jackson 相关依赖
-    requires com.fasterxml.jackson.core;
-    requires com.fasterxml.jackson.databind;
-    requires com.fasterxml.jackson.annotation;
-
     // Reactor 响应式编程
     requires transitive reactor.core;
     requires org.reactivestreams;
@@ -25,13 +20,29 @@ module redis_lock
     requires static lombok;
     requires static org.jetbrains.annotations;
 
+    // Micrometer 指标（可选依赖，类路径上存在时才注册指标）
+    requires static micrometer.core;
+
+    // Actuator 端点（可选依赖，类路径上存在时才注册热点锁名端点）
+    requires static spring.boot.actuator;
+
     // 日志
     requires transitive org.slf4j;
 
     // 导出公共 API 包
     exports io.github.jessez332623.redis_lock.autoconfigure;
+    exports io.github.jessez332623.redis_lock.circuit_breaker;
+    exports io.github.jessez332623.redis_lock.circuit_breaker.exception;
     exports io.github.jessez332623.redis_lock.distributed_lock;
+    exports io.github.jessez332623.redis_lock.distributed_lock.strategy;
+    exports io.github.jessez332623.redis_lock.distributed_lock.watchdog;
+    exports io.github.jessez332623.redis_lock.distributed_lock.exception;
     exports io.github.jessez332623.redis_lock.fair_semaphore;
+    exports io.github.jessez332623.redis_lock.fair_semaphore.refresher;
+    exports io.github.jessez332623.redis_lock.rate_limiter;
+    exports io.github.jessez332623.redis_lock.rate_limiter.exception;
+    exports io.github.jessez332623.redis_lock.statistics;
+    exports io.github.jessez332623.redis_lock.statistics.impl;
     exports io.github.jessez332623.redis_lock.utils;
 
     // 开放包给 Spring 反射
@@ -41,4 +52,6 @@ module redis_lock
         to spring.core, spring.beans, spring.context;
     opens io.github.jessez332623.redis_lock.fair_semaphore.impl
         to spring.core, spring.beans, spring.context;
+    opens io.github.jessez332623.redis_lock.rate_limiter.impl
+        to spring.core, spring.beans, spring.context;
 }
\ No newline at end of file
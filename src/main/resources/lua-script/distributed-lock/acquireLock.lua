@@ -0,0 +1,49 @@
+--[[
+    尝试获取一个分布式锁（只尝试一次，不在服务端循环等待）。
+
+    KEYS:
+        lockKeyName 分布式锁键
+        fencingKey  （可选）锁的栅栏令牌计数器键，提供时每次成功获取锁都会发放一个单调递增的令牌
+
+    ARGV:
+        identifier  本锁的唯一标识符
+        lockTimeout 锁本身的持有时间限制（毫秒级）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_OCCUPIED = 0, 1
+
+local lockKeyName = KEYS[1]
+local fencingKey  = KEYS[2]
+
+local identifier  = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+
+-- 尝试设置值
+--（NX 选项表示只有 lockKeyName 不存在时能设置成功，PX 选项设置锁的有效期为多少毫秒）
+-- 注意：SET NX 失败时返回的 Nil 回复在 Lua 中会被转换成 false 而不是 nil
+if
+    redis.call('SET', lockKeyName, identifier, 'NX', 'PX', lockTimeout)
+then
+    if
+        fencingKey
+    then
+        -- 计数器永不过期，否则令牌会回退
+        return { SUCCESS, redis.call('INCR', fencingKey) }
+    end
+
+    return { SUCCESS }
+end
+
+-- 设置值不成功，返回这个锁剩余的 TTL，让客户端决定最多等待多久
+local ttl = redis.call('PTTL', lockKeyName)
+
+if
+    ttl == -1
+then
+    -- 锁存在但是没有设置 TTL，补上避免永续锁
+    redis.call('PEXPIRE', lockKeyName, lockTimeout)
+    ttl = lockTimeout
+end
+
+return { LOCK_OCCUPIED, ttl }
@@ -3,6 +3,7 @@
 
     KEYS:
         lockKeyName 分布式锁键
+        fencingKey  （可选）锁的栅栏令牌计数器键，提供时每次成功获取锁都会发放一个单调递增的令牌
 
     ARGV:
         identifier      本锁的唯一标识符
@@ -10,13 +11,18 @@
         lockTimeout     锁本身的持有时间限制（毫秒级）
 ]]
 
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, GET_LOCK_TIMEOUT = 0, 2
+
 --[[
     由于脚本中出现了 TIME 这样的非确定命令，
     因此这里需要调用 redis.replicate_commands() 显式的开启单命令模式。
 ]]
-redis.replicate_commands()
+-- Redis 7.0 起单命令复制是唯一的模式，这个函数已经废弃（部分兼容实现中不存在）
+if redis.replicate_commands then redis.replicate_commands() end
 
 local lockKeyName = KEYS[1]
+local fencingKey  = KEYS[2]
 
 local identifier = ARGV[1]
 local acquireTimeout = tonumber(ARGV[2])
@@ -30,6 +36,17 @@ local function getCurrentMillis()
     return tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
 end
 
+-- 获取锁成功，需要栅栏令牌时顺便发放（计数器永不过期，否则令牌会回退）
+local function acquireSuccess()
+    if
+        fencingKey
+    then
+        return { SUCCESS, redis.call('INCR', fencingKey) }
+    end
+
+    return { SUCCESS }
+end
+
 local now = getCurrentMillis()
 local acquireEnd = now + acquireTimeout
 
@@ -41,12 +58,14 @@ do
     -- 尝试设置值
     --（NX （Not Exist）选项表示只有 lockKeyName 不存在时能设置成功）
     --（PX （Expire）选项设置这个锁的有效期为多少毫秒）
+    -- 注意：SET NX 失败时返回的 Nil 回复在 Lua 中会被转换成 false 而不是 nil，
+    -- 所以这里不能写成 ~= nil，否则无论锁是否被占用都会判定为获取成功
     redis.call(
             'SET', lockKeyName, identifier,
             'NX', 'PX', lockTimeout
-    ) ~= nil
+    )
     then
-        return '{"result": "SUCCESS"}'
+        return acquireSuccess()
     end
 
     -- 若干设置值不成功，检查这个锁的 TTL
@@ -65,7 +84,7 @@ do
             then
                 -- 如果是自己的锁，要续期
                 redis.call('PEXPIRE', lockKeyName, lockTimeout)
-                return '{"result": "SUCCESS"}'
+                return acquireSuccess()
             end
         end
     end
@@ -83,4 +102,4 @@ do
 end
 
 -- 若在指定时间内没有拿到锁，则为获取锁超时
-return '{"result": "GET_LOCK_TIMEOUT"}'
\ No newline at end of file
+return { GET_LOCK_TIMEOUT }
\ No newline at end of file
@@ -0,0 +1,56 @@
+--[[
+    尝试一次性获取多个分布式锁（全部获取或者全部不获取，只尝试一次）。
+    在 Redis 集群中，KEYS 中所有的键必须位于同一个哈希槽。
+
+    KEYS:
+        lockKeyName1, lockKeyName2, ... 要获取的分布式锁键
+
+    ARGV:
+        identifier  所有锁共用的唯一标识符
+        lockTimeout 锁本身的持有时间限制（毫秒级）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_OCCUPIED = 0, 1
+
+local identifier  = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+
+-- 先检查所有的锁，只要有一个锁被占用就一个都不获取
+local occupied = false
+local maxTtl   = -1
+
+for _, lockKeyName in ipairs(KEYS)
+do
+    if
+        redis.call('EXISTS', lockKeyName) == 1
+    then
+        occupied = true
+
+        local ttl = redis.call('PTTL', lockKeyName)
+
+        if
+            ttl == -1
+        then
+            -- 和 acquireLock.lua 一样，锁存在但是没有设置 TTL，补上避免永续锁
+            redis.call('PEXPIRE', lockKeyName, lockTimeout)
+            ttl = lockTimeout
+        end
+
+        -- 要等到所有被占用的锁都释放才有机会成功，所以返回其中最长的剩余有效期
+        maxTtl = math.max(maxTtl, ttl)
+    end
+end
+
+if
+    occupied
+then
+    return { LOCK_OCCUPIED, maxTtl }
+end
+
+for _, lockKeyName in ipairs(KEYS)
+do
+    redis.call('SET', lockKeyName, identifier, 'PX', lockTimeout)
+end
+
+return { SUCCESS }
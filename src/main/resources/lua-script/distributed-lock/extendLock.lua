@@ -0,0 +1,34 @@
+--[[
+    为自己持有的分布式锁续期（重新设置锁的有效期）。
+
+    KEYS:
+        lockKeyName 分布式锁键
+
+    ARGV:
+        identifier  锁的唯一标识符
+        lockTimeout 续期后锁的有效期（毫秒级）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 4, 5
+
+local lockKeyName = KEYS[1]
+
+local identifier  = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+
+if
+    redis.call('GET', lockKeyName) == identifier
+then
+    redis.call('PEXPIRE', lockKeyName, lockTimeout)
+    return { SUCCESS }
+end
+
+-- 和 releaseLock.lua 一样，区分锁不存在和锁被别人持有两种情况
+if
+    redis.call('EXISTS', lockKeyName) == 0
+then
+    return { LOCK_NOT_EXIST }
+else
+    return { LOCK_OWNED_BY_OTHERS }
+end
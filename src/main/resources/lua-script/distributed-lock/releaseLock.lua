@@ -8,23 +8,33 @@
         identifier 锁的唯一标识符
 ]]
 
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, CONCURRENT_RELEASE, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 3, 4, 5
+
 local lockKeyName = KEYS[1]
 local identifier  = ARGV[1]
 
+-- 锁的释放频道（释放成功后向该频道发布消息，唤醒等待者），
+-- 和客户端 getRedisLockChannel() 的命名保持一致
+local releaseChannel = lockKeyName .. ':release'
+
 -- 获取 Redis 中锁的唯一标识并比较
 if
     redis.call('GET', lockKeyName) == identifier
 then
     -- 如果是自己的锁直接返回
     if redis.call('DEL', lockKeyName) == 1 then
-        return '{"result": "SUCCESS"}'
+        -- 通知订阅了这个锁释放频道的等待者（没有订阅者时开销可以忽略）
+        redis.call('PUBLISH', releaseChannel, identifier)
+
+        return { SUCCESS }
     else
         -- 这里有一个非常罕见的情况：
         -- 若两个客户端同时发出 releaseLock() 操作，
         -- 则两个客户端都会认为自己是锁的持有者，
         -- 在先后执行 DEL 操作时就会多出一次无意义的删除操作
         -- 无害但是值得记录
-        return '{"result": "CONCURRENT_RELEASE"}'
+        return { CONCURRENT_RELEASE }
     end
 else
     -- 对于唯一标识符对不上的情况，要去 Redis 检查这个 Key 是否存在
@@ -32,8 +42,8 @@ else
     if
         redis.call('EXISTS', lockKeyName) == 0
     then
-        return '{"result": "LOCK_NOT_EXIST"}'
+        return { LOCK_NOT_EXIST }
     else
-        return '{"result" : "LOCK_OWNED_BY_OTHERS"}'
+        return { LOCK_OWNED_BY_OTHERS }
     end
-end
\ No newline at end of file
+end
@@ -0,0 +1,48 @@
+--[[
+    一次性释放多个调用者各自的分布式锁（释放操作的微批处理，见 ReleaseBatcher）。
+    在 Redis 集群中，KEYS 中所有的键必须位于同一个哈希槽。
+
+    KEYS:
+        lockKeyName1, lockKeyName2, ... 要释放的分布式锁键
+
+    ARGV:
+        identifier1, identifier2, ... 和 KEYS 一一对应的锁的唯一标识符
+
+    返回：
+        { SUCCESS, 第 1 个锁的释放状态码, 第 2 个锁的释放状态码, ... }，
+        每个状态码和单独执行 releaseLock.lua 时的状态码相同
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, CONCURRENT_RELEASE, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 3, 4, 5
+
+-- 和 releaseLock.lua 的判断完全相同，只是返回状态码而不是数组
+local function releaseLock(lockKeyName, identifier)
+    if
+        redis.call('GET', lockKeyName) == identifier
+    then
+        if redis.call('DEL', lockKeyName) == 1 then
+            -- 通知订阅了这个锁释放频道的等待者
+            redis.call('PUBLISH', lockKeyName .. ':release', identifier)
+
+            return SUCCESS
+        else
+            return CONCURRENT_RELEASE
+        end
+    elseif
+        redis.call('EXISTS', lockKeyName) == 0
+    then
+        return LOCK_NOT_EXIST
+    else
+        return LOCK_OWNED_BY_OTHERS
+    end
+end
+
+local statuses = { SUCCESS }
+
+for index, lockKeyName in ipairs(KEYS)
+do
+    statuses[index + 1] = releaseLock(lockKeyName, ARGV[index])
+end
+
+return statuses
@@ -0,0 +1,48 @@
+--[[
+    一次性释放多个分布式锁。
+    在 Redis 集群中，KEYS 中所有的键必须位于同一个哈希槽。
+
+    KEYS:
+        lockKeyName1, lockKeyName2, ... 要释放的分布式锁键
+
+    ARGV:
+        identifier 所有锁共用的唯一标识符
+
+    返回：
+        释放失败的每个锁依次附加两个值：锁在 KEYS 中的下标（从 1 开始）和失败的状态码，
+        状态码为 LOCK_NOT_EXIST（锁已过期）或者 LOCK_OWNED_BY_OTHERS（锁过期后被别人获取），
+        没有附加值时说明全部释放成功
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 4, 5
+
+local identifier = ARGV[1]
+
+-- 第一个元素是状态码，之后是失败的锁在 KEYS 中的下标和失败的状态码
+local lost = { SUCCESS }
+
+for index, lockKeyName in ipairs(KEYS)
+do
+    if
+        redis.call('GET', lockKeyName) == identifier
+    then
+        redis.call('DEL', lockKeyName)
+
+        -- 和 releaseLock.lua 一样，通知订阅了这个锁释放频道的等待者
+        redis.call('PUBLISH', lockKeyName .. ':release', identifier)
+    else
+        table.insert(lost, index)
+
+        -- 和 releaseLock.lua 一样区分锁已经过期和锁被别人持有
+        if
+            redis.call('EXISTS', lockKeyName) == 0
+        then
+            table.insert(lost, LOCK_NOT_EXIST)
+        else
+            table.insert(lost, LOCK_OWNED_BY_OTHERS)
+        end
+    end
+end
+
+return lost
@@ -0,0 +1,72 @@
+--[[
+    看门狗批量续期分布式锁（一次调用续期多个锁）。
+
+    KEYS:
+        lockKeyName1, lockKeyName2, ... 要续期的分布式锁键
+
+    ARGV:
+        identifier1, leaseTime1, identifier2, leaseTime2, ...
+        每个锁键对应的唯一标识符和续期后的有效期（毫秒级）
+
+    返回：
+        续期失败（锁已过期或者被别人持有）的锁在 KEYS 中的下标（从 1 开始）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS = 0
+
+-- 读锁的续期需要用到 TIME 这样的非确定命令
+-- Redis 7.0 起单命令复制是唯一的模式，这个函数已经废弃（部分兼容实现中不存在）
+if redis.replicate_commands then redis.replicate_commands() end
+
+local now = nil
+
+local function getCurrentMillis()
+    if now == nil then
+        local time = redis.call('TIME')
+
+        now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+    end
+
+    return now
+end
+
+-- 第一个元素是状态码，之后是失败的锁在 KEYS 中的下标
+local lost = { SUCCESS }
+
+for index, lockKeyName in ipairs(KEYS)
+do
+    local identifier = ARGV[index * 2 - 1]
+    local leaseTime  = tonumber(ARGV[index * 2])
+
+    -- 普通锁（以及写锁）是字符串，可重入锁是以持有者为字段的哈希，
+    -- 读锁是以读者为成员、租约到期时间为分数的有序集合，
+    -- 所有锁都只有仍然是自己的锁时才续期
+    local keyType = redis.call('TYPE', lockKeyName).ok
+
+    local isOwner
+        = (keyType == 'string' and redis.call('GET', lockKeyName) == identifier) or
+          (keyType == 'hash'   and redis.call('HEXISTS', lockKeyName, identifier) == 1) or
+          (keyType == 'zset'   and redis.call('ZSCORE', lockKeyName, identifier) ~= false)
+
+    if
+        isOwner and keyType == 'zset'
+    then
+        -- 读者的租约记录在分数上，集合本身的过期时间只需不短于任何一个读者的租约
+        redis.call('ZADD', lockKeyName, 'XX', getCurrentMillis() + leaseTime, identifier)
+
+        if
+            redis.call('PTTL', lockKeyName) < leaseTime
+        then
+            redis.call('PEXPIRE', lockKeyName, leaseTime)
+        end
+    elseif
+        isOwner
+    then
+        redis.call('PEXPIRE', lockKeyName, leaseTime)
+    else
+        table.insert(lost, index)
+    end
+end
+
+return lost
@@ -5,27 +5,67 @@
         semaphoreNameKey       以时间戳为排名依据的信号量有序集合键
         semaphoreOwnerKey      以计数值为排名依据的信号量有序集合键
         semaphoreCounterKey    信号量计数器键
+        waitersKey             （可选）以排队号为排名依据的等待者有序集合键
+        waitersDeadlineKey     （可选）以等待期限为排名依据的等待者有序集合键
 
     ARGV:
         maxSemaphore     最大信号量值
         semaphoreTimeout 单个信号量的有效期（毫秒级）
         identifier       信号量唯一标识符（如：a7f40257-f46d-4715-8bc2-b3cef6dd5c93）
+        acquireWait      （可选）资源繁忙时愿意排队等待的时间（毫秒级），为 0 或缺省时不排队
+        permits          （可选）一次获取的信号量数量（权重），缺省时为 1
+
+    一次获取多个信号量时，每个信号量都是有序集合中的一个成员（identifier#1 ~ identifier#N），
+    它们在同一次脚本调用中一起加入、一起检查排名，要么全部获取成功，要么全部清理掉；
+    获取一个信号量时成员就是 identifier 本身，和早先的版本保持一致。
+
+    传入等待者的两个键时，获取操作不会越过排在前面的等待者（公平性在等待期间同样成立）；
+    acquireWait 大于 0 时，获取失败的调用者会进入等待队列，
+    之后由 releaseFairSemaphore.lua 按排队顺序把释放出来的信号量直接转交给它。
 ]]
 
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, ACQUIRE_SEMAPHORE_FAILED, SEMAPHORE_QUEUED = 0, 6, 9
+
 --[[
     由于脚本中出现了 TIME 这样的非确定命令，
     因此这里需要调用 redis.replicate_commands() 显式的开启单命令模式，
     以约 30% 的性能下降换绝对的一致。
 ]]
-redis.replicate_commands()
+-- Redis 7.0 起单命令复制是唯一的模式，这个函数已经废弃（部分兼容实现中不存在）
+if redis.replicate_commands then redis.replicate_commands() end
 
 local semaphoreNameKey      = KEYS[1]
 local semaphoreOwnerKey     = KEYS[2]
 local semaphoreCounterKey   = KEYS[3]
+local waitersKey            = KEYS[4]
+local waitersDeadlineKey    = KEYS[5]
 
 local maxSemaphore     = tonumber(ARGV[1])
 local semaphoreTimeout = tonumber(ARGV[2])
 local identifier       = ARGV[3]
+local acquireWait      = tonumber(ARGV[4] or '0')
+local permits          = tonumber(ARGV[5] or '1')
+
+-- 调用者持有的信号量成员（见脚本开头的说明）
+local permitMembers = {}
+
+if permits == 1 then
+    permitMembers[1] = identifier
+else
+    for index = 1, permits do
+        permitMembers[index] = identifier .. '#' .. index
+    end
+end
+
+-- 调用者在等待队列中的成员，需要多个信号量时带上数量（identifier#N），
+-- 释放操作按这个数量把信号量转交给它
+local waiterMember = (permits == 1) and identifier or (identifier .. '#' .. permits)
+
+-- 等待队列成员需要的信号量数量
+local function permitsOf(member)
+    return tonumber(string.match(member, '#(%d+)$') or '1')
+end
 
 local function getCurrentMillis()
     local time = redis.call('TIME')
@@ -35,18 +75,37 @@ end
 
 local scoreOfTimestamp = getCurrentMillis()
 
--- 删除那些超时的信号量
+-- 每次调用 ZREM、ZADD 最多传入的成员数（避免 unpack() 超出 Lua 栈的大小限制）
+local REMOVE_BATCH = 1000
+
+-- 从两个有序集合中删除一批成员
+local function removeMembers(firstKey, secondKey, members)
+    for index = 1, #members, REMOVE_BATCH do
+        local batch
+            = { unpack(members, index, math.min(index + REMOVE_BATCH - 1, #members)) }
+
+        redis.call('ZREM', firstKey, unpack(batch))
+        redis.call('ZREM', secondKey, unpack(batch))
+    end
+end
+
+-- 把一批成员加入有序集合，第 index 个成员的分数为 scoreOf(index)
+local function addMembers(key, members, scoreOf)
+    for index = 1, #members, REMOVE_BATCH do
+        local arguments = {}
+
+        for offset = index, math.min(index + REMOVE_BATCH - 1, #members) do
+            table.insert(arguments, scoreOf(offset))
+            table.insert(arguments, members[offset])
+        end
+
+        redis.call('ZADD', key, unpack(arguments))
+    end
+end
+
+-- 找出那些超时的信号量
 --（有序集合中分数值为距离当前时间 semaphoreTimeout 毫秒前的所有成员）
-redis.call(
-    'ZREMRANGEBYSCORE',
-    semaphoreNameKey,
-    '-inf',
-    scoreOfTimestamp - semaphoreTimeout
-)
-
--- 计算 semaphoreOwnerKey 和 semaphoreNameKey 两个有序集合的交集
--- 把计算结果保存到 semaphoreOwnerKey 中，
--- 但是要保留 semaphoreOwnerKey 有序集合的计数 ('WEIGHTS', 1, 0)
+-- 并把它们同时从 semaphoreNameKey 和 semaphoreOwnerKey 中删除
 --[[
     这里有一个要点：
     为何要多维护一个 semaphoreOwnerKey 和 semaphoreCounterKey 呢？
@@ -57,36 +116,145 @@ redis.call(
             则 B 在获取信号量的过程中就会错误的删除属于 A 的最后一个信号量，
             导致系统 A 释放信号量失败。
     ）
+    排名以 semaphoreOwnerKey 中的计数值为准，和各客户端的系统时间无关。
+
+    早先的实现在这里对两个有序集合执行 ZINTERSTORE，
+    代价是 O(N log N)（N 为当前持有者数量）且每次都要重写整个 semaphoreOwnerKey；
+    现在只删除超时的成员，代价是 O(log N + M)（M 为本次超时的成员数量），
+    两个有序集合的成员始终一致（获取、释放、获取失败的清理都同时操作两者）。
 ]]
-redis.call(
-    'ZINTERSTORE',
-    semaphoreOwnerKey,
-    2,
-    semaphoreOwnerKey, semaphoreNameKey,
-    'WEIGHTS', 1, 0
-)
-
--- 计数器自增 1
+local expiredMembers
+    = redis.call(
+        'ZRANGEBYSCORE',
+        semaphoreNameKey,
+        '-inf',
+        scoreOfTimestamp - semaphoreTimeout
+    )
+
+if #expiredMembers > 0 then
+    removeMembers(semaphoreNameKey, semaphoreOwnerKey, expiredMembers)
+end
+
+-- 获取失败时的处理：需要等待的调用者进入等待队列，反之直接返回获取失败
+local function busy()
+    if not waitersKey or acquireWait <= 0 then
+        return { ACQUIRE_SEMAPHORE_FAILED }
+    end
+
+    -- 已经在队列中的等待者保留原来的排队号，只更新等待期限
+    if not redis.call('ZSCORE', waitersKey, waiterMember) then
+        redis.call('ZADD', waitersKey, redis.call('INCR', semaphoreCounterKey), waiterMember)
+    end
+
+    redis.call('ZADD', waitersDeadlineKey, scoreOfTimestamp + acquireWait, waiterMember)
+
+    -- 释放操作会直接唤醒等待者，但超时的信号量不会有人通知，
+    -- 所以告诉等待者最早的那个信号量什么时候超时，最多等到那时再重新尝试
+    local oldest = redis.call('ZRANGE', semaphoreNameKey, 0, 0, 'WITHSCORES')
+    local retryAfter = acquireWait
+
+    if oldest[2] then
+        retryAfter = math.max(tonumber(oldest[2]) + semaphoreTimeout - scoreOfTimestamp, 1)
+    end
+
+    return { SEMAPHORE_QUEUED, retryAfter }
+end
+
+if waitersKey then
+    -- 删除那些等待超时的等待者（比如等待期间崩溃的客户端）
+    local expiredWaiters
+        = redis.call('ZRANGEBYSCORE', waitersDeadlineKey, '-inf', scoreOfTimestamp)
+
+    if #expiredWaiters > 0 then
+        removeMembers(waitersKey, waitersDeadlineKey, expiredWaiters)
+    end
+
+    -- 等待者重新尝试时，信号量可能已经由释放操作转交给它了（唤醒消息丢失或者还没有送达）
+    if acquireWait > 0 and redis.call('ZSCORE', semaphoreNameKey, permitMembers[1]) then
+        return { SUCCESS }
+    end
+
+    -- 排在自己前面的等待者数量（不在队列中时为整个队列的长度），
+    -- 空闲的信号量不够同时分给这些等待者和自己时，不能越过它们获取
+    local waitersAhead
+        = redis.call('ZRANK', waitersKey, waiterMember)
+          or redis.call('ZCARD', waitersKey)
+
+    if waitersAhead > 0 then
+        local free = maxSemaphore - redis.call('ZCARD', semaphoreNameKey)
+
+        -- 每个等待者至少需要一个信号量，所以最多只需要检查前 free 个等待者
+        if free < permits + waitersAhead then
+            return busy()
+        end
+
+        local permitsAhead = permits
+
+        for _, member in ipairs(redis.call('ZRANGE', waitersKey, 0, waitersAhead - 1)) do
+            permitsAhead = permitsAhead + permitsOf(member)
+        end
+
+        if permitsAhead > free then
+            return busy()
+        end
+    end
+end
+
+-- 获取成功时的处理：调用者如果在等待队列中，就把它移出队列
+local function acquired()
+    if waitersKey then
+        redis.call('ZREM', waitersKey, waiterMember)
+        redis.call('ZREM', waitersDeadlineKey, waiterMember)
+    end
+
+    return { SUCCESS }
+end
+
+-- 计数器自增 permits（每个信号量成员占用一个计数值）
 -- 在 64 位平台中，Redis INCR 命令的自增范围是：
 -- (-2 ^ 63) ~ (+2 ^ 63 - 1)
 -- 这个范围大得可怕，完全可以顶住高并发的信号量使用
-local counter = redis.call('INCR', semaphoreCounterKey)
+local counter = redis.call('INCRBY', semaphoreCounterKey, permits)
 
 -- 添加信号量
-redis.call('ZADD', semaphoreNameKey, scoreOfTimestamp, identifier)
-redis.call('ZADD', semaphoreOwnerKey, counter, identifier)
+addMembers(semaphoreNameKey, permitMembers, function() return scoreOfTimestamp end)
+addMembers(semaphoreOwnerKey, permitMembers, function(index) return counter - permits + index end)
+
+-- 排名最靠后的那个成员
+local lastMember = permitMembers[permits]
 
 -- 检查信号量排名，看看有没有超出最大信号量
+-- （最后一个成员的排名没有超出，前面的成员也就都没有超出）
 if
-    redis.call('ZRANK', semaphoreOwnerKey, identifier) < maxSemaphore
+    redis.call('ZRANK', semaphoreOwnerKey, lastMember) < maxSemaphore
 then
     -- 若没有的话，则视为成功获得信号量
-    return '{"result": "SUCCESS"}'
+    return acquired()
+end
+
+-- 两个有序集合的大小不一致，说明 semaphoreOwnerKey 中残留了
+-- semaphoreNameKey 中已经不存在的成员（比如由早先的版本或者人为操作留下），
+-- 这时退回到求交集的做法修复一次再重新检查排名，正常情况下不会走到这里
+if
+    redis.call('ZCARD', semaphoreOwnerKey) ~= redis.call('ZCARD', semaphoreNameKey)
+then
+    redis.call(
+        'ZINTERSTORE',
+        semaphoreOwnerKey,
+        2,
+        semaphoreOwnerKey, semaphoreNameKey,
+        'WEIGHTS', 1, 0
+    )
+
+    if
+        redis.call('ZRANK', semaphoreOwnerKey, lastMember) < maxSemaphore
+    then
+        return acquired()
+    end
 end
 
 -- 反之则视为获取信号量失败（资源繁忙）
 -- 别忘记清理无用数据
-redis.call('ZREM', semaphoreNameKey, identifier)
-redis.call('ZREM', semaphoreOwnerKey, identifier)
+removeMembers(semaphoreNameKey, semaphoreOwnerKey, permitMembers)
 
-return '{"result": "ACQUIRE_SEMAPHORE_FAILED"}'
\ No newline at end of file
+return busy()
\ No newline at end of file
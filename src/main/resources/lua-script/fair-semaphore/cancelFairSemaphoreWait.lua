@@ -0,0 +1,41 @@
+--[[
+    等待者放弃等待（等待超时或者被取消），把自己移出等待队列。
+
+    KEYS:
+        semaphoreNameKey       以时间戳为排名依据的信号量有序集合键
+        waitersKey             以排队号为排名依据的等待者有序集合键
+        waitersDeadlineKey     以等待期限为排名依据的等待者有序集合键
+
+    ARGV:
+        identifier 等待者的信号量唯一标识符
+        permits    （可选）等待的信号量数量（权重），缺省时为 1
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, ACQUIRE_SEMAPHORE_FAILED = 0, 6
+
+local semaphoreNameKey   = KEYS[1]
+local waitersKey         = KEYS[2]
+local waitersDeadlineKey = KEYS[3]
+
+local identifier = ARGV[1]
+local permits    = tonumber(ARGV[2] or '1')
+
+-- 成员的格式和 acquireFairSemaphore.lua 中的 waiterMember、permitMembers 保持一致
+local waiterMember = (permits == 1) and identifier or (identifier .. '#' .. permits)
+local firstPermit  = (permits == 1) and identifier or (identifier .. '#1')
+
+redis.call('ZREM', waitersDeadlineKey, waiterMember)
+
+-- 还在队列中，说明还没有拿到信号量
+if redis.call('ZREM', waitersKey, waiterMember) == 1 then
+    return { ACQUIRE_SEMAPHORE_FAILED }
+end
+
+-- 不在队列中但持有信号量，说明在放弃之前信号量已经转交给了它，
+-- 由客户端决定使用还是释放
+if redis.call('ZSCORE', semaphoreNameKey, firstPermit) then
+    return { SUCCESS }
+end
+
+return { ACQUIRE_SEMAPHORE_FAILED }
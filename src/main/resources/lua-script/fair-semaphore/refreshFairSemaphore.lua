@@ -6,11 +6,16 @@
 
     ARGV:
         identifier 信号量唯一标识符（如：a7f40257-f46d-4715-8bc2-b3cef6dd5c93）
+        permits    （可选）获取时的信号量数量（权重），缺省时为 1
 ]]
 
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, SEMAPHORE_NOT_FOUND = 0, 7
+
 local semaphoreNameKey = KEYS[1]
 
 local identifier = ARGV[1]
+local permits    = tonumber(ARGV[2] or '1')
 
 local function getCurrentMillis()
     local time = redis.call('TIME')
@@ -20,6 +25,18 @@ end
 
 local scoreOfTimestamp = getCurrentMillis()
 
+-- 持有者的信号量成员，和 acquireFairSemaphore.lua 中的 permitMembers 保持一致
+local members = { scoreOfTimestamp, identifier }
+
+if permits > 1 then
+    members = {}
+
+    for index = 1, permits do
+        table.insert(members, scoreOfTimestamp)
+        table.insert(members, identifier .. '#' .. index)
+    end
+end
+
 -- 刷新信号量时间，ZADD 使用了以下两个选项：
 -- XX (Only update elements that already exist. Don't add new elements)
 -- CH (Changed)
@@ -29,16 +46,18 @@ local scoreOfTimestamp = getCurrentMillis()
 local updateCount
     = redis.call(
         'ZADD', semaphoreNameKey, 'XX', 'CH',
-        scoreOfTimestamp, identifier
+        unpack(members)
     )
 
 -- 检查是否成功更新
+-- （同一毫秒内获取又刷新的成员分数不变，不计入更新数量，所以再检查一次成员是否存在）
 if
-    updateCount ~= 1
+    updateCount < permits and
+    not redis.call('ZSCORE', semaphoreNameKey, members[2])
 then
      -- 若不存在直接返回错误信息
-    return '{"result": "SEMAPHORE_NOT_FOUND"}'
+    return { SEMAPHORE_NOT_FOUND }
 else
     -- 反之返回成功信息
-    return '{"result": "SUCCESS"}'
+    return { SUCCESS }
 end
\ No newline at end of file
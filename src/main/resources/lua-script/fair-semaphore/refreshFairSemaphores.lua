@@ -0,0 +1,98 @@
+--[[
+    批量刷新同一个信号量中的多个信号量（一次调用、一条 ZADD 刷新多个持有者）。
+
+    KEYS:
+        semaphoreNameKey 以时间戳为排名依据的信号量有序集合键
+
+    ARGV:
+        identifier1, permits1, identifier2, permits2, ...
+        要刷新的信号量唯一标识符，以及获取时的信号量数量（权重）
+
+    返回：
+        刷新失败（信号量已经超时被删除）的持有者的序号（第几对参数，从 1 开始）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS = 0
+
+-- 同 acquireFairSemaphore.lua
+if redis.replicate_commands then redis.replicate_commands() end
+
+local semaphoreNameKey = KEYS[1]
+
+local time = redis.call('TIME')
+local scoreOfTimestamp
+    = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- 每次调用 ZADD 最多传入的成员数（避免 unpack() 超出 Lua 栈的大小限制）
+local ADD_BATCH = 1000
+
+-- 每个持有者的信号量成员，和 acquireFairSemaphore.lua 中的 permitMembers 保持一致
+local holders = {}
+local memberCount = 0
+
+for index = 1, #ARGV, 2
+do
+    local identifier = ARGV[index]
+    local permits    = tonumber(ARGV[index + 1])
+    local members    = {}
+
+    if permits == 1 then
+        members[1] = identifier
+    else
+        for offset = 1, permits do
+            members[offset] = identifier .. '#' .. offset
+        end
+    end
+
+    table.insert(holders, members)
+    memberCount = memberCount + permits
+end
+
+-- XX CH 的语义和 refreshFairSemaphore.lua 相同：只更新已经存在的成员，返回更新的成员数量
+local updateCount = 0
+
+-- ZADD 的参数：score1, member1, score2, member2, ...
+local arguments = {}
+
+local function flush()
+    if #arguments > 0 then
+        updateCount
+            = updateCount + redis.call('ZADD', semaphoreNameKey, 'XX', 'CH', unpack(arguments))
+
+        arguments = {}
+    end
+end
+
+for _, members in ipairs(holders)
+do
+    for _, member in ipairs(members)
+    do
+        table.insert(arguments, scoreOfTimestamp)
+        table.insert(arguments, member)
+
+        if #arguments >= ADD_BATCH * 2 then
+            flush()
+        end
+    end
+end
+
+flush()
+
+-- 第一个元素是状态码，之后是刷新失败的持有者的序号
+local lost = { SUCCESS }
+
+-- 更新数量不足时才逐个检查（同一毫秒内获取又刷新的成员分数不变，也不计入更新数量），
+-- 一次获取的多个信号量同时加入、同时超时，所以只需检查第一个成员
+if
+    updateCount < memberCount
+then
+    for index, members in ipairs(holders)
+    do
+        if not redis.call('ZSCORE', semaphoreNameKey, members[1]) then
+            table.insert(lost, index)
+        end
+    end
+end
+
+return lost
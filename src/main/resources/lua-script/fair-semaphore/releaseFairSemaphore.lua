@@ -1,22 +1,130 @@
 --[[
     尝试释放一个信号量。
+
+    KEYS:
+        semaphoreNameKey       以时间戳为排名依据的信号量有序集合键
+        semaphoreOwnerKey      以计数值为排名依据的信号量有序集合键
+        semaphoreCounterKey    （可选）信号量计数器键
+        waitersKey             （可选）以排队号为排名依据的等待者有序集合键
+        waitersDeadlineKey     （可选）以等待期限为排名依据的等待者有序集合键
+
+    ARGV:
+        identifier   信号量唯一标识符（如：a7f40257-f46d-4715-8bc2-b3cef6dd5c93）
+        permits      （可选）获取时的信号量数量（权重），缺省时为 1
+        maxSemaphore （可选）最大信号量值，缺省时只把刚释放的信号量转交出去
+
+    传入等待者相关的三个键时，释放出来的信号量会按排队顺序直接转交给排在最前面的等待者
+    （空闲的信号量足够时可以连续转交给多个等待者），并向唤醒频道发布它们在等待队列中的成员。
 ]]
-local semaphoreNameKey  = KEYS[1]
-local semaphoreOwnerKey = KEYS[2]
 
-local identifier = ARGV[1]
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, SEMAPHORE_TIMEOUT = 0, 8
+
+-- 转交信号量时要读取 TIME，同 acquireFairSemaphore.lua
+if redis.replicate_commands then redis.replicate_commands() end
+
+local semaphoreNameKey    = KEYS[1]
+local semaphoreOwnerKey   = KEYS[2]
+local semaphoreCounterKey = KEYS[3]
+local waitersKey          = KEYS[4]
+local waitersDeadlineKey  = KEYS[5]
+
+local identifier   = ARGV[1]
+local permits      = tonumber(ARGV[2] or '1')
+local maxSemaphore = tonumber(ARGV[3])
+
+-- 信号量的唤醒频道（转交信号量后向该频道发布等待者在等待队列中的成员），
+-- 和客户端 getSemaphoreWakeChannel() 的命名保持一致
+local wakeChannel = semaphoreNameKey .. ':wake'
 
-local isRemoved = redis.call('ZREM', semaphoreNameKey, identifier)
-redis.call('ZREM', semaphoreOwnerKey, identifier)
+-- 持有者的信号量成员，和 acquireFairSemaphore.lua 中的 permitMembers 保持一致
+local function permitMembersOf(owner, count)
+    if count == 1 then
+        return { owner }
+    end
+
+    local members = {}
+
+    for index = 1, count do
+        members[index] = owner .. '#' .. index
+    end
+
+    return members
+end
+
+local isRemoved = 0
+
+for _, member in ipairs(permitMembersOf(identifier, permits)) do
+    isRemoved = isRemoved + redis.call('ZREM', semaphoreNameKey, member)
+    redis.call('ZREM', semaphoreOwnerKey, member)
+end
 
 -- 检查是否成功移除
 if
-    isRemoved == 1
+    isRemoved == 0
 then
-    return '{"result": "SUCCESS"}'
-else
     -- 若移除失败，
     -- 说明信号量因业务逻辑执行超时而被别的
     -- acquireFairSemaphore() 操作删除
-    return '{"result": "SEMAPHORE_TIMEOUT"}'
-end
\ No newline at end of file
+    return { SEMAPHORE_TIMEOUT }
+end
+
+if not waitersKey then
+    return { SUCCESS }
+end
+
+local time = redis.call('TIME')
+local scoreOfTimestamp
+    = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- 可以转交出去的信号量数量
+local free
+    = (maxSemaphore)
+        and (maxSemaphore - redis.call('ZCARD', semaphoreNameKey))
+        or  isRemoved
+
+-- 按排队顺序转交信号量，超时的等待者顺便删除，
+-- 排在最前面的等待者需要的信号量不够时停止（不越过它转交给后面的等待者）
+while free > 0 do
+    local head = redis.call('ZRANGE', waitersKey, 0, 0)[1]
+
+    if not head then
+        break
+    end
+
+    local deadline = redis.call('ZSCORE', waitersDeadlineKey, head)
+
+    -- 等待队列成员的格式见 acquireFairSemaphore.lua 中的 waiterMember
+    local waiter, waiterPermits = string.match(head, '^(.*)#(%d+)$')
+
+    if not waiter then
+        waiter, waiterPermits = head, 1
+    else
+        waiterPermits = tonumber(waiterPermits)
+    end
+
+    if deadline and tonumber(deadline) > scoreOfTimestamp and waiterPermits > free then
+        break
+    end
+
+    redis.call('ZREM', waitersKey, head)
+    redis.call('ZREM', waitersDeadlineKey, head)
+
+    if deadline and tonumber(deadline) > scoreOfTimestamp then
+        -- 把空闲的信号量直接转交给它，持有者的数量不超过最大信号量值，不需要再检查排名
+        local counter
+            = redis.call('INCRBY', semaphoreCounterKey, waiterPermits)
+
+        for index, member in ipairs(permitMembersOf(waiter, waiterPermits)) do
+            redis.call('ZADD', semaphoreNameKey, scoreOfTimestamp, member)
+            redis.call('ZADD', semaphoreOwnerKey, counter - waiterPermits + index, member)
+        end
+
+        free = free - waiterPermits
+
+        -- 通知订阅了唤醒频道的等待者（消息丢失也无妨，等待者重新尝试时会发现自己已经持有信号量）
+        redis.call('PUBLISH', wakeChannel, head)
+    end
+end
+
+return { SUCCESS }
@@ -0,0 +1,136 @@
+--[[
+    一次性释放多个调用者各自的信号量（释放操作的微批处理，见 ReleaseBatcher）。
+    在 Redis 集群中，KEYS 中所有的键必须位于同一个哈希槽。
+
+    KEYS:
+        每个释放操作依次传入 releaseFairSemaphore.lua 的全部五个键：
+        semaphoreNameKey, semaphoreOwnerKey, semaphoreCounterKey, waitersKey, waitersDeadlineKey
+
+    ARGV:
+        每个释放操作依次传入 releaseFairSemaphore.lua 的全部三个参数：
+        identifier, permits, maxSemaphore
+
+    返回：
+        { SUCCESS, 第 1 个释放操作的状态码, 第 2 个释放操作的状态码, ... }，
+        每个状态码和单独执行 releaseFairSemaphore.lua 时的状态码相同
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, SEMAPHORE_TIMEOUT = 0, 8
+
+-- 转交信号量时要读取 TIME，同 acquireFairSemaphore.lua
+if redis.replicate_commands then redis.replicate_commands() end
+
+local KEYS_PER_RELEASE, ARGS_PER_RELEASE = 5, 3
+
+-- 持有者的信号量成员，和 acquireFairSemaphore.lua 中的 permitMembers 保持一致
+local function permitMembersOf(owner, count)
+    if count == 1 then
+        return { owner }
+    end
+
+    local members = {}
+
+    for index = 1, count do
+        members[index] = owner .. '#' .. index
+    end
+
+    return members
+end
+
+-- 和 releaseFairSemaphore.lua 的处理完全相同，只是返回状态码而不是数组
+local function releaseFairSemaphore(
+    semaphoreNameKey, semaphoreOwnerKey, semaphoreCounterKey,
+    waitersKey, waitersDeadlineKey, identifier, permits, maxSemaphore)
+
+    -- 信号量的唤醒频道，和 releaseFairSemaphore.lua 中的 wakeChannel 保持一致
+    local wakeChannel = semaphoreNameKey .. ':wake'
+
+    local isRemoved = 0
+
+    for _, member in ipairs(permitMembersOf(identifier, permits)) do
+        isRemoved = isRemoved + redis.call('ZREM', semaphoreNameKey, member)
+        redis.call('ZREM', semaphoreOwnerKey, member)
+    end
+
+    -- 检查是否成功移除
+    if
+        isRemoved == 0
+    then
+        -- 若移除失败，
+        -- 说明信号量因业务逻辑执行超时而被别的
+        -- acquireFairSemaphore() 操作删除
+        return SEMAPHORE_TIMEOUT
+    end
+
+    local time = redis.call('TIME')
+    local scoreOfTimestamp
+        = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+    -- 可以转交出去的信号量数量
+    local free
+        = (maxSemaphore)
+            and (maxSemaphore - redis.call('ZCARD', semaphoreNameKey))
+            or  isRemoved
+
+    -- 按排队顺序转交信号量，超时的等待者顺便删除，
+    -- 排在最前面的等待者需要的信号量不够时停止（不越过它转交给后面的等待者）
+    while free > 0 do
+        local head = redis.call('ZRANGE', waitersKey, 0, 0)[1]
+
+        if not head then
+            break
+        end
+
+        local deadline = redis.call('ZSCORE', waitersDeadlineKey, head)
+
+        -- 等待队列成员的格式见 acquireFairSemaphore.lua 中的 waiterMember
+        local waiter, waiterPermits = string.match(head, '^(.*)#(%d+)$')
+
+        if not waiter then
+            waiter, waiterPermits = head, 1
+        else
+            waiterPermits = tonumber(waiterPermits)
+        end
+
+        if deadline and tonumber(deadline) > scoreOfTimestamp and waiterPermits > free then
+            break
+        end
+
+        redis.call('ZREM', waitersKey, head)
+        redis.call('ZREM', waitersDeadlineKey, head)
+
+        if deadline and tonumber(deadline) > scoreOfTimestamp then
+            -- 把空闲的信号量直接转交给它，持有者的数量不超过最大信号量值，不需要再检查排名
+            local counter
+                = redis.call('INCRBY', semaphoreCounterKey, waiterPermits)
+
+            for index, member in ipairs(permitMembersOf(waiter, waiterPermits)) do
+                redis.call('ZADD', semaphoreNameKey, scoreOfTimestamp, member)
+                redis.call('ZADD', semaphoreOwnerKey, counter - waiterPermits + index, member)
+            end
+
+            free = free - waiterPermits
+
+            -- 通知订阅了唤醒频道的等待者（消息丢失也无妨，等待者重新尝试时会发现自己已经持有信号量）
+            redis.call('PUBLISH', wakeChannel, head)
+        end
+    end
+
+    return SUCCESS
+end
+
+local statuses = { SUCCESS }
+
+for index = 1, #KEYS / KEYS_PER_RELEASE
+do
+    local k = (index - 1) * KEYS_PER_RELEASE
+    local a = (index - 1) * ARGS_PER_RELEASE
+
+    statuses[index + 1] = releaseFairSemaphore(
+        KEYS[k + 1], KEYS[k + 2], KEYS[k + 3], KEYS[k + 4], KEYS[k + 5],
+        ARGV[a + 1], tonumber(ARGV[a + 2]), tonumber(ARGV[a + 3])
+    )
+end
+
+return statuses
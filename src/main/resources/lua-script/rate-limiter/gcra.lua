@@ -0,0 +1,81 @@
+--[[
+    GCRA（通用信元速率算法）限流，一次调用完成判断和扣减。
+
+    KEYS:
+        rateLimitKey 保存理论到达时间（TAT，微秒级时间戳）的字符串键
+
+    ARGV:
+        period           限流周期（微秒级）
+        limit            每个周期内的配额数量
+        burst            允许的突发量（桶的容量）
+        permits          一次获取的配额数量（1 ~ burst）
+
+    GCRA 只需要保存一个时间戳：每获取一个配额，理论到达时间就向后推迟一个间隔，
+    理论到达时间超过当前时间 burst 个间隔时拒绝，因此不论速率多大，每个限流键都只占一个字符串。
+    获取多个配额时要么全部获取成功，要么一个都不扣减。
+
+    配额之间的间隔（period / limit）在脚本中用浮点数计算，理论到达时间也保留小数部分，
+    不能整除时不会截断间隔而让实际速率超过 limit。
+
+    返回：
+        { SUCCESS | RATE_LIMITED, 剩余的配额, 重试等待时间（毫秒级）, 配额完全恢复的时间（毫秒级）}
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, RATE_LIMITED = 0, 10
+
+-- 同 acquireFairSemaphore.lua
+if redis.replicate_commands then redis.replicate_commands() end
+
+local rateLimitKey = KEYS[1]
+
+local period  = tonumber(ARGV[1])
+local limit   = tonumber(ARGV[2])
+local burst   = tonumber(ARGV[3])
+local permits = tonumber(ARGV[4])
+
+local emissionInterval = period / limit
+
+local time = redis.call('TIME')
+local now  = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+-- 微秒转毫秒（向上取整，避免调用者提前重试）
+local function toMillis(micros)
+    return math.ceil(micros / 1000)
+end
+
+local theoreticalArrival = tonumber(redis.call('GET', rateLimitKey) or '0')
+
+if theoreticalArrival < now then
+    theoreticalArrival = now
+end
+
+local tolerance = emissionInterval * burst
+
+-- 获取 permits 个配额之后的理论到达时间，以及允许这次获取的最早时间
+local newArrival = theoreticalArrival + emissionInterval * permits
+local allowAt    = newArrival - tolerance
+
+if
+    allowAt > now
+then
+    return {
+        RATE_LIMITED,
+        math.max(0, math.floor((now - theoreticalArrival + tolerance) / emissionInterval)),
+        toMillis(allowAt - now),
+        toMillis(theoreticalArrival - now)
+    }
+end
+
+-- 时间戳超过了 Lua 中整数的表示范围，用 %.3f 避免写成科学计数法，同时保留间隔的小数部分
+redis.call(
+    'SET', rateLimitKey, string.format('%.3f', newArrival),
+    'PX', math.max(1, toMillis(newArrival - now))
+)
+
+return {
+    SUCCESS,
+    math.floor((now - allowAt) / emissionInterval),
+    0,
+    toMillis(newArrival - now)
+}
@@ -0,0 +1,103 @@
+--[[
+    滑动窗口日志限流，一次调用完成判断和记录。
+
+    KEYS:
+        rateLimitKey 以获取时间（微秒级时间戳）为排名依据的有序集合键
+
+    ARGV:
+        window     窗口长度（微秒级）
+        limit      一个窗口内最多获取的配额数量
+        permits    一次获取的配额数量（1 ~ min(limit, 1000)）
+        identifier 本次获取的唯一标识符（如：a7f40257-f46d-4715-8bc2-b3cef6dd5c93）
+
+    有序集合中的每个成员都是窗口内的一次获取，和固定窗口相比没有窗口边界上的突发，
+    代价是每个限流键占用的内存和 limit 成正比，速率很大时请使用 gcra.lua。
+    一次获取多个配额时成员为 identifier#1 ~ identifier#N（和公平信号量的成员约定一致），
+    要么全部记录，要么一个都不记录。
+
+    返回：
+        { SUCCESS | RATE_LIMITED, 剩余的配额, 重试等待时间（毫秒级）, 配额完全恢复的时间（毫秒级）}
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, RATE_LIMITED = 0, 10
+
+-- 同 acquireFairSemaphore.lua
+if redis.replicate_commands then redis.replicate_commands() end
+
+local rateLimitKey = KEYS[1]
+
+local window     = tonumber(ARGV[1])
+local limit      = tonumber(ARGV[2])
+local permits    = tonumber(ARGV[3])
+local identifier = ARGV[4]
+
+local time = redis.call('TIME')
+local now  = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+-- 微秒转毫秒（向上取整，避免调用者提前重试）
+local function toMillis(micros)
+    return math.ceil(micros / 1000)
+end
+
+-- 时间戳超过了 Lua 中整数的表示范围，用 %.0f 避免写成科学计数法
+local function toScore(micros)
+    return string.format('%.0f', micros)
+end
+
+-- 移出窗口的获取记录
+redis.call('ZREMRANGEBYSCORE', rateLimitKey, '-inf', toScore(now - window))
+
+local count = redis.call('ZCARD', rateLimitKey)
+
+-- 最早的那次获取移出窗口的时间
+local function oldestExpireAfter(rank)
+    local oldest = redis.call('ZRANGE', rateLimitKey, rank, rank, 'WITHSCORES')
+
+    if #oldest == 0 then
+        return 0
+    end
+
+    return math.max(0, tonumber(oldest[2]) + window - now)
+end
+
+if
+    count + permits > limit
+then
+    -- 至少要等最早的 count + permits - limit 次获取移出窗口
+    return {
+        RATE_LIMITED,
+        math.max(0, limit - count),
+        toMillis(oldestExpireAfter(count + permits - limit - 1)),
+        toMillis(oldestExpireAfter(count - 1))
+    }
+end
+
+-- 每次调用 ZADD 最多传入的成员数（避免 unpack() 超出 Lua 栈的大小限制）
+local ADD_BATCH = 1000
+
+if permits == 1 then
+    redis.call('ZADD', rateLimitKey, toScore(now), identifier)
+else
+    local arguments = {}
+
+    for index = 1, permits
+    do
+        table.insert(arguments, toScore(now))
+        table.insert(arguments, identifier .. '#' .. index)
+
+        if #arguments >= ADD_BATCH * 2 or index == permits then
+            redis.call('ZADD', rateLimitKey, unpack(arguments))
+            arguments = {}
+        end
+    end
+end
+
+redis.call('PEXPIRE', rateLimitKey, math.max(1, toMillis(window)))
+
+return {
+    SUCCESS,
+    limit - count - permits,
+    0,
+    toMillis(window)
+}
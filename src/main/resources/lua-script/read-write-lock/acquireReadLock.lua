@@ -0,0 +1,68 @@
+--[[
+    尝试获取一个读锁（只尝试一次，不在服务端循环等待）。
+
+    KEYS:
+        readersKey 读者有序集合键（成员为读者唯一标识符，分数为读者租约的到期时间戳）
+        writerKey  写者键（值为写者唯一标识符）
+        intentsKey 等待中的写者有序集合键（成员为写者唯一标识符，分数为等待意向的到期时间戳）
+
+    ARGV:
+        identifier  读者唯一标识符
+        lockTimeout 读锁本身的持有时间限制（毫秒级）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_OCCUPIED = 0, 1
+
+--[[
+    由于脚本中出现了 TIME 这样的非确定命令，
+    因此这里需要调用 redis.replicate_commands() 显式的开启单命令模式。
+]]
+-- Redis 7.0 起单命令复制是唯一的模式，这个函数已经废弃（部分兼容实现中不存在）
+if redis.replicate_commands then redis.replicate_commands() end
+
+local readersKey = KEYS[1]
+local writerKey  = KEYS[2]
+local intentsKey = KEYS[3]
+
+local identifier  = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+
+local function getCurrentMillis()
+    local time = redis.call('TIME')
+
+    return tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+end
+
+local now = getCurrentMillis()
+
+-- 写者持有锁时，读者必须等待写者释放
+local writerTtl = redis.call('PTTL', writerKey)
+
+if
+    writerTtl > 0
+then
+    return { LOCK_OCCUPIED, writerTtl }
+end
+
+-- 写者优先：只要有写者在等待，新的读者就不能进入，避免写者饿死
+redis.call('ZREMRANGEBYSCORE', intentsKey, '-inf', now)
+
+local earliestIntent = redis.call('ZRANGE', intentsKey, 0, 0, 'WITHSCORES')
+
+if
+    #earliestIntent > 0
+then
+    return { LOCK_OCCUPIED, (tonumber(earliestIntent[2]) - now) }
+end
+
+-- 加入读者集合，并保证读者集合本身不会早于任何一个读者的租约过期
+redis.call('ZADD', readersKey, now + lockTimeout, identifier)
+
+if
+    redis.call('PTTL', readersKey) < lockTimeout
+then
+    redis.call('PEXPIRE', readersKey, lockTimeout)
+end
+
+return { SUCCESS }
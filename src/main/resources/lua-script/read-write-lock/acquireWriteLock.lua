@@ -0,0 +1,74 @@
+--[[
+    尝试获取一个写锁（只尝试一次，不在服务端循环等待）。
+    获取失败时登记（或刷新）写者的等待意向，阻止新的读者进入。
+
+    KEYS:
+        readersKey 读者有序集合键
+        writerKey  写者键
+        intentsKey 等待中的写者有序集合键
+
+    ARGV:
+        identifier  写者唯一标识符
+        lockTimeout 写锁本身的持有时间限制（毫秒级）
+        intentTtl   等待意向的有效期（毫秒级，客户端传入剩余的等待时间），写者放弃等待或者崩溃后意向会自动过期
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_OCCUPIED = 0, 1
+
+-- Redis 7.0 起单命令复制是唯一的模式，这个函数已经废弃（部分兼容实现中不存在）
+if redis.replicate_commands then redis.replicate_commands() end
+
+local readersKey = KEYS[1]
+local writerKey  = KEYS[2]
+local intentsKey = KEYS[3]
+
+local identifier  = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+local intentTtl   = tonumber(ARGV[3])
+
+local function getCurrentMillis()
+    local time = redis.call('TIME')
+
+    return tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+end
+
+local now = getCurrentMillis()
+
+-- 清理租约已经过期的读者（比如读者崩溃了）
+redis.call('ZREMRANGEBYSCORE', readersKey, '-inf', now)
+
+local function registerIntent(ttl)
+    redis.call('ZADD', intentsKey, now + intentTtl, identifier)
+
+    if
+        redis.call('PTTL', intentsKey) < intentTtl
+    then
+        redis.call('PEXPIRE', intentsKey, intentTtl)
+    end
+
+    return { LOCK_OCCUPIED, ttl }
+end
+
+-- 别的写者持有锁
+local writerTtl = redis.call('PTTL', writerKey)
+
+if
+    writerTtl > 0
+then
+    return registerIntent(writerTtl)
+end
+
+-- 还有读者持有锁，最多等到最后一个读者的租约到期
+local latestReader = redis.call('ZRANGE', readersKey, -1, -1, 'WITHSCORES')
+
+if
+    #latestReader > 0
+then
+    return registerIntent(tonumber(latestReader[2]) - now)
+end
+
+redis.call('SET', writerKey, identifier, 'PX', lockTimeout)
+redis.call('ZREM', intentsKey, identifier)
+
+return { SUCCESS }
@@ -0,0 +1,16 @@
+--[[
+    写者放弃等待时，撤销自己的等待意向，让读者可以继续进入。
+
+    KEYS:
+        intentsKey 等待中的写者有序集合键
+
+    ARGV:
+        identifier 写者唯一标识符
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS = 0
+
+redis.call('ZREM', KEYS[1], ARGV[1])
+
+return { SUCCESS }
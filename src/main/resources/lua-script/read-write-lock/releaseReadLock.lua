@@ -0,0 +1,36 @@
+--[[
+    释放一个读锁，最后一个读者离开时通知等待中的写者。
+
+    KEYS:
+        readersKey 读者有序集合键
+        writerKey  写者键
+
+    ARGV:
+        identifier 读者唯一标识符
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_NOT_EXIST = 0, 4
+
+local readersKey = KEYS[1]
+local writerKey  = KEYS[2]
+
+local identifier = ARGV[1]
+
+-- 读写锁的释放频道，和客户端 getReleaseChannel() 的命名保持一致
+local releaseChannel = writerKey .. ':release'
+
+if
+    redis.call('ZREM', readersKey, identifier) == 0
+then
+    -- 读者的租约已经过期，被写者清理掉了
+    return { LOCK_NOT_EXIST }
+end
+
+if
+    redis.call('ZCARD', readersKey) == 0
+then
+    redis.call('PUBLISH', releaseChannel, identifier)
+end
+
+return { SUCCESS }
@@ -0,0 +1,35 @@
+--[[
+    释放一个写锁，并通知所有等待中的读者和写者。
+
+    KEYS:
+        writerKey 写者键
+
+    ARGV:
+        identifier 写者唯一标识符
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 4, 5
+
+local writerKey  = KEYS[1]
+local identifier = ARGV[1]
+
+-- 读写锁的释放频道，和客户端 getReleaseChannel() 的命名保持一致
+local releaseChannel = writerKey .. ':release'
+
+if
+    redis.call('GET', writerKey) == identifier
+then
+    redis.call('DEL', writerKey)
+    redis.call('PUBLISH', releaseChannel, identifier)
+
+    return { SUCCESS }
+end
+
+if
+    redis.call('EXISTS', writerKey) == 0
+then
+    return { LOCK_NOT_EXIST }
+else
+    return { LOCK_OWNED_BY_OTHERS }
+end
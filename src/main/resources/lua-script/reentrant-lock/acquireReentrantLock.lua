@@ -0,0 +1,47 @@
+--[[
+    尝试获取一个可重入锁（只尝试一次，不在服务端循环等待）。
+    锁是一个哈希，唯一的字段是持有者的唯一标识符，字段值是持有次数。
+
+    这个脚本只在锁不存在时成功，即使锁的持有者就是 owner 也不算重入：
+    同一条流中并行的两个分支带着同一个 owner，却都没有持有这个锁，
+    它们必须像两个不同的持有者一样互斥。真正的重入由客户端根据 Context 中的持有标记判断，
+    走 reenterLock.lua。
+
+    KEYS:
+        lockKeyName 可重入锁键
+
+    ARGV:
+        owner       持有者的唯一标识符
+        lockTimeout 锁本身的持有时间限制（毫秒级）
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_OCCUPIED = 0, 1
+
+local lockKeyName = KEYS[1]
+
+local owner       = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+
+-- 锁不存在，持有次数记为 1
+if
+    redis.call('EXISTS', lockKeyName) == 0
+then
+    redis.call('HSET', lockKeyName, owner, 1)
+    redis.call('PEXPIRE', lockKeyName, lockTimeout)
+
+    return { SUCCESS }
+end
+
+-- 锁被别人（或者同一条流中并行的另一个分支）持有，返回锁剩余的 TTL，让客户端决定最多等待多久
+local ttl = redis.call('PTTL', lockKeyName)
+
+if
+    ttl == -1
+then
+    -- 锁存在但是没有设置 TTL，补上避免永续锁
+    redis.call('PEXPIRE', lockKeyName, lockTimeout)
+    ttl = lockTimeout
+end
+
+return { LOCK_OCCUPIED, ttl }
@@ -0,0 +1,42 @@
+--[[
+    重入一个自己已经持有的可重入锁（一次 HINCRBY，不需要等待）。
+
+    KEYS:
+        lockKeyName 可重入锁键
+
+    ARGV:
+        owner       持有者的唯一标识符
+        lockTimeout 本次持有的时间限制（毫秒级），锁剩余的有效期不足时会被延长
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 4, 5
+
+local lockKeyName = KEYS[1]
+
+local owner       = ARGV[1]
+local lockTimeout = tonumber(ARGV[2])
+
+if
+    redis.call('HEXISTS', lockKeyName, owner) == 0
+then
+    -- 外层持有的锁已经过期或者被别人持有
+    if
+        redis.call('EXISTS', lockKeyName) == 0
+    then
+        return { LOCK_NOT_EXIST }
+    else
+        return { LOCK_OWNED_BY_OTHERS }
+    end
+end
+
+redis.call('HINCRBY', lockKeyName, owner, 1)
+
+-- 只延长不缩短，避免内层较短的 lockTimeout 缩短外层的持有时间
+if
+    redis.call('PTTL', lockKeyName) < lockTimeout
+then
+    redis.call('PEXPIRE', lockKeyName, lockTimeout)
+end
+
+return { SUCCESS }
@@ -0,0 +1,42 @@
+--[[
+    释放一次可重入锁，持有次数减到 0 时删除锁并通知等待者。
+
+    KEYS:
+        lockKeyName 可重入锁键
+
+    ARGV:
+        owner 持有者的唯一标识符
+]]
+
+-- 脚本返回 { 状态码, 附加值... } 形式的数组，状态码和 LuaOperatorResult 中的常量保持一致
+local SUCCESS, LOCK_NOT_EXIST, LOCK_OWNED_BY_OTHERS = 0, 4, 5
+
+local lockKeyName = KEYS[1]
+local owner       = ARGV[1]
+
+-- 锁的释放频道，和 distributed-lock/releaseLock.lua 的命名规则一致
+local releaseChannel = lockKeyName .. ':release'
+
+if
+    redis.call('HEXISTS', lockKeyName, owner) == 0
+then
+    if
+        redis.call('EXISTS', lockKeyName) == 0
+    then
+        return { LOCK_NOT_EXIST }
+    else
+        return { LOCK_OWNED_BY_OTHERS }
+    end
+end
+
+if
+    redis.call('HINCRBY', lockKeyName, owner, -1) > 0
+then
+    -- 还有外层持有者，锁继续保留
+    return { SUCCESS }
+end
+
+redis.call('DEL', lockKeyName)
+redis.call('PUBLISH', releaseChannel, owner)
+
+return { SUCCESS }
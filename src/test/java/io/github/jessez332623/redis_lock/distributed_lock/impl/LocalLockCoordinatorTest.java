@@ -0,0 +1,288 @@
+package io.github.jessez332623.redis_lock.distributed_lock.impl;
+
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.Entry;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.Handover;
+import io.github.jessez332623.redis_lock.distributed_lock.impl.LocalLockCoordinator.LocalLockQueue;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** {@link LocalLockCoordinator} 的移交、排队取消以及空闲队列移除的测试。*/
+class LocalLockCoordinatorTest
+{
+    private static final String LOCK_NAME = "inventory";
+
+    private static final Duration LONG_WAIT = Duration.ofSeconds(10L);
+
+    /** 每个竞态测试重复的轮数。*/
+    private static final int RACE_ROUNDS = 2000;
+
+    private final LocalLockCoordinator coordinator = new LocalLockCoordinator(16);
+
+    /** 取消后收到令牌的等待者直接离开队列（和锁实现中的善后操作一致，只是不用释放 Redis 锁）。*/
+    private final BiConsumer<LocalLockQueue, Handover>
+    leaveOnAbandon
+        = (queue, handover) -> this.coordinator.leave(LOCK_NAME, queue, Handover.NONE);
+
+    private Entry enterNow()
+    {
+        final Entry entry
+            = this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).block();
+
+        assertNotNull(entry);
+
+        return entry;
+    }
+
+    @Test
+    void firstComerOwnsTheQueueAndTheQueueIsRemovedWhenIdle()
+    {
+        final Entry owner = this.enterNow();
+
+        assertEquals(Handover.NONE, owner.handover());
+        assertEquals(1, this.coordinator.getQueueCount());
+
+        assertFalse(this.coordinator.leave(LOCK_NAME, owner.queue(), Handover.NONE));
+        assertEquals(0, this.coordinator.getQueueCount());
+    }
+
+    @Test
+    void waitersReceiveTheHandoverInArrivalOrder()
+    {
+        final Entry owner = this.enterNow();
+
+        final List<Entry> received = new ArrayList<>();
+
+        for (int i = 0; i < 3; ++i) {
+            this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).subscribe(received::add);
+        }
+
+        assertTrue(received.isEmpty());
+
+        Entry current = owner;
+
+        for (int i = 0; i < 3; ++i)
+        {
+            final Handover next = new Handover("holder", i + 1);
+
+            assertTrue(this.coordinator.leave(LOCK_NAME, current.queue(), next));
+            assertEquals(i + 1, received.size());
+
+            current = received.get(i);
+
+            assertEquals(next, current.handover());
+        }
+
+        assertFalse(this.coordinator.leave(LOCK_NAME, current.queue(), Handover.NONE));
+        assertEquals(0, this.coordinator.getQueueCount());
+    }
+
+    @Test
+    void cancelledWaitersAreSkippedByTheHandover()
+    {
+        final Entry owner = this.enterNow();
+
+        final AtomicReference<Entry> last = new AtomicReference<>();
+
+        final Disposable first
+            = this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).subscribe();
+        final Disposable second
+            = this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).subscribe();
+
+        this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).subscribe(last::set);
+
+        first.dispose();
+        second.dispose();
+
+        final Handover handover = new Handover("holder", 1);
+
+        assertTrue(this.coordinator.leave(LOCK_NAME, owner.queue(), handover));
+        assertNotNull(last.get());
+        assertEquals(handover, last.get().handover());
+
+        assertFalse(this.coordinator.leave(LOCK_NAME, last.get().queue(), Handover.NONE));
+        assertEquals(0, this.coordinator.getQueueCount());
+    }
+
+    @Test
+    void releaseWithOnlyCancelledWaitersRemovesTheQueue()
+    {
+        final Entry owner = this.enterNow();
+
+        final Disposable first
+            = this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).subscribe();
+        final Disposable second
+            = this.coordinator.enter(LOCK_NAME, LONG_WAIT, this.leaveOnAbandon).subscribe();
+
+        first.dispose();
+        second.dispose();
+
+        // 没有仍在等待的等待者，调用者需要自己在 Redis 中释放锁
+        assertFalse(this.coordinator.leave(LOCK_NAME, owner.queue(), new Handover("holder", 1)));
+        assertEquals(0, this.coordinator.getQueueCount());
+    }
+
+    @Test
+    void waiterTimesOutWithoutAnEntry()
+    {
+        final Entry owner = this.enterNow();
+
+        StepVerifier.create(
+                this.coordinator.enter(LOCK_NAME, Duration.ofMillis(50L), this.leaveOnAbandon))
+            .expectSubscription()
+            .verifyComplete();
+
+        assertFalse(this.coordinator.leave(LOCK_NAME, owner.queue(), new Handover("holder", 1)));
+        assertEquals(0, this.coordinator.getQueueCount());
+    }
+
+    /**
+     * 最后一个等待者离开（取消）和持有者移交同时发生：
+     * 令牌要么交到等待者手里（直接收到，或者取消后由善后操作收到），要么移交失败由持有者自己释放，
+     * 不能两边都认为自己拿到了令牌，也不能令牌丢失，最后队列总是被移除。
+     */
+    @RepeatedTest(5)
+    void lastWaiterLeavingWhileTheOwnerHandsOver() throws Exception
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            for (int round = 0; round < RACE_ROUNDS; ++round)
+            {
+                final Entry owner = this.enterNow();
+
+                final AtomicReference<Entry> received = new AtomicReference<>();
+                final AtomicInteger          abandons = new AtomicInteger(0);
+
+                final Disposable waiter
+                    = this.coordinator
+                          .enter(
+                              LOCK_NAME, LONG_WAIT,
+                              (queue, handover) -> {
+                                  abandons.incrementAndGet();
+                                  this.leaveOnAbandon.accept(queue, handover);
+                              })
+                          .subscribe(received::set);
+
+                final CountDownLatch start = new CountDownLatch(1);
+
+                final Future<Boolean> handedOver
+                    = executor.submit(() -> {
+                        start.await();
+                        return this.coordinator.leave(LOCK_NAME, owner.queue(), new Handover("holder", 1));
+                    });
+
+                final Future<?> cancelled
+                    = executor.submit(() -> {
+                        start.await();
+                        waiter.dispose();
+                        return null;
+                    });
+
+                start.countDown();
+
+                final boolean handed = handedOver.get(5L, TimeUnit.SECONDS);
+                cancelled.get(5L, TimeUnit.SECONDS);
+
+                if (Objects.nonNull(received.get())) {
+                    this.coordinator.leave(LOCK_NAME, received.get().queue(), Handover.NONE);
+                }
+
+                final boolean delivered = Objects.nonNull(received.get()) || abandons.get() == 1;
+
+                assertEquals(handed, delivered, "round " + round);
+                assertFalse(Objects.nonNull(received.get()) && abandons.get() > 0, "round " + round);
+                assertEquals(0, this.coordinator.getQueueCount(), "round " + round);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 持有者离开（队列变为空闲、正在被移除）和新的调用者进入同时发生：
+     * 新的调用者要么成为旧队列的持有者，要么进入新创建的队列，总是立即成为本地持有者，
+     * 不会进入一个已经被移除的队列而永远等不到令牌。
+     */
+    @RepeatedTest(5)
+    void newcomerEnteringWhileTheIdleQueueIsRemoved() throws Exception
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try
+        {
+            for (int round = 0; round < RACE_ROUNDS; ++round)
+            {
+                final Entry owner = this.enterNow();
+
+                final CountDownLatch start = new CountDownLatch(1);
+
+                final Future<Boolean> left
+                    = executor.submit(() -> {
+                        start.await();
+                        return this.coordinator.leave(LOCK_NAME, owner.queue(), new Handover("holder", 1));
+                    });
+
+                final AtomicBoolean immediate = new AtomicBoolean(false);
+
+                final Future<Entry> newcomer
+                    = executor.submit(() -> {
+                        start.await();
+
+                        final Entry entry
+                            = this.coordinator
+                                  .enter(LOCK_NAME, Duration.ofSeconds(2L), this.leaveOnAbandon)
+                                  .block();
+
+                        immediate.set(Objects.nonNull(entry) && entry.handover() == Handover.NONE);
+
+                        return entry;
+                    });
+
+                start.countDown();
+
+                final boolean handed = left.get(5L, TimeUnit.SECONDS);
+                final Entry   entry  = newcomer.get(5L, TimeUnit.SECONDS);
+
+                assertNotNull(entry, "round " + round);
+
+                // 新的调用者晚于离开计数时直接成为持有者，早于离开计数时作为等待者收到令牌
+                assertEquals(!handed, immediate.get(), "round " + round);
+
+                assertFalse(this.coordinator.leave(LOCK_NAME, entry.queue(), Handover.NONE));
+                assertEquals(0, this.coordinator.getQueueCount(), "round " + round);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void negativeMaxHandoversIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalLockCoordinator(-1));
+    }
+}
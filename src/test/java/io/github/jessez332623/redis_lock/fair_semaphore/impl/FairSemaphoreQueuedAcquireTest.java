@@ -0,0 +1,373 @@
+package io.github.jessez332623.redis_lock.fair_semaphore.impl;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.github.jessez332623.redis_lock.autoconfigure.RedisLockAutoConfiguration;
+import io.github.jessez332623.redis_lock.fair_semaphore.SemaphorePermit;
+import io.github.jessez332623.redis_lock.utils.LuaScriptReader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 公平信号量排队获取（acquireWait）的测试：按排队顺序转交、唤醒消息、等待超时和等待途中被取消，
+ * 使用 Lettuce 连接进程内的 jedis-mock 替身。
+ */
+class FairSemaphoreQueuedAcquireTest
+{
+    private static final String KEY_PREFIX = "test-semaphore";
+
+    /** 信号量有效期远长于每个测试，等待者不会因为最早的信号量超时而重新尝试，只能靠转交和唤醒。*/
+    private static final Duration PERMIT_TIMEOUT = Duration.ofSeconds(60L);
+
+    private static final Duration LONG_WAIT = Duration.ofSeconds(30L);
+
+    /** 等待 Redis 中的状态达到预期的最长时间。*/
+    private static final Duration AWAIT_LIMIT = Duration.ofSeconds(10L);
+
+    private static RedisServer server;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static ReactiveStringRedisTemplate redisTemplate;
+
+    private static ReactiveRedisMessageListenerContainer listenerContainer;
+
+    private static Scheduler scheduler;
+
+    private static DefaultRedisFairSemaphoreImpl semaphore;
+
+    /** 没有消息监听容器的实现：等待者收不到唤醒消息，只在重新尝试时才会发现信号量已经转交过来。*/
+    private static DefaultRedisFairSemaphoreImpl unwakeableSemaphore;
+
+    private static int semaphoreNames = 0;
+
+    private final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws Exception
+    {
+        server = RedisServer.newRedisServer(0).start();
+
+        connectionFactory
+            = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate     = new ReactiveStringRedisTemplate(connectionFactory);
+        listenerContainer = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        scheduler         = Schedulers.newBoundedElastic(8, 1024, "fair-semaphore-test");
+
+        semaphore
+            = newSemaphore(
+                FairSemaphoreOptions.builder()
+                    .listenerContainer(() -> listenerContainer)
+                    .build());
+
+        unwakeableSemaphore
+            = newSemaphore(FairSemaphoreOptions.builder().build());
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception
+    {
+        semaphore.close();
+        unwakeableSemaphore.close();
+        scheduler.dispose();
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    @AfterEach
+    void disposeSubscriptions() {
+        this.subscriptions.forEach(Disposable::dispose);
+    }
+
+    private static DefaultRedisFairSemaphoreImpl
+    newSemaphore(FairSemaphoreOptions options)
+    {
+        return new
+        DefaultRedisFairSemaphoreImpl(
+            KEY_PREFIX, new LuaScriptReader(),
+            new RedisLockAutoConfiguration().redisLockScriptTemplate(connectionFactory),
+            scheduler, Duration.ofSeconds(5L), options
+        );
+    }
+
+    private static synchronized String
+    nextSemaphoreName() {
+        return "resource-" + (++semaphoreNames);
+    }
+
+    private static String
+    semaphoreNameKey(String semaphoreName) {
+        return KEY_PREFIX + ":{" + semaphoreName + "}";
+    }
+
+    /** 当前持有信号量的成员数量。*/
+    private static long
+    holders(String semaphoreName)
+    {
+        return
+        Objects.requireNonNull(
+            redisTemplate.opsForZSet().size(semaphoreNameKey(semaphoreName)).block());
+    }
+
+    /** 当前在等待队列中的等待者数量。*/
+    private static long
+    waiters(String semaphoreName)
+    {
+        return
+        Objects.requireNonNull(
+            redisTemplate.opsForZSet().size(semaphoreNameKey(semaphoreName) + ":waiters").block());
+    }
+
+    /** 等待队列的两个有序集合都已经清空。*/
+    private static void
+    assertNoWaiters(String semaphoreName)
+    {
+        assertEquals(0L, waiters(semaphoreName));
+        assertEquals(
+            0L,
+            redisTemplate.opsForZSet().size(semaphoreNameKey(semaphoreName) + ":waiters:deadline").block());
+    }
+
+    private static void
+    await(String description, BooleanSupplier condition) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + AWAIT_LIMIT.toNanos();
+
+        while (!condition.getAsBoolean())
+        {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting until " + description);
+            }
+
+            Thread.sleep(10L);
+        }
+    }
+
+    /** 获取唯一的一个信号量（最大信号量值为 1），让之后的调用者都需要排队。*/
+    private static SemaphorePermit
+    occupy(String semaphoreName)
+    {
+        final SemaphorePermit permit
+            = semaphore.tryAcquire(semaphoreName, 1L, PERMIT_TIMEOUT)
+                .blockOptional()
+                .flatMap((acquired) -> acquired)
+                .orElse(null);
+
+        assertNotNull(permit);
+
+        return permit;
+    }
+
+    /**
+     * 排队获取信号量，拿到之后记录名字并持有到 gate 完成。
+     *
+     * @return 等待者的订阅
+     */
+    private Disposable
+    queue(
+        DefaultRedisFairSemaphoreImpl target, String semaphoreName, String name,
+        Duration acquireWait, List<String> acquired, Mono<Void> gate)
+    {
+        final Disposable subscription
+            = target.withFairSemaphore(
+                    semaphoreName, 1L, PERMIT_TIMEOUT, acquireWait,
+                    (identifier) -> {
+                        acquired.add(name);
+                        return gate.thenReturn(name);
+                    })
+                .subscribe(null, (exception) -> acquired.add(name + ":failed"));
+
+        this.subscriptions.add(subscription);
+
+        return subscription;
+    }
+
+    @Test
+    void releasedPermitsAreHandedOverInArrivalOrder() throws Exception
+    {
+        final String semaphoreName = nextSemaphoreName();
+        final SemaphorePermit holder = occupy(semaphoreName);
+
+        final List<String> acquired = new CopyOnWriteArrayList<>();
+
+        final Sinks.Empty<Void> firstDone  = Sinks.empty();
+        final Sinks.Empty<Void> secondDone = Sinks.empty();
+        final Sinks.Empty<Void> thirdDone  = Sinks.empty();
+
+        this.queue(semaphore, semaphoreName, "first", LONG_WAIT, acquired, firstDone.asMono());
+        await("first waiter queued", () -> waiters(semaphoreName) == 1L);
+
+        this.queue(semaphore, semaphoreName, "second", LONG_WAIT, acquired, secondDone.asMono());
+        await("second waiter queued", () -> waiters(semaphoreName) == 2L);
+
+        this.queue(semaphore, semaphoreName, "third", LONG_WAIT, acquired, thirdDone.asMono());
+        await("third waiter queued", () -> waiters(semaphoreName) == 3L);
+
+        // 新来的调用者不能越过排队的等待者
+        assertTrue(
+            semaphore.tryAcquire(semaphoreName, 1L, PERMIT_TIMEOUT)
+                .blockOptional()
+                .flatMap((permit) -> permit)
+                .isEmpty());
+
+        holder.release().block();
+        await("first waiter acquired", () -> acquired.size() == 1);
+
+        firstDone.tryEmitEmpty();
+        await("second waiter acquired", () -> acquired.size() == 2);
+
+        secondDone.tryEmitEmpty();
+        await("third waiter acquired", () -> acquired.size() == 3);
+
+        thirdDone.tryEmitEmpty();
+        await("last permit released", () -> holders(semaphoreName) == 0L);
+
+        assertEquals(List.of("first", "second", "third"), acquired);
+        assertNoWaiters(semaphoreName);
+    }
+
+    @Test
+    void waiterIsWokenThroughTheWakeChannel() throws Exception
+    {
+        final String semaphoreName = nextSemaphoreName();
+        final SemaphorePermit holder = occupy(semaphoreName);
+
+        final List<String> wakeMessages = new CopyOnWriteArrayList<>();
+
+        this.subscriptions.add(
+            listenerContainer
+                .receiveLater(ChannelTopic.of(semaphoreNameKey(semaphoreName) + ":wake"))
+                .flatMapMany((messages) -> messages)
+                .subscribe((message) -> wakeMessages.add(message.getMessage())));
+
+        final List<String> acquired = new CopyOnWriteArrayList<>();
+
+        this.queue(semaphore, semaphoreName, "waiter", LONG_WAIT, acquired, Mono.empty());
+        await("waiter queued", () -> waiters(semaphoreName) == 1L);
+
+        final long releasedAt = System.nanoTime();
+
+        holder.release().block();
+
+        // 最早的信号量要在 PERMIT_TIMEOUT 之后才超时，只有唤醒消息能让等待者这么快拿到信号量
+        await("waiter acquired", () -> acquired.size() == 1);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - releasedAt).compareTo(AWAIT_LIMIT) < 0);
+        assertEquals(List.of("waiter"), acquired);
+        assertEquals(1, wakeMessages.size());
+
+        await("waiter released", () -> holders(semaphoreName) == 0L);
+    }
+
+    @Test
+    void waiterLeavesTheQueueWhenAcquireWaitExpires() throws Exception
+    {
+        final String semaphoreName = nextSemaphoreName();
+        final SemaphorePermit holder = occupy(semaphoreName);
+
+        final List<String> acquired = new CopyOnWriteArrayList<>();
+
+        this.queue(semaphore, semaphoreName, "waiter", Duration.ofMillis(300L), acquired, Mono.empty());
+
+        await("waiter gave up", () -> acquired.size() == 1);
+
+        assertEquals(List.of("waiter:failed"), acquired);
+        assertNoWaiters(semaphoreName);
+
+        // 等待者已经离开，释放出来的信号量不会再转交给它
+        holder.release().block();
+
+        assertEquals(0L, holders(semaphoreName));
+        assertNoWaiters(semaphoreName);
+    }
+
+    @Test
+    void cancelledWaiterReleasesPermitsHandedOverBeforeItWasWoken() throws Exception
+    {
+        final String semaphoreName = nextSemaphoreName();
+        final SemaphorePermit holder = occupy(semaphoreName);
+
+        final AtomicBoolean actionRan = new AtomicBoolean(false);
+
+        final Disposable waiter
+            = unwakeableSemaphore.withFairSemaphore(
+                    semaphoreName, 1L, PERMIT_TIMEOUT, LONG_WAIT,
+                    (identifier) -> {
+                        actionRan.set(true);
+                        return Mono.never();
+                    })
+                .subscribe();
+
+        this.subscriptions.add(waiter);
+
+        await("waiter queued", () -> waiters(semaphoreName) == 1L);
+
+        // 信号量转交给了等待者，但它收不到唤醒消息，还在等最早的信号量超时
+        holder.release().block();
+
+        assertEquals(1L, holders(semaphoreName));
+        assertNoWaiters(semaphoreName);
+
+        waiter.dispose();
+
+        await("handed over permit released", () -> holders(semaphoreName) == 0L);
+
+        assertFalse(actionRan.get());
+        assertNoWaiters(semaphoreName);
+
+        // 信号量没有泄漏，新来的调用者可以立即获取
+        occupy(semaphoreName).release().block();
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheQueue() throws Exception
+    {
+        final String semaphoreName = nextSemaphoreName();
+        final SemaphorePermit holder = occupy(semaphoreName);
+
+        final List<String> acquired = new CopyOnWriteArrayList<>();
+
+        final Disposable waiter
+            = this.queue(semaphore, semaphoreName, "waiter", LONG_WAIT, acquired, Mono.empty());
+
+        await("waiter queued", () -> waiters(semaphoreName) == 1L);
+
+        waiter.dispose();
+
+        await("waiter left", () -> waiters(semaphoreName) == 0L);
+
+        holder.release().block();
+
+        assertEquals(0L, holders(semaphoreName));
+        assertTrue(acquired.isEmpty());
+    }
+}